@@ -0,0 +1,164 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.gouv.vitam.common.json.JsonHandler;
+
+/**
+ * Reproducible content of the benchmarks, the same from one run to another
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42L;
+
+    private BenchmarkData() {
+        // Empty
+    }
+
+    /**
+     * @param size the number of bytes
+     * @return random bytes
+     */
+    static byte[] randomBytes(int size) {
+        final byte[] bytes = new byte[size];
+        new Random(SEED).nextBytes(bytes);
+        return bytes;
+    }
+
+    /**
+     * @param size the number of bytes
+     * @return a temporary file of random bytes, deleted on exit
+     * @throws IOException if the file cannot be written
+     */
+    static File randomFile(int size) throws IOException {
+        final File file = File.createTempFile("benchmark", ".bin");
+        file.deleteOnExit();
+        Files.write(file.toPath(), randomBytes(size));
+        return file;
+    }
+
+    /**
+     * @param index the index of the unit
+     * @return an archive unit as in a SEDA manifest
+     */
+    static ObjectNode unit(int index) {
+        final ObjectNode unit = JsonHandler.createObjectNode();
+        unit.put("_id", "aeaqaaaaaaaaaaabaasdaakxocodoiyaaaa" + index);
+        unit.put("DescriptionLevel", "Item");
+        unit.put("Title", "Titre de l'unité archivistique " + index);
+        unit.put("Description", "Compte rendu de la séance du conseil municipal numéro " + index +
+            ", approuvé à l'unanimité des membres présents");
+        unit.put("StartDate", "2016-06-03T15:28:00");
+        unit.put("EndDate", "2016-06-03T18:28:00");
+        final ArrayNode keywords = unit.putArray("Keyword");
+        for (int i = 0; i < 3; i++) {
+            keywords.addObject().put("KeywordContent", "mot clé " + i).put("KeywordType", "subject");
+        }
+        unit.putArray("_up").add("aeaqaaaaaaaaaaabaasdaakxocodoiyaaaa" + index / 10);
+        return unit;
+    }
+
+    /**
+     * @param size the approximate number of bytes
+     * @return an array of archive units
+     */
+    static ArrayNode units(int size) {
+        final ArrayNode units = JsonHandler.createArrayNode();
+        int bytes = 0;
+        for (int i = 0; bytes < size; i++) {
+            final ObjectNode unit = unit(i);
+            units.add(unit);
+            bytes += JsonHandler.unprettyPrint(unit).length();
+        }
+        return units;
+    }
+
+    /**
+     * @param size the approximate number of bytes
+     * @return a temporary SEDA like manifest, deleted on exit
+     * @throws IOException if the file cannot be written
+     */
+    static File manifest(long size) throws IOException {
+        final File file = File.createTempFile("manifest", ".xml");
+        file.deleteOnExit();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<ArchiveTransfer xmlns=\"fr:gouv:culture:archivesdefrance:seda:v2.0\">\n");
+            writer.write("<DataObjectPackage><DescriptiveMetadata>\n");
+            for (int i = 0; file.length() < size; i++) {
+                writer.write("<ArchiveUnit id=\"ID" + i + "\"><Content>");
+                writer.write("<DescriptionLevel>Item</DescriptionLevel>");
+                writer.write("<Title>Titre de l&apos;unité archivistique " + i + "</Title>");
+                writer.write("<Description>Compte rendu de la séance du conseil municipal numéro " + i +
+                    ", approuvé à l&apos;unanimité des membres présents</Description>");
+                writer.write("<StartDate>2016-06-03T15:28:00</StartDate><EndDate>2016-06-03T18:28:00</EndDate>");
+                writer.write("</Content></ArchiveUnit>\n");
+                if (i % 100 == 0) {
+                    writer.flush();
+                }
+            }
+            writer.write("</DescriptiveMetadata></DataObjectPackage>\n</ArchiveTransfer>\n");
+        }
+        return file;
+    }
+
+    /**
+     * @param numberOfUnits the number of units
+     * @return a tree of units as built from a manifest, each unit having up to 3 parents among the previous ones
+     */
+    static ObjectNode unitTree(int numberOfUnits) {
+        final Random random = new Random(SEED);
+        final ObjectNode tree = JsonHandler.createObjectNode();
+        for (int i = 0; i < numberOfUnits; i++) {
+            final ObjectNode unit = tree.putObject("ID" + i);
+            if (i > 0 && random.nextInt(10) > 0) {
+                final Set<Integer> parents = new LinkedHashSet<>();
+                final int numberOfParents = 1 + random.nextInt(3);
+                for (int j = 0; j < numberOfParents; j++) {
+                    parents.add(random.nextInt(i));
+                }
+                final ArrayNode up = unit.putArray("_up");
+                for (final Integer parent : parents) {
+                    up.add("ID" + parent);
+                }
+            }
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.benchmarks;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+
+/**
+ * {@link Digest} of a content per {@link DigestType}, from memory, from a stream and from a FileChannel
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class DigestBenchmark {
+
+    /**
+     * Digest algorithm
+     */
+    @Param({"MD5", "SHA1", "SHA256", "SHA384", "SHA512"})
+    public DigestType digestType;
+
+    /**
+     * Size of the content in bytes
+     */
+    @Param({"65536", "16777216"})
+    public int size;
+
+    private byte[] content;
+
+    private File file;
+
+    /**
+     * Create the content
+     *
+     * @throws IOException if the file cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        content = BenchmarkData.randomBytes(size);
+        file = BenchmarkData.randomFile(size);
+    }
+
+    /**
+     * Delete the file
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        file.delete();
+    }
+
+    /**
+     * @param throughput the megabytes counter
+     * @return the digest
+     */
+    @Benchmark
+    public byte[] byteArray(Throughput throughput) {
+        final byte[] digest = new Digest(digestType).update(content).digest();
+        throughput.add(size);
+        return digest;
+    }
+
+    /**
+     * @param throughput the megabytes counter
+     * @return the digest
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public byte[] inputStream(Throughput throughput) throws IOException {
+        // The stream is closed by the digest
+        final byte[] digest = new Digest(digestType).update(new FileInputStream(file)).digest();
+        throughput.add(size);
+        return digest;
+    }
+
+    /**
+     * @param throughput the megabytes counter
+     * @return the digest
+     * @throws IOException if the file cannot be read
+     */
+    @Benchmark
+    public byte[] fileChannel(Throughput throughput) throws IOException {
+        try (FileInputStream inputStream = new FileInputStream(file);
+            FileChannel fileChannel = inputStream.getChannel()) {
+            final byte[] digest = new Digest(digestType).update(fileChannel).digest();
+            throughput.add(size);
+            return digest;
+        }
+    }
+}
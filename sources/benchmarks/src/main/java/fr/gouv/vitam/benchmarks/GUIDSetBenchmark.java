@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.guid.GUIDSet;
+
+/**
+ * {@link GUIDSet} against {@link HashSet} for the ids of a query Result: build, intersection and iteration (as when
+ * encoding a $in filter)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class GUIDSetBenchmark {
+
+    /**
+     * Number of ids of the Result
+     */
+    @Param({"1000", "100000"})
+    public int numberOfIds;
+
+    private List<String> ids;
+    private Set<String> hashSet;
+    private GUIDSet guidSet;
+
+    /**
+     * Create the ids and the sets to intersect with
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ids = new ArrayList<>(numberOfIds);
+        for (int i = 0; i < numberOfIds; i++) {
+            ids.add(GUIDFactory.newUnitGUID(0).getId());
+        }
+        hashSet = new HashSet<>(ids.subList(0, numberOfIds / 2));
+        guidSet = new GUIDSet(ids.subList(0, numberOfIds / 2));
+    }
+
+    /**
+     * @return the HashSet
+     */
+    @Benchmark
+    public Set<String> buildHashSet() {
+        return new HashSet<>(ids);
+    }
+
+    /**
+     * @return the GUIDSet
+     */
+    @Benchmark
+    public Set<String> buildGUIDSet() {
+        return new GUIDSet(ids);
+    }
+
+    /**
+     * @return the intersection
+     */
+    @Benchmark
+    public Set<String> retainAllHashSet() {
+        final Set<String> set = new HashSet<>(ids);
+        set.retainAll(hashSet);
+        return set;
+    }
+
+    /**
+     * @return the intersection
+     */
+    @Benchmark
+    public Set<String> retainAllGUIDSet() {
+        final Set<String> set = new GUIDSet(ids);
+        set.retainAll(guidSet);
+        return set;
+    }
+
+    /**
+     * @return the total length of the ids
+     */
+    @Benchmark
+    public long iterateGUIDSet() {
+        long length = 0;
+        for (final String id : guidSet) {
+            length += id.length();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
+
+/**
+ * {@link JsonHandler} parse and write of archive units, one unit or a batch of them
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class JsonHandlerBenchmark {
+
+    /**
+     * Approximate size in bytes: one unit, a batch of units
+     */
+    @Param({"512", "1048576"})
+    public int size;
+
+    private JsonNode json;
+
+    private String jsonString;
+
+    private byte[] jsonBytes;
+
+    /**
+     * Create the content
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        json = size <= 512 ? BenchmarkData.unit(0) : BenchmarkData.units(size);
+        jsonString = JsonHandler.unprettyPrint(json);
+        jsonBytes = jsonString.getBytes();
+    }
+
+    /**
+     * @return the parsed json
+     * @throws InvalidParseOperationException if the json cannot be parsed
+     */
+    @Benchmark
+    public JsonNode getFromString() throws InvalidParseOperationException {
+        return JsonHandler.getFromString(jsonString);
+    }
+
+    /**
+     * @return the parsed json
+     * @throws InvalidParseOperationException if the json cannot be parsed
+     */
+    @Benchmark
+    public JsonNode getFromBytes() throws InvalidParseOperationException {
+        return JsonHandler.getFromBytes(jsonBytes);
+    }
+
+    /**
+     * @return the written json
+     * @throws InvalidParseOperationException if the json cannot be written
+     */
+    @Benchmark
+    public String writeAsString() throws InvalidParseOperationException {
+        return JsonHandler.writeAsString(json);
+    }
+
+    /**
+     * @return the written json
+     */
+    @Benchmark
+    public String unprettyPrint() {
+        return JsonHandler.unprettyPrint(json);
+    }
+}
@@ -0,0 +1,116 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.google.common.io.Files;
+
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.security.merkletree.MerkleTree;
+import fr.gouv.vitam.common.security.merkletree.MerkleTreeAlgo;
+import fr.gouv.vitam.common.security.merkletree.StreamingMerkleTreeAlgo;
+
+/**
+ * Merkle tree of logbook operations as in the traceability, with {@link MerkleTreeAlgo} and
+ * {@link StreamingMerkleTreeAlgo}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class MerkleTreeBenchmark {
+
+    /**
+     * Number of leaves
+     */
+    @Param({"1000", "100000"})
+    public int numberOfLeaves;
+
+    private String[] leaves;
+
+    private File tmpFolder;
+
+    /**
+     * Create the leaves
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        leaves = new String[numberOfLeaves];
+        for (int i = 0; i < numberOfLeaves; i++) {
+            leaves[i] = JsonHandler.unprettyPrint(BenchmarkData.unit(i));
+        }
+        tmpFolder = Files.createTempDir();
+    }
+
+    /**
+     * Delete the temporary folder
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        tmpFolder.delete();
+    }
+
+    /**
+     * @return the tree
+     */
+    @Benchmark
+    public MerkleTree merkleTreeAlgo() {
+        final MerkleTreeAlgo merkleTreeAlgo = new MerkleTreeAlgo(DigestType.SHA512);
+        for (final String leaf : leaves) {
+            merkleTreeAlgo.addLeaf(leaf);
+        }
+        return merkleTreeAlgo.generateMerkle();
+    }
+
+    /**
+     * @return the root
+     * @throws IOException if the level files cannot be written
+     */
+    @Benchmark
+    public byte[] streamingMerkleTreeAlgo() throws IOException {
+        try (StreamingMerkleTreeAlgo merkleTreeAlgo = new StreamingMerkleTreeAlgo(DigestType.SHA512, tmpFolder)) {
+            for (final String leaf : leaves) {
+                merkleTreeAlgo.addLeaf(leaf);
+            }
+            return merkleTreeAlgo.generateMerkleRoot();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import fr.gouv.vitam.common.stream.MultipleInputStreamHandler;
+
+/**
+ * {@link MultipleInputStreamHandler} fan-out of one content to several readers, as when an object is stored on
+ * several offers
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MultipleInputStreamHandlerBenchmark {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    /**
+     * Number of readers
+     */
+    @Param({"1", "3"})
+    public int nbCopy;
+
+    /**
+     * Size of the content in bytes
+     */
+    @Param({"16777216"})
+    public int size;
+
+    private byte[] content;
+
+    private ExecutorService executor;
+
+    /**
+     * Create the content and the readers
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        content = BenchmarkData.randomBytes(size);
+        executor = Executors.newFixedThreadPool(nbCopy);
+    }
+
+    /**
+     * Stop the readers
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param throughput the megabytes counter, counting the content once
+     * @return the number of bytes read by all the readers
+     * @throws InterruptedException if interrupted while waiting for the readers
+     * @throws ExecutionException if a reader failed
+     */
+    @Benchmark
+    public long fanOut(Throughput throughput) throws InterruptedException, ExecutionException {
+        long read = 0;
+        try (MultipleInputStreamHandler handler =
+            new MultipleInputStreamHandler(new ByteArrayInputStream(content), nbCopy)) {
+            final List<Future<Long>> readers = new ArrayList<>(nbCopy);
+            for (int i = 0; i < nbCopy; i++) {
+                final InputStream inputStream = handler.getInputStream(i);
+                readers.add(executor.submit(() -> readFully(inputStream)));
+            }
+            for (final Future<Long> reader : readers) {
+                read += reader.get();
+            }
+        }
+        throughput.add(size);
+        return read;
+    }
+
+    private static long readFully(InputStream inputStream) throws IOException {
+        final byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) >= 0) {
+            total += read;
+        }
+        inputStream.close();
+        return total;
+    }
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.mongodb.MongoClient;
+
+import fr.gouv.vitam.common.database.builder.query.Query;
+import fr.gouv.vitam.common.database.parser.request.multiple.RequestParserMultiple;
+import fr.gouv.vitam.common.database.parser.request.multiple.SelectParserMultiple;
+import fr.gouv.vitam.common.database.translators.mongodb.QueryToMongodb;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
+
+/**
+ * DSL parsing with {@link RequestParserMultiple} and translation with {@link QueryToMongodb}, as for each access
+ * request
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class RequestParserBenchmark {
+
+    private static final String REQUEST = "{ $roots : [ 'id0' ], $query : [ " +
+        "{ $and : [ {$exists : 'Title'}, {$missing : 'Description'}, " +
+        "{ $or : [ {$in : { 'DescriptionLevel' : ['Item', 'File'] }}, {$nin : { 'Keyword' : ['a', 'b'] }} ] } ] }, " +
+        "{ $not : [ { $gt : { 'Version' : 7 } }, { $lte : { 'Size' : 8 } } ], $depth : 1 }, " +
+        "{ $and : [ { $eq : { 'OriginatingAgency' : 'FRAN' } }, " +
+        "{ $range : { 'StartDate' : { $gte : '2014-01-01', $lte : '2016-01-01' } } } ], $depth : 2 }, " +
+        "{ $regex : { 'Title' : '^compte rendu.*' }, $depth : -1 } ], " +
+        "$filter : { $offset : 100, $limit : 1000, $orderby : { 'StartDate' : 1, 'Title' : -1 } }, " +
+        "$projection : { $fields : { 'Title' : 1, 'Description' : 1 } } }";
+
+    private JsonNode request;
+
+    private SelectParserMultiple parser;
+
+    /**
+     * Parse the request once for the translation
+     *
+     * @throws InvalidParseOperationException if the request cannot be parsed
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws InvalidParseOperationException {
+        request = JsonHandler.getFromString(REQUEST);
+        parser = new SelectParserMultiple();
+        parser.parse(request);
+    }
+
+    /**
+     * @return the parser
+     * @throws InvalidParseOperationException if the request cannot be parsed
+     */
+    @Benchmark
+    public SelectParserMultiple parse() throws InvalidParseOperationException {
+        final SelectParserMultiple selectParser = new SelectParserMultiple();
+        selectParser.parse(request);
+        return selectParser;
+    }
+
+    /**
+     * @param blackhole consumer of the translated queries
+     * @throws InvalidParseOperationException if a query cannot be translated
+     */
+    @Benchmark
+    public void toMongodb(Blackhole blackhole) throws InvalidParseOperationException {
+        for (final Query query : parser.getRequest().getQueries()) {
+            final Bson command = QueryToMongodb.getCommand(query);
+            // Filters are lazy: render them as the driver does
+            blackhole.consume(command.toBsonDocument(BsonDocument.class, MongoClient.getDefaultCodecRegistry()));
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.security.SanityChecker;
+
+/**
+ * {@link SanityChecker} of a manifest and of json units, the megabytes checked per second being the main figure
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SanityCheckerBenchmark {
+
+    /**
+     * Approximate size of the content in bytes
+     */
+    @Param({"1048576", "16777216"})
+    public int size;
+
+    private File manifest;
+
+    private long manifestSize;
+
+    private JsonNode json;
+
+    private long jsonSize;
+
+    /**
+     * Create the content
+     *
+     * @throws IOException if the manifest cannot be written
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        manifest = BenchmarkData.manifest(size);
+        manifestSize = manifest.length();
+        // Json content is limited to 16 MB by the sanity checker
+        json = BenchmarkData.units(size / 2);
+        jsonSize = JsonHandler.unprettyPrint(json).length();
+    }
+
+    /**
+     * Delete the manifest
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        manifest.delete();
+    }
+
+    /**
+     * @param throughput the megabytes counter
+     * @throws InvalidParseOperationException if the manifest is not sane
+     * @throws IOException if the manifest cannot be read
+     */
+    @Benchmark
+    public void checkXmlAll(Throughput throughput) throws InvalidParseOperationException, IOException {
+        SanityChecker.checkXmlAll(manifest);
+        throughput.add(manifestSize);
+    }
+
+    /**
+     * @param throughput the megabytes counter
+     * @throws InvalidParseOperationException if the json is not sane
+     */
+    @Benchmark
+    public void checkJsonAll(Throughput throughput) throws InvalidParseOperationException {
+        SanityChecker.checkJsonAll(json);
+        throughput.add(jsonSize);
+    }
+}
@@ -72,15 +72,8 @@ public class QueryToElasticsearch {
      */
     public static QueryBuilder getRoots(final String field, final Set<String> roots)
         throws InvalidParseOperationException {
-        final String[] values = new String[roots.size()];
-        int i = 0;
-        for (final String node : roots) {
-            values[i++] = node;
-        }
         // NB: terms and not term since multiple values
-        return QueryBuilders.termsQuery(field, values);
-
-
+        return QueryBuilders.termsQuery(field, roots);
     }
 
     /**
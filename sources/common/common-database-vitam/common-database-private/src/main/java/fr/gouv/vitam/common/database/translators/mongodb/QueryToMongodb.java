@@ -88,12 +88,8 @@ public class QueryToMongodb {
         if (roots.size() == 1) {
             return eq(field, roots.iterator().next());
         }
-        final String[] values = new String[roots.size()];
-        int i = 0;
-        for (final String node : roots) {
-            values[i++] = node;
-        }
-        return in(field, values);
+        // The set is iterated only when the filter is encoded: no intermediate copy of the ids
+        return in(field, roots);
     }
 
     /**
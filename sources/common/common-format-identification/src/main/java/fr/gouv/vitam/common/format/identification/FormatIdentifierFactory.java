@@ -40,6 +40,7 @@ import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierFact
 import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierNotFoundException;
 import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierTechnicalException;
 import fr.gouv.vitam.common.format.identification.model.FormatIdentifierConfiguration;
+import fr.gouv.vitam.common.format.identification.pronom.FormatIdentifierPronom;
 import fr.gouv.vitam.common.format.identification.siegfried.FormatIdentifierSiegfried;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
@@ -165,6 +166,8 @@ public class FormatIdentifierFactory {
                 return new FormatIdentifierMock();
             case SIEGFRIED:
                 return new FormatIdentifierSiegfried(infos.getConfigurationProperties());
+            case PRONOM:
+                return new FormatIdentifierPronom(infos.getConfigurationProperties());
             default:
                 throw new FormatIdentifierFactoryException(
                     "Format Identifier Configuration implementation can't be found for id " + formatIdentifierId);
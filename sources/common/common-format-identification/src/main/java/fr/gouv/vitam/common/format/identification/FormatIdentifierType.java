@@ -37,5 +37,9 @@ public enum FormatIdentifierType {
     /**
      * SIEGFRIED
      */
-    SIEGFRIED
+    SIEGFRIED,
+    /**
+     * PRONOM signature file, in-process
+     */
+    PRONOM
 }
@@ -0,0 +1,440 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Compiled form of a PRONOM byte sequence expression.<br>
+ * <br>
+ * Supported syntax: hexadecimal bytes ("4D5A"), any byte ("??"), byte ranges and negations ("[30:39]", "[!00]"),
+ * alternatives ("(0D|0A|0D0A)") and gaps ("{4}", "{0-1024}", "{8-*}", "*").<br>
+ * <br>
+ * Matching is a backtracking search: each element tries its possible lengths and hands the remaining of the pattern
+ * over to a continuation, so gaps and alternatives of different lengths combine without any precomputed automaton.
+ * The (element, position) pairs that already failed are remembered, so that several gaps cannot explore the same
+ * positions again and again: the search stays polynomial in the length of the data.
+ */
+final class BytePattern {
+
+    private static final int BYTE_VALUES = 256;
+
+    private final List<Element> elements;
+
+    private BytePattern(List<Element> elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Compile a byte sequence expression
+     *
+     * @param expression the PRONOM expression
+     * @return the compiled pattern
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    static BytePattern compile(String expression) {
+        final Parser parser = new Parser(expression);
+        final BytePattern pattern = parser.parseSequence();
+        if (!parser.isEnd()) {
+            throw parser.error();
+        }
+        return pattern;
+    }
+
+    /**
+     * @param patterns the patterns to concatenate
+     * @return a pattern matching each given pattern one after the other
+     */
+    static BytePattern concat(List<BytePattern> patterns) {
+        final List<Element> all = new ArrayList<>();
+        for (final BytePattern pattern : patterns) {
+            all.addAll(pattern.elements);
+        }
+        return new BytePattern(merge(all));
+    }
+
+    /**
+     * @param min minimum number of bytes
+     * @param max maximum number of bytes, negative if unbounded
+     * @return a pattern skipping between min and max bytes
+     */
+    static BytePattern gap(int min, int max) {
+        return new BytePattern(Collections.singletonList(new Gap(min, max)));
+    }
+
+    /**
+     * @param choices the alternative patterns
+     * @return a pattern matching any of the given patterns
+     */
+    static BytePattern anyOf(List<BytePattern> choices) {
+        if (choices.size() == 1) {
+            return choices.get(0);
+        }
+        return new BytePattern(Collections.singletonList(new Alternatives(new ArrayList<>(choices))));
+    }
+
+    /**
+     * @return the same pattern read from right to left, used to match against a reversed end of file window
+     */
+    BytePattern reverse() {
+        final List<Element> reversed = new ArrayList<>(elements.size());
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            reversed.add(elements.get(i).reverse());
+        }
+        return new BytePattern(reversed);
+    }
+
+    /**
+     * @return the set of bytes this pattern may start with, or null if it may start with any byte
+     */
+    boolean[] firstBytes() {
+        if (elements.isEmpty()) {
+            return null;
+        }
+        return elements.get(0).firstBytes();
+    }
+
+    /**
+     * Match this pattern starting exactly at the given position
+     *
+     * @param data the bytes
+     * @param length the number of valid bytes in data
+     * @param position the start position
+     * @param next the continuation, called with the end position of each possible match
+     * @return true if a match was accepted by the continuation
+     */
+    boolean match(byte[] data, int length, int position, IntPredicate next) {
+        return match(data, length, position, 0, next, new BitSet());
+    }
+
+    /**
+     * @param failures the (index, position) pairs already tried without success, only valid for the same
+     *        continuation
+     */
+    private boolean match(byte[] data, int length, int position, int index, IntPredicate next, BitSet failures) {
+        if (index == elements.size()) {
+            return next.test(position);
+        }
+        final int key = index * (length + 1) + position;
+        if (failures.get(key)) {
+            return false;
+        }
+        if (elements.get(index).match(data, length, position,
+            end -> match(data, length, end, index + 1, next, failures))) {
+            return true;
+        }
+        failures.set(key);
+        return false;
+    }
+
+    /**
+     * Merge consecutive byte sets into one run so that literal sequences are checked without recursion, and drop
+     * empty gaps
+     */
+    private static List<Element> merge(List<Element> elements) {
+        final List<Element> merged = new ArrayList<>(elements.size());
+        List<boolean[]> pending = new ArrayList<>();
+        for (final Element element : elements) {
+            if (element instanceof Run) {
+                pending.addAll(((Run) element).bytes);
+            } else if (!(element instanceof Gap && ((Gap) element).max == 0)) {
+                if (!pending.isEmpty()) {
+                    merged.add(new Run(pending));
+                    pending = new ArrayList<>();
+                }
+                merged.add(element);
+            }
+        }
+        if (!pending.isEmpty()) {
+            merged.add(new Run(pending));
+        }
+        return merged;
+    }
+
+    private abstract static class Element {
+        abstract boolean match(byte[] data, int length, int position, IntPredicate next);
+
+        abstract Element reverse();
+
+        abstract boolean[] firstBytes();
+    }
+
+    /**
+     * A sequence of byte sets, each accepting exactly one byte
+     */
+    private static final class Run extends Element {
+        private final List<boolean[]> bytes;
+
+        Run(List<boolean[]> bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        boolean match(byte[] data, int length, int position, IntPredicate next) {
+            final int size = bytes.size();
+            if (position + size > length) {
+                return false;
+            }
+            for (int i = 0; i < size; i++) {
+                if (!bytes.get(i)[data[position + i] & 0xFF]) {
+                    return false;
+                }
+            }
+            return next.test(position + size);
+        }
+
+        @Override
+        Element reverse() {
+            final List<boolean[]> reversed = new ArrayList<>(bytes);
+            Collections.reverse(reversed);
+            return new Run(reversed);
+        }
+
+        @Override
+        boolean[] firstBytes() {
+            return bytes.get(0);
+        }
+    }
+
+    private static final class Gap extends Element {
+        private final int min;
+        private final int max;
+
+        Gap(int min, int max) {
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        boolean match(byte[] data, int length, int position, IntPredicate next) {
+            final int last = max < 0 ? length : Math.min(length, position + max);
+            for (int end = position + min; end <= last; end++) {
+                if (next.test(end)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Element reverse() {
+            return this;
+        }
+
+        @Override
+        boolean[] firstBytes() {
+            return null;
+        }
+    }
+
+    private static final class Alternatives extends Element {
+        private final List<BytePattern> choices;
+
+        Alternatives(List<BytePattern> choices) {
+            this.choices = choices;
+        }
+
+        @Override
+        boolean match(byte[] data, int length, int position, IntPredicate next) {
+            for (final BytePattern choice : choices) {
+                if (choice.match(data, length, position, next)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Element reverse() {
+            final List<BytePattern> reversed = new ArrayList<>(choices.size());
+            for (final BytePattern choice : choices) {
+                reversed.add(choice.reverse());
+            }
+            return new Alternatives(reversed);
+        }
+
+        @Override
+        boolean[] firstBytes() {
+            final boolean[] union = new boolean[BYTE_VALUES];
+            for (final BytePattern choice : choices) {
+                final boolean[] first = choice.firstBytes();
+                if (first == null) {
+                    return null;
+                }
+                for (int i = 0; i < BYTE_VALUES; i++) {
+                    union[i] |= first[i];
+                }
+            }
+            return union;
+        }
+    }
+
+    private static final class Parser {
+        private final String expression;
+        private int position;
+
+        Parser(String expression) {
+            this.expression = expression;
+        }
+
+        boolean isEnd() {
+            skipSpaces();
+            return position >= expression.length();
+        }
+
+        IllegalArgumentException error() {
+            return new IllegalArgumentException(
+                "Invalid byte sequence '" + expression + "' at position " + position);
+        }
+
+        BytePattern parseSequence() {
+            final List<Element> elements = new ArrayList<>();
+            while (!isEnd()) {
+                final char c = expression.charAt(position);
+                if (c == '|' || c == ')') {
+                    break;
+                }
+                elements.add(parseElement(c));
+            }
+            return new BytePattern(merge(elements));
+        }
+
+        private Element parseElement(char c) {
+            switch (c) {
+                case '?':
+                    expect("??");
+                    final boolean[] any = new boolean[BYTE_VALUES];
+                    Arrays.fill(any, true);
+                    return new Run(Collections.singletonList(any));
+                case '*':
+                    position++;
+                    return new Gap(0, -1);
+                case '{':
+                    return parseGap();
+                case '[':
+                    return parseRange();
+                case '(':
+                    return parseAlternatives();
+                default:
+                    final boolean[] single = new boolean[BYTE_VALUES];
+                    single[parseHexByte()] = true;
+                    return new Run(Collections.singletonList(single));
+            }
+        }
+
+        private Element parseGap() {
+            position++;
+            final int end = expression.indexOf('}', position);
+            if (end < 0) {
+                throw error();
+            }
+            final String content = expression.substring(position, end).trim();
+            position = end + 1;
+            try {
+                final int dash = content.indexOf('-');
+                if (dash < 0) {
+                    final int size = Integer.parseInt(content);
+                    return new Gap(size, size);
+                }
+                final int min = Integer.parseInt(content.substring(0, dash).trim());
+                final String maxValue = content.substring(dash + 1).trim();
+                return new Gap(min, "*".equals(maxValue) ? -1 : Integer.parseInt(maxValue));
+            } catch (final NumberFormatException e) {
+                throw error();
+            }
+        }
+
+        private Element parseRange() {
+            position++;
+            skipSpaces();
+            boolean negate = false;
+            if (position < expression.length() && expression.charAt(position) == '!') {
+                negate = true;
+                position++;
+            }
+            final int low = parseHexByte();
+            int high = low;
+            skipSpaces();
+            if (position < expression.length() && expression.charAt(position) == ':') {
+                position++;
+                high = parseHexByte();
+            }
+            skipSpaces();
+            expect("]");
+            final boolean[] accepted = new boolean[BYTE_VALUES];
+            for (int i = 0; i < BYTE_VALUES; i++) {
+                final boolean inRange = i >= Math.min(low, high) && i <= Math.max(low, high);
+                accepted[i] = inRange != negate;
+            }
+            return new Run(Collections.singletonList(accepted));
+        }
+
+        private Element parseAlternatives() {
+            position++;
+            final List<BytePattern> choices = new ArrayList<>();
+            choices.add(parseSequence());
+            while (position < expression.length() && expression.charAt(position) == '|') {
+                position++;
+                choices.add(parseSequence());
+            }
+            expect(")");
+            return new Alternatives(choices);
+        }
+
+        private int parseHexByte() {
+            skipSpaces();
+            if (position + 2 > expression.length()) {
+                throw error();
+            }
+            final int high = Character.digit(expression.charAt(position), 16);
+            final int low = Character.digit(expression.charAt(position + 1), 16);
+            if (high < 0 || low < 0) {
+                throw error();
+            }
+            position += 2;
+            return high << 4 | low;
+        }
+
+        private void expect(String token) {
+            if (!expression.startsWith(token, position)) {
+                throw error();
+            }
+            position += token.length();
+        }
+
+        private void skipSpaces() {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A byte sequence of an internal signature: an ordered list of sub sequences anchored to the beginning of the file,
+ * the end of the file or floating anywhere in the beginning of file window.<br>
+ * <br>
+ * The whole sequence, offsets included, is compiled into one {@link BytePattern}. End of file sequences are compiled
+ * reversed and matched against the reversed end of file window, so that all references share the same matcher.
+ */
+final class ByteSequence {
+
+    /**
+     * Reference of a byte sequence
+     */
+    enum Reference {
+        /**
+         * Offsets are relative to the beginning of the file
+         */
+        BOF,
+        /**
+         * Offsets are relative to the end of the file
+         */
+        EOF,
+        /**
+         * The sequence may be found anywhere (searched in the beginning of file window)
+         */
+        VARIABLE
+    }
+
+    private final Reference reference;
+    private final BytePattern pattern;
+
+    ByteSequence(Reference reference, List<BytePattern> subSequences) {
+        this.reference = reference;
+        pattern = BytePattern.concat(subSequences);
+    }
+
+    /**
+     * Build the pattern of one sub sequence, its offset from the previous sub sequence (or from the reference)
+     * included
+     *
+     * @param reference the reference of the enclosing byte sequence
+     * @param minOffset the minimum offset
+     * @param maxOffset the maximum offset, negative if none was given
+     * @param sequence the compiled main sequence, fragments included, in file order
+     * @return the sub sequence pattern, in matching order
+     */
+    static BytePattern subSequence(Reference reference, int minOffset, int maxOffset, BytePattern sequence) {
+        final int max;
+        if (reference == Reference.VARIABLE) {
+            max = maxOffset < 0 ? -1 : Math.max(minOffset, maxOffset);
+        } else {
+            max = Math.max(minOffset, maxOffset);
+        }
+        final List<BytePattern> parts = new ArrayList<>(2);
+        parts.add(BytePattern.gap(minOffset, max));
+        parts.add(reference == Reference.EOF ? sequence.reverse() : sequence);
+        return BytePattern.concat(parts);
+    }
+
+    /**
+     * @return the reference of this sequence
+     */
+    Reference getReference() {
+        return reference;
+    }
+
+    /**
+     * @return the bytes a file must start with to match this sequence, or null if there is no such constraint
+     */
+    boolean[] firstBytes() {
+        return reference == Reference.BOF ? pattern.firstBytes() : null;
+    }
+
+    /**
+     * @param windows the windows of the file to check
+     * @return true if the sequence is found
+     */
+    boolean matches(FileWindows windows) {
+        if (reference == Reference.EOF) {
+            return pattern.match(windows.getEof(), windows.getEof().length, 0, end -> true);
+        }
+        return pattern.match(windows.getBof(), windows.getBof().length, 0, end -> true);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The parts of a file read for signature matching: a window at the beginning of the file and a window at its end,
+ * the latter stored reversed. Only these windows are read, whatever the size of the file.
+ */
+final class FileWindows {
+
+    private final byte[] bof;
+    private final byte[] eof;
+
+    FileWindows(byte[] bof, byte[] eofReversed) {
+        this.bof = bof;
+        eof = eofReversed;
+    }
+
+    /**
+     * Read the windows of a file
+     *
+     * @param path the file
+     * @param maxBytes the maximum size of each window
+     * @return the windows
+     * @throws IOException if the file cannot be read
+     */
+    static FileWindows read(Path path, int maxBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            final byte[] bof = read(channel, 0, (int) Math.min(size, maxBytes));
+            final byte[] eof;
+            if (size <= maxBytes) {
+                eof = bof.clone();
+            } else {
+                eof = read(channel, size - maxBytes, maxBytes);
+            }
+            reverse(eof);
+            return new FileWindows(bof, eof);
+        }
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        if (buffer.hasRemaining()) {
+            // File truncated while reading
+            final byte[] read = new byte[buffer.position()];
+            System.arraycopy(buffer.array(), 0, read, 0, read.length);
+            return read;
+        }
+        return buffer.array();
+    }
+
+    private static void reverse(byte[] bytes) {
+        for (int i = 0, j = bytes.length - 1; i < j; i++, j--) {
+            final byte tmp = bytes[i];
+            bytes[i] = bytes[j];
+            bytes[j] = tmp;
+        }
+    }
+
+    /**
+     * @return the beginning of the file
+     */
+    byte[] getBof() {
+        return bof;
+    }
+
+    /**
+     * @return the end of the file, last byte first
+     */
+    byte[] getEof() {
+        return eof;
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.format.identification.FormatIdentifier;
+import fr.gouv.vitam.common.format.identification.exception.FileFormatNotFoundException;
+import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierBadRequestException;
+import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierTechnicalException;
+import fr.gouv.vitam.common.format.identification.model.FormatIdentifierInfo;
+import fr.gouv.vitam.common.format.identification.model.FormatIdentifierResponse;
+import fr.gouv.vitam.common.format.identification.siegfried.FormatIdentifierSiegfried;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+
+/**
+ * In-process implementation of format identifier, matching files against the internal signatures of a PRONOM
+ * (DROID) signature file.<br>
+ * <br>
+ * Unlike Siegfried, no external server is called: only a window at the beginning and at the end of the file are read
+ * and matched in memory. Formats without any internal signature are identified by the extension of the file.
+ */
+public class FormatIdentifierPronom implements FormatIdentifier {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(FormatIdentifierPronom.class);
+
+    /**
+     * Default size of the windows read at the beginning and the end of the file
+     */
+    public static final int DEFAULT_MAX_BYTES_TO_SCAN = 65536;
+    private static final String SOFTWARE_NAME = "Pronom";
+    private static final String DEFAULT_MIME_TYPE = "application/octet-stream";
+
+    private final PronomSignatureFile signatureFile;
+    private final int maxBytesToScan;
+
+    /**
+     * Configuration should come with the 'signatureFile' mandatory parameter, the path to a DROID signature file
+     * (searched as is, then in the configuration folder, then in the resources). The optional 'maxBytesToScan'
+     * parameter gives the size of the windows read at each end of the file.
+     *
+     * @param configurationProperties the configuration properties needed to instantiate the Pronom format identifier
+     * @throws FormatIdentifierTechnicalException if the signature file cannot be found or loaded
+     * @throws IllegalArgumentException if mandatory parameter are not given or null
+     */
+    public FormatIdentifierPronom(Map<String, Object> configurationProperties)
+        throws FormatIdentifierTechnicalException {
+        ParametersChecker.checkParameter("Signature file cannot be null", configurationProperties.get("signatureFile"));
+        final String signatureFilePath = (String) configurationProperties.get("signatureFile");
+        final Integer maxBytes = (Integer) configurationProperties.get("maxBytesToScan");
+        try {
+            signatureFile = PronomSignatureFile.getInstance(PropertiesUtils.findFile(signatureFilePath).toPath());
+        } catch (final FileNotFoundException e) {
+            throw new FormatIdentifierTechnicalException(e);
+        }
+        maxBytesToScan = maxBytes == null ? DEFAULT_MAX_BYTES_TO_SCAN : maxBytes;
+        ParametersChecker.checkValue("Max bytes to scan", maxBytesToScan, 1);
+    }
+
+    @Override
+    public FormatIdentifierInfo status() {
+        return new FormatIdentifierInfo(signatureFile.getVersion(), SOFTWARE_NAME);
+    }
+
+    @Override
+    public List<FormatIdentifierResponse> analysePath(Path path)
+        throws FileFormatNotFoundException, FormatIdentifierTechnicalException, FormatIdentifierBadRequestException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("identify format for " + path);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new FormatIdentifierBadRequestException("The given path is not link to an unique file");
+        }
+        final FileWindows windows;
+        try {
+            windows = FileWindows.read(path, maxBytesToScan);
+        } catch (final IOException e) {
+            throw new FormatIdentifierTechnicalException(e);
+        }
+
+        final List<FormatIdentifierResponse> matchesFormats = new ArrayList<>();
+        for (final PronomFileFormat format : signatureFile.identify(windows, extension(path))) {
+            final String mimeType = format.getMimeType() == null ? DEFAULT_MIME_TYPE : format.getMimeType();
+            matchesFormats.add(new FormatIdentifierResponse(format.getName(), mimeType, format.getPuid(),
+                FormatIdentifierSiegfried.PRONOM_NAMESPACE));
+        }
+        if (matchesFormats.isEmpty()) {
+            throw new FileFormatNotFoundException("File format not found for " + path);
+        }
+        return matchesFormats;
+    }
+
+    private static String extension(Path path) {
+        final String fileName = path.getFileName().toString();
+        final int dot = fileName.lastIndexOf('.');
+        if (dot < 0 || dot == fileName.length() - 1) {
+            return null;
+        }
+        return fileName.substring(dot + 1).toLowerCase(Locale.ENGLISH);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to do
+    }
+}
@@ -0,0 +1,81 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import java.util.List;
+
+/**
+ * An internal signature: a file matches when all of its byte sequences are found
+ */
+final class InternalSignature {
+
+    private final int id;
+    private final List<ByteSequence> byteSequences;
+    private final boolean[] firstBytes;
+
+    InternalSignature(int id, List<ByteSequence> byteSequences) {
+        this.id = id;
+        this.byteSequences = byteSequences;
+        boolean[] first = null;
+        for (final ByteSequence byteSequence : byteSequences) {
+            first = byteSequence.firstBytes();
+            if (first != null) {
+                break;
+            }
+        }
+        firstBytes = first;
+    }
+
+    /**
+     * @return the signature id
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * @return the bytes a file must start with to match this signature, or null if there is no such constraint
+     */
+    boolean[] getFirstBytes() {
+        return firstBytes;
+    }
+
+    /**
+     * @param windows the windows of the file to check
+     * @return true if all byte sequences are found, beginning of file ones being checked first
+     */
+    boolean matches(FileWindows windows) {
+        for (final ByteSequence.Reference reference : ByteSequence.Reference.values()) {
+            for (final ByteSequence byteSequence : byteSequences) {
+                if (byteSequence.getReference() == reference && !byteSequence.matches(windows)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
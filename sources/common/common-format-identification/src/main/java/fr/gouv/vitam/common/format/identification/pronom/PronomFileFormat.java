@@ -0,0 +1,121 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A file format of the signature file
+ */
+final class PronomFileFormat {
+
+    private final int id;
+    private final String puid;
+    private final String name;
+    private final String mimeType;
+    private final Set<Integer> signatureIds;
+    private final Set<String> extensions;
+    private final Set<Integer> priorityOver;
+
+    PronomFileFormat(int id, String puid, String name, String mimeType, Set<Integer> signatureIds,
+        Set<String> extensions, Set<Integer> priorityOver) {
+        this.id = id;
+        this.puid = puid;
+        this.name = name;
+        this.mimeType = mimeType;
+        this.signatureIds = signatureIds;
+        this.extensions = extensions;
+        this.priorityOver = priorityOver;
+    }
+
+    /**
+     * @return the format id, internal to the signature file
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * @return the PRONOM unique identifier
+     */
+    String getPuid() {
+        return puid;
+    }
+
+    /**
+     * @return the format name
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * @return the first mime type of the format, null if none
+     */
+    String getMimeType() {
+        return mimeType;
+    }
+
+    /**
+     * @return the ids of the internal signatures of this format
+     */
+    Set<Integer> getSignatureIds() {
+        return signatureIds;
+    }
+
+    /**
+     * @return the extensions of this format, lower case
+     */
+    Set<String> getExtensions() {
+        return extensions;
+    }
+
+    /**
+     * @return the ids of the formats this one has priority over
+     */
+    Set<Integer> getPriorityOver() {
+        return priorityOver;
+    }
+
+    /**
+     * Remove from the given formats the ones over which another given format has priority
+     *
+     * @param formats the matching formats, modified
+     */
+    static void applyPriorities(List<PronomFileFormat> formats) {
+        if (formats.size() < 2) {
+            return;
+        }
+        final Set<Integer> overridden = new HashSet<>();
+        for (final PronomFileFormat format : formats) {
+            overridden.addAll(format.getPriorityOver());
+        }
+        formats.removeIf(format -> overridden.contains(format.getId()));
+    }
+}
@@ -0,0 +1,359 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierTechnicalException;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+
+/**
+ * A loaded PRONOM (DROID) signature file.<br>
+ * <br>
+ * Signatures anchored at the beginning of the file are indexed by the byte they must start with, so that only the
+ * signatures compatible with the first byte of a file are tried, besides the unanchored ones.<br>
+ * <br>
+ * Loaded signature files are cached by path: they are immutable and parsing them is far more expensive than
+ * identifying a file.
+ */
+final class PronomSignatureFile {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(PronomSignatureFile.class);
+
+    private static final int BYTE_VALUES = 256;
+    private static final ConcurrentMap<Path, PronomSignatureFile> SIGNATURE_FILES = new ConcurrentHashMap<>();
+
+    private final String version;
+    private final List<PronomFileFormat> formats;
+    private final List<InternalSignature> unanchored = new ArrayList<>();
+    private final List<List<InternalSignature>> byFirstByte = new ArrayList<>(BYTE_VALUES);
+
+    PronomSignatureFile(String version, List<InternalSignature> signatures, List<PronomFileFormat> formats) {
+        this.version = version;
+        this.formats = formats;
+        for (int i = 0; i < BYTE_VALUES; i++) {
+            byFirstByte.add(new ArrayList<>());
+        }
+        for (final InternalSignature signature : signatures) {
+            final boolean[] firstBytes = signature.getFirstBytes();
+            if (firstBytes == null) {
+                unanchored.add(signature);
+            } else {
+                for (int i = 0; i < BYTE_VALUES; i++) {
+                    if (firstBytes[i]) {
+                        byFirstByte.get(i).add(signature);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the signature file loaded from the given path, loading it on first call
+     *
+     * @param path the signature file path
+     * @return the loaded signature file
+     * @throws FormatIdentifierTechnicalException if the file cannot be read or parsed
+     */
+    static PronomSignatureFile getInstance(Path path) throws FormatIdentifierTechnicalException {
+        final Path key = path.toAbsolutePath().normalize();
+        final PronomSignatureFile loaded = SIGNATURE_FILES.get(key);
+        if (loaded != null) {
+            return loaded;
+        }
+        final PronomSignatureFile signatureFile;
+        try (InputStream inputStream = Files.newInputStream(key)) {
+            signatureFile = parse(inputStream);
+        } catch (final IOException e) {
+            throw new FormatIdentifierTechnicalException("Cannot read signature file " + key, e);
+        }
+        LOGGER.info("Signature file {} version {} loaded with {} formats", key, signatureFile.getVersion(),
+            signatureFile.formats.size());
+        final PronomSignatureFile previous = SIGNATURE_FILES.putIfAbsent(key, signatureFile);
+        return previous == null ? signatureFile : previous;
+    }
+
+    /**
+     * @return the version of the signature file
+     */
+    String getVersion() {
+        return version;
+    }
+
+    /**
+     * Identify the formats of a file
+     *
+     * @param windows the windows of the file
+     * @param extension the lower case extension of the file, null if none
+     * @return the matching formats, empty if none
+     */
+    List<PronomFileFormat> identify(FileWindows windows, String extension) {
+        final Set<Integer> matchedSignatures = new HashSet<>();
+        match(unanchored, windows, matchedSignatures);
+        if (windows.getBof().length > 0) {
+            match(byFirstByte.get(windows.getBof()[0] & 0xFF), windows, matchedSignatures);
+        }
+        final List<PronomFileFormat> matches = new ArrayList<>();
+        if (!matchedSignatures.isEmpty()) {
+            for (final PronomFileFormat format : formats) {
+                if (!Collections.disjoint(format.getSignatureIds(), matchedSignatures)) {
+                    matches.add(format);
+                }
+            }
+            PronomFileFormat.applyPriorities(matches);
+        }
+        if (matches.isEmpty() && extension != null) {
+            // Formats without any internal signature can only be recognized by their extension
+            for (final PronomFileFormat format : formats) {
+                if (format.getSignatureIds().isEmpty() && format.getExtensions().contains(extension)) {
+                    matches.add(format);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static void match(List<InternalSignature> signatures, FileWindows windows, Set<Integer> matched) {
+        for (final InternalSignature signature : signatures) {
+            if (!matched.contains(signature.getId()) && signature.matches(windows)) {
+                matched.add(signature.getId());
+            }
+        }
+    }
+
+    /**
+     * Parse a signature file
+     *
+     * @param inputStream the signature file content
+     * @return the loaded signature file
+     * @throws FormatIdentifierTechnicalException if the content is not a valid signature file
+     */
+    static PronomSignatureFile parse(InputStream inputStream) throws FormatIdentifierTechnicalException {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader reader = null;
+        try {
+            reader = factory.createXMLStreamReader(inputStream);
+            return new Parser(reader).parse();
+        } catch (final XMLStreamException | IllegalArgumentException e) {
+            throw new FormatIdentifierTechnicalException("Invalid signature file", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (final XMLStreamException e) {
+                    LOGGER.warn(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * StAX parser of the signature file, keeping only what is needed for identification
+     */
+    private static final class Parser {
+        private final XMLStreamReader reader;
+
+        private String version = "";
+        private final List<InternalSignature> signatures = new ArrayList<>();
+        private final List<PronomFileFormat> formats = new ArrayList<>();
+
+        private int signatureId;
+        private List<ByteSequence> byteSequences;
+        private ByteSequence.Reference reference;
+        private Map<Integer, BytePattern> subSequences;
+        private int subSequencePosition;
+        private int subSequenceMinOffset;
+        private int subSequenceMaxOffset;
+        private BytePattern sequence;
+        private Map<Integer, List<BytePattern>> leftFragments;
+        private Map<Integer, List<BytePattern>> rightFragments;
+
+        private int formatId;
+        private String puid;
+        private String name;
+        private String mimeType;
+        private Set<Integer> signatureIds;
+        private Set<String> extensions;
+        private Set<Integer> priorityOver;
+
+        Parser(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        PronomSignatureFile parse() throws XMLStreamException {
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    startElement(reader.getLocalName());
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    endElement(reader.getLocalName());
+                }
+            }
+            return new PronomSignatureFile(version, signatures, formats);
+        }
+
+        private void startElement(String element) throws XMLStreamException {
+            switch (element) {
+                case "FFSignatureFile":
+                    version = attribute("Version", "");
+                    break;
+                case "InternalSignature":
+                    signatureId = intAttribute("ID", -1);
+                    byteSequences = new ArrayList<>();
+                    break;
+                case "ByteSequence":
+                    reference = reference(attribute("Reference", ""));
+                    subSequences = new TreeMap<>();
+                    break;
+                case "SubSequence":
+                    subSequencePosition = intAttribute("Position", subSequences.size() + 1);
+                    subSequenceMinOffset = intAttribute("SubSeqMinOffset", 0);
+                    subSequenceMaxOffset = intAttribute("SubSeqMaxOffset", -1);
+                    sequence = null;
+                    leftFragments = new TreeMap<>(Collections.reverseOrder());
+                    rightFragments = new TreeMap<>();
+                    break;
+                case "Sequence":
+                    sequence = BytePattern.compile(reader.getElementText());
+                    break;
+                case "LeftFragment":
+                case "RightFragment":
+                    fragment("LeftFragment".equals(element));
+                    break;
+                case "FileFormat":
+                    formatId = intAttribute("ID", -1);
+                    puid = attribute("PUID", "");
+                    name = attribute("Name", "");
+                    final String mimeTypes = attribute("MIMEType", "").trim();
+                    mimeType = mimeTypes.isEmpty() ? null : mimeTypes.split(",")[0].trim();
+                    signatureIds = new HashSet<>();
+                    extensions = new HashSet<>();
+                    priorityOver = new HashSet<>();
+                    break;
+                case "InternalSignatureID":
+                    signatureIds.add(Integer.valueOf(reader.getElementText().trim()));
+                    break;
+                case "Extension":
+                    extensions.add(reader.getElementText().trim().toLowerCase(Locale.ENGLISH));
+                    break;
+                case "HasPriorityOverFileFormatID":
+                    priorityOver.add(Integer.valueOf(reader.getElementText().trim()));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void endElement(String element) {
+            switch (element) {
+                case "SubSequence":
+                    if (sequence == null) {
+                        throw new IllegalArgumentException("No sequence in sub sequence of signature " + signatureId);
+                    }
+                    final List<BytePattern> parts = new ArrayList<>();
+                    for (final List<BytePattern> fragments : leftFragments.values()) {
+                        parts.add(BytePattern.anyOf(fragments));
+                    }
+                    parts.add(sequence);
+                    for (final List<BytePattern> fragments : rightFragments.values()) {
+                        parts.add(BytePattern.anyOf(fragments));
+                    }
+                    subSequences.put(subSequencePosition, ByteSequence.subSequence(reference,
+                        subSequenceMinOffset, subSequenceMaxOffset, BytePattern.concat(parts)));
+                    break;
+                case "ByteSequence":
+                    byteSequences.add(new ByteSequence(reference, new ArrayList<>(subSequences.values())));
+                    break;
+                case "InternalSignature":
+                    signatures.add(new InternalSignature(signatureId, byteSequences));
+                    break;
+                case "FileFormat":
+                    formats.add(new PronomFileFormat(formatId, puid, name, mimeType, signatureIds, extensions,
+                        priorityOver));
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * A fragment and the gap separating it from the sequence, in file order
+         */
+        private void fragment(boolean left) throws XMLStreamException {
+            final int position = intAttribute("Position", 1);
+            final int minOffset = intAttribute("MinOffset", 0);
+            final int maxOffset = Math.max(minOffset, intAttribute("MaxOffset", minOffset));
+            final BytePattern fragment = BytePattern.compile(reader.getElementText());
+            final BytePattern gap = BytePattern.gap(minOffset, maxOffset);
+            final Map<Integer, List<BytePattern>> fragments = left ? leftFragments : rightFragments;
+            fragments.computeIfAbsent(position, key -> new ArrayList<>())
+                .add(BytePattern.concat(left ? Arrays.asList(fragment, gap) : Arrays.asList(gap, fragment)));
+        }
+
+        private static ByteSequence.Reference reference(String value) {
+            switch (value) {
+                case "BOFoffset":
+                    return ByteSequence.Reference.BOF;
+                case "EOFoffset":
+                    return ByteSequence.Reference.EOF;
+                default:
+                    return ByteSequence.Reference.VARIABLE;
+            }
+        }
+
+        private String attribute(String attribute, String defaultValue) {
+            final String value = reader.getAttributeValue(null, attribute);
+            return value == null ? defaultValue : value;
+        }
+
+        private int intAttribute(String attribute, int defaultValue) {
+            final String value = reader.getAttributeValue(null, attribute);
+            return value == null || value.trim().isEmpty() ? defaultValue : Integer.parseInt(value.trim());
+        }
+    }
+}
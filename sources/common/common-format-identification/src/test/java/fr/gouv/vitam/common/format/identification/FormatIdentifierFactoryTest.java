@@ -11,6 +11,7 @@ import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierFact
 import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierNotFoundException;
 import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierTechnicalException;
 import fr.gouv.vitam.common.format.identification.model.FormatIdentifierConfiguration;
+import fr.gouv.vitam.common.format.identification.pronom.FormatIdentifierPronom;
 import fr.gouv.vitam.common.format.identification.siegfried.FormatIdentifierSiegfried;
 
 public class FormatIdentifierFactoryTest {
@@ -48,6 +49,15 @@ public class FormatIdentifierFactoryTest {
             fail(SHOULD_NOT_RAIZED_AN_EXCEPTION);
         }
 
+        try {
+            final FormatIdentifier testPronom =
+                FormatIdentifierFactory.getInstance().getFormatIdentifierFor("test-pronom");
+            assertNotNull(testPronom);
+            assertTrue(testPronom instanceof FormatIdentifierPronom);
+        } catch (final VitamException e3) {
+            fail(SHOULD_NOT_RAIZED_AN_EXCEPTION);
+        }
+
         try {
             final FormatIdentifier test2 = FormatIdentifierFactory.getInstance().getFormatIdentifierFor("test2");
             assertNotNull(test2);
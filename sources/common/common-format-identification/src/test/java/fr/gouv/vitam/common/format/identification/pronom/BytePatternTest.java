@@ -0,0 +1,128 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class BytePatternTest {
+
+    private static boolean matches(String expression, String data) {
+        final byte[] bytes = data.getBytes(StandardCharsets.ISO_8859_1);
+        return BytePattern.compile(expression).match(bytes, bytes.length, 0, end -> true);
+    }
+
+    private static boolean matchesReversed(String expression, String data) {
+        final byte[] bytes = new StringBuilder(data).reverse().toString().getBytes(StandardCharsets.ISO_8859_1);
+        return BytePattern.compile(expression).reverse().match(bytes, bytes.length, 0, end -> true);
+    }
+
+    @Test
+    public void testLiteralAndAnyByte() {
+        assertTrue(matches("414243", "ABCD"));
+        assertTrue(matches("41 ?? 43", "AxC"));
+        assertFalse(matches("414243", "ABD"));
+        assertFalse(matches("414243", "AB"));
+    }
+
+    @Test
+    public void testRanges() {
+        assertTrue(matches("41[30:39]", "A5"));
+        assertFalse(matches("41[30:39]", "AZ"));
+        assertTrue(matches("41[!30]", "A1"));
+        assertFalse(matches("41[!30]", "A0"));
+    }
+
+    @Test
+    public void testAlternatives() {
+        assertTrue(matches("41(42|4343)44", "ABD"));
+        assertTrue(matches("41(42|4343)44", "ACCD"));
+        assertFalse(matches("41(42|4343)44", "ACD"));
+    }
+
+    @Test
+    public void testGaps() {
+        assertTrue(matches("41{2}44", "AxxD"));
+        assertFalse(matches("41{2}44", "AxD"));
+        assertTrue(matches("41{0-3}44", "AD"));
+        assertTrue(matches("41{0-3}44", "AxxxD"));
+        assertFalse(matches("41{0-3}44", "AxxxxD"));
+        assertTrue(matches("41{2-*}44", "AxxxxxxxxD"));
+        assertTrue(matches("41*44", "AxxxxxxxxD"));
+        // Backtracking over the gap
+        assertTrue(matches("41{0-4}4244", "ABxBD"));
+    }
+
+    @Test(timeout = 10000)
+    public void testGapsWorstCase() {
+        // Without memoization, each gap would try again every position for every position of the previous gaps
+        final StringBuilder data = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            data.append("ABCD");
+        }
+        assertFalse(matches("41*42*43*44*45", data.toString()));
+        assertFalse(matches("41{0-*}42{0-*}43{0-*}44{0-*}45", data.toString()));
+        assertFalse(matches("41*(42*43|44*43)*44*45", data.toString()));
+        assertTrue(matches("41*42*43*44*45", data.append('E').toString()));
+        assertTrue(matchesReversed("41*42*43*44*45", data.toString()));
+    }
+
+    @Test
+    public void testReverse() {
+        assertTrue(matchesReversed("41(42|4343){1}44", "ACCxD"));
+        assertFalse(matchesReversed("414243", "ABCD"));
+        assertTrue(matchesReversed("414243", "xABC"));
+    }
+
+    @Test
+    public void testFirstBytes() {
+        assertTrue(BytePattern.compile("(41|42)43").firstBytes()[0x42]);
+        assertFalse(BytePattern.compile("(41|42)43").firstBytes()[0x43]);
+        assertNull(BytePattern.compile("{2}41").firstBytes());
+        assertNull(BytePattern.compile("(41|{1}42)").firstBytes());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidHex() {
+        BytePattern.compile("4G");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnclosedAlternative() {
+        BytePattern.compile("(41|42");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidGap() {
+        BytePattern.compile("41{a}");
+    }
+}
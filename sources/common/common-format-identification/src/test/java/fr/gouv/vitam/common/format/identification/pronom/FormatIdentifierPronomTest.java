@@ -0,0 +1,198 @@
+/**
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ * <p>
+ * contact.vitam@culture.gouv.fr
+ * <p>
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ * <p>
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ * <p>
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ * <p>
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ * <p>
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ */
+package fr.gouv.vitam.common.format.identification.pronom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.format.identification.exception.FileFormatNotFoundException;
+import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierBadRequestException;
+import fr.gouv.vitam.common.format.identification.exception.FormatIdentifierTechnicalException;
+import fr.gouv.vitam.common.format.identification.model.FormatIdentifierInfo;
+import fr.gouv.vitam.common.format.identification.model.FormatIdentifierResponse;
+
+public class FormatIdentifierPronomTest {
+
+    private static final String SIGNATURE_FILE = "pronom-signatures-test.xml";
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A};
+    private static final byte[] PNG_END = {'I', 'E', 'N', 'D', (byte) 0xAE, 0x42, 0x60, (byte) 0x82};
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private static FormatIdentifierPronom pronom;
+
+    @BeforeClass
+    public static void initStatic() throws Exception {
+        pronom = new FormatIdentifierPronom(configuration(SIGNATURE_FILE, null));
+    }
+
+    private static Map<String, Object> configuration(String signatureFile, Integer maxBytesToScan) {
+        final Map<String, Object> configuration = new HashMap<>();
+        configuration.put("signatureFile", signatureFile);
+        if (maxBytesToScan != null) {
+            configuration.put("maxBytesToScan", maxBytesToScan);
+        }
+        return configuration;
+    }
+
+    private File createFile(String name, byte[]... parts) throws Exception {
+        final File file = tempFolder.newFile(name);
+        for (final byte[] part : parts) {
+            Files.write(file.toPath(), part, StandardOpenOption.APPEND);
+        }
+        return file;
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String identify(FormatIdentifierPronom identifier, File file) throws Exception {
+        final List<FormatIdentifierResponse> responses = identifier.analysePath(file.toPath());
+        assertEquals(1, responses.size());
+        assertEquals("pronom", responses.get(0).getMatchedNamespace());
+        return responses.get(0).getPuid();
+    }
+
+    @Test
+    public void testStatus() {
+        final FormatIdentifierInfo infos = pronom.status();
+        assertEquals("88", infos.getVersion());
+        assertEquals("Pronom", infos.getSoftwareName());
+    }
+
+    @Test
+    public void testIdentifyBeginningOfFile() throws Exception {
+        final File gif = createFile("image", ascii("GIF87a"), new byte[100]);
+        final List<FormatIdentifierResponse> responses = pronom.analysePath(gif.toPath());
+        assertEquals(1, responses.size());
+        assertEquals("fmt/3", responses.get(0).getPuid());
+        assertEquals("image/gif", responses.get(0).getMimetype());
+        assertEquals("Graphics Interchange Format", responses.get(0).getFormatLiteral());
+    }
+
+    @Test
+    public void testIdentifyWithEndOfFileAndPriority() throws Exception {
+        final File pdf = createFile("doc.pdf", ascii("%PDF-1.4\n"), new byte[200], ascii("%%EOF\n"));
+        final List<FormatIdentifierResponse> responses = pronom.analysePath(pdf.toPath());
+        assertEquals(1, responses.size());
+        assertEquals("fmt/18", responses.get(0).getPuid());
+        assertEquals("application/pdf", responses.get(0).getMimetype());
+
+        // Without end of file marker, only the generic signature matches
+        final File truncated = createFile("truncated.pdf", ascii("%PDF-1.4\n"), new byte[200]);
+        assertEquals("fmt/17", identify(pronom, truncated));
+
+        final File pdf13 = createFile("doc13.pdf", ascii("%PDF-1.3\n"), ascii("%%EOF"));
+        assertEquals("fmt/17", identify(pronom, pdf13));
+    }
+
+    @Test
+    public void testIdentifyWithWindows() throws Exception {
+        final File png = createFile("image.png", PNG_HEADER, new byte[5000], PNG_END);
+        assertEquals("fmt/11", identify(pronom, png));
+
+        // End of the PNG file out of the beginning of file window
+        final FormatIdentifierPronom smallWindow =
+            new FormatIdentifierPronom(configuration(SIGNATURE_FILE, 1024));
+        try {
+            smallWindow.analysePath(png.toPath());
+            fail("Should raise an exception");
+        } catch (final FileFormatNotFoundException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testIdentifyByExtension() throws Exception {
+        final File text = createFile("readme.TXT", ascii("hello"));
+        final List<FormatIdentifierResponse> responses = pronom.analysePath(text.toPath());
+        assertEquals(1, responses.size());
+        assertEquals("x-fmt/111", responses.get(0).getPuid());
+        assertEquals("application/octet-stream", responses.get(0).getMimetype());
+    }
+
+    @Test(expected = FileFormatNotFoundException.class)
+    public void testUnknownFormat() throws Exception {
+        final File unknown = createFile("unknown.bin", ascii("GIF89a"), new byte[10]);
+        pronom.analysePath(unknown.toPath());
+    }
+
+    @Test(expected = FileFormatNotFoundException.class)
+    public void testEmptyFile() throws Exception {
+        pronom.analysePath(createFile("empty").toPath());
+    }
+
+    @Test(expected = FormatIdentifierBadRequestException.class)
+    public void testNotAFile() throws Exception {
+        pronom.analysePath(tempFolder.newFolder().toPath());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMissingSignatureFile() throws Exception {
+        new FormatIdentifierPronom(new HashMap<>());
+    }
+
+    @Test(expected = FormatIdentifierTechnicalException.class)
+    public void testSignatureFileNotFound() throws Exception {
+        new FormatIdentifierPronom(configuration("does-not-exist.xml", null));
+    }
+
+    @Test(expected = FormatIdentifierTechnicalException.class)
+    public void testInvalidSignatureFile() throws Exception {
+        final File invalid = createFile("invalid.xml",
+            ascii("<FFSignatureFile><InternalSignature ID=\"1\"><ByteSequence Reference=\"BOFoffset\">"),
+            ascii("<SubSequence Position=\"1\"><Sequence>4G</Sequence></SubSequence>"),
+            ascii("</ByteSequence></InternalSignature></FFSignatureFile>"));
+        PronomSignatureFile.getInstance(invalid.toPath());
+    }
+
+    @Test
+    public void testSignatureFileIsCached() throws Exception {
+        final Path signatures = PropertiesUtils.getResourcePath(SIGNATURE_FILE);
+        final PronomSignatureFile first = PronomSignatureFile.getInstance(signatures);
+        assertSame(first, PronomSignatureFile.getInstance(signatures));
+        assertEquals("88", first.getVersion());
+    }
+}
@@ -110,8 +110,9 @@ public class VitamRequestIterator implements VitamAutoCloseable, Iterator<JsonNo
         }
         Response response = null;
         try {
-            headers.add(GlobalDataRest.X_CURSOR, false);
-            headers.add(GlobalDataRest.X_CURSOR_ID, xCursorId);
+            // Replace the values of the previous requests, else the server would still see an active cursor
+            headers.putSingle(GlobalDataRest.X_CURSOR, false);
+            headers.putSingle(GlobalDataRest.X_CURSOR_ID, xCursorId);
             response =
                 ((AbstractCommonClient) client).performRequest(method, path, headers, MediaType.APPLICATION_JSON_TYPE);
         } catch (final VitamClientInternalException e) {
@@ -0,0 +1,455 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.guid;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Compact Set of ids, storing the GUIDs in their binary form (22 bytes as 3 longs) in an open addressing table
+ * instead of their 36 characters Base32 String form. <br>
+ * <br>
+ * Any id which is not a GUID in its canonical Base32 form is kept as is in a standard Set, such that this Set can be
+ * used for any ids. <br>
+ * <br>
+ * The Base32 String of a GUID is only created when iterating, one at a time, such that passing this Set to a MongoDB
+ * filter (as an Iterable) or to an ElasticSearch terms query does not need an intermediate array of Strings. <br>
+ * <br>
+ * This Set is not thread safe.
+ */
+public final class GUIDSet extends AbstractSet<String> {
+    private static final String BASE32_ALPHABET = "abcdefghijklmnopqrstuvwxyz234567";
+    private static final byte[] BASE32_DECODE = new byte[128];
+    /**
+     * Number of longs per GUID: 8 + 8 + 6 bytes
+     */
+    private static final int WORDS = 3;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 29;
+    private static final long MIX = 0x9E3779B97F4A7C15L;
+
+    static {
+        Arrays.fill(BASE32_DECODE, (byte) -1);
+        for (int i = 0; i < BASE32_ALPHABET.length(); i++) {
+            BASE32_DECODE[BASE32_ALPHABET.charAt(i)] = (byte) i;
+        }
+    }
+
+    /**
+     * Slots of 3 longs. As the first byte of a GUID (version) is never 0, a slot with a first long at 0 is free: empty
+     * if its second long is 0, deleted if it is 1.
+     */
+    private long[] keys;
+    private int capacity;
+    private int size;
+    private int used;
+    private int modCount;
+    private Set<String> others;
+
+    /**
+     * Create an empty GUIDSet
+     */
+    public GUIDSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create an empty GUIDSet
+     *
+     * @param expectedSize the expected number of ids
+     */
+    public GUIDSet(int expectedSize) {
+        capacity = tableSizeFor(expectedSize);
+        keys = new long[capacity * WORDS];
+    }
+
+    /**
+     * Create a GUIDSet from a collection of ids
+     *
+     * @param collection
+     */
+    public GUIDSet(Collection<String> collection) {
+        this(collection.size());
+        addAll(collection);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int tableSize = DEFAULT_CAPACITY;
+        while (tableSize < MAX_CAPACITY && (long) tableSize * 3 <= (long) expectedSize * 4) {
+            tableSize <<= 1;
+        }
+        return tableSize;
+    }
+
+    private static int hash(long w0, long w1, long w2) {
+        long h = (w0 * MIX + w1) * MIX + w2;
+        h *= MIX;
+        return (int) (h ^ h >>> 32);
+    }
+
+    /**
+     * Decode a GUID in its canonical Base32 form
+     *
+     * @param id
+     * @param words where to store the 3 longs
+     * @return True if the id is a GUID in its canonical Base32 form
+     */
+    private static boolean decode(String id, long[] words) {
+        if (id.length() != GUIDImpl.KEYB32SIZE) {
+            return false;
+        }
+        long acc = 0;
+        int bits = 0;
+        int nbytes = 0;
+        for (int i = 0; i < GUIDImpl.KEYB32SIZE; i++) {
+            final char c = id.charAt(i);
+            final int value = c < BASE32_DECODE.length ? BASE32_DECODE[c] : -1;
+            if (value < 0) {
+                return false;
+            }
+            acc = acc << 5 | value;
+            bits += 5;
+            if (bits >= GUIDImpl.BYTE_SIZE) {
+                bits -= GUIDImpl.BYTE_SIZE;
+                final int word = nbytes >> 3;
+                words[word] = words[word] << GUIDImpl.BYTE_SIZE | acc >>> bits & 0xFF;
+                nbytes++;
+            }
+        }
+        // Trailing bits must be 0 in canonical form
+        return (acc & (1 << bits) - 1) == 0 && words[0] != 0;
+    }
+
+    private static int byteAt(long w0, long w1, long w2, int index) {
+        if (index < 8) {
+            return (int) (w0 >>> 56 - 8 * index) & 0xFF;
+        } else if (index < 16) {
+            return (int) (w1 >>> 56 - 8 * (index - 8)) & 0xFF;
+        }
+        return (int) (w2 >>> 40 - 8 * (index - 16)) & 0xFF;
+    }
+
+    /**
+     * Encode a GUID in its canonical Base32 form
+     *
+     * @return the Base32 form
+     */
+    private static String encode(long w0, long w1, long w2) {
+        final char[] chars = new char[GUIDImpl.KEYB32SIZE];
+        int pos = 0;
+        long acc = 0;
+        int bits = 0;
+        for (int i = 0; i < GUIDImpl.KEYSIZE; i++) {
+            acc = acc << GUIDImpl.BYTE_SIZE | byteAt(w0, w1, w2, i);
+            bits += GUIDImpl.BYTE_SIZE;
+            while (bits >= 5) {
+                bits -= 5;
+                chars[pos++] = BASE32_ALPHABET.charAt((int) (acc >>> bits) & 0x1F);
+            }
+        }
+        if (bits > 0) {
+            chars[pos] = BASE32_ALPHABET.charAt((int) (acc << 5 - bits) & 0x1F);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @param slot
+     * @return True if the slot contains a GUID
+     */
+    private boolean isUsed(int slot) {
+        return keys[slot * WORDS] != 0;
+    }
+
+    private int indexOf(long w0, long w1, long w2) {
+        final int mask = capacity - 1;
+        int slot = hash(w0, w1, w2) & mask;
+        while (true) {
+            final int pos = slot * WORDS;
+            final long k0 = keys[pos];
+            if (k0 == 0) {
+                if (keys[pos + 1] == 0) {
+                    return -1;
+                }
+            } else if (k0 == w0 && keys[pos + 1] == w1 && keys[pos + 2] == w2) {
+                return slot;
+            }
+            slot = slot + 1 & mask;
+        }
+    }
+
+    private boolean add(long w0, long w1, long w2) {
+        final int mask = capacity - 1;
+        int slot = hash(w0, w1, w2) & mask;
+        int deleted = -1;
+        while (true) {
+            final int pos = slot * WORDS;
+            final long k0 = keys[pos];
+            if (k0 == 0) {
+                if (keys[pos + 1] == 0) {
+                    break;
+                }
+                if (deleted < 0) {
+                    deleted = slot;
+                }
+            } else if (k0 == w0 && keys[pos + 1] == w1 && keys[pos + 2] == w2) {
+                return false;
+            }
+            slot = slot + 1 & mask;
+        }
+        if (deleted >= 0) {
+            slot = deleted;
+        } else {
+            used++;
+        }
+        final int pos = slot * WORDS;
+        keys[pos] = w0;
+        keys[pos + 1] = w1;
+        keys[pos + 2] = w2;
+        size++;
+        modCount++;
+        if (used * 4L > capacity * 3L) {
+            // Grow if really full, else only clean the deleted slots
+            rehash(size * 2L > capacity ? capacity << 1 : capacity);
+        }
+        return true;
+    }
+
+    private void removeSlot(int slot) {
+        final int pos = slot * WORDS;
+        keys[pos] = 0;
+        keys[pos + 1] = 1;
+        keys[pos + 2] = 0;
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int newCapacity) {
+        final long[] oldKeys = keys;
+        final int oldCapacity = capacity;
+        capacity = newCapacity;
+        keys = new long[capacity * WORDS];
+        size = 0;
+        used = 0;
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            final int pos = slot * WORDS;
+            if (oldKeys[pos] != 0) {
+                add(oldKeys[pos], oldKeys[pos + 1], oldKeys[pos + 2]);
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size + (others == null ? 0 : others.size());
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        final String id = (String) o;
+        final long[] words = new long[WORDS];
+        if (decode(id, words)) {
+            return indexOf(words[0], words[1], words[2]) >= 0;
+        }
+        return others != null && others.contains(id);
+    }
+
+    @Override
+    public boolean add(String id) {
+        if (id == null) {
+            throw new NullPointerException("id must not be null");
+        }
+        final long[] words = new long[WORDS];
+        if (decode(id, words)) {
+            return add(words[0], words[1], words[2]);
+        }
+        if (others == null) {
+            others = new HashSet<>();
+        }
+        return others.add(id);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!(o instanceof String)) {
+            return false;
+        }
+        final String id = (String) o;
+        final long[] words = new long[WORDS];
+        if (decode(id, words)) {
+            final int slot = indexOf(words[0], words[1], words[2]);
+            if (slot < 0) {
+                return false;
+            }
+            removeSlot(slot);
+            return true;
+        }
+        return others != null && others.remove(id);
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends String> collection) {
+        if (!(collection instanceof GUIDSet)) {
+            return super.addAll(collection);
+        }
+        final GUIDSet from = (GUIDSet) collection;
+        boolean modified = false;
+        for (int slot = 0; slot < from.capacity; slot++) {
+            final int pos = slot * WORDS;
+            if (from.keys[pos] != 0) {
+                modified |= add(from.keys[pos], from.keys[pos + 1], from.keys[pos + 2]);
+            }
+        }
+        if (from.others != null && !from.others.isEmpty()) {
+            if (others == null) {
+                others = new HashSet<>();
+            }
+            modified |= others.addAll(from.others);
+        }
+        return modified;
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> collection) {
+        if (!(collection instanceof GUIDSet)) {
+            return super.retainAll(collection);
+        }
+        final GUIDSet from = (GUIDSet) collection;
+        boolean modified = false;
+        for (int slot = 0; slot < capacity; slot++) {
+            final int pos = slot * WORDS;
+            if (keys[pos] != 0 && from.indexOf(keys[pos], keys[pos + 1], keys[pos + 2]) < 0) {
+                removeSlot(slot);
+                modified = true;
+            }
+        }
+        if (others != null) {
+            if (from.others == null) {
+                modified |= !others.isEmpty();
+                others = null;
+            } else {
+                modified |= others.retainAll(from.others);
+            }
+        }
+        return modified;
+    }
+
+    @Override
+    public void clear() {
+        if (size > 0 || used > 0) {
+            Arrays.fill(keys, 0);
+        }
+        size = 0;
+        used = 0;
+        modCount++;
+        others = null;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new GUIDSetIterator();
+    }
+
+    /**
+     * Iterator creating the String form of each GUID on demand
+     */
+    private final class GUIDSetIterator implements Iterator<String> {
+        private int nextSlot;
+        private int lastSlot = -1;
+        private boolean lastFromOthers;
+        private int expectedModCount = modCount;
+        private Iterator<String> othersIterator;
+
+        private GUIDSetIterator() {
+            nextSlot = findNext(0);
+        }
+
+        private int findNext(int from) {
+            int slot = from;
+            while (slot < capacity && !isUsed(slot)) {
+                slot++;
+            }
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextSlot < capacity) {
+                return true;
+            }
+            if (othersIterator == null && others != null) {
+                othersIterator = others.iterator();
+            }
+            return othersIterator != null && othersIterator.hasNext();
+        }
+
+        @Override
+        public String next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (nextSlot < capacity) {
+                lastSlot = nextSlot;
+                nextSlot = findNext(nextSlot + 1);
+                final int pos = lastSlot * WORDS;
+                return encode(keys[pos], keys[pos + 1], keys[pos + 2]);
+            }
+            lastSlot = -1;
+            if (hasNext()) {
+                lastFromOthers = true;
+                return othersIterator.next();
+            }
+            throw new NoSuchElementException();
+        }
+
+        @Override
+        public void remove() {
+            if (lastFromOthers) {
+                othersIterator.remove();
+                return;
+            }
+            if (lastSlot < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeSlot(lastSlot);
+            expectedModCount = modCount;
+            lastSlot = -1;
+        }
+    }
+}
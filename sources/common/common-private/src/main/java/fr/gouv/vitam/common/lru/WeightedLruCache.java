@@ -0,0 +1,183 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.lru;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Threadsafe synchronized implementation of LruCache bounded both by a number of entries and by a total weight (for
+ * instance an estimation of the memory footprint of the values). Threadsafety is provided by method synchronization.
+ *
+ * When one of the bounds is exceeded, the least recently used entries are evicted. A value heavier than the maximum
+ * weight is never stored.
+ *
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class WeightedLruCache<K, V> extends AbstractLruCache<K, V> {
+    private final int capacity;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final LinkedHashMap<K, WeightedEntry<V>> cacheMap;
+    private long weight;
+
+    /**
+     * Creates new WeightedLruCache
+     *
+     * @param capacity max number of entries
+     * @param maxWeight max total weight of the entries
+     * @param ttl time to live in milliseconds
+     * @param weigher function giving the weight of one value
+     * @throws IllegalArgumentException if capacity, maxWeight or ttl is not positive or weigher is null
+     */
+    public WeightedLruCache(int capacity, long maxWeight, long ttl, ToLongFunction<V> weigher) {
+        super(ttl);
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        if (weigher == null) {
+            throw new IllegalArgumentException("weigher must not be null");
+        }
+        this.capacity = capacity;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        cacheMap = new LinkedHashMap<>(SynchronizedLruCache.DEFAULT_INITIAL_CAPACITY,
+            SynchronizedLruCache.DEFAULT_LOAD_FACTOR, true);
+    }
+
+    @Override
+    public synchronized void clear() {
+        cacheMap.clear();
+        weight = 0;
+    }
+
+    @Override
+    public synchronized V get(K key) { // NOSONAR do not remove since synchronized
+        return super.get(key);
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the maximum total weight
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return the current total weight
+     */
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    @Override
+    protected synchronized InterfaceLruCacheEntry<V> getEntry(K key) {
+        final WeightedEntry<V> weightedEntry = cacheMap.get(key);
+        if (weightedEntry != null) {
+            return weightedEntry.entry;
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized int size() {
+        return cacheMap.size();
+    }
+
+    @Override
+    public synchronized void put(K key, V value, long ttl) {// NOSONAR do not remove (synchronized)
+        super.put(key, value, ttl);
+    }
+
+    @Override
+    protected void putEntry(K key, InterfaceLruCacheEntry<V> entry) {
+        final long entryWeight = weigher.applyAsLong(entry.getValue());
+        remove(key);
+        if (entryWeight > maxWeight) {
+            return;
+        }
+        cacheMap.put(key, new WeightedEntry<>(entry, entryWeight));
+        weight += entryWeight;
+        final Iterator<WeightedEntry<V>> iterator = cacheMap.values().iterator();
+        while ((cacheMap.size() > capacity || weight > maxWeight) && iterator.hasNext()) {
+            weight -= iterator.next().weight;
+            iterator.remove();
+        }
+    }
+
+    @Override
+    public synchronized V remove(K key) {
+        final WeightedEntry<V> weightedEntry = cacheMap.remove(key);
+        if (weightedEntry != null) {
+            weight -= weightedEntry.weight;
+            return weightedEntry.entry.getValue();
+        }
+        return null;
+    }
+
+    @Override
+    public synchronized int forceClearOldest() {
+        final long timeRef = System.currentTimeMillis();
+        final Iterator<Map.Entry<K, WeightedEntry<V>>> iterator = cacheMap.entrySet().iterator();
+        int nb = 0;
+        while (iterator.hasNext()) {
+            final WeightedEntry<V> v = iterator.next().getValue();
+            if (!v.entry.isStillValid(timeRef)) {
+                weight -= v.weight;
+                iterator.remove();
+                nb++;
+            }
+        }
+        return nb;
+    }
+
+    /**
+     * Cache entry with its weight
+     *
+     * @param <V> Value
+     */
+    private static final class WeightedEntry<V> {
+        private final InterfaceLruCacheEntry<V> entry;
+        private final long weight;
+
+        private WeightedEntry(InterfaceLruCacheEntry<V> entry, long weight) {
+            this.entry = entry;
+            this.weight = weight;
+        }
+    }
+}
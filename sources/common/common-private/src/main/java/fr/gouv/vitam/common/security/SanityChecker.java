@@ -30,9 +30,11 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -114,10 +116,12 @@ public class SanityChecker {
         "(" + TAG_START + ".*" + TAG_END + ")|(" + TAG_SELF_CLOSING + ")|(" + HTML_ENTITY + ")",
         Pattern.DOTALL);
 
-    // Default ASCII for Param check
-    private static final Pattern UNPRINTABLE_PATTERN = Pattern.compile("[\\p{Cntrl}&&[^\r\n\t]]");
+    // Characters that may start a markup or an encoding: only values containing one of them need Esapi
+    private static final String ESAPI_TRIGGER_CHARS = "<>&%\\\"'";
+    private static final String INVALID_TAG_SANITY_CHECK = "Invalid tag sanity check";
     // ISSUE with integration
     private static final Validator ESAPI = init();
+    private static final XMLInputFactory XML_INPUT_FACTORY = initXmlInputFactory();
 
     private SanityChecker() {
         // Empty constructor
@@ -134,8 +138,19 @@ public class SanityChecker {
         return new DefaultValidator();
     }
 
+    private static final XMLInputFactory initXmlInputFactory() {
+        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        // Prevent XSS
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        xmlInputFactory.setProperty("javax.xml.stream.isReplacingEntityReferences", Boolean.FALSE);
+        xmlInputFactory.setProperty("javax.xml.stream.isSupportingExternalEntities", Boolean.FALSE);
+        return xmlInputFactory;
+    }
+
     /**
-     * checkXMLAll : check xml sanity all aspect : size, tag size, invalid tag
+     * checkXMLAll : check xml sanity all aspect : size, tag size, invalid tag<br>
+     * <br>
+     * The file is read once: invalid tags are searched in the raw content while the XML reader checks the values.
      *
      * @param xmlFile as File
      * @throws InvalidParseOperationException when parse file error
@@ -144,10 +159,19 @@ public class SanityChecker {
      */
     public static final void checkXmlAll(File xmlFile) throws InvalidParseOperationException, IOException {
         checkXmlSanityFileSize(xmlFile);
-        // First test tags through file reader (preventing XSS Bomb)
-        checkXmlSanityTags(xmlFile);
-        // Then through XML reader
-        checkXmlSanityTagValueSize(xmlFile);
+        // Tags are tested on the raw content before the XML reader gets it (preventing XSS Bomb)
+        try (final InvalidTagsInputStream xmlStream = new InvalidTagsInputStream(new FileInputStream(xmlFile))) {
+            try {
+                checkXmlSanityTagValueSize(xmlStream);
+                // Content after the end of the document must be checked too
+                xmlStream.skipAll();
+            } catch (final InvalidParseOperationException | IOException e) {
+                if (xmlStream.hasInvalidTag()) {
+                    throw new InvalidParseOperationException(INVALID_TAG_SANITY_CHECK, e);
+                }
+                throw e;
+            }
+        }
     }
 
     /**
@@ -250,45 +274,76 @@ public class SanityChecker {
     protected static final void checkXmlSanityTagValueSize(File xmlFile)
         throws InvalidParseOperationException, IOException {
         try (final InputStream xmlStream = new FileInputStream(xmlFile)) {
+            checkXmlSanityTagValueSize(xmlStream);
+        }
+    }
 
-            final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-            // Prevent XSS
-            xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
-            xmlInputFactory.setProperty("javax.xml.stream.isReplacingEntityReferences", Boolean.FALSE);
-            xmlInputFactory.setProperty("javax.xml.stream.isSupportingExternalEntities", Boolean.FALSE);
-            // read XML input stream
-            XMLStreamReader reader = null;
-            try {
-                reader = xmlInputFactory.createXMLStreamReader(xmlStream);
-                while (reader.hasNext()) {
-                    final int event = reader.next();
-                    if (event == XMLStreamConstants.CDATA ||
-                        event == XMLStreamConstants.ENTITY_DECLARATION ||
-                        event == XMLStreamConstants.ENTITY_REFERENCE) {
-                        throw new InvalidParseOperationException("XML contains CDATA or ENTITY");
-                    }
-                    if (event == XMLStreamConstants.CHARACTERS) {
-                        final String val = reader.getText().trim();
-                        if (!val.isEmpty()) {
-                            checkSanityTags(val, getLimitFieldSize());
-                        }
-                    }
+    private static final void checkXmlSanityTagValueSize(InputStream xmlStream)
+        throws InvalidParseOperationException {
+        // read XML input stream
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(xmlStream);
+            while (reader.hasNext()) {
+                final int event = reader.next();
+                if (event == XMLStreamConstants.CDATA ||
+                    event == XMLStreamConstants.ENTITY_DECLARATION ||
+                    event == XMLStreamConstants.ENTITY_REFERENCE) {
+                    throw new InvalidParseOperationException("XML contains CDATA or ENTITY");
                 }
-            } catch (final XMLStreamException e) {
-                throw new InvalidParseOperationException("Bad XML format", e);
-            } finally {
-                if (reader != null) {
-                    try {
-                        reader.close();
-                    } catch (final XMLStreamException e) {
-                        // Ignore
-                        SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+                if (event == XMLStreamConstants.CHARACTERS) {
+                    final String val = reader.getText().trim();
+                    if (!val.isEmpty()) {
+                        checkXmlValue(val);
                     }
                 }
             }
+        } catch (final XMLStreamException e) {
+            throw new InvalidParseOperationException("Bad XML format", e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (final XMLStreamException e) {
+                    // Ignore
+                    SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check a value of a XML file: same checks than {@link #checkSanityTags(String, int)}, but Esapi and the tag rules
+     * are only applied if the value contains a character that can start a markup or an encoding
+     *
+     * @param value value to check
+     * @throws InvalidParseOperationException when Sanity Check is in error
+     */
+    private static final void checkXmlValue(String value) throws InvalidParseOperationException {
+        final int limit = getLimitFieldSize();
+        if (value.length() > limit) {
+            throw new InvalidParseOperationException("Invalid input bytes length");
+        }
+        boolean esapiNeeded = false;
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (isUnprintable(c)) {
+                throw new InvalidParseOperationException("Invalid input bytes");
+            }
+            if (ESAPI_TRIGGER_CHARS.indexOf(c) >= 0) {
+                esapiNeeded = true;
+            }
+        }
+        if (esapiNeeded) {
+            checkSanityTags(value, limit);
         }
     }
 
+    private static final boolean isUnprintable(char c) {
+        // Control characters but tabulation and end of lines
+        return (c < ' ' || c == 0x7F) && c != '\r' && c != '\n' && c != '\t';
+    }
+
     /**
      * CheckXMLSanityFileSize : check size of xml file
      *
@@ -355,8 +410,10 @@ public class SanityChecker {
         if (line.length() > limit) {
             throw new InvalidParseOperationException("Invalid input bytes length");
         }
-        if (UNPRINTABLE_PATTERN.matcher(line).find()) {
-            throw new InvalidParseOperationException("Invalid input bytes");
+        for (int i = 0; i < line.length(); i++) {
+            if (isUnprintable(line.charAt(i))) {
+                throw new InvalidParseOperationException("Invalid input bytes");
+            }
         }
         // ESAPI.getValidPrintable Not OK
         // Issue with integration of ESAPI
@@ -379,7 +436,7 @@ public class SanityChecker {
     private static final void checkSanityTags(String dataLine, String invalidTag)
         throws InvalidParseOperationException {
         if (dataLine != null && invalidTag != null && dataLine.contains(invalidTag)) {
-            throw new InvalidParseOperationException("Invalid tag sanity check");
+            throw new InvalidParseOperationException(INVALID_TAG_SANITY_CHECK);
         }
     }
 
@@ -486,4 +543,77 @@ public class SanityChecker {
     public static final void setLimitParamSize(int limitParamSize) {
         SanityChecker.limitParamSize = limitParamSize;
     }
+
+    /**
+     * InputStream searching the invalid tags in the raw content while it is read, even across two reads
+     */
+    private static final class InvalidTagsInputStream extends FilterInputStream {
+        private static final int SKIP_BUFFER_SIZE = 65536;
+        private final int maxTagLength;
+        private String previousTail = "";
+        private boolean invalidTag;
+
+        InvalidTagsInputStream(InputStream in) {
+            super(in);
+            int max = 0;
+            for (final String rule : RULES) {
+                max = Math.max(max, rule.length());
+            }
+            maxTagLength = max;
+        }
+
+        boolean hasInvalidTag() {
+            return invalidTag;
+        }
+
+        void skipAll() throws IOException {
+            final byte[] buffer = new byte[SKIP_BUFFER_SIZE];
+            while (read(buffer, 0, buffer.length) >= 0) {
+                // Only checked
+            }
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b >= 0) {
+                check(new byte[] {(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int read = super.read(b, off, len);
+            if (read > 0) {
+                check(b, off, read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            // Skipped bytes must be checked too
+            final byte[] buffer = new byte[(int) Math.min(n, SKIP_BUFFER_SIZE)];
+            final int read = read(buffer, 0, buffer.length);
+            return read < 0 ? 0 : read;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private void check(byte[] b, int off, int len) throws IOException {
+            // Rules are ASCII: a one byte per char view of the content is enough to find them
+            final String content = previousTail + new String(b, off, len, StandardCharsets.ISO_8859_1);
+            for (final String rule : RULES) {
+                if (content.contains(rule)) {
+                    invalidTag = true;
+                    throw new IOException(INVALID_TAG_SANITY_CHECK);
+                }
+            }
+            previousTail = content.substring(Math.max(0, content.length() - maxTagLength + 1));
+        }
+    }
 }
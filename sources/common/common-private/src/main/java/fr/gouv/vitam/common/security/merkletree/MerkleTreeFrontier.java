@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.security.merkletree;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Right edge of a Merkle tree: the root of each complete left subtree still waiting for its right sibling.<br>
+ * <br>
+ * It is enough to resume a {@link StreamingMerkleTreeAlgo} and append new leaves without the previous ones.
+ */
+public class MerkleTreeFrontier {
+
+    private long numberOfLeaves;
+
+    /**
+     * Pending node per level, null if the level has no pending node
+     */
+    private List<byte[]> nodes = new ArrayList<>();
+
+    /**
+     * Empty constructor for Jackson
+     */
+    public MerkleTreeFrontier() {
+        // Empty
+    }
+
+    /**
+     * @param numberOfLeaves number of leaves already folded into the tree
+     * @param nodes pending node per level
+     */
+    public MerkleTreeFrontier(long numberOfLeaves, List<byte[]> nodes) {
+        this.numberOfLeaves = numberOfLeaves;
+        this.nodes = new ArrayList<>(nodes);
+    }
+
+    /**
+     * @return the number of leaves already folded into the tree
+     */
+    public long getNumberOfLeaves() {
+        return numberOfLeaves;
+    }
+
+    /**
+     * @return the pending node per level
+     */
+    public List<byte[]> getNodes() {
+        return Collections.unmodifiableList(nodes);
+    }
+}
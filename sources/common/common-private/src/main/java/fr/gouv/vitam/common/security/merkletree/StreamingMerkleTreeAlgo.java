@@ -0,0 +1,345 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.security.merkletree;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.logging.SysErrLogger;
+
+/**
+ * Streaming version of {@link MerkleTreeAlgo}<br>
+ * <br>
+ * Leaves are hashed by parallel batches, then folded into the tree keeping only one pending node per level. Each
+ * computed node is spilled into a temporary file per level, so that the whole tree can be written afterwards with
+ * {@link #writeMerkleTree(OutputStream)} without being held in memory.<br>
+ * <br>
+ * The root and the written tree are the same as the ones of {@link MerkleTreeAlgo}, padding included.<br>
+ * <br>
+ * The tree can also be resumed from the {@link MerkleTreeFrontier} of a previous tree: only the new leaves are then
+ * hashed, the root covering both the previous and the new leaves. Such a tree has no level file and cannot be written.
+ */
+public class StreamingMerkleTreeAlgo implements AutoCloseable {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int BATCH_BYTES = 8 * 1024 * 1024;
+    private static final String ROOT = "root";
+    private static final String LEFT = "l";
+    private static final String RIGHT = "r";
+    private static final JsonFactory JSON_FACTORY =
+        new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final DigestType digestType;
+    private final File tmpFolder;
+    private final List<byte[]> batch = new ArrayList<>();
+    private int batchBytes;
+    private long numberOfLeaves;
+    /**
+     * Pending left node per level, waiting for its right sibling
+     */
+    private final List<byte[]> pending = new ArrayList<>();
+    /**
+     * Hash of a subtree of empty leaves per level
+     */
+    private final List<byte[]> emptySubtrees = new ArrayList<>();
+    private final List<File> levelFiles = new ArrayList<>();
+    private final List<OutputStream> levelOutputs = new ArrayList<>();
+    private byte[] root;
+    private MerkleTreeFrontier frontier;
+    private int height;
+
+    /**
+     * @param digestType the digest of the nodes
+     * @param tmpFolder the folder for the temporary level files
+     */
+    public StreamingMerkleTreeAlgo(DigestType digestType, File tmpFolder) {
+        ParametersChecker.checkParameter("digestType and tmpFolder are mandatory", digestType, tmpFolder);
+        this.digestType = digestType;
+        this.tmpFolder = tmpFolder;
+        emptySubtrees.add(MerkleTree.EMPTY_LEAF.getRoot());
+    }
+
+    /**
+     * @param digestType the digest of the nodes
+     * @param frontier the frontier of the tree to resume
+     * @throws IllegalArgumentException if the frontier does not match its number of leaves
+     */
+    public StreamingMerkleTreeAlgo(DigestType digestType, MerkleTreeFrontier frontier) {
+        ParametersChecker.checkParameter("digestType and frontier are mandatory", digestType, frontier);
+        this.digestType = digestType;
+        tmpFolder = null;
+        emptySubtrees.add(MerkleTree.EMPTY_LEAF.getRoot());
+        final List<byte[]> nodes = frontier.getNodes();
+        if (frontier.getNumberOfLeaves() < 0 || nodes.size() > Long.SIZE) {
+            throw new IllegalArgumentException("Frontier is too large");
+        }
+        for (int level = 0; level < Long.SIZE; level++) {
+            final boolean expected = (frontier.getNumberOfLeaves() >> level & 1) != 0;
+            if (expected != (level < nodes.size() && nodes.get(level) != null)) {
+                throw new IllegalArgumentException("Frontier does not match its number of leaves at level " + level);
+            }
+        }
+        pending.addAll(nodes);
+        numberOfLeaves = frontier.getNumberOfLeaves();
+    }
+
+    /**
+     * adds sheet to the MerkleTree
+     *
+     * @param data the content of the sheet
+     * @throws IOException if the level files cannot be written
+     */
+    public void addLeaf(byte[] data) throws IOException {
+        if (root != null) {
+            throw new IllegalStateException("Merkle tree already generated");
+        }
+        batch.add(data);
+        batchBytes += data.length;
+        if (batch.size() >= BATCH_SIZE || batchBytes >= BATCH_BYTES) {
+            hashBatch();
+        }
+    }
+
+    /**
+     * adds sheet to the MerkleTree
+     *
+     * @param str the content of the sheet
+     * @throws IOException if the level files cannot be written
+     */
+    public void addLeaf(String str) throws IOException {
+        addLeaf(str.getBytes());
+    }
+
+    /**
+     * @return the number of leaves added so far, without padding
+     */
+    public long numberOfLeaves() {
+        return numberOfLeaves + batch.size();
+    }
+
+    private void hashBatch() throws IOException {
+        final byte[][] hashes = new byte[batch.size()][];
+        Arrays.parallelSetAll(hashes, i -> new Digest(digestType).update(batch.get(i)).digest());
+        batch.clear();
+        batchBytes = 0;
+        for (final byte[] hash : hashes) {
+            addNode(0, hash);
+            numberOfLeaves++;
+        }
+    }
+
+    private void addNode(int level, byte[] hash) throws IOException {
+        byte[] node = hash;
+        int current = level;
+        write(current, node);
+        while (current < pending.size() && pending.get(current) != null) {
+            node = concat(pending.get(current), node);
+            pending.set(current, null);
+            current++;
+            write(current, node);
+        }
+        while (pending.size() <= current) {
+            pending.add(null);
+        }
+        pending.set(current, node);
+    }
+
+    private void write(int level, byte[] node) throws IOException {
+        if (tmpFolder == null) {
+            return;
+        }
+        while (levelOutputs.size() <= level) {
+            final File file = File.createTempFile("merkle", ".level" + levelOutputs.size(), tmpFolder);
+            levelFiles.add(file);
+            levelOutputs.add(new BufferedOutputStream(new FileOutputStream(file)));
+        }
+        levelOutputs.get(level).write(node);
+    }
+
+    /**
+     * concat two hash to compute another one.
+     */
+    private byte[] concat(byte[] left, byte[] right) {
+        final Digest digest = new Digest(digestType);
+        digest.update(left);
+        digest.update(right);
+        return digest.digest();
+    }
+
+    private byte[] getEmptySubtree(int level) {
+        while (emptySubtrees.size() <= level) {
+            final byte[] child = emptySubtrees.get(emptySubtrees.size() - 1);
+            emptySubtrees.add(concat(child, child));
+        }
+        return emptySubtrees.get(level);
+    }
+
+    /**
+     * Complete the tree as if padded with empty leaves up to a power of 2
+     *
+     * @return the root hash, null if no leaf was added
+     * @throws IOException if the level files cannot be written
+     */
+    public byte[] generateMerkleRoot() throws IOException {
+        if (root != null) {
+            return root;
+        }
+        hashBatch();
+        frontier = new MerkleTreeFrontier(numberOfLeaves, pending);
+        if (numberOfLeaves == 0) {
+            return null;
+        }
+        height = 64 - Long.numberOfLeadingZeros(numberOfLeaves - 1);
+        byte[] carry = null;
+        for (int level = 0; level < height; level++) {
+            final byte[] left = level < pending.size() ? pending.get(level) : null;
+            byte[] node = null;
+            if (left != null) {
+                node = concat(left, carry != null ? carry : getEmptySubtree(level));
+                pending.set(level, null);
+            } else if (carry != null) {
+                node = concat(carry, getEmptySubtree(level));
+            }
+            if (node != null) {
+                write(level + 1, node);
+            }
+            carry = node;
+        }
+        root = carry != null ? carry : pending.get(height);
+        for (final OutputStream output : levelOutputs) {
+            output.close();
+        }
+        levelOutputs.clear();
+        return root;
+    }
+
+    /**
+     * @return the frontier of the tree once all the leaves are added, to resume it later
+     * @throws IOException if the level files cannot be written
+     */
+    public MerkleTreeFrontier getFrontier() throws IOException {
+        generateMerkleRoot();
+        return frontier;
+    }
+
+    /**
+     * Write the tree in the same JSON form than {@link MerkleTree}, reading back the level files
+     *
+     * @param outputStream where to write the tree, not closed
+     * @throws IOException if the level files cannot be read or the tree cannot be written
+     * @throws IllegalStateException if the tree was resumed from a frontier
+     */
+    public void writeMerkleTree(OutputStream outputStream) throws IOException {
+        if (tmpFolder == null) {
+            throw new IllegalStateException("Merkle tree resumed from a frontier has no level file");
+        }
+        final byte[] rootHash = generateMerkleRoot();
+        final DataInputStream[] levels = new DataInputStream[levelFiles.size()];
+        final long[] counts = new long[levelFiles.size()];
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(outputStream)) {
+            for (int level = 0; level < levels.length; level++) {
+                levels[level] =
+                    new DataInputStream(new BufferedInputStream(new FileInputStream(levelFiles.get(level))));
+                // Non empty nodes of a level
+                counts[level] = (numberOfLeaves - 1 >> level) + 1;
+            }
+            if (rootHash == null) {
+                generator.writeNull();
+            } else {
+                writeNode(generator, levels, counts, height, 0, rootHash.length);
+            }
+        } finally {
+            for (final InputStream level : levels) {
+                closeQuietly(level);
+            }
+        }
+        outputStream.flush();
+    }
+
+    private void writeNode(JsonGenerator generator, DataInputStream[] levels, long[] counts, int level, long index,
+        int hashLength) throws IOException {
+        generator.writeStartObject();
+        if (index >= counts[level]) {
+            generator.writeBinaryField(ROOT, getEmptySubtree(level));
+        } else {
+            final byte[] hash = new byte[hashLength];
+            levels[level].readFully(hash);
+            generator.writeBinaryField(ROOT, hash);
+        }
+        if (level > 0) {
+            generator.writeFieldName(LEFT);
+            writeNode(generator, levels, counts, level - 1, 2 * index, hashLength);
+            generator.writeFieldName(RIGHT);
+            writeNode(generator, levels, counts, level - 1, 2 * index + 1, hashLength);
+        }
+        generator.writeEndObject();
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (final IOException e) {
+                SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+            }
+        }
+    }
+
+    /**
+     * Delete the level files
+     */
+    @Override
+    public void close() {
+        for (final OutputStream output : levelOutputs) {
+            closeQuietly(output);
+        }
+        levelOutputs.clear();
+        for (final File file : levelFiles) {
+            if (!file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+        levelFiles.clear();
+    }
+}
@@ -203,7 +203,7 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
         private int position;
         private boolean noMoreToRead = false;
         private boolean recursive = false;
-        private boolean closed = false;
+        private volatile boolean closed = false;
 
         private StreamBufferInputStream(MultipleInputStreamHandler mish, int rank) {
             this.mish = mish;
@@ -213,6 +213,17 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
 
         private void addToQueue(StreamBuffer buffer) {
             buffers.add(buffer);
+            if (closed) {
+                // This copy is not read anymore: do not block the other copies
+                releaseQueuedBuffers();
+            }
+        }
+
+        private void releaseQueuedBuffers() {
+            StreamBuffer buffer;
+            while ((buffer = buffers.poll()) != null) {
+                buffer.endOfBufferUsed(mish);
+            }
         }
 
         @Override
@@ -245,11 +256,13 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
             if (current.exception != null) {
                 final IOException e = current.exception;
                 current.endOfBufferUsed(mish);
+                current = null;
                 close();
                 throw e;
             }
             if (current.available < 0) {
                 current.endOfBufferUsed(mish);
+                current = null;
                 position = 0;
                 noMoreToRead = true;
                 return -1;
@@ -262,15 +275,19 @@ public class MultipleInputStreamHandler implements VitamAutoCloseable {
         public void close() {
             synchronized (this) {
                 LOGGER.debug("Close: {}", this);
-                buffers.clear();
-                current = null;
+                final boolean wasClosed = closed;
+                closed = true;
+                // Release the buffers not yet read by this copy, such that the other copies can go on
+                if (current != null) {
+                    current.endOfBufferUsed(mish);
+                    current = null;
+                }
+                releaseQueuedBuffers();
                 position = 0;
                 noMoreToRead = true;
-                if (mish.active.decrementAndGet() == 0 && !closed) {
-                    closed = true;
+                if (!wasClosed && mish.active.decrementAndGet() == 0) {
                     mish.close();
                 }
-                closed = true;
             }
         }
 
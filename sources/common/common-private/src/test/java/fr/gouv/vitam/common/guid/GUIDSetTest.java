@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.guid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class GUIDSetTest {
+    private static final int NB_IDS = 10000;
+
+    private static List<String> newIds(int nb) {
+        final List<String> ids = new ArrayList<>(nb);
+        for (int i = 0; i < nb; i++) {
+            ids.add(GUIDFactory.newUnitGUID(i % 3).getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public final void givenGuidsWhenAddThenSameAsHashSet() {
+        final List<String> ids = newIds(NB_IDS);
+        final GUIDSet set = new GUIDSet();
+        final Set<String> expected = new HashSet<>();
+        for (final String id : ids) {
+            assertEquals(expected.add(id), set.add(id));
+        }
+        assertFalse(set.add(ids.get(0)));
+        assertEquals(NB_IDS, set.size());
+        assertEquals(expected, set);
+        assertEquals(set, expected);
+        assertEquals(expected.hashCode(), set.hashCode());
+        for (final String id : set) {
+            assertTrue(expected.contains(id));
+        }
+        assertTrue(set.contains(ids.get(NB_IDS / 2)));
+        assertFalse(set.contains(GUIDFactory.newUnitGUID(0).getId()));
+        assertFalse(set.contains(ids.get(0).toUpperCase()));
+    }
+
+    @Test
+    public final void givenNotGuidsWhenAddThenKept() {
+        final GUIDSet set = new GUIDSet();
+        final String guid = GUIDFactory.newObjectGroupGUID(0).getId();
+        set.add(guid);
+        set.add("id1");
+        set.add(guid.toUpperCase());
+        assertEquals(3, set.size());
+        assertTrue(set.contains("id1"));
+        assertTrue(set.contains(guid.toUpperCase()));
+        assertTrue(set.remove("id1"));
+        assertFalse(set.remove("id1"));
+        assertTrue(set.remove(guid));
+        assertEquals(1, set.size());
+        set.clear();
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public final void givenGuidsWhenRemoveThenSameAsHashSet() {
+        final List<String> ids = newIds(NB_IDS);
+        final GUIDSet set = new GUIDSet(ids);
+        set.add("id1");
+        final Set<String> expected = new HashSet<>(set);
+        for (int i = 0; i < NB_IDS / 2; i++) {
+            assertTrue(set.remove(ids.get(i)));
+            expected.remove(ids.get(i));
+        }
+        assertEquals(expected, set);
+        // deleted slots are reused
+        for (int i = 0; i < NB_IDS / 2; i++) {
+            assertTrue(set.add(ids.get(i)));
+            expected.add(ids.get(i));
+        }
+        assertEquals(expected, set);
+        final Iterator<String> iterator = set.iterator();
+        int rank = 0;
+        while (iterator.hasNext()) {
+            final String id = iterator.next();
+            if (rank++ % 2 == 0 || "id1".equals(id)) {
+                iterator.remove();
+                expected.remove(id);
+            }
+        }
+        assertEquals(expected, set);
+    }
+
+    @Test
+    public final void givenGuidSetsWhenUnionOrIntersectionThenSameAsHashSet() {
+        final List<String> ids = newIds(NB_IDS);
+        final GUIDSet first = new GUIDSet(ids.subList(0, NB_IDS / 2 + 100));
+        final GUIDSet second = new GUIDSet(ids.subList(NB_IDS / 2, NB_IDS));
+        first.add("id1");
+        second.add("id1");
+        first.add("id2");
+
+        final GUIDSet intersection = new GUIDSet(first);
+        assertTrue(intersection.retainAll(second));
+        assertEquals(101, intersection.size());
+        final Set<String> expected = new HashSet<>(first);
+        expected.retainAll(new HashSet<>(second));
+        assertEquals(expected, intersection);
+
+        final GUIDSet union = new GUIDSet(first);
+        assertTrue(union.addAll(second));
+        assertEquals(NB_IDS + 2, union.size());
+        assertTrue(union.containsAll(first));
+        assertTrue(union.containsAll(second));
+    }
+}
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.lru;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class WeightedLruCacheTest {
+
+    @Test
+    public final void testCapacityBound() {
+        final WeightedLruCache<String, String> cache = new WeightedLruCache<>(2, 100, 1000, String::length);
+        assertEquals(2, cache.getCapacity());
+        assertEquals(100, cache.getMaxWeight());
+        cache.put("key1", "a");
+        cache.put("key2", "bb");
+        assertEquals("a", cache.get("key1"));
+        cache.put("key3", "ccc");
+        assertEquals(2, cache.size());
+        assertNull(cache.get("key2"));
+        assertEquals("a", cache.get("key1"));
+        assertEquals("ccc", cache.get("key3"));
+        assertEquals(4, cache.getWeight());
+    }
+
+    @Test
+    public final void testWeightBound() {
+        final WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 5, 1000, String::length);
+        cache.put("key1", "aa");
+        cache.put("key2", "bb");
+        assertEquals(4, cache.getWeight());
+        cache.put("key3", "cc");
+        assertFalse(cache.contains("key1"));
+        assertEquals(2, cache.size());
+        assertEquals(4, cache.getWeight());
+        // Replacing a value updates the weight
+        cache.put("key2", "b");
+        assertEquals(3, cache.getWeight());
+        // Too heavy value is never stored and removes the previous one
+        cache.put("key3", "cccccc");
+        assertFalse(cache.contains("key3"));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.getWeight());
+        assertEquals("b", cache.remove("key2"));
+        assertEquals(0, cache.getWeight());
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public final void testTtlAndClear() throws InterruptedException {
+        final WeightedLruCache<String, String> cache = new WeightedLruCache<>(10, 100, 50, String::length);
+        cache.put("key1", "aa");
+        cache.put("key2", "bb", 10000);
+        Thread.sleep(100);
+        assertEquals(1, cache.forceClearOldest());
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.getWeight());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public final void testInvalidMaxWeight() {
+        new WeightedLruCache<String, String>(10, 0, 50, String::length);
+    }
+}
@@ -33,6 +33,8 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -126,6 +128,39 @@ public class SanityCheckerTest {
         SanityChecker.checkXmlAll(fileOK);
     }
 
+    @Test
+    public void checkXMLAllKO() throws IOException {
+        final List<File> filesKO = new ArrayList<>(filesOwaspKO);
+        filesKO.add(fileKO);
+        for (final File file : filesKO) {
+            try {
+                SanityChecker.checkXmlAll(file);
+                fail("Should failed with an exception: " + file);
+            } catch (final InvalidParseOperationException e) {
+                // Expected
+            }
+        }
+    }
+
+    @Test
+    public void checkXMLAllWithTagAfterFirstBuffer() throws IOException {
+        final StringBuilder padding = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            padding.append(' ');
+        }
+        final File file = File.createTempFile("sanity", ".xml");
+        try {
+            Files.write(file.toPath(), ("<root><value>" + padding + "</value><!-- <script> --></root>")
+                .getBytes(StandardCharsets.UTF_8));
+            SanityChecker.checkXmlAll(file);
+            fail("Should failed with an exception");
+        } catch (final InvalidParseOperationException e) {
+            // Expected
+        } finally {
+            file.delete();
+        }
+    }
+
     @Test(expected = InvalidParseOperationException.class)
     public void givenJsonWhenValueIsTooBigORContainXMLTag()
         throws InvalidParseOperationException, IOException {
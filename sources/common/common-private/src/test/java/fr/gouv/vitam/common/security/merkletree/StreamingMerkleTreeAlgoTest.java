@@ -0,0 +1,141 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.common.security.merkletree;
+
+import static fr.gouv.vitam.common.digest.DigestType.SHA512;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.gouv.vitam.common.json.JsonHandler;
+
+public class StreamingMerkleTreeAlgoTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void should_compute_same_tree_as_merkle_tree_algo() throws Exception {
+        final File tmpFolder = folder.newFolder();
+        for (final int numberOfLeaves : new int[] {1, 2, 3, 4, 5, 7, 8, 9, 1000, 1001, 2500}) {
+            // Given
+            final MerkleTreeAlgo merkleTreeAlgo = new MerkleTreeAlgo(SHA512);
+            try (StreamingMerkleTreeAlgo streamingMerkleTreeAlgo = new StreamingMerkleTreeAlgo(SHA512, tmpFolder)) {
+                for (int i = 0; i < numberOfLeaves; i++) {
+                    merkleTreeAlgo.addLeaf("leaf" + i);
+                    streamingMerkleTreeAlgo.addLeaf("leaf" + i);
+                }
+
+                // When
+                final MerkleTree merkleTree = merkleTreeAlgo.generateMerkle();
+                final byte[] root = streamingMerkleTreeAlgo.generateMerkleRoot();
+                final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+                streamingMerkleTreeAlgo.writeMerkleTree(outputStream);
+
+                // Then
+                assertThat(streamingMerkleTreeAlgo.numberOfLeaves()).isEqualTo(numberOfLeaves);
+                assertThat(root).isEqualTo(merkleTree.getRoot());
+                assertThat(outputStream.toString()).isEqualTo(JsonHandler.unprettyPrint(merkleTree));
+            }
+        }
+        // level files are deleted
+        assertThat(tmpFolder.list()).isEmpty();
+    }
+
+    @Test
+    public void should_return_null_root_without_leaf() throws Exception {
+        try (StreamingMerkleTreeAlgo streamingMerkleTreeAlgo = new StreamingMerkleTreeAlgo(SHA512,
+            folder.newFolder())) {
+            assertThat(streamingMerkleTreeAlgo.generateMerkleRoot()).isNull();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_not_add_leaf_once_generated() throws Exception {
+        try (StreamingMerkleTreeAlgo streamingMerkleTreeAlgo = new StreamingMerkleTreeAlgo(SHA512,
+            folder.newFolder())) {
+            streamingMerkleTreeAlgo.addLeaf("a");
+            streamingMerkleTreeAlgo.generateMerkleRoot();
+            streamingMerkleTreeAlgo.addLeaf("b");
+        }
+    }
+
+    @Test
+    public void should_resume_tree_from_frontier() throws Exception {
+        final File tmpFolder = folder.newFolder();
+        for (final int numberOfLeaves : new int[] {1, 2, 5, 8, 1000, 2500}) {
+            for (final int checkpoint : new int[] {0, 1, numberOfLeaves / 2, numberOfLeaves}) {
+                // Given
+                final byte[] root;
+                final MerkleTreeFrontier frontier;
+                try (StreamingMerkleTreeAlgo merkleTreeAlgo = new StreamingMerkleTreeAlgo(SHA512, tmpFolder);
+                    StreamingMerkleTreeAlgo checkpointAlgo = new StreamingMerkleTreeAlgo(SHA512, tmpFolder)) {
+                    for (int i = 0; i < numberOfLeaves; i++) {
+                        merkleTreeAlgo.addLeaf("leaf" + i);
+                        if (i < checkpoint) {
+                            checkpointAlgo.addLeaf("leaf" + i);
+                        }
+                    }
+                    root = merkleTreeAlgo.generateMerkleRoot();
+                    frontier = JsonHandler.getFromString(JsonHandler.unprettyPrint(checkpointAlgo.getFrontier()),
+                        MerkleTreeFrontier.class);
+                }
+
+                // When
+                final StreamingMerkleTreeAlgo resumedAlgo = new StreamingMerkleTreeAlgo(SHA512, frontier);
+                for (int i = checkpoint; i < numberOfLeaves; i++) {
+                    resumedAlgo.addLeaf("leaf" + i);
+                }
+
+                // Then
+                assertThat(resumedAlgo.numberOfLeaves()).isEqualTo(numberOfLeaves);
+                assertThat(resumedAlgo.generateMerkleRoot()).isEqualTo(root);
+                assertThat(resumedAlgo.getFrontier().getNumberOfLeaves()).isEqualTo(numberOfLeaves);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void should_not_resume_from_inconsistent_frontier() throws Exception {
+        new StreamingMerkleTreeAlgo(SHA512, new MerkleTreeFrontier(3, Collections.singletonList(new byte[64])));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_not_write_resumed_tree() throws Exception {
+        try (StreamingMerkleTreeAlgo streamingMerkleTreeAlgo = new StreamingMerkleTreeAlgo(SHA512,
+            new MerkleTreeFrontier(0, Collections.emptyList()))) {
+            streamingMerkleTreeAlgo.addLeaf("a");
+            streamingMerkleTreeAlgo.writeMerkleTree(new ByteArrayOutputStream());
+        }
+    }
+}
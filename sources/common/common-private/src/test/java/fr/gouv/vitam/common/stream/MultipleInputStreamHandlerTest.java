@@ -156,6 +156,28 @@ public class MultipleInputStreamHandlerTest {
         testMultipleInputStreamHandlerBlock(100000);
     }
 
+    @Test
+    public void testMultipleInputStreamHandlerOneClosedEarly() {
+        // Larger than all the read ahead buffers such that a copy not released would block the other one
+        final int streamSize = INPUTSTREAM_SIZE * 20;
+        try (FakeInputStream fakeInputStream = new FakeInputStream(streamSize, true);
+            MultipleInputStreamHandler mish = new MultipleInputStreamHandler(fakeInputStream, 2)) {
+            final byte[] buffer = new byte[8192];
+            final InputStream closedEarly = mish.getInputStream(0);
+            closedEarly.read(buffer);
+            closedEarly.close();
+            final InputStream is = mish.getInputStream(1);
+            int read;
+            long total = 0;
+            while ((read = is.read(buffer)) > 0) {
+                total += read;
+            }
+            assertEquals(streamSize, total);
+        } catch (final IOException e) {
+            fail("Should not raized an exception: " + e.getMessage());
+        }
+    }
+
     @Test
     public void testMultipleInputStreamHandlerMultipleShift8K() {
         final long start = System.nanoTime();
@@ -61,6 +61,11 @@ public class GlobalDataRest {
      */
     public static final String X_COMMAND = "X-Command";
 
+    /**
+     * X-Chunk-Offset header used on storage resources to give the position of a part in the object
+     */
+    public static final String X_CHUNK_OFFSET = "X-Chunk-Offset";
+
     /**
      * X-Tenant-Id header used on REST request to identify the concerned tenant
      */
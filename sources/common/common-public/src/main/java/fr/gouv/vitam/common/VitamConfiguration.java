@@ -152,6 +152,14 @@ public class VitamConfiguration {
      * Waiting delay (for wait(delay) method)
      */
     private static final int WAITING_DELAY = 1000;
+    /**
+     * Maximum number of LifeCycles created within one single request
+     */
+    private static final int LIFECYCLE_BULK_SIZE = 1000;
+    /**
+     * Maximum estimated size in bytes of the LifeCycles created within one single request
+     */
+    private static final int LIFECYCLE_BULK_BYTES = 4 * 1024 * 1024;
 
     private String config;
     private String log;
@@ -160,6 +168,8 @@ public class VitamConfiguration {
     private static String secret;
     private static boolean filterActivation;
     private int connectTimeout = CONNECT_TIMEOUT;
+    private int lifecycleBulkSize = LIFECYCLE_BULK_SIZE;
+    private int lifecycleBulkBytes = LIFECYCLE_BULK_BYTES;
 
     static {
         getConfiguration().setDefault();
@@ -575,4 +585,33 @@ public class VitamConfiguration {
     public static int getWaitingDelay() {
         return WAITING_DELAY;
     }
+
+    /**
+     * @return the maximum number of LifeCycles created within one single request
+     */
+    public static int getLifecycleBulkSize() {
+        return getConfiguration().lifecycleBulkSize;
+    }
+
+    /**
+     * @param lifecycleBulkSize the maximum number of LifeCycles created within one single request
+     */
+    public static void setLifecycleBulkSize(int lifecycleBulkSize) {
+        getConfiguration().lifecycleBulkSize = lifecycleBulkSize;
+    }
+
+    /**
+     * @return the maximum estimated size in bytes of the LifeCycles created within one single request
+     */
+    public static int getLifecycleBulkBytes() {
+        return getConfiguration().lifecycleBulkBytes;
+    }
+
+    /**
+     * @param lifecycleBulkBytes the maximum estimated size in bytes of the LifeCycles created within one single
+     *        request
+     */
+    public static void setLifecycleBulkBytes(int lifecycleBulkBytes) {
+        getConfiguration().lifecycleBulkBytes = lifecycleBulkBytes;
+    }
 }
@@ -75,7 +75,7 @@ import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExi
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.core.WorkspaceConfiguration;
-import fr.gouv.vitam.workspace.core.filesystem.FileSystem;
+import fr.gouv.vitam.workspace.core.filesystem.WorkspaceFileSystem;
 
 /**
  * Implementation of IngestExtern
@@ -139,7 +139,7 @@ public class IngestExternalImpl implements IngestExternal {
         final GUID objectName = guid;
         final GUID ingestGuid = guid;
         final LogbookOperationsClientHelper helper = new LogbookOperationsClientHelper();
-        FileSystem workspaceFileSystem = null;
+        WorkspaceFileSystem workspaceFileSystem = null;
         Response responseNoProcess = null;
 
         try {
@@ -169,7 +169,7 @@ public class IngestExternalImpl implements IngestExternal {
             helper.updateDelegate(sipSanityParameters);
 
             workspaceFileSystem =
-                new FileSystem(new WorkspaceConfiguration().setStoragePath(config.getPath()));
+                new WorkspaceFileSystem(new WorkspaceConfiguration().setStoragePath(config.getPath()));
             final String antiVirusScriptName = config.getAntiVirusScriptName();
             final long timeoutScanDelay = config.getTimeoutScanDelay();
 
@@ -74,8 +74,8 @@ import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.StatusCode;
-import fr.gouv.vitam.common.security.merkletree.MerkleTree;
-import fr.gouv.vitam.common.security.merkletree.MerkleTreeAlgo;
+import fr.gouv.vitam.common.security.merkletree.MerkleTreeFrontier;
+import fr.gouv.vitam.common.security.merkletree.StreamingMerkleTreeAlgo;
 import fr.gouv.vitam.common.timestamp.TimestampGenerator;
 import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookOperationsClientHelper;
@@ -115,6 +115,11 @@ public class LogbookAdministration {
     private static final String STRATEGY_ID = "default";
     private static final int TENANT_ID = 0;
 
+    /**
+     * Duration of the traceability lease, renewed while securing
+     */
+    private static final long LEASE_DURATION = 10 * 60 * 1000L;
+
     private final LogbookOperations logbookOperations;
     private final TimestampGenerator timestampGenerator;
     private final WorkspaceClientFactory workspaceClientFactory;
@@ -122,15 +127,24 @@ public class LogbookAdministration {
 
     private final File tmpFolder;
 
+    /**
+     * If true, the merkle tree is resumed from the frontier of the previous securisation
+     */
+    private final boolean incremental;
+
     private final Joiner joiner;
 
+    private long leaseTime;
+
     @VisibleForTesting //
     LogbookAdministration(LogbookOperations logbookOperations,
-        TimestampGenerator timestampGenerator, WorkspaceClientFactory workspaceClientFactory, File tmpFolder) {
+        TimestampGenerator timestampGenerator, WorkspaceClientFactory workspaceClientFactory, File tmpFolder,
+        boolean incremental) {
         this.logbookOperations = logbookOperations;
         this.timestampGenerator = timestampGenerator;
         this.workspaceClientFactory = workspaceClientFactory;
         this.tmpFolder = tmpFolder;
+        this.incremental = incremental;
         formatter = DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss");
 
         joiner = Joiner.on("").skipNulls();
@@ -145,29 +159,60 @@ public class LogbookAdministration {
      */
     public LogbookAdministration(LogbookOperations logbookOperations, TimestampGenerator timestampGenerator,
         WorkspaceClientFactory workspaceClientFactory) {
+        this(logbookOperations, timestampGenerator, workspaceClientFactory, false);
+    }
+
+    /**
+     * @param logbookOperations
+     * @param timestampGenerator
+     * @param workspaceClientFactory
+     * @param incremental if true, the merkle tree is resumed from the frontier of the previous securisation
+     */
+    public LogbookAdministration(LogbookOperations logbookOperations, TimestampGenerator timestampGenerator,
+        WorkspaceClientFactory workspaceClientFactory, boolean incremental) {
         this(logbookOperations, timestampGenerator, workspaceClientFactory,
-            PropertiesUtils.fileFromTmpFolder("secure"));
+            PropertiesUtils.fileFromTmpFolder("secure"), incremental);
     }
 
     /**
-     * secure the logbook operation since last securisation.
+     * secure the logbook operation since last securisation.<br>
+     * <br>
+     * Only one server secures the logbook at a time, holding the traceability lease.
      *
      * @return the GUID of the operation
-     * @throws TraceabilityException
+     * @throws TraceabilityException if the logbook is secured by another server
      * @throws LogbookNotFoundException
      * @throws InvalidParseOperationException
      * @throws LogbookDatabaseException
      * @throws InvalidCreateOperationException
      */
-    // TODO: use a distributed lock to launch this function only on one server (cf consul)
     public synchronized GUID generateSecureLogbook()
         throws TraceabilityException, LogbookNotFoundException, InvalidParseOperationException,
         LogbookDatabaseException, InvalidCreateOperationException {
 
-        final LogbookOperation lastTraceabilityOperation = logbookOperations.findLastTraceabilityOperationOK();
-
         final GUID eip = GUIDFactory.newOperationLogbookGUID(TENANT_ID);
 
+        if (!logbookOperations.acquireTraceabilityLease(eip.getId(), LEASE_DURATION)) {
+            throw new TraceabilityException("logbook is already secured by another server");
+        }
+        leaseTime = System.currentTimeMillis();
+        try {
+            return generateSecureLogbook(eip);
+        } finally {
+            try {
+                logbookOperations.releaseTraceabilityLease(eip.getId());
+            } catch (final LogbookDatabaseException e) {
+                LOGGER.warn("unable to release traceability lease, it will expire", e);
+            }
+        }
+    }
+
+    private GUID generateSecureLogbook(GUID eip)
+        throws TraceabilityException, LogbookNotFoundException, InvalidParseOperationException,
+        LogbookDatabaseException, InvalidCreateOperationException {
+
+        final LogbookOperation lastTraceabilityOperation = logbookOperations.findLastTraceabilityOperationOK();
+
         final List<String> expectedLogbookId = newArrayList(eip.getId());
         LocalDateTime startDate;
 
@@ -188,29 +233,41 @@ public class LogbookAdministration {
         final String uri = String.format("%s/%s", "logbook", fileName);
         TraceabilityEvent traceabilityEvent;
 
-        try (TraceabilityFile traceabilityFile = new TraceabilityFile(zipFile)) {
+        final MerkleTreeFrontier previousFrontier =
+            incremental ? extractMerkleFrontier(lastTraceabilityOperation) : null;
+
+        try (TraceabilityFile traceabilityFile = new TraceabilityFile(zipFile);
+            StreamingMerkleTreeAlgo merkleTreeAlgo = previousFrontier == null ?
+                new StreamingMerkleTreeAlgo(VitamConfiguration.getDefaultDigestType(), tmpFolder) :
+                new StreamingMerkleTreeAlgo(VitamConfiguration.getDefaultDigestType(), previousFrontier)) {
 
             final MongoCursor<LogbookOperation> mongoCursor = logbookOperations.selectAfterDate(startDate);
             final TraceabilityIterator traceabilityIterator = new TraceabilityIterator(mongoCursor);
 
-            final MerkleTreeAlgo merkleTreeAlgo = new MerkleTreeAlgo(VitamConfiguration.getDefaultDigestType());
-
             traceabilityFile.initStoreOperationLog();
 
             while (traceabilityIterator.hasNext()) {
 
                 final LogbookOperation logbookOperation = traceabilityIterator.next();
-                final String logbookOperationStr = JsonHandler.unprettyPrint(logbookOperation);
-                traceabilityFile.storeOperationLog(logbookOperation);
-                merkleTreeAlgo.addLeaf(logbookOperationStr);
+                // Serialized once for both the log and the leaf
+                final byte[] logbookOperationBytes = JsonHandler.unprettyPrint(logbookOperation).getBytes();
+                traceabilityFile.storeOperationLog(logbookOperationBytes);
+                merkleTreeAlgo.addLeaf(logbookOperationBytes);
+                renewLease(eip, false);
             }
 
             traceabilityFile.closeStoreOperationLog();
 
-            final MerkleTree merkleTree = merkleTreeAlgo.generateMerkle();
-            traceabilityFile.storeMerkleTree(merkleTree);
+            final byte[] merkleRoot = merkleTreeAlgo.generateMerkleRoot();
+            final MerkleTreeFrontier merkleFrontier = incremental ? merkleTreeAlgo.getFrontier() : null;
+            if (previousFrontier == null) {
+                traceabilityFile.storeMerkleTree(merkleTreeAlgo);
+            }
+            if (incremental) {
+                traceabilityFile.storeMerkleFrontier(previousFrontier, merkleFrontier);
+            }
 
-            final String rootHash = BaseXx.getBase64Padding(merkleTree.getRoot());
+            final String rootHash = BaseXx.getBase64Padding(merkleRoot);
 
             final String timestampToken1 = extractTimestampToken(lastTraceabilityOperation);
             final String timestampToken2 = findHashByTraceabilityEventExpect(expectedLogbookId, currentDate.minusMonths(1));
@@ -231,7 +288,10 @@ public class LogbookAdministration {
             traceabilityFile.storeHashCalculationInformation(rootHash, timestampToken1Base64, timestampToken2Base64, timestampToken3Base64);
 
             traceabilityEvent = new TraceabilityEvent(getString(startDate), endDate, rootHash, timeStampToken,
-                numberOfLine, fileName);
+                numberOfLine, fileName, merkleFrontier);
+
+            // Keep the lease while storing
+            renewLease(eip, true);
 
         } catch (LogbookDatabaseException | LogbookNotFoundException | IOException | InvalidCreateOperationException |
             ArchiveException | InvalidParseOperationException e) {
@@ -298,14 +358,43 @@ public class LogbookAdministration {
         if (logbookOperation == null) {
             return null;
         }
+        final TraceabilityEvent traceabilityEvent = extractTraceabilityEvent(logbookOperation);
+        return new String (traceabilityEvent.getTimeStampToken());
+    }
+
+    private MerkleTreeFrontier extractMerkleFrontier(LogbookOperation logbookOperation)
+        throws InvalidParseOperationException {
+        if (logbookOperation == null) {
+            return null;
+        }
+        // null if the previous securisation was not incremental: the tree starts again from this one
+        return extractTraceabilityEvent(logbookOperation).getMerkleFrontier();
+    }
 
+    private TraceabilityEvent extractTraceabilityEvent(LogbookOperation logbookOperation)
+        throws InvalidParseOperationException {
         final List<Document> events = (List<Document>) logbookOperation.get(EVENTS);
         final Document lastEvent = Iterables.getLast(events);
 
         final String evDetData = (String) lastEvent.get(eventDetailData.getDbname());
 
-        final TraceabilityEvent traceabilityEvent = JsonHandler.getFromString(evDetData, TraceabilityEvent.class);
-        return new String (traceabilityEvent.getTimeStampToken());
+        return JsonHandler.getFromString(evDetData, TraceabilityEvent.class);
+    }
+
+    /**
+     * Renew the traceability lease once half of it is elapsed, or always if forced
+     *
+     * @throws LogbookDatabaseException if the lease is lost: the logbook may be secured by another server
+     */
+    private void renewLease(GUID eip, boolean force) throws LogbookDatabaseException {
+        final long now = System.currentTimeMillis();
+        if (!force && now - leaseTime < LEASE_DURATION / 2) {
+            return;
+        }
+        if (!logbookOperations.acquireTraceabilityLease(eip.getId(), LEASE_DURATION)) {
+            throw new LogbookDatabaseException("traceability lease lost");
+        }
+        leaseTime = now;
     }
 
     @VisibleForTesting
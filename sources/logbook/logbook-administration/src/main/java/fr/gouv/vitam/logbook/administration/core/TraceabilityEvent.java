@@ -26,6 +26,8 @@
  */
 package fr.gouv.vitam.logbook.administration.core;
 
+import fr.gouv.vitam.common.security.merkletree.MerkleTreeFrontier;
+
 /**
  * information on the traceability event
  */
@@ -52,6 +54,11 @@ public class TraceabilityEvent {
      */
     private String fileName;
 
+    /**
+     * frontier of the merkle tree, only in incremental mode
+     */
+    private MerkleTreeFrontier merkleFrontier;
+
     /**
      * Empty constructor for Jackson
      */
@@ -69,12 +76,27 @@ public class TraceabilityEvent {
      */
     public TraceabilityEvent(String startDate, String endDate, String hash, byte[] timeStampToken, long numberOfElement,
         String fileName) {
+        this(startDate, endDate, hash, timeStampToken, numberOfElement, fileName, null);
+    }
+
+    /**
+     * @param startDate       date of the first document
+     * @param endDate         date of the last document
+     * @param hash            hash of the mekle tree
+     * @param timeStampToken  timestamp token
+     * @param numberOfElement number of document to secure
+     * @param fileName        path on the archive in workspace
+     * @param merkleFrontier  frontier of the merkle tree to resume in the next securisation
+     */
+    public TraceabilityEvent(String startDate, String endDate, String hash, byte[] timeStampToken, long numberOfElement,
+        String fileName, MerkleTreeFrontier merkleFrontier) {
         this.startDate = startDate;
         this.endDate = endDate;
         this.hash = hash;
         this.timeStampToken = timeStampToken;
         this.numberOfElement = numberOfElement;
         this.fileName = fileName;
+        this.merkleFrontier = merkleFrontier;
     }
 
     /**
@@ -118,4 +140,11 @@ public class TraceabilityEvent {
     public byte[] getTimeStampToken() {
         return timeStampToken;
     }
+
+    /**
+     * @return frontier of the merkle tree, null if not in incremental mode
+     */
+    public MerkleTreeFrontier getMerkleFrontier() {
+        return merkleFrontier;
+    }
 }
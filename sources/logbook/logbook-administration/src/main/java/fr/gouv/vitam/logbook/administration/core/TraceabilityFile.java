@@ -32,6 +32,8 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.compress.archivers.ArchiveException;
@@ -39,9 +41,9 @@ import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
 import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
 
-import fr.gouv.vitam.common.database.server.mongodb.VitamDocument;
 import fr.gouv.vitam.common.json.JsonHandler;
-import fr.gouv.vitam.common.security.merkletree.MerkleTree;
+import fr.gouv.vitam.common.security.merkletree.MerkleTreeFrontier;
+import fr.gouv.vitam.common.security.merkletree.StreamingMerkleTreeAlgo;
 
 /**
  * class {@link TraceabilityFile}
@@ -52,6 +54,7 @@ public class TraceabilityFile implements AutoCloseable {
     private static final String ADDITIONAL_INFORMATION_FILENAME = "additional_information.txt";
     private static final String COMPUTING_INFORMATION_FILENAME = "computing_information.txt";
     private static final String MEKLE_TREE_FILENAME = "merkleTree.json";
+    private static final String MEKLE_FRONTIER_FILENAME = "merkleFrontier.json";
     private static final String TIMESTAMP_FILENAME = "token.tsp";
 
     private static final String LINE_SEPARATOR = "\n";
@@ -88,15 +91,34 @@ public class TraceabilityFile implements AutoCloseable {
     }
 
     /**
-     * store Mekle tree in a specific file
+     * store Mekle tree in a specific file, streamed from its level files
      *
-     * @param merkleTree
+     * @param merkleTreeAlgo
      * @throws IOException
      */
-    public void storeMerkleTree(MerkleTree merkleTree) throws IOException {
+    public void storeMerkleTree(StreamingMerkleTreeAlgo merkleTreeAlgo) throws IOException {
         final ZipArchiveEntry entry = new ZipArchiveEntry(MEKLE_TREE_FILENAME);
         archive.putArchiveEntry(entry);
-        archive.write(JsonHandler.unprettyPrint(merkleTree).getBytes());
+        merkleTreeAlgo.writeMerkleTree(archive);
+        archive.closeArchiveEntry();
+    }
+
+    /**
+     * store the frontiers of an incremental Mekle tree in a specific file: the root can be checked by resuming the
+     * previous frontier with the operations of this file
+     *
+     * @param previousFrontier frontier of the previous securisation, may be null
+     * @param currentFrontier frontier after the operations of this securisation
+     * @throws IOException
+     */
+    public void storeMerkleFrontier(MerkleTreeFrontier previousFrontier, MerkleTreeFrontier currentFrontier)
+        throws IOException {
+        final Map<String, MerkleTreeFrontier> frontiers = new LinkedHashMap<>();
+        frontiers.put("previous", previousFrontier);
+        frontiers.put("current", currentFrontier);
+        final ZipArchiveEntry entry = new ZipArchiveEntry(MEKLE_FRONTIER_FILENAME);
+        archive.putArchiveEntry(entry);
+        archive.write(JsonHandler.unprettyPrint(frontiers).getBytes());
         archive.closeArchiveEntry();
     }
 
@@ -110,11 +132,11 @@ public class TraceabilityFile implements AutoCloseable {
     }
 
     /**
-     * @param logbookOperation
+     * @param logbookOperation already serialized logbook operation
      * @throws IOException
      */
-    public void storeOperationLog(VitamDocument logbookOperation) throws IOException {
-        archive.write(JsonHandler.unprettyPrint(logbookOperation).getBytes());
+    public void storeOperationLog(byte[] logbookOperation) throws IOException {
+        archive.write(logbookOperation);
         archive.write(LINE_SEPARATOR.getBytes());
     }
 
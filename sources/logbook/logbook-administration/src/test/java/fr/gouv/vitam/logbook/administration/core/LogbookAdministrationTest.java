@@ -49,10 +49,12 @@ import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.guid.GUID;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.junit.JunitHelper;
+import fr.gouv.vitam.common.security.merkletree.MerkleTreeFrontier;
 import fr.gouv.vitam.common.server.application.configuration.DbConfigurationImpl;
 import fr.gouv.vitam.common.server.application.configuration.MongoDbNode;
 import fr.gouv.vitam.common.timestamp.TimestampGenerator;
 import fr.gouv.vitam.logbook.common.server.LogbookDbAccess;
+import fr.gouv.vitam.logbook.common.server.database.collections.LogbookCollections;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookMongoDbAccessFactory;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookOperation;
 import fr.gouv.vitam.logbook.common.server.exception.LogbookDatabaseException;
@@ -121,7 +123,7 @@ public class LogbookAdministrationTest {
 
         LogbookAdministration logbookAdministration =
             new LogbookAdministration(logbookOperations, timestampGenerator,
-                workspaceClientFactory, file);
+                workspaceClientFactory, file, false);
 
         // When
         logbookAdministration.generateSecureLogbook();
@@ -163,7 +165,7 @@ public class LogbookAdministrationTest {
 
         LogbookAdministration logbookAdministration =
             new LogbookAdministration(logbookOperations, timestampGenerator,
-                workspaceClientFactory, file);
+                workspaceClientFactory, file, false);
         // insert initial event
         GUID guid = logbookAdministration.generateSecureLogbook();
         Select select = new Select();
@@ -181,6 +183,84 @@ public class LogbookAdministrationTest {
         validateFile(archive, 2, BaseXx.getBase64Padding(lastTimestampToken.getBytes()));
     }
 
+    @Test
+    public void should_resume_merkle_tree_in_incremental_mode() throws Exception {
+
+        // Given
+        byte[] hash = {1, 2, 3, 4};
+        File file = folder.newFolder();
+
+        TimestampGenerator timestampGenerator = mock(TimestampGenerator.class);
+        WorkspaceClientFactory workspaceClientFactory = mock(WorkspaceClientFactory.class);
+        WorkspaceClient workspaceClient = mock(WorkspaceClient.class);
+
+        Path archive = Paths.get(file.getAbsolutePath(), "archive.zip");
+
+        AtomicInteger atomicInteger = new AtomicInteger();
+        doAnswer(invocation -> {
+            int call = atomicInteger.incrementAndGet();
+            if (call == 2) {
+                InputStream argumentAt = invocation.getArgumentAt(2, InputStream.class);
+                Files.copy(argumentAt, archive);
+            }
+            return null;
+        }).when(workspaceClient).putObject(anyString(), anyString(), any(InputStream.class));
+
+        given(timestampGenerator.generateToken(any(byte[].class),
+            eq(DigestType.SHA512), eq(null))).willReturn(hash);
+        given(workspaceClientFactory.getClient()).willReturn(workspaceClient);
+
+        LogbookOperationsImpl logbookOperations = new LogbookOperationsImpl(mongoDbAccess);
+
+        LogbookAdministration logbookAdministration =
+            new LogbookAdministration(logbookOperations, timestampGenerator,
+                workspaceClientFactory, file, true);
+        try {
+            GUID firstGuid = logbookAdministration.generateSecureLogbook();
+            MerkleTreeFrontier firstFrontier =
+                extractTraceabilityEvent(logbookOperations, firstGuid).getMerkleFrontier();
+
+            // When
+            GUID secondGuid = logbookAdministration.generateSecureLogbook();
+
+            // Then
+            TraceabilityEvent secondEvent = extractTraceabilityEvent(logbookOperations, secondGuid);
+            assertThat(firstFrontier).isNotNull();
+            assertThat(secondEvent.getMerkleFrontier().getNumberOfLeaves())
+                .isEqualTo(firstFrontier.getNumberOfLeaves() + secondEvent.getNumberOfElement());
+
+            List<String> entries = new ArrayList<>();
+            try (ArchiveInputStream archiveInputStream = new ArchiveStreamFactory()
+                .createArchiveInputStream(ArchiveStreamFactory.ZIP, Files.newInputStream(archive))) {
+                ArchiveEntry entry;
+                while ((entry = archiveInputStream.getNextEntry()) != null) {
+                    entries.add(entry.getName());
+                }
+            }
+            assertThat(entries).contains("merkleFrontier.json").doesNotContain("merkleTree.json");
+        } finally {
+            mongoDbAccess.deleteCollection(LogbookCollections.OPERATION);
+        }
+    }
+
+    @Test(expected = TraceabilityException.class)
+    public void should_not_secure_while_another_server_holds_the_lease() throws Exception {
+
+        // Given
+        LogbookOperationsImpl logbookOperations = new LogbookOperationsImpl(mongoDbAccess);
+        LogbookAdministration logbookAdministration =
+            new LogbookAdministration(logbookOperations, mock(TimestampGenerator.class),
+                mock(WorkspaceClientFactory.class), folder.newFolder(), false);
+        assertThat(logbookOperations.acquireTraceabilityLease("otherServer", 60000)).isTrue();
+
+        // When
+        try {
+            logbookAdministration.generateSecureLogbook();
+        } finally {
+            logbookOperations.releaseTraceabilityLease("otherServer");
+        }
+    }
+
     private String extractLastTimestampToken(LogbookOperationsImpl logbookOperations, Select select)
         throws LogbookDatabaseException, LogbookNotFoundException, InvalidParseOperationException {
         List<LogbookOperation> logbookOperationList = logbookOperations.select(select.getFinalSelect());
@@ -195,6 +275,14 @@ public class LogbookAdministrationTest {
 
     }
 
+    private TraceabilityEvent extractTraceabilityEvent(LogbookOperationsImpl logbookOperations, GUID guid)
+        throws LogbookDatabaseException, LogbookNotFoundException, InvalidParseOperationException {
+        LogbookOperation traceabilityOperation = logbookOperations.getById(guid.toString());
+        List<Document> documents = (List<Document>) traceabilityOperation.get("events");
+        String evDetData = (String) Iterables.getLast(documents).get("evDetData");
+        return JsonHandler.getFromString(evDetData, TraceabilityEvent.class);
+    }
+
     private void validateFile(Path path, int numberOfElement, String previousHash)
         throws IOException, ArchiveException {
         try (ArchiveInputStream archiveInputStream =
@@ -26,7 +26,9 @@
  *******************************************************************************/
 package fr.gouv.vitam.logbook.administration.core;
 
-import fr.gouv.vitam.common.security.merkletree.MerkleTree;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.security.merkletree.StreamingMerkleTreeAlgo;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookOperation;
 import org.apache.commons.io.IOUtils;
 import org.junit.Rule;
@@ -41,7 +43,6 @@ import java.util.zip.ZipFile;
 
 import static fr.gouv.vitam.common.PropertiesUtils.getResourceAsStream;
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
 
 /**
  * TraceabilityFile ClassTest
@@ -63,11 +64,15 @@ public class TraceabilityFileTest {
         TraceabilityFile traceabilityFile = new TraceabilityFile(destination);
         traceabilityFile.initStoreOperationLog();
         LogbookOperation lop = new LogbookOperation(IOUtils.toString(getResourceAsStream(LOGBOOK_OPERATION)));
-        traceabilityFile.storeOperationLog(lop);
+        byte[] lopBytes = JsonHandler.unprettyPrint(lop).getBytes();
+        traceabilityFile.storeOperationLog(lopBytes);
         traceabilityFile.closeStoreOperationLog();
 
-        MerkleTree merkleTree = mock(MerkleTree.class);
-        traceabilityFile.storeMerkleTree(merkleTree);
+        try (StreamingMerkleTreeAlgo merkleTreeAlgo =
+            new StreamingMerkleTreeAlgo(DigestType.SHA512, folder.newFolder())) {
+            merkleTreeAlgo.addLeaf(lopBytes);
+            traceabilityFile.storeMerkleTree(merkleTreeAlgo);
+        }
 
         byte[] timeStampToken = "2016-11-21T16:19:14.469".getBytes();
 
@@ -312,6 +312,21 @@ public interface LogbookDbAccess {
     void createBulkLogbookOperation(LogbookOperationParameters... operationItems)
         throws LogbookDatabaseException, LogbookAlreadyExistsException;
 
+    /**
+     * Create several Logbook LifeCycles for Units at once, each one with its first event only.<br>
+     * <br>
+     * All the LifeCycles are inserted even if some of them already exist.
+     *
+     * @param idOperation the operation of all the LifeCycles
+     * @param lifecycleItems one entry per LifeCycle to create
+     *
+     * @throws IllegalArgumentException if no item is given or if an item does not belong to the operation
+     * @throws LogbookDatabaseException
+     * @throws LogbookAlreadyExistsException if at least one LifeCycle already exists
+     */
+    void createLogbookLifeCycleUnits(String idOperation, LogbookLifeCycleUnitParameters... lifecycleItems)
+        throws LogbookDatabaseException, LogbookAlreadyExistsException;
+
     /**
      * Create one Logbook LifeCycle with already multiple sub-events
      *
@@ -445,6 +460,26 @@ public interface LogbookDbAccess {
     MongoCursor<LogbookLifeCycleObjectGroup> getLogbookLifeCycleObjectGroupsFull(Select select)
         throws LogbookDatabaseException;
 
+    /**
+     * Acquire or renew a lease: only one owner holds it until it expires or is released
+     *
+     * @param name the name of the lease
+     * @param owner the owner asking for the lease
+     * @param duration the duration of the lease in ms
+     * @return true if the lease is held by this owner, false if it is held by another one
+     * @throws LogbookDatabaseException
+     */
+    boolean acquireLease(String name, String owner, long duration) throws LogbookDatabaseException;
+
+    /**
+     * Release a lease, if still held by this owner
+     *
+     * @param name the name of the lease
+     * @param owner the owner of the lease
+     * @throws LogbookDatabaseException
+     */
+    void releaseLease(String name, String owner) throws LogbookDatabaseException;
+
     /**
      * Delete logbook collection
      *
@@ -0,0 +1,666 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.logbook.common.server.database.collections;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.in;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.bson.Document;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.common.logging.SysErrLogger;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.thread.VitamThreadFactory;
+import fr.gouv.vitam.logbook.common.server.exception.LogbookDatabaseException;
+import fr.gouv.vitam.logbook.common.server.exception.LogbookException;
+import fr.gouv.vitam.logbook.common.server.exception.LogbookNotFoundException;
+
+/**
+ * Write-behind buffer for the events of the LifeCycles<br>
+ * <br>
+ * Events pushed to the same LifeCycle are grouped, then written by one single thread as one unordered bulkWrite of
+ * $push/$each updates, as soon as maxEvents events are pending or the oldest pending event waited for maxDelay ms.
+ * <br>
+ * According to the {@link Durability}, a push is acknowledged:
+ * <ul>
+ * <li>FLUSH: once written into the database, therefore errors are still reported to the caller</li>
+ * <li>JOURNAL: once appended and synchronized into a local journal, replayed at startup. Events are then written at
+ * least once, may not be visible to readers right away, and an update of an unknown LifeCycle can only be logged.</li>
+ * </ul>
+ */
+public final class LogbookLifeCycleWriteBuffer implements Runnable, AutoCloseable {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(LogbookLifeCycleWriteBuffer.class);
+
+    private static final String UPDATE_ISSUE = "Update issue";
+    private static final String UPDATE_NOT_FOUND_ITEM = "Update not found item: ";
+    private static final String JOURNAL_PREFIX = "lifecycles-";
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String COLLECTION_FIELD = "collection";
+    /**
+     * In JOURNAL mode, callers are blocked beyond this number of times maxEvents pending events
+     */
+    private static final int MAX_PENDING_FACTOR = 4;
+
+    /**
+     * When a push is acknowledged
+     */
+    public enum Durability {
+        /**
+         * Once written into the database
+         */
+        FLUSH,
+        /**
+         * Once appended into the local journal
+         */
+        JOURNAL
+    }
+
+    private final int maxEvents;
+    private final long maxDelay;
+    private final Durability durability;
+    private final File journalDirectory;
+    private final Object lock = new Object();
+
+    private Map<String, PendingLifeCycle> pending = new LinkedHashMap<>();
+    private int pendingEvents;
+    private long oldestPending;
+    private boolean closed;
+    private Throwable failure;
+    private Thread flusher;
+    // batch being written by the flushing thread
+    private Map<String, PendingLifeCycle> writing;
+
+    private long journalRank;
+    private FileOutputStream journal;
+    private Writer journalWriter;
+
+    /**
+     * Constructor
+     *
+     * @param maxEvents number of pending events triggering a flush
+     * @param maxDelay maximum delay in ms an event waits before being flushed
+     * @param durability when a push is acknowledged
+     * @param journalDirectory directory of the journal, mandatory in JOURNAL mode only
+     * @throws IllegalArgumentException if an argument is incorrect
+     */
+    public LogbookLifeCycleWriteBuffer(int maxEvents, long maxDelay, Durability durability, File journalDirectory) {
+        ParametersChecker.checkParameter("durability", durability);
+        ParametersChecker.checkValue("maxEvents", maxEvents, 1);
+        ParametersChecker.checkValue("maxDelay", maxDelay, 1);
+        if (durability == Durability.JOURNAL) {
+            ParametersChecker.checkParameter("journalDirectory", journalDirectory);
+        }
+        this.maxEvents = maxEvents;
+        this.maxDelay = maxDelay;
+        this.durability = durability;
+        this.journalDirectory = journalDirectory;
+    }
+
+    /**
+     * @return the durability of this buffer
+     */
+    public Durability getDurability() {
+        return durability;
+    }
+
+    /**
+     * Replay the journal if any, then start the flushing thread
+     *
+     * @throws LogbookDatabaseException if the journal cannot be replayed
+     */
+    void start() throws LogbookDatabaseException {
+        synchronized (lock) {
+            if (durability == Durability.JOURNAL) {
+                if (!journalDirectory.isDirectory() && !journalDirectory.mkdirs()) {
+                    throw new LogbookDatabaseException("Cannot create the journal directory " + journalDirectory);
+                }
+                replayJournal();
+            }
+            flusher = VitamThreadFactory.getInstance().newThread(this);
+            flusher.start();
+        }
+    }
+
+    /**
+     * Add events to one LifeCycle
+     *
+     * @param collection the LifeCycle collection
+     * @param id the LifeCycle id
+     * @param events the events to push, in order
+     * @throws LogbookNotFoundException if the LifeCycle does not exist (FLUSH mode only)
+     * @throws LogbookDatabaseException if the events cannot be written or journaled
+     */
+    void push(LogbookCollections collection, String id, List<? extends Document> events)
+        throws LogbookDatabaseException, LogbookNotFoundException {
+        final Acknowledge acknowledge = durability == Durability.FLUSH ? new Acknowledge() : null;
+        FileChannel toSync = null;
+        synchronized (lock) {
+            while (durability == Durability.JOURNAL && !closed && pendingEvents >= MAX_PENDING_FACTOR * maxEvents) {
+                try {
+                    lock.wait();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new LogbookDatabaseException(UPDATE_ISSUE + " (interrupted)", e);
+                }
+            }
+            if (failure != null) {
+                throw new LogbookDatabaseException(UPDATE_ISSUE + " (LifeCycle buffer failed)", failure);
+            }
+            if (closed) {
+                throw new LogbookDatabaseException(UPDATE_ISSUE + " (LifeCycle buffer closed)");
+            }
+            final List<Document> copies = new ArrayList<>(events.size());
+            for (final Document event : events) {
+                copies.add(new Document(event));
+            }
+            if (durability == Durability.JOURNAL) {
+                appendToJournal(collection, id, copies);
+                toSync = journal.getChannel();
+            }
+            final boolean first = pending.isEmpty();
+            enqueue(collection, id, copies, acknowledge);
+            if (first || pendingEvents >= maxEvents) {
+                lock.notifyAll();
+            }
+        }
+        if (toSync != null) {
+            try {
+                toSync.force(false);
+            } catch (final ClosedChannelException e) {
+                // Already synchronized when rotated
+                SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+            } catch (final IOException e) {
+                throw new LogbookDatabaseException(UPDATE_ISSUE + " (journal not synchronized)", e);
+            }
+        }
+        if (acknowledge != null) {
+            acknowledge.await();
+        }
+    }
+
+    /**
+     * Drop the pending events of one LifeCycle, when it is rolled back
+     *
+     * @param collection the LifeCycle collection
+     * @param id the LifeCycle id
+     */
+    void discard(LogbookCollections collection, String id) {
+        synchronized (lock) {
+            final PendingLifeCycle lifeCycle = pending.remove(getKey(collection, id));
+            if (lifeCycle != null) {
+                pendingEvents -= lifeCycle.events.size();
+                // As if pushed just before the rollback
+                lifeCycle.acknowledge(null);
+            }
+        }
+    }
+
+    /**
+     * Flush the pending events then stop the flushing thread
+     */
+    @Override
+    public void close() {
+        final Thread toJoin;
+        synchronized (lock) {
+            closed = true;
+            toJoin = flusher;
+            lock.notifyAll();
+        }
+        if (toJoin != null) {
+            try {
+                toJoin.join();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOGGER.warn("Interrupted while flushing the LifeCycles", e);
+            }
+        }
+        synchronized (lock) {
+            closeJournal();
+        }
+    }
+
+    @Override
+    public void run() {
+        Throwable cause = null;
+        try {
+            flushLoop();
+        } catch (final RuntimeException | Error e) {
+            cause = e;
+            LOGGER.error("LifeCycle buffer stopped", e);
+            throw e;
+        } finally {
+            stopped(cause);
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            final Map<String, PendingLifeCycle> batch;
+            final long journalToRelease;
+            synchronized (lock) {
+                try {
+                    while (!closed && (pending.isEmpty() ||
+                        pendingEvents < maxEvents && System.currentTimeMillis() - oldestPending < maxDelay)) {
+                        if (pending.isEmpty()) {
+                            lock.wait();
+                        } else {
+                            lock.wait(Math.max(1, maxDelay - (System.currentTimeMillis() - oldestPending)));
+                        }
+                    }
+                } catch (final InterruptedException e) {
+                    LOGGER.warn("LifeCycle buffer interrupted", e);
+                    closed = true;
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = drain();
+                writing = batch;
+                journalToRelease = journalRank;
+                if (durability == Durability.JOURNAL) {
+                    closeJournal();
+                }
+                lock.notifyAll();
+            }
+            final boolean written = write(batch.values());
+            synchronized (lock) {
+                writing = null;
+            }
+            if (written) {
+                if (durability == Durability.JOURNAL) {
+                    deleteJournals(journalToRelease);
+                }
+            } else {
+                synchronized (lock) {
+                    if (closed) {
+                        // Kept into the journal for next startup
+                        return;
+                    }
+                }
+                try {
+                    Thread.sleep(VitamConfiguration.getWaitingDelay());
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Once the flushing thread is stopped, refuse the next pushes and release the waiting ones. In JOURNAL mode, the
+     * events not written are kept into the journal for next startup.
+     *
+     * @param cause the error that stopped the flushing thread, null if closed
+     */
+    private void stopped(Throwable cause) {
+        synchronized (lock) {
+            closed = true;
+            failure = cause;
+            final LogbookDatabaseException error =
+                new LogbookDatabaseException(UPDATE_ISSUE + " (LifeCycle buffer stopped)", cause);
+            if (writing != null) {
+                for (final PendingLifeCycle lifeCycle : writing.values()) {
+                    lifeCycle.acknowledge(error);
+                }
+                writing = null;
+            }
+            for (final PendingLifeCycle lifeCycle : pending.values()) {
+                lifeCycle.acknowledge(error);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private Map<String, PendingLifeCycle> drain() {
+        final Map<String, PendingLifeCycle> batch = pending;
+        pending = new LinkedHashMap<>();
+        pendingEvents = 0;
+        return batch;
+    }
+
+    private static String getKey(LogbookCollections collection, String id) {
+        return collection.name() + '/' + id;
+    }
+
+    private void enqueue(LogbookCollections collection, String id, List<Document> events, Acknowledge acknowledge) {
+        final String key = getKey(collection, id);
+        PendingLifeCycle lifeCycle = pending.get(key);
+        if (lifeCycle == null) {
+            lifeCycle = new PendingLifeCycle(collection, id);
+            pending.put(key, lifeCycle);
+        }
+        if (pendingEvents == 0) {
+            oldestPending = System.currentTimeMillis();
+        }
+        lifeCycle.events.addAll(events);
+        if (acknowledge != null) {
+            lifeCycle.acknowledges.add(acknowledge);
+        }
+        pendingEvents += events.size();
+    }
+
+    private void requeue(List<PendingLifeCycle> failed) {
+        synchronized (lock) {
+            for (final PendingLifeCycle lifeCycle : failed) {
+                // Failed events come before the ones pushed since
+                final PendingLifeCycle newer = pending.remove(getKey(lifeCycle.collection, lifeCycle.id));
+                if (pendingEvents == 0) {
+                    oldestPending = System.currentTimeMillis();
+                }
+                pendingEvents += lifeCycle.events.size();
+                if (newer != null) {
+                    lifeCycle.events.addAll(newer.events);
+                }
+                pending.put(getKey(lifeCycle.collection, lifeCycle.id), lifeCycle);
+            }
+        }
+    }
+
+    /**
+     * @return False if some events failed and were requeued (JOURNAL mode only)
+     */
+    private boolean write(Collection<PendingLifeCycle> batch) {
+        final Map<LogbookCollections, List<PendingLifeCycle>> byCollection = new EnumMap<>(LogbookCollections.class);
+        for (final PendingLifeCycle lifeCycle : batch) {
+            byCollection.computeIfAbsent(lifeCycle.collection, collection -> new ArrayList<>()).add(lifeCycle);
+        }
+        final List<PendingLifeCycle> failed = new ArrayList<>();
+        for (final Entry<LogbookCollections, List<PendingLifeCycle>> entry : byCollection.entrySet()) {
+            final List<PendingLifeCycle> lifeCycles = entry.getValue();
+            final LogbookException[] errors = bulkPush(entry.getKey(), lifeCycles);
+            for (int i = 0; i < errors.length; i++) {
+                final PendingLifeCycle lifeCycle = lifeCycles.get(i);
+                if (durability == Durability.FLUSH) {
+                    lifeCycle.acknowledge(errors[i]);
+                } else if (errors[i] instanceof LogbookNotFoundException) {
+                    LOGGER.error("LifeCycle events lost", errors[i]);
+                } else if (errors[i] != null) {
+                    failed.add(lifeCycle);
+                }
+            }
+        }
+        if (failed.isEmpty()) {
+            return true;
+        }
+        LOGGER.error(UPDATE_ISSUE + ": " + failed.size() + " LifeCycles will be retried");
+        requeue(failed);
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private LogbookException[] bulkPush(LogbookCollections collection, List<PendingLifeCycle> lifeCycles) {
+        final LogbookException[] errors = new LogbookException[lifeCycles.size()];
+        final List<WriteModel<Document>> updates = new ArrayList<>(lifeCycles.size());
+        for (final PendingLifeCycle lifeCycle : lifeCycles) {
+            updates.add(new UpdateOneModel<>(eq(LogbookDocument.ID, lifeCycle.id),
+                Updates.pushEach(LogbookDocument.EVENTS, lifeCycle.events)));
+        }
+        int matched;
+        try {
+            matched = collection.getCollection().bulkWrite(updates, new BulkWriteOptions().ordered(false))
+                .getMatchedCount();
+        } catch (final MongoBulkWriteException e) {
+            for (final BulkWriteError error : e.getWriteErrors()) {
+                errors[error.getIndex()] = new LogbookDatabaseException(
+                    UPDATE_ISSUE + " (" + error.getMessage() + ": " + error.getCode() + ")", e);
+            }
+            matched = e.getWriteResult().getMatchedCount() + e.getWriteErrors().size();
+        } catch (final MongoException e) {
+            Arrays.fill(errors, new LogbookDatabaseException(
+                UPDATE_ISSUE + " (" + e.getClass().getName() + " " + e.getMessage() + ": " + e.getCode() + ")", e));
+            return errors;
+        } catch (final RuntimeException e) {
+            // Such as events that cannot be encoded
+            Arrays.fill(errors, new LogbookDatabaseException(
+                UPDATE_ISSUE + " (" + e.getClass().getName() + " " + e.getMessage() + ")", e));
+            return errors;
+        }
+        if (matched < lifeCycles.size()) {
+            setNotFound(collection, lifeCycles, errors);
+        }
+        return errors;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void setNotFound(LogbookCollections collection, List<PendingLifeCycle> lifeCycles,
+        LogbookException[] errors) {
+        final List<String> ids = new ArrayList<>(lifeCycles.size());
+        for (final PendingLifeCycle lifeCycle : lifeCycles) {
+            ids.add(lifeCycle.id);
+        }
+        final Set<String> found = new HashSet<>();
+        try (final MongoCursor<Document> cursor = collection.getCollection().find(in(LogbookDocument.ID, ids))
+            .projection(LogbookMongoDbAccessImpl.ID_PROJECTION).iterator()) {
+            while (cursor.hasNext()) {
+                found.add(cursor.next().getString(LogbookDocument.ID));
+            }
+        } catch (final RuntimeException e) {
+            for (int i = 0; i < errors.length; i++) {
+                if (errors[i] == null) {
+                    errors[i] = new LogbookDatabaseException(UPDATE_ISSUE + " (" + e.getMessage() + ")", e);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] == null && !found.contains(ids.get(i))) {
+                errors[i] = new LogbookNotFoundException(UPDATE_NOT_FOUND_ITEM + ids.get(i));
+            }
+        }
+    }
+
+    private void appendToJournal(LogbookCollections collection, String id, List<Document> events)
+        throws LogbookDatabaseException {
+        try {
+            if (journalWriter == null) {
+                journalRank++;
+                journal = new FileOutputStream(new File(journalDirectory, JOURNAL_PREFIX + journalRank +
+                    JOURNAL_SUFFIX), true);
+                journalWriter = new BufferedWriter(new OutputStreamWriter(journal, StandardCharsets.UTF_8));
+            }
+            journalWriter.write(new Document(COLLECTION_FIELD, collection.name()).append(LogbookDocument.ID, id)
+                .append(LogbookDocument.EVENTS, events).toJson());
+            journalWriter.write('\n');
+            journalWriter.flush();
+        } catch (final IOException e) {
+            closeJournal();
+            throw new LogbookDatabaseException(UPDATE_ISSUE + " (journal not written)", e);
+        }
+    }
+
+    /**
+     * Close the current segment of the journal, the next push opening a new one
+     */
+    private void closeJournal() {
+        if (journalWriter != null) {
+            try {
+                journalWriter.flush();
+                journal.getChannel().force(false);
+                journalWriter.close();
+            } catch (final IOException e) {
+                LOGGER.error("Cannot close the LifeCycle journal", e);
+            }
+            journalWriter = null;
+            journal = null;
+        }
+    }
+
+    private Map<Long, File> listJournals() {
+        final Map<Long, File> journals = new TreeMap<>();
+        final File[] files = journalDirectory.listFiles();
+        if (files != null) {
+            for (final File file : files) {
+                final String name = file.getName();
+                if (name.startsWith(JOURNAL_PREFIX) && name.endsWith(JOURNAL_SUFFIX)) {
+                    try {
+                        journals.put(Long.parseLong(
+                            name.substring(JOURNAL_PREFIX.length(), name.length() - JOURNAL_SUFFIX.length())), file);
+                    } catch (final NumberFormatException e) {
+                        SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+                    }
+                }
+            }
+        }
+        return journals;
+    }
+
+    private void deleteJournals(long upToRank) {
+        for (final Entry<Long, File> entry : listJournals().entrySet()) {
+            if (entry.getKey() <= upToRank && !entry.getValue().delete()) {
+                LOGGER.warn("Cannot delete the LifeCycle journal " + entry.getValue());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replayJournal() throws LogbookDatabaseException {
+        final Map<Long, File> journals = listJournals();
+        for (final Entry<Long, File> entry : journals.entrySet()) {
+            LOGGER.info("Replay LifeCycle journal " + entry.getValue());
+            try (BufferedReader reader = Files.newBufferedReader(entry.getValue().toPath(), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    final Document logged;
+                    try {
+                        logged = Document.parse(line);
+                    } catch (final RuntimeException e) {
+                        // Last line of a crashed append
+                        LOGGER.warn("Incomplete LifeCycle journal entry ignored", e);
+                        continue;
+                    }
+                    enqueue(LogbookCollections.valueOf(logged.getString(COLLECTION_FIELD)),
+                        logged.getString(LogbookDocument.ID), (List<Document>) logged.get(LogbookDocument.EVENTS),
+                        null);
+                    if (pendingEvents >= maxEvents) {
+                        replayPending();
+                    }
+                }
+            } catch (final IOException e) {
+                throw new LogbookDatabaseException("Cannot read the LifeCycle journal " + entry.getValue(), e);
+            }
+            journalRank = entry.getKey();
+        }
+        replayPending();
+        deleteJournals(journalRank);
+    }
+
+    private void replayPending() throws LogbookDatabaseException {
+        if (!pending.isEmpty() && !write(drain().values())) {
+            throw new LogbookDatabaseException("Cannot replay the LifeCycle journal");
+        }
+    }
+
+    /**
+     * Events pending for one LifeCycle
+     */
+    private static final class PendingLifeCycle {
+        private final LogbookCollections collection;
+        private final String id;
+        private final List<Document> events = new ArrayList<>();
+        private final List<Acknowledge> acknowledges = new ArrayList<>(1);
+
+        private PendingLifeCycle(LogbookCollections collection, String id) {
+            this.collection = collection;
+            this.id = id;
+        }
+
+        private void acknowledge(LogbookException error) {
+            for (final Acknowledge acknowledge : acknowledges) {
+                acknowledge.done(error);
+            }
+        }
+    }
+
+    /**
+     * Acknowledge of a push in FLUSH mode
+     */
+    private static final class Acknowledge {
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile LogbookException error;
+
+        private synchronized void done(LogbookException cause) {
+            // Only the first outcome counts
+            if (latch.getCount() > 0) {
+                error = cause;
+                latch.countDown();
+            }
+        }
+
+        private void await() throws LogbookDatabaseException, LogbookNotFoundException {
+            try {
+                latch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new LogbookDatabaseException(UPDATE_ISSUE + " (interrupted)", e);
+            }
+            if (error instanceof LogbookNotFoundException) {
+                throw new LogbookNotFoundException(error.getMessage(), error);
+            } else if (error != null) {
+                throw new LogbookDatabaseException(error.getMessage(), error);
+            }
+        }
+    }
+}
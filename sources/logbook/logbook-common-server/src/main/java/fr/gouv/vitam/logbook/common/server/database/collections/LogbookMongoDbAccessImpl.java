@@ -28,10 +28,13 @@ package fr.gouv.vitam.logbook.common.server.database.collections;
 
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.lt;
 import static com.mongodb.client.model.Filters.or;
 import static com.mongodb.client.model.Indexes.hashed;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
 
 import org.bson.Document;
@@ -43,14 +46,18 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.mongodb.BasicDBObject;
 import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientOptions;
 import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.ListIndexesIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.InsertManyOptions;
 import com.mongodb.client.model.Updates;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
@@ -105,6 +112,13 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
     private static final String CREATION_ISSUE = "Creation issue";
     private static final String UPDATE_ISSUE = "Update issue";
     private static final String ROLLBACK_ISSUE = "Rollback issue";
+    private static final String LEASE_ISSUE = "Lease issue";
+    /**
+     * Collection of the leases, one document per lease name
+     */
+    private static final String LEASE_COLLECTION = "LogbookLease";
+    private static final String LEASE_OWNER = "owner";
+    private static final String LEASE_EXPIRE = "expireAt";
 
     /**
      * Quick projection for ID Only
@@ -124,6 +138,8 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         }
     }
 
+    private volatile LogbookLifeCycleWriteBuffer lifeCycleWriteBuffer;
+
 
     /**
      *
@@ -155,11 +171,34 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         return MongoClientOptions.builder().codecRegistry(codecRegistry).build();
     }
 
+    /**
+     * Delay the writes of the LifeCycles events into the given buffer
+     *
+     * @param writeBuffer the buffer to use, null to write the events synchronously
+     * @throws LogbookDatabaseException if the journal of the buffer cannot be replayed
+     */
+    public final void setLifeCycleWriteBuffer(LogbookLifeCycleWriteBuffer writeBuffer)
+        throws LogbookDatabaseException {
+        final LogbookLifeCycleWriteBuffer previous = lifeCycleWriteBuffer;
+        lifeCycleWriteBuffer = null;
+        if (previous != null) {
+            previous.close();
+        }
+        if (writeBuffer != null) {
+            writeBuffer.start();
+        }
+        lifeCycleWriteBuffer = writeBuffer;
+    }
+
     /**
      * Close database access
      */
     @Override
     public final void close() {
+        final LogbookLifeCycleWriteBuffer writeBuffer = lifeCycleWriteBuffer;
+        if (writeBuffer != null) {
+            writeBuffer.close();
+        }
         getMongoClient().close();
     }
 
@@ -610,6 +649,11 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
             document.remove(LogbookDocument.EVENTS);
             document.remove(LogbookDocument.ID);
 
+            final LogbookLifeCycleWriteBuffer writeBuffer = lifeCycleWriteBuffer;
+            if (writeBuffer != null && collection != LogbookCollections.OPERATION) {
+                writeBuffer.push(collection, mainLogbookDocumentId, Collections.singletonList(document));
+                return;
+            }
             final UpdateResult result = collection.getCollection().updateOne(
                 eq(LogbookDocument.ID, mainLogbookDocumentId),
                 Updates.push(LogbookDocument.EVENTS, document));
@@ -657,6 +701,10 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
     final void rollbackLogbookLifeCycle(LogbookCollections collection, String idOperation, String lifecycleItem)
         throws LogbookDatabaseException, LogbookNotFoundException {
         ParametersChecker.checkParameter(LIFECYCLE_ITEM, lifecycleItem);
+        final LogbookLifeCycleWriteBuffer writeBuffer = lifeCycleWriteBuffer;
+        if (writeBuffer != null) {
+            writeBuffer.discard(collection, lifecycleItem);
+        }
         try {
             final DeleteResult result = collection.getCollection().deleteOne(
                 and(eq(LogbookDocument.ID, lifecycleItem),
@@ -726,6 +774,63 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         }
     }
 
+    /**
+     * Insert one document per item with one unordered insertMany, so that Mongo may apply them in parallel and goes
+     * on after a failed one
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    final void createLogbooks(LogbookCollections collection, final LogbookParameters... items)
+        throws LogbookDatabaseException, LogbookAlreadyExistsException {
+        if (items == null || items.length == 0) {
+            throw new IllegalArgumentException(AT_LEAST_ONE_ITEM_IS_NEEDED);
+        }
+        final List<VitamDocument> documents = new ArrayList<>(items.length);
+        for (final LogbookParameters item : items) {
+            ParametersChecker.checkParameter(ITEM_CANNOT_BE_NULL, item);
+            documents.add(getDocument(item));
+        }
+        try {
+            collection.getCollection().insertMany(documents, new InsertManyOptions().ordered(false));
+        } catch (final MongoBulkWriteException e) {
+            for (final BulkWriteError error : e.getWriteErrors()) {
+                if (error.getCategory() != ErrorCategory.DUPLICATE_KEY) {
+                    throw new LogbookDatabaseException(
+                        CREATION_ISSUE + " (" + e.getClass().getName() + " " + error.getMessage() + ": " +
+                            error.getCode() + ")",
+                        e);
+                }
+            }
+            throw new LogbookAlreadyExistsException(CREATION_ISSUE + ELEMENT_ALREADY_EXISTS, e);
+        } catch (final MongoException e) {
+            switch (getErrorCategory(e)) {
+                case DUPLICATE_KEY:
+                    throw new LogbookAlreadyExistsException(CREATION_ISSUE + ELEMENT_ALREADY_EXISTS, e);
+                case EXECUTION_TIMEOUT:
+                    throw new LogbookDatabaseException(CREATION_ISSUE + TIMEOUT_OPERATION, e);
+                case UNCATEGORIZED:
+                default:
+                    throw new LogbookDatabaseException(
+                        CREATION_ISSUE + " (" + e.getClass().getName() + " " + e.getMessage() + ": " + e.getCode() +
+                            ")",
+                        e);
+            }
+        }
+    }
+
+    @Override
+    public void createLogbookLifeCycleUnits(String idOperation, LogbookLifeCycleUnitParameters... lifecycleItems)
+        throws LogbookDatabaseException, LogbookAlreadyExistsException {
+        if (lifecycleItems != null) {
+            for (final LogbookLifeCycleUnitParameters lifecycleItem : lifecycleItems) {
+                if (lifecycleItem == null ||
+                    !idOperation.equals(lifecycleItem.getParameterValue(LogbookParameterName.eventIdentifierProcess))) {
+                    throw new IllegalArgumentException("Wrong IdOperation set to create the LifeCycle");
+                }
+            }
+        }
+        createLogbooks(LogbookCollections.LIFECYCLE_UNIT, lifecycleItems);
+    }
+
     @Override
     public final void createBulkLogbookOperation(final LogbookOperationParameters... operationItems)
         throws LogbookDatabaseException, LogbookAlreadyExistsException {
@@ -769,6 +874,11 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
             events.add(currentEvent);
         }
 
+        final LogbookLifeCycleWriteBuffer writeBuffer = lifeCycleWriteBuffer;
+        if (writeBuffer != null && collection != LogbookCollections.OPERATION) {
+            writeBuffer.push(collection, mainLogbookDocumentId, events);
+            return;
+        }
         try {
             final UpdateResult result = collection.getCollection().updateOne(
                 eq(LogbookDocument.ID, mainLogbookDocumentId),
@@ -807,6 +917,45 @@ public final class LogbookMongoDbAccessImpl extends MongoDbAccess implements Log
         updateBulkLogbook(LogbookCollections.LIFECYCLE_OBJECTGROUP, lifecycleItems);
     }
 
+    @Override
+    public boolean acquireLease(String name, String owner, long duration) throws LogbookDatabaseException {
+        ParametersChecker.checkParameter("name and owner are mandatory", name, owner);
+        ParametersChecker.checkValue("duration", duration, 1);
+        final Date now = new Date();
+        try {
+            // Upsert only if expired or already held: else the insert of the same _id fails
+            getMongoDatabase().getCollection(LEASE_COLLECTION).findOneAndUpdate(
+                and(eq(LogbookDocument.ID, name), or(lt(LEASE_EXPIRE, now), eq(LEASE_OWNER, owner))),
+                Updates.combine(Updates.set(LEASE_OWNER, owner),
+                    Updates.set(LEASE_EXPIRE, new Date(now.getTime() + duration))),
+                new FindOneAndUpdateOptions().upsert(true));
+            return true;
+        } catch (final MongoException e) {
+            switch (getErrorCategory(e)) {
+                case DUPLICATE_KEY:
+                    return false;
+                case EXECUTION_TIMEOUT:
+                    throw new LogbookDatabaseException(LEASE_ISSUE + TIMEOUT_OPERATION, e);
+                case UNCATEGORIZED:
+                default:
+                    throw new LogbookDatabaseException(
+                        LEASE_ISSUE + " (" + e.getClass().getName() + " " + e.getMessage() + ": " + e.getCode() + ")",
+                        e);
+            }
+        }
+    }
+
+    @Override
+    public void releaseLease(String name, String owner) throws LogbookDatabaseException {
+        ParametersChecker.checkParameter("name and owner are mandatory", name, owner);
+        try {
+            getMongoDatabase().getCollection(LEASE_COLLECTION)
+                .deleteOne(and(eq(LogbookDocument.ID, name), eq(LEASE_OWNER, owner)));
+        } catch (final MongoException e) {
+            throw new LogbookDatabaseException(LEASE_ISSUE, e);
+        }
+    }
+
     // Not check, test feature !
     @Override
     public void deleteCollection(LogbookCollections collection) throws DatabaseException {
@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.logbook.common.server.database.collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodProcess;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+import fr.gouv.vitam.common.LocalDateUtil;
+import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.junit.JunitHelper;
+import fr.gouv.vitam.common.server.application.configuration.DbConfigurationImpl;
+import fr.gouv.vitam.common.server.application.configuration.MongoDbNode;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
+import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
+import fr.gouv.vitam.logbook.common.server.database.collections.LogbookLifeCycleWriteBuffer.Durability;
+import fr.gouv.vitam.logbook.common.server.exception.LogbookDatabaseException;
+import fr.gouv.vitam.logbook.common.server.exception.LogbookNotFoundException;
+
+/**
+ * LogbookLifeCycleWriteBuffer Test
+ */
+public class LogbookLifeCycleWriteBufferTest {
+
+    private static final String DATABASE_HOST = "localhost";
+    static LogbookMongoDbAccessImpl mongoDbAccess;
+    static MongodExecutable mongodExecutable;
+    static MongodProcess mongod;
+    private static JunitHelper junitHelper;
+    private static int port;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @BeforeClass
+    public static void setUpBeforeClass() throws Exception {
+        final MongodStarter starter = MongodStarter.getDefaultInstance();
+        junitHelper = JunitHelper.getInstance();
+        port = junitHelper.findAvailablePort();
+        mongodExecutable = starter.prepare(new MongodConfigBuilder()
+            .version(Version.Main.PRODUCTION)
+            .net(new Net(port, Network.localhostIsIPv6()))
+            .build());
+        mongod = mongodExecutable.start();
+        final List<MongoDbNode> nodes = new ArrayList<>();
+        nodes.add(new MongoDbNode(DATABASE_HOST, port));
+        mongoDbAccess = LogbookMongoDbAccessFactory.create(new DbConfigurationImpl(nodes, "vitam-test"));
+    }
+
+    @AfterClass
+    public static void tearDownAfterClass() throws Exception {
+        mongoDbAccess.close();
+        mongod.stop();
+        mongodExecutable.stop();
+        junitHelper.releasePort(port);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        mongoDbAccess.setLifeCycleWriteBuffer(null);
+    }
+
+    private static LogbookLifeCycleUnitParameters newParameters(String idOperation, String objectIdentifier) {
+        final LogbookLifeCycleUnitParameters parameters = LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+        for (final LogbookParameterName name : LogbookParameterName.values()) {
+            parameters.putParameterValue(name, GUIDFactory.newEventGUID(0).getId());
+        }
+        parameters.putParameterValue(LogbookParameterName.eventIdentifierProcess, idOperation);
+        parameters.putParameterValue(LogbookParameterName.objectIdentifier, objectIdentifier);
+        parameters.putParameterValue(LogbookParameterName.eventDateTime, LocalDateUtil.now().toString());
+        return parameters;
+    }
+
+    private static int countEvents(String objectIdentifier) throws Exception {
+        return ((List<?>) mongoDbAccess.getLogbookLifeCycleUnit(objectIdentifier).get(LogbookDocument.EVENTS))
+            .size();
+    }
+
+    @Test
+    public void givenFlushDurabilityWhenUpdateThenWrittenBeforeReturn() throws Exception {
+        mongoDbAccess.setLifeCycleWriteBuffer(new LogbookLifeCycleWriteBuffer(10, 20, Durability.FLUSH, null));
+        final String idOperation = GUIDFactory.newEventGUID(0).getId();
+        final String oi = GUIDFactory.newUnitGUID(0).getId();
+        mongoDbAccess.createLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+
+        mongoDbAccess.updateLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        assertEquals(1, countEvents(oi));
+        mongoDbAccess.updateBulkLogbookLifeCycleUnit(newParameters(idOperation, oi),
+            newParameters(idOperation, oi));
+        assertEquals(3, countEvents(oi));
+
+        try {
+            mongoDbAccess.updateLogbookLifeCycleUnit(idOperation,
+                newParameters(idOperation, GUIDFactory.newUnitGUID(0).getId()));
+            fail("Should throw an exception");
+        } catch (final LogbookNotFoundException e) {}
+    }
+
+    @Test
+    public void givenFlushDurabilityWhenConcurrentUpdatesThenAllWritten() throws Exception {
+        mongoDbAccess.setLifeCycleWriteBuffer(new LogbookLifeCycleWriteBuffer(50, 20, Durability.FLUSH, null));
+        final String idOperation = GUIDFactory.newEventGUID(0).getId();
+        final String oi = GUIDFactory.newUnitGUID(0).getId();
+        mongoDbAccess.createLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        final List<Thread> threads = new ArrayList<>();
+        final List<Exception> errors = Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 8; i++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int j = 0; j < 10; j++) {
+                        mongoDbAccess.updateLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+                    }
+                } catch (final Exception e) {
+                    errors.add(e);
+                }
+            }));
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(errors.isEmpty());
+        assertEquals(80, countEvents(oi));
+    }
+
+    @Test
+    public void givenJournalDurabilityWhenCloseThenFlushedAndJournalDeleted() throws Exception {
+        final File journal = folder.newFolder();
+        mongoDbAccess.setLifeCycleWriteBuffer(
+            new LogbookLifeCycleWriteBuffer(1000, 60000, Durability.JOURNAL, journal));
+        final String idOperation = GUIDFactory.newEventGUID(0).getId();
+        final String oi = GUIDFactory.newUnitGUID(0).getId();
+        mongoDbAccess.createLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+
+        mongoDbAccess.updateLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        assertEquals(1, journal.listFiles().length);
+        assertEquals(0, countEvents(oi));
+        // Unknown LifeCycle can only be logged
+        mongoDbAccess.updateLogbookLifeCycleUnit(idOperation,
+            newParameters(idOperation, GUIDFactory.newUnitGUID(0).getId()));
+
+        mongoDbAccess.setLifeCycleWriteBuffer(null);
+        assertEquals(1, countEvents(oi));
+        assertEquals(0, journal.listFiles().length);
+    }
+
+    @Test
+    public void givenJournalWhenStartThenReplayed() throws Exception {
+        final File journal = folder.newFolder();
+        final String idOperation = GUIDFactory.newEventGUID(0).getId();
+        final String oi = GUIDFactory.newUnitGUID(0).getId();
+        mongoDbAccess.createLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        final Document event = new LogbookLifeCycleUnit(newParameters(idOperation, oi));
+        event.remove(LogbookDocument.ID);
+        event.remove(LogbookDocument.EVENTS);
+        final String entry = new Document("collection", LogbookCollections.LIFECYCLE_UNIT.name())
+            .append(LogbookDocument.ID, oi)
+            .append(LogbookDocument.EVENTS, Collections.singletonList(new Document(event)))
+            .toJson();
+        // The last entry was not completely written
+        Files.write(new File(journal, "lifecycles-1.journal").toPath(),
+            (entry + '\n' + entry.substring(0, 10)).getBytes(StandardCharsets.UTF_8));
+
+        mongoDbAccess.setLifeCycleWriteBuffer(
+            new LogbookLifeCycleWriteBuffer(1000, 60000, Durability.JOURNAL, journal));
+        assertEquals(1, countEvents(oi));
+        assertFalse(new File(journal, "lifecycles-1.journal").exists());
+    }
+
+    @Test
+    public void givenBufferWhenRollbackThenPendingEventsDiscarded() throws Exception {
+        mongoDbAccess.setLifeCycleWriteBuffer(
+            new LogbookLifeCycleWriteBuffer(1000, 60000, Durability.JOURNAL, folder.newFolder()));
+        final String idOperation = GUIDFactory.newEventGUID(0).getId();
+        final String oi = GUIDFactory.newUnitGUID(0).getId();
+        mongoDbAccess.createLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        mongoDbAccess.updateLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        mongoDbAccess.rollbackLogbookLifeCycleUnit(idOperation, oi);
+        mongoDbAccess.setLifeCycleWriteBuffer(null);
+        try {
+            mongoDbAccess.getLogbookLifeCycleUnit(oi);
+            fail("Should throw an exception");
+        } catch (final LogbookNotFoundException e) {}
+    }
+
+    @Test
+    public void givenFailingWriteWhenPushThenErrorReportedAndBufferStillWorking() throws Exception {
+        final LogbookLifeCycleWriteBuffer buffer = new LogbookLifeCycleWriteBuffer(10, 20, Durability.FLUSH, null);
+        mongoDbAccess.setLifeCycleWriteBuffer(buffer);
+        final String idOperation = GUIDFactory.newEventGUID(0).getId();
+        final String oi = GUIDFactory.newUnitGUID(0).getId();
+        mongoDbAccess.createLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        try {
+            // No codec for this value
+            buffer.push(LogbookCollections.LIFECYCLE_UNIT, oi,
+                Collections.singletonList(new Document("value", new Object())));
+            fail("Should throw an exception");
+        } catch (final LogbookDatabaseException e) {}
+
+        mongoDbAccess.updateLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        assertEquals(1, countEvents(oi));
+    }
+
+    @Test
+    public void givenFlushingThreadStoppedWhenPushThenErrorReported() throws Exception {
+        final LogbookLifeCycleWriteBuffer buffer = new LogbookLifeCycleWriteBuffer(10, 20, Durability.FLUSH, null);
+        mongoDbAccess.setLifeCycleWriteBuffer(buffer);
+        final String idOperation = GUIDFactory.newEventGUID(0).getId();
+        final String oi = GUIDFactory.newUnitGUID(0).getId();
+        mongoDbAccess.createLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+        final Document event = new Document();
+        // Endless encoding: the flushing thread dies of a StackOverflowError
+        event.put("self", event);
+        try {
+            buffer.push(LogbookCollections.LIFECYCLE_UNIT, oi, Collections.singletonList(event));
+            fail("Should throw an exception");
+        } catch (final LogbookDatabaseException e) {}
+
+        try {
+            mongoDbAccess.updateLogbookLifeCycleUnit(idOperation, newParameters(idOperation, oi));
+            fail("Should throw an exception");
+        } catch (final LogbookDatabaseException e) {}
+        assertEquals(0, countEvents(oi));
+    }
+}
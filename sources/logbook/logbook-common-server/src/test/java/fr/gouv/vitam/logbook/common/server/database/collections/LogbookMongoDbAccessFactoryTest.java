@@ -67,6 +67,7 @@ import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParametersFactory;
 import fr.gouv.vitam.logbook.common.server.LogbookDbAccess;
+import fr.gouv.vitam.logbook.common.server.exception.LogbookAlreadyExistsException;
 
 /**
  * MongoDbAccessFactory Test
@@ -599,6 +600,48 @@ public class LogbookMongoDbAccessFactoryTest {
         }
     }
 
+    @Test
+    public void testCreateLifeCycleUnits() throws VitamException {
+        assertNotNull(mongoDbAccess);
+        final long nbl = mongoDbAccess.getLogbookLifeCyleUnitSize();
+        final String idOperation = GUIDFactory.newEventGUID(0).getId();
+        final LogbookLifeCycleUnitParameters[] lifecycles = new LogbookLifeCycleUnitParameters[3];
+        for (int i = 0; i < lifecycles.length; i++) {
+            lifecycles[i] = LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+            for (final LogbookParameterName name : LogbookParameterName.values()) {
+                lifecycles[i].putParameterValue(name,
+                    GUIDFactory.newEventGUID(0).getId());
+            }
+            lifecycles[i].putParameterValue(LogbookParameterName.eventIdentifierProcess, idOperation);
+            lifecycles[i].putParameterValue(LogbookParameterName.eventDateTime,
+                LocalDateUtil.now().toString());
+        }
+        try {
+            mongoDbAccess.createLogbookLifeCycleUnits(idOperation);
+            fail("Should throw an exception");
+        } catch (final IllegalArgumentException e) {}
+        try {
+            mongoDbAccess.createLogbookLifeCycleUnits(GUIDFactory.newEventGUID(0).getId(), lifecycles);
+            fail("Should throw an exception");
+        } catch (final IllegalArgumentException e) {}
+        assertEquals(nbl, mongoDbAccess.getLogbookLifeCyleUnitSize());
+
+        mongoDbAccess.createLogbookLifeCycleUnits(idOperation, lifecycles[0], lifecycles[1]);
+        assertEquals(nbl + 2, mongoDbAccess.getLogbookLifeCyleUnitSize());
+        for (int i = 0; i < 2; i++) {
+            assertNotNull(mongoDbAccess.getLogbookLifeCycleUnit(
+                lifecycles[i].getParameterValue(LogbookParameterName.objectIdentifier)));
+        }
+        // Unordered insertion: the new one is created even if the others already exist
+        try {
+            mongoDbAccess.createLogbookLifeCycleUnits(idOperation, lifecycles);
+            fail("Should throw an exception");
+        } catch (final LogbookAlreadyExistsException e) {}
+        assertEquals(nbl + 3, mongoDbAccess.getLogbookLifeCyleUnitSize());
+        assertNotNull(mongoDbAccess.getLogbookLifeCycleUnit(
+            lifecycles[2].getParameterValue(LogbookParameterName.objectIdentifier)));
+    }
+
     @Test
     public void testFunctionalLifeCycleObjectGroup() throws VitamException {
         assertNotNull(mongoDbAccess);
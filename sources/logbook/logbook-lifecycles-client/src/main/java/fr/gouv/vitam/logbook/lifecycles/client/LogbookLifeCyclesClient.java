@@ -191,6 +191,23 @@ public interface LogbookLifeCyclesClient extends BasicClient {
         throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException,
         LogbookClientServerException;
 
+    /**
+     * Create several Unit LifeCycles at once<br>
+     * <br>
+     * Contrary to {@link #bulkCreateUnit(String, Iterable)}, each entry of the queue creates its own LifeCycle, as
+     * {@link #create(LogbookLifeCycleParameters)} would do for each of them in one single request.
+     *
+     * @param eventIdProc the operation identifier
+     * @param queue queue of LogbookLifeCycleParameters to create, one per Unit
+     * @throws LogbookClientBadRequestException if the argument is incorrect
+     * @throws LogbookClientAlreadyExistsException if one of the elements already exists
+     * @throws LogbookClientServerException if the Server got an internal error
+     * @throws IllegalArgumentException if some mandatories parameters are empty or null
+     */
+    void createUnits(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException,
+        LogbookClientServerException;
+
     /**
      * Bulk Update for Unit<br>
      * <br>
@@ -187,6 +187,20 @@ class LogbookLifeCyclesClientMock extends AbstractMockClient implements LogbookL
         bulkCreate(eventIdProc, queue);
     }
 
+    @Override
+    public void createUnits(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException, LogbookClientServerException {
+        if (queue != null) {
+            for (final LogbookLifeCycleParameters parameters : queue) {
+                logInformation(CREATE, parameters);
+            }
+        } else {
+            LOGGER.error(eventIdProc + " " + ErrorMessage.LOGBOOK_MISSING_MANDATORY_PARAMETER.getMessage());
+            throw new LogbookClientBadRequestException(
+                ErrorMessage.LOGBOOK_MISSING_MANDATORY_PARAMETER.getMessage());
+        }
+    }
+
     @Override
     public void bulkUpdateUnit(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
         throws LogbookClientNotFoundException, LogbookClientBadRequestException, LogbookClientServerException {
@@ -70,6 +70,7 @@ class LogbookLifeCyclesClientRest extends DefaultClient implements LogbookLifeCy
     private static final String OPERATIONS_URL = "/operations";
     private static final String UNIT_LIFECYCLES_URL = "/unitlifecycles";
     private static final String OBJECT_GROUP_LIFECYCLES_URL = "/objectgrouplifecycles";
+    private static final String BULK_URL = "/bulk";
     private static final ServerIdentity SERVER_IDENTITY = ServerIdentity.getInstance();
     private static final int TENANT_ID = 0;
 
@@ -326,6 +327,23 @@ class LogbookLifeCyclesClientRest extends DefaultClient implements LogbookLifeCy
         bulkCreate(eventIdProc, queue, UNIT_LIFECYCLES_URL);
     }
 
+    @Override
+    public void createUnits(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
+        throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException,
+        LogbookClientServerException {
+        if (queue != null) {
+            final String agentIdentifier = SERVER_IDENTITY.getJsonIdentity();
+            final String now = LocalDateUtil.now().toString();
+            for (final LogbookLifeCycleParameters parameters : queue) {
+                parameters.putParameterValue(LogbookParameterName.agentIdentifier, agentIdentifier);
+                parameters.putParameterValue(LogbookParameterName.eventDateTime, now);
+                ParameterHelper
+                    .checkNullOrEmptyParameters(parameters.getMapParameters(), parameters.getMandatoriesParameters());
+            }
+        }
+        bulkCreate(eventIdProc, queue, UNIT_LIFECYCLES_URL + BULK_URL);
+    }
+
     @Override
     public void bulkCreateObjectGroup(String eventIdProc, Iterable<LogbookLifeCycleParameters> queue)
         throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException,
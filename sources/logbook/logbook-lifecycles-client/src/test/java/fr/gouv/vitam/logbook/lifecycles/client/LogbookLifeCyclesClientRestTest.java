@@ -31,6 +31,9 @@ import static org.junit.Assert.fail;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
 import javax.ws.rs.GET;
@@ -60,6 +63,7 @@ import fr.gouv.vitam.logbook.common.exception.LogbookClientException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientNotFoundException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientServerException;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
+import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleUnitParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
 import fr.gouv.vitam.logbook.common.parameters.LogbookParameterName;
@@ -135,6 +139,14 @@ public class LogbookLifeCyclesClientRestTest extends VitamJerseyTest {
         }
 
 
+        @POST
+        @Path("/operations/{id_op}/unitlifecycles/bulk")
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response createUnits(String array) {
+            return expectedResponse.post();
+        }
+
         @POST
         @Path("/operations/{id_op}/objectgrouplifecycles/{id_lc}")
         @Consumes(MediaType.APPLICATION_JSON)
@@ -294,6 +306,45 @@ public class LogbookLifeCyclesClientRestTest extends VitamJerseyTest {
         client.create(log);
     }
 
+    private static final List<LogbookLifeCycleParameters> getCompleteLifeCycleUnitsParameters(int number) {
+        final List<LogbookLifeCycleParameters> queue = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            queue.add(getCompleteLifeCycleUnitParameters());
+        }
+        return queue;
+    }
+
+    @Test
+    public void createUnitsExecution() throws Exception {
+        when(mock.post()).thenReturn(Response.status(Response.Status.CREATED).build());
+        client.createUnits("eventIdProc", getCompleteLifeCycleUnitsParameters(3));
+    }
+
+    @Test(expected = LogbookClientAlreadyExistsException.class)
+    public void givenUnitLifeCycleAlreadyCreatedWhenCreateUnitsThenReturnAlreadyExistException() throws Exception {
+        when(mock.post()).thenReturn(Response.status(Response.Status.CONFLICT).build());
+        client.createUnits("eventIdProc", getCompleteLifeCycleUnitsParameters(3));
+    }
+
+    @Test(expected = LogbookClientServerException.class)
+    public void shouldRaiseInternalErrorWhenCreateUnits() throws Exception {
+        when(mock.post()).thenReturn(Response.status(Response.Status.INTERNAL_SERVER_ERROR).build());
+        client.createUnits("eventIdProc", getCompleteLifeCycleUnitsParameters(3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenIllegalArgumentWhenCreateUnitsThenReturnIllegalArgumentException() throws Exception {
+        when(mock.post()).thenReturn(Response.status(Response.Status.CREATED).build());
+        final List<LogbookLifeCycleParameters> queue = getCompleteLifeCycleUnitsParameters(2);
+        queue.add(LogbookParametersFactory.newLogbookLifeCycleUnitParameters());
+        client.createUnits("eventIdProc", queue);
+    }
+
+    @Test(expected = LogbookClientBadRequestException.class)
+    public void givenNoLifeCycleWhenCreateUnitsThenReturnBadRequest() throws Exception {
+        client.createUnits("eventIdProc", null);
+    }
+
     @Test(expected = LogbookClientNotFoundException.class)
     public void givenOperationNotYetCreatedWhenUpdateThenReturnNotFoundExceptionUnitLifeCycle() throws Exception {
         when(mock.put()).thenReturn(Response.status(Response.Status.NOT_FOUND).build());
@@ -58,6 +58,18 @@ public interface LogbookLifeCycles {
     void createUnit(String idOperation, String idLc, LogbookLifeCycleUnitParameters parameters)
         throws LogbookAlreadyExistsException, LogbookDatabaseException;
 
+    /**
+     * Create and insert several logbook LifeCycles for Units, each one with its first event
+     *
+     * @param idOperation the operation identifier
+     * @param lifecycleArray one entry per LifeCycle unit to create
+     * @throws IllegalArgumentException if the array is empty or an entry does not belong to the operation
+     * @throws LogbookAlreadyExistsException if at least one of the LifeCycles already exists
+     * @throws LogbookDatabaseException if errors occur while connecting or writing to the database
+     */
+    void createUnits(String idOperation, LogbookLifeCycleUnitParameters[] lifecycleArray)
+        throws LogbookAlreadyExistsException, LogbookDatabaseException;
+
     /**
      * Create and insert logbook LifeCycle entries
      *
@@ -86,6 +86,16 @@ public class LogbookLifeCyclesImpl implements LogbookLifeCycles {
         mongoDbAccess.createLogbookLifeCycleUnit(idOperation, parameters);
     }
 
+    @Override
+    public void createUnits(String idOperation, LogbookLifeCycleUnitParameters[] lifecycleArray)
+        throws LogbookAlreadyExistsException, LogbookDatabaseException, IllegalArgumentException {
+        ParametersChecker.checkParameter("idOperation should not be null or empty", idOperation);
+        if (lifecycleArray == null || lifecycleArray.length == 0) {
+            throw new IllegalArgumentException("No LifeCycle Logbook");
+        }
+        mongoDbAccess.createLogbookLifeCycleUnits(idOperation, lifecycleArray);
+    }
+
     @Override
     public void createObjectGroup(String idOperation, String idLc, LogbookLifeCycleObjectGroupParameters parameters)
         throws LogbookAlreadyExistsException, LogbookDatabaseException, IllegalArgumentException {
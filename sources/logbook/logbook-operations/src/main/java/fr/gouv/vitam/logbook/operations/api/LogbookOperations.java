@@ -155,5 +155,23 @@ public interface LogbookOperations {
         throws InvalidCreateOperationException, LogbookNotFoundException, LogbookDatabaseException,
         InvalidParseOperationException;
 
+    /**
+     * Acquire or renew the traceability lease, shared by all the logbook servers
+     *
+     * @param owner the owner asking for the lease
+     * @param duration the duration of the lease in ms
+     * @return true if the lease is held by this owner, false if another server is securing the logbook
+     * @throws LogbookDatabaseException if errors occur while connecting or writing to the database
+     */
+    boolean acquireTraceabilityLease(String owner, long duration) throws LogbookDatabaseException;
+
+    /**
+     * Release the traceability lease, if still held by this owner
+     *
+     * @param owner the owner of the lease
+     * @throws LogbookDatabaseException if errors occur while connecting or writing to the database
+     */
+    void releaseTraceabilityLease(String owner) throws LogbookDatabaseException;
+
 
 }
@@ -55,6 +55,8 @@ import fr.gouv.vitam.logbook.operations.api.LogbookOperations;
  * Logbook Operations implementation base class
  */
 public class LogbookOperationsImpl implements LogbookOperations {
+    private static final String TRACEABILITY_LEASE = "traceability";
+
     private final LogbookDbAccess mongoDbAccess;
 
     /**
@@ -157,4 +159,14 @@ public class LogbookOperationsImpl implements LogbookOperations {
         return Iterators.getOnlyElement(mongoDbAccess.getLogbookOperations(select.getFinalSelect(), false), null);
     }
 
+    @Override
+    public boolean acquireTraceabilityLease(String owner, long duration) throws LogbookDatabaseException {
+        return mongoDbAccess.acquireLease(TRACEABILITY_LEASE, owner, duration);
+    }
+
+    @Override
+    public void releaseTraceabilityLease(String owner) throws LogbookDatabaseException {
+        mongoDbAccess.releaseLease(TRACEABILITY_LEASE, owner);
+    }
+
 }
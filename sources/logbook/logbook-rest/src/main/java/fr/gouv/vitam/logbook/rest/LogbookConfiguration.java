@@ -28,6 +28,7 @@
 package fr.gouv.vitam.logbook.rest;
 
 import fr.gouv.vitam.common.server.application.configuration.DbConfigurationImpl;
+import fr.gouv.vitam.logbook.common.server.database.collections.LogbookLifeCycleWriteBuffer.Durability;
 
 /**
  * Logbook configuration class mapping
@@ -41,6 +42,16 @@ public final class LogbookConfiguration extends DbConfigurationImpl {
 
     private String workspaceUrl;
 
+    private int lifeCycleBufferSize;
+
+    private long lifeCycleBufferDelay = 10;
+
+    private Durability lifeCycleBufferDurability = Durability.FLUSH;
+
+    private String lifeCycleBufferJournal;
+
+    private boolean traceabilityIncremental;
+
     public String getP12LogbookPassword() {
         return p12LogbookPassword;
     }
@@ -64,4 +75,75 @@ public final class LogbookConfiguration extends DbConfigurationImpl {
     public void setWorkspaceUrl(String workspaceUrl) {
         this.workspaceUrl = workspaceUrl;
     }
+
+    /**
+     * @return the number of pending LifeCycle events triggering a write, 0 to write them synchronously
+     */
+    public int getLifeCycleBufferSize() {
+        return lifeCycleBufferSize;
+    }
+
+    /**
+     * @param lifeCycleBufferSize the number of pending LifeCycle events triggering a write, 0 to write them
+     *        synchronously
+     */
+    public void setLifeCycleBufferSize(int lifeCycleBufferSize) {
+        this.lifeCycleBufferSize = lifeCycleBufferSize;
+    }
+
+    /**
+     * @return the maximum delay in ms a LifeCycle event is pending
+     */
+    public long getLifeCycleBufferDelay() {
+        return lifeCycleBufferDelay;
+    }
+
+    /**
+     * @param lifeCycleBufferDelay the maximum delay in ms a LifeCycle event is pending
+     */
+    public void setLifeCycleBufferDelay(long lifeCycleBufferDelay) {
+        this.lifeCycleBufferDelay = lifeCycleBufferDelay;
+    }
+
+    /**
+     * @return when a buffered LifeCycle event is acknowledged
+     */
+    public Durability getLifeCycleBufferDurability() {
+        return lifeCycleBufferDurability;
+    }
+
+    /**
+     * @param lifeCycleBufferDurability when a buffered LifeCycle event is acknowledged
+     */
+    public void setLifeCycleBufferDurability(Durability lifeCycleBufferDurability) {
+        this.lifeCycleBufferDurability = lifeCycleBufferDurability;
+    }
+
+    /**
+     * @return the directory of the LifeCycle journal in JOURNAL durability
+     */
+    public String getLifeCycleBufferJournal() {
+        return lifeCycleBufferJournal;
+    }
+
+    /**
+     * @param lifeCycleBufferJournal the directory of the LifeCycle journal in JOURNAL durability
+     */
+    public void setLifeCycleBufferJournal(String lifeCycleBufferJournal) {
+        this.lifeCycleBufferJournal = lifeCycleBufferJournal;
+    }
+
+    /**
+     * @return true if the traceability resumes the merkle tree of the previous securisation
+     */
+    public boolean isTraceabilityIncremental() {
+        return traceabilityIncremental;
+    }
+
+    /**
+     * @param traceabilityIncremental true if the traceability resumes the merkle tree of the previous securisation
+     */
+    public void setTraceabilityIncremental(boolean traceabilityIncremental) {
+        this.traceabilityIncremental = traceabilityIncremental;
+    }
 }
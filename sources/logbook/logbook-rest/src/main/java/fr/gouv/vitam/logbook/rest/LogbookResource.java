@@ -57,6 +57,7 @@ import fr.gouv.vitam.common.GlobalDataRest;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.ServerIdentity;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.client.VitamRequestIterator;
 import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
 import fr.gouv.vitam.common.error.VitamError;
@@ -82,6 +83,8 @@ import fr.gouv.vitam.logbook.common.parameters.LogbookOperationParameters;
 import fr.gouv.vitam.logbook.common.server.LogbookDbAccess;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookLifeCycleObjectGroup;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookLifeCycleUnit;
+import fr.gouv.vitam.logbook.common.server.database.collections.LogbookLifeCycleWriteBuffer;
+import fr.gouv.vitam.logbook.common.server.database.collections.LogbookMongoDbAccessImpl;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookMongoDbAccessFactory;
 import fr.gouv.vitam.logbook.common.server.database.collections.LogbookOperation;
 import fr.gouv.vitam.logbook.common.server.exception.LogbookAlreadyExistsException;
@@ -103,6 +106,7 @@ public class LogbookResource extends ApplicationStatusResource {
     private static final int MAX_NB_PART_ITERATOR = 100;
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(LogbookResource.class);
     public static final String CERTIFICATE_ALIAS = "localhost";
+    private static final String LIFECYCLE_JOURNAL = "lifecycles-journal";
     private final LogbookOperations logbookOperation;
     private final LogbookLifeCycles logbookLifeCycle;
     private final DbConfiguration logbookConfiguration;
@@ -125,7 +129,21 @@ public class LogbookResource extends ApplicationStatusResource {
                 new DbConfigurationImpl(configuration.getMongoDbNodes(),
                     configuration.getDbName());
         }
-        mongoDbAccess = LogbookMongoDbAccessFactory.create(logbookConfiguration);
+        final LogbookMongoDbAccessImpl mongoDbAccessImpl = LogbookMongoDbAccessFactory.create(logbookConfiguration);
+        if (configuration.getLifeCycleBufferSize() > 0) {
+            final File journal = configuration.getLifeCycleBufferJournal() != null
+                ? new File(configuration.getLifeCycleBufferJournal())
+                : new File(VitamConfiguration.getVitamDataFolder(), LIFECYCLE_JOURNAL);
+            try {
+                mongoDbAccessImpl.setLifeCycleWriteBuffer(new LogbookLifeCycleWriteBuffer(
+                    configuration.getLifeCycleBufferSize(), configuration.getLifeCycleBufferDelay(),
+                    configuration.getLifeCycleBufferDurability(), journal));
+            } catch (final LogbookDatabaseException e) {
+                LOGGER.error("unable to replay the LifeCycle journal", e);
+                throw new RuntimeException(e);
+            }
+        }
+        mongoDbAccess = mongoDbAccessImpl;
 
         logbookOperation = new LogbookOperationsImpl(mongoDbAccess);
 
@@ -144,7 +162,7 @@ public class LogbookResource extends ApplicationStatusResource {
         WorkspaceClientFactory.changeMode(configuration.getWorkspaceUrl());
 
         logbookAdministration = new LogbookAdministration(logbookOperation, timestampGenerator,
-            clientFactory);
+            clientFactory, configuration.isTraceabilityIncremental());
 
         LOGGER.debug("LogbookResource operation initialized");
 
@@ -741,6 +759,48 @@ public class LogbookResource extends ApplicationStatusResource {
         return Response.status(Response.Status.CREATED).build();
     }
 
+    /**
+     * Lifecycle Units Create: one new Lifecycle per entry
+     *
+     * @param idOp
+     * @param array Lifecycle Unit Logbooks as ArrayNode, each one being the first event of a distinct Lifecycle
+     * @return Response of CREATED
+     */
+    @POST
+    @Path("/operations/{id_op}/unitlifecycles/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response createUnits(@PathParam("id_op") String idOp, String array) {
+        try {
+            ParametersChecker.checkParameter("Logbook parameters", array);
+        } catch (final IllegalArgumentException e) {
+            LOGGER.error("Lifecycles is incorrect", e);
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        try {
+            final LogbookLifeCycleUnitParameters[] arrayLifecycles =
+                JsonHandler.getFromString(array, LogbookLifeCycleUnitParameters[].class);
+            logbookLifeCycle.createUnits(idOp, arrayLifecycles);
+        } catch (final LogbookDatabaseException e) {
+            LOGGER.error(e);
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR).build();
+        } catch (final LogbookAlreadyExistsException e) {
+            LOGGER.error(e);
+            return Response.status(Response.Status.CONFLICT).build();
+        } catch (InvalidParseOperationException | IllegalArgumentException e) {
+            LOGGER.error(e);
+            final Status status = Status.PRECONDITION_FAILED;
+            return Response.status(status)
+                .entity(new VitamError(status.name()).setHttpCode(status.getStatusCode())
+                    .setContext("logbook")
+                    .setState("code_vitam")
+                    .setMessage(status.getReasonPhrase())
+                    .setDescription(e.getMessage()))
+                .build();
+        }
+        return Response.status(Response.Status.CREATED).build();
+    }
+
     /**
      * Update Lifecycle With Bulk Mode
      *
@@ -59,6 +59,7 @@ import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.exception.VitamApplicationServerException;
 import fr.gouv.vitam.common.guid.GUID;
 import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.junit.JunitHelper;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
@@ -91,6 +92,7 @@ public class LogBookLifeCycleUnitTest {
 
     private static final String LIFE_UNIT_ID_URI = "/operations/{id_op}/unitlifecycles/{id_lc}";
     private static final String LIFE_UNIT_URI = "/operations/{id_op}/unitlifecycles";
+    private static final String LIFE_UNIT_BULK_URI = "/operations/{id_op}/unitlifecycles/bulk";
     private static final String LIFE_OG_ID_URI = "/operations/{id_op}/objectgrouplifecycles/{id_lc}";
     private static final String COMMIT_OG_ID_URI = "/operations/{id_op}/objectgrouplifecycles/{id_lc}/commit";
     private static final String COMMIT_UNIT_ID_URI = "/operations/{id_op}/unitlifecycles/{id_lc}/commit";
@@ -334,6 +336,83 @@ public class LogBookLifeCycleUnitTest {
             });
     }
 
+    private static LogbookLifeCycleUnitParameters getCompleteLifeCycleUnitParameters(GUID iop) {
+        final LogbookLifeCycleUnitParameters parameters = LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+        parameters.setStatus(StatusCode.STARTED);
+        parameters.putParameterValue(LogbookParameterName.eventIdentifier,
+            GUIDFactory.newWriteLogbookGUID(0).toString());
+        parameters.putParameterValue(LogbookParameterName.eventIdentifierProcess, iop.toString());
+        parameters.putParameterValue(LogbookParameterName.objectIdentifier, GUIDFactory.newUnitGUID(0).toString());
+        parameters.putParameterValue(LogbookParameterName.eventType, "event");
+        parameters.setTypeProcess(LogbookTypeProcess.INGEST);
+        parameters.putParameterValue(LogbookParameterName.outcomeDetail, "outcomeDetail");
+        parameters.putParameterValue(LogbookParameterName.outcomeDetailMessage, "outcomeDetailMessage");
+        parameters.putParameterValue(LogbookParameterName.eventDateTime, LocalDateUtil.now().toString());
+        parameters.putParameterValue(LogbookParameterName.agentIdentifier,
+            ServerIdentity.getInstance().getJsonIdentity());
+        return parameters;
+    }
+
+    @Test
+    public final void given_lifeCycleUnits_when_createUnits_thenReturn_CREATED_then_CONFLICT() throws Exception {
+        final GUID iop = GUIDFactory.newWriteLogbookGUID(0);
+        final List<LogbookLifeCycleUnitParameters> lifeCycles = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            lifeCycles.add(getCompleteLifeCycleUnitParameters(iop));
+        }
+        // Creation OK, one LifeCycle per entry
+        given()
+            .contentType(ContentType.JSON)
+            .body(JsonHandler.unprettyPrint(lifeCycles))
+            .when()
+            .post(LIFE_UNIT_BULK_URI, iop.toString())
+            .then()
+            .statusCode(Status.CREATED.getStatusCode());
+        for (final LogbookLifeCycleUnitParameters lifeCycle : lifeCycles) {
+            given()
+                .contentType(ContentType.JSON)
+                .when()
+                .get("/unitlifecycles/" + lifeCycle.getParameterValue(LogbookParameterName.objectIdentifier))
+                .then()
+                .statusCode(Status.OK.getStatusCode());
+        }
+
+        // Already exists, but the new LifeCycle of the same request is still created
+        final LogbookLifeCycleUnitParameters added = getCompleteLifeCycleUnitParameters(iop);
+        lifeCycles.add(added);
+        given()
+            .contentType(ContentType.JSON)
+            .body(JsonHandler.unprettyPrint(lifeCycles))
+            .when()
+            .post(LIFE_UNIT_BULK_URI, iop.toString())
+            .then()
+            .statusCode(Status.CONFLICT.getStatusCode());
+        given()
+            .contentType(ContentType.JSON)
+            .when()
+            .get("/unitlifecycles/" + added.getParameterValue(LogbookParameterName.objectIdentifier))
+            .then()
+            .statusCode(Status.OK.getStatusCode());
+
+        // Incoherent operation id
+        given()
+            .contentType(ContentType.JSON)
+            .body(JsonHandler.unprettyPrint(lifeCycles))
+            .when()
+            .post(LIFE_UNIT_BULK_URI, GUIDFactory.newWriteLogbookGUID(0).toString())
+            .then()
+            .statusCode(Status.PRECONDITION_FAILED.getStatusCode());
+
+        // No LifeCycle
+        given()
+            .contentType(ContentType.JSON)
+            .body("[]")
+            .when()
+            .post(LIFE_UNIT_BULK_URI, iop.toString())
+            .then()
+            .statusCode(Status.PRECONDITION_FAILED.getStatusCode());
+    }
+
     @Test
     public final void given_lifeCycleUnitWithoutMandotoryParams_when_create_thenReturn_BAD_RESUEST() {
         final GUID guidTest = GUIDFactory.newWriteLogbookGUID(0);
@@ -58,6 +58,20 @@ public interface MetaData {
         throws InvalidParseOperationException, IllegalArgumentException, MetaDataNotFoundException,
         MetaDataAlreadyExistException, MetaDataExecutionException, MetaDataDocumentSizeException;
 
+    /**
+     * insert a batch of Units at once (typically one level of an ingest tree)
+     *
+     * @param insertRequests array of { $roots: parents, $data : data }, one per Unit, parents being already inserted
+     *
+     * @throws InvalidParseOperationException Throw if json format is not correct or if one request has a $query
+     * @throws MetaDataNotFoundException Throw if one parent is not found
+     * @throws MetaDataAlreadyExistException Throw if one Unit id already exists
+     * @throws MetaDataExecutionException Throw if error occurs when send Units to database
+     * @throws MetaDataDocumentSizeException Throw if one Unit size is too big
+     */
+    public void insertUnits(ArrayNode insertRequests)
+        throws InvalidParseOperationException, MetaDataNotFoundException, MetaDataAlreadyExistException,
+        MetaDataExecutionException, MetaDataDocumentSizeException;
 
     /**
      * Search UNITs by Select {@link Select}Query
@@ -28,6 +28,7 @@
 package fr.gouv.vitam.metadata.client;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 
 import fr.gouv.vitam.common.client.BasicClient;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
@@ -58,6 +59,24 @@ public interface MetaDataClient extends BasicClient {
         MetaDataNotFoundException, MetaDataAlreadyExistException, MetaDataDocumentSizeException,
         MetaDataClientServerException;
 
+    /**
+     * Insert a batch of units at once (typically one level of an ingest tree)
+     *
+     * @param insertQueries array of insert queries, one per unit, each with $roots as already inserted parents and
+     *        no $query <br>
+     *        null is not allowed
+     * @return the result as JsonNode
+     * @throws InvalidParseOperationException
+     * @throws MetaDataExecutionException
+     * @throws MetaDataNotFoundException
+     * @throws MetaDataAlreadyExistException
+     * @throws MetaDataDocumentSizeException
+     * @throws MetaDataClientServerException
+     */
+    JsonNode insertUnits(ArrayNode insertQueries) throws InvalidParseOperationException, MetaDataExecutionException,
+        MetaDataNotFoundException, MetaDataAlreadyExistException, MetaDataDocumentSizeException,
+        MetaDataClientServerException;
+
     /**
      * Search units by select query (DSL)
      *
@@ -120,6 +120,14 @@ public class MetaDataClientRestTest extends VitamJerseyTest {
             return expectedResponse.post();
         }
 
+        @Path("units/bulk")
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response insertUnits(String request) {
+            return expectedResponse.post();
+        }
+
         @Path("units")
         @GET
         @Consumes(MediaType.APPLICATION_JSON)
@@ -203,6 +211,30 @@ public class MetaDataClientRestTest extends VitamJerseyTest {
         client.insertUnit(JsonHandler.getFromString(VALID_QUERY));
     }
 
+    @Test
+    public void insertUnitsTest() throws Exception {
+        when(mock.post())
+            .thenReturn(Response.status(Response.Status.CREATED).entity(JsonHandler.createObjectNode()).build());
+        client.insertUnits(JsonHandler.createArrayNode().add(JsonHandler.getFromString(VALID_QUERY)));
+    }
+
+    @Test(expected = MetaDataNotFoundException.class)
+    public void givenParentNotFoundRequestWhenInsertUnitsThenReturnNotFound() throws Exception {
+        when(mock.post()).thenReturn(Response.status(Response.Status.NOT_FOUND).build());
+        client.insertUnits(JsonHandler.createArrayNode().add(JsonHandler.getFromString(VALID_QUERY)));
+    }
+
+    @Test(expected = MetaDataAlreadyExistException.class)
+    public void givenUnitAlreadyExistsWhenInsertUnitsThenReturnConflict() throws Exception {
+        when(mock.post()).thenReturn(Response.status(Response.Status.CONFLICT).build());
+        client.insertUnits(JsonHandler.createArrayNode().add(JsonHandler.getFromString(VALID_QUERY)));
+    }
+
+    @Test(expected = InvalidParseOperationException.class)
+    public void givenNullRequestWhenInsertUnitsThenThrowInvalidParse() throws Exception {
+        client.insertUnits(null);
+    }
+
     @Test(expected = MetaDataNotFoundException.class)
     public void givenParentNotFoundRequestWhenInsertObjectGroupsThenReturnNotFound() throws Exception {
         when(mock.post()).thenReturn(Response.status(Response.Status.NOT_FOUND).build());
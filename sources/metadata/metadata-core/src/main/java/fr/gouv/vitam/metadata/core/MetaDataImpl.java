@@ -126,6 +126,19 @@ public class MetaDataImpl implements MetaData {
         }
     }
 
+    @Override
+    public void insertUnits(ArrayNode insertRequests)
+        throws InvalidParseOperationException, MetaDataDocumentSizeException, MetaDataExecutionException,
+        MetaDataAlreadyExistException, MetaDataNotFoundException {
+        final List<InsertParserMultiple> insertParsers = new ArrayList<>(insertRequests.size());
+        for (final JsonNode insertRequest : insertRequests) {
+            final InsertParserMultiple insertParser = new InsertParserMultiple(new MongoDbVarNameAdapter());
+            insertParser.parse(insertRequest);
+            insertParsers.add(insertParser);
+        }
+        DbRequestFactoryImpl.getInstance().create().execInsertUnitRequests(insertParsers);
+    }
+
     @Override
     public void insertObjectGroup(JsonNode objectGroupRequest)
         throws InvalidParseOperationException, MetaDataDocumentSizeException, MetaDataExecutionException,
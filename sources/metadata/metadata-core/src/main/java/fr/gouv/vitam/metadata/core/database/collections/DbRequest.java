@@ -32,14 +32,18 @@ package fr.gouv.vitam.metadata.core.database.collections;
 import static com.mongodb.client.model.Accumulators.addToSet;
 import static com.mongodb.client.model.Aggregates.group;
 import static com.mongodb.client.model.Aggregates.match;
+import static com.mongodb.client.model.Aggregates.unwind;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Filters.gte;
 import static com.mongodb.client.model.Filters.in;
 import static com.mongodb.client.model.Filters.lte;
+import static com.mongodb.client.model.Updates.inc;
 
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -50,11 +54,18 @@ import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 
 import com.mongodb.BasicDBObject;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoException;
 import com.mongodb.MongoWriteException;
+import com.mongodb.bulk.BulkWriteError;
 import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 
@@ -69,6 +80,7 @@ import fr.gouv.vitam.common.database.builder.request.multiple.Update;
 import fr.gouv.vitam.common.database.parser.query.PathQuery;
 import fr.gouv.vitam.common.database.parser.query.helper.QueryDepthHelper;
 import fr.gouv.vitam.common.database.parser.request.GlobalDatasParser;
+import fr.gouv.vitam.common.database.parser.request.multiple.InsertParserMultiple;
 import fr.gouv.vitam.common.database.parser.request.multiple.RequestParserMultiple;
 import fr.gouv.vitam.common.database.translators.RequestToAbstract;
 import fr.gouv.vitam.common.database.translators.elasticsearch.QueryToElasticsearch;
@@ -80,6 +92,7 @@ import fr.gouv.vitam.common.database.translators.mongodb.RequestToMongodb;
 import fr.gouv.vitam.common.database.translators.mongodb.SelectToMongodb;
 import fr.gouv.vitam.common.database.translators.mongodb.UpdateToMongodb;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.guid.GUIDSet;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.metadata.api.exception.MetaDataAlreadyExistException;
@@ -144,9 +157,16 @@ public class DbRequest {
         }
         Result result = roots;
         int rank = 0;
+        // Intermediate Results might come from the cache if asked by the request
+        final ResultCache cache =
+            GlobalDatasDb.USELRUCACHE && requestParser.hintCache() ? ResultCache.getInstance() : null;
+        String cacheKey = cache != null ? cache.rootKey(requestParser.model(), roots.getCurrentIds()) : null;
         // if roots is empty, check if first query gives a non empty roots (empty query allowed for insert)
         if (result.getCurrentIds().isEmpty() && maxQuery > 0) {
-            final Result newResult = executeQuery(requestToMongodb, rank, result);
+            if (cache != null) {
+                cacheKey = cache.nextKey(cacheKey, requestToMongodb.getNthQuery(rank));
+            }
+            final Result newResult = executeQuery(requestToMongodb, rank, result, cache, cacheKey);
             if (newResult != null && !newResult.getCurrentIds().isEmpty() && !newResult.isError()) {
                 result = newResult;
             } else {
@@ -165,7 +185,10 @@ public class DbRequest {
         }
         // Stops if no result (empty)
         for (; !result.getCurrentIds().isEmpty() && rank < maxQuery; rank++) {
-            final Result newResult = executeQuery(requestToMongodb, rank, result);
+            if (cache != null) {
+                cacheKey = cache.nextKey(cacheKey, requestToMongodb.getNthQuery(rank));
+            }
+            final Result newResult = executeQuery(requestToMongodb, rank, result, cache, cacheKey);
             if (newResult == null) {
                 LOGGER.error(
                     NO_RESULT_AT_RANK + rank + FROM + requestParser + WHERE_PREVIOUS_IS + result);
@@ -194,6 +217,7 @@ public class DbRequest {
         // Insert allow to have no result
         if (request instanceof Insert) {
             final Result newResult = lastInsertFilterProjection((InsertToMongodb) requestToMongodb, result);
+            ResultCache.getInstance().invalidate();
             if (newResult != null) {
                 result = newResult;
             }
@@ -214,11 +238,13 @@ public class DbRequest {
         }
         if (request instanceof Update) {
             final Result newResult = lastUpdateFilterProjection((UpdateToMongodb) requestToMongodb, result);
+            ResultCache.getInstance().invalidate();
             if (newResult != null) {
                 result = newResult;
             }
         } else if (request instanceof Delete) {
             final Result newResult = lastDeleteFilterProjection((DeleteToMongodb) requestToMongodb, result);
+            ResultCache.getInstance().invalidate();
             if (newResult != null) {
                 result = newResult;
             }
@@ -280,7 +306,7 @@ public class DbRequest {
             (FindIterable<ObjectGroup>) MongoDbMetadataHelper.select(MetadataCollections.C_OBJECTGROUP,
                 MongoDbMetadataHelper.queryForAncestorsOrSame(roots, defaultStartSet.getCurrentIds()),
                 ObjectGroup.OBJECTGROUP_VITAM_PROJECTION);
-        final Set<String> newRoots = new HashSet<>();
+        final Set<String> newRoots = new GUIDSet();
         try (final MongoCursor<ObjectGroup> cursor = iterable.iterator()) {
             while (cursor.hasNext()) {
                 final ObjectGroup og = cursor.next();
@@ -317,7 +343,7 @@ public class DbRequest {
             (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
                 MongoDbMetadataHelper.queryForAncestorsOrSame(current, defaultStartSet.getCurrentIds()),
                 MongoDbMetadataHelper.ID_PROJECTION);
-        final Set<String> newRoots = new HashSet<>();
+        final Set<String> newRoots = new GUIDSet();
         try (final MongoCursor<Unit> cursor = iterable.iterator()) {
             while (cursor.hasNext()) {
                 final Unit unit = cursor.next();
@@ -327,6 +353,39 @@ public class DbRequest {
         return newRoots;
     }
 
+    /**
+     * Execute one request, getting its Result from the cache if any or saving it into the cache
+     *
+     * @param requestToMongodb
+     * @param rank current rank query
+     * @param previous previous Result from previous level (except in level == 0 where it is the subset of valid roots)
+     * @param cache the ResultCache, null if not to be used
+     * @param cacheKey the key of the Result of this rank in the cache
+     * @return the new Result from this request
+     * @throws MetaDataExecutionException
+     * @throws IllegalAccessException
+     * @throws InstantiationException
+     * @throws InvalidParseOperationException
+     */
+    private Result executeQuery(final RequestToAbstract requestToMongodb, final int rank, final Result previous,
+        final ResultCache cache, final String cacheKey)
+        throws MetaDataExecutionException, InstantiationException,
+        IllegalAccessException, InvalidParseOperationException {
+        if (cache == null) {
+            return executeQuery(requestToMongodb, rank, previous);
+        }
+        final Result cached = cache.get(cacheKey);
+        if (cached != null) {
+            LOGGER.debug("Result from cache at rank: {}", rank);
+            return cached;
+        }
+        final Result result = executeQuery(requestToMongodb, rank, previous);
+        if (GlobalDatasDb.SAVERESULT && result != null && !result.isError()) {
+            cache.put(cacheKey, result);
+        }
+        return result;
+    }
+
     /**
      * Execute one request
      *
@@ -456,11 +515,20 @@ public class DbRequest {
                     roots = QueryBuilders.rangeQuery(Unit.MAXDEPTH).lte(relativeDepth + 1);
                 }
             } else {
-                if (relativeDepth == 1) {
+                if (relativeDepth < 0) {
+                    // Relative parent: future result ids are in previous UNITANCESTORS
+                    final Set<String> fathers = aggregateUnitDepths(previous.getCurrentIds(), relativeDepth);
+                    roots = QueryToElasticsearch.getRoots(MetadataDocument.ID, fathers);
+                } else if (relativeDepth == 1) {
                     roots = QueryToElasticsearch.getRoots(MetadataDocument.UP,
                         previous.getCurrentIds());
-                } else if (relativeDepth >= 1) {
-                    roots = QueryToElasticsearch.getRoots(Unit.UNITUPS, previous.getCurrentIds());
+                } else {
+                    // relative depth: previous is in UNITANCESTORS of result within relativeDepth
+                    roots = QueryBuilders.nestedQuery(Unit.UNITANCESTORS, QueryBuilders.boolQuery()
+                        .filter(QueryToElasticsearch.getRoots(Unit.UNITANCESTORS + "." + Unit.ANCESTOR_ID,
+                            previous.getCurrentIds()))
+                        .filter(QueryBuilders.rangeQuery(Unit.UNITANCESTORS + "." + Unit.ANCESTOR_DEPTH)
+                            .lte(relativeDepth)));
                 }
 
             }
@@ -481,7 +549,6 @@ public class DbRequest {
         } else {
             // MongoDB
             Bson roots = null;
-            boolean tocheck = false;
             if (previous.getCurrentIds().isEmpty()) {
                 if (relativeDepth == 1) {
                     roots = lte(Unit.MAXDEPTH, 1);
@@ -492,7 +559,7 @@ public class DbRequest {
             } else {
                 if (relativeDepth < 0) {
                     // Relative parent: previous has future result in their _up
-                    // so future result ids are in previous UNITDEPTHS
+                    // so future result ids are in previous UNITANCESTORS
                     final Set<String> fathers = aggregateUnitDepths(previous.getCurrentIds(), relativeDepth);
                     roots = QueryToMongodb.getRoots(MetadataDocument.ID, fathers);
                 } else if (relativeDepth == 1) {
@@ -500,10 +567,8 @@ public class DbRequest {
                     roots = QueryToMongodb.getRoots(MetadataDocument.UP,
                         previous.getCurrentIds());
                 } else {
-                    // relative depth: previous is in UNITUPS of result
-                    // Will need an extra test on result
-                    roots = QueryToMongodb.getRoots(Unit.UNITUPS, previous.getCurrentIds());
-                    tocheck = true;
+                    // relative depth: previous is in UNITANCESTORS of result within relativeDepth
+                    roots = Unit.ancestorsFilter(previous.getCurrentIds(), relativeDepth);
                 }
             }
 
@@ -524,22 +589,6 @@ public class DbRequest {
             try (final MongoCursor<Unit> cursor = iterable.iterator()) {
                 while (cursor.hasNext()) {
                     final Unit unit = cursor.next();
-                    if (tocheck) {
-                        // now check for relativeDepth > 1
-                        final Map<String, Integer> depths = unit.getDepths();
-                        boolean check = false;
-                        for (final String pid : previous.getCurrentIds()) {
-                            final Integer depth = depths.get(pid);
-                            if (depth != null && depth <= relativeDepth) {
-                                check = true;
-                                break;
-                            }
-                        }
-                        if (!check) {
-                            // ignore since false positive
-                            continue;
-                        }
-                    }
                     final String id = unit.getId();
                     result.addId(id);
                 }
@@ -558,36 +607,33 @@ public class DbRequest {
      * Aggregate Unit Depths according to parent relative Depth
      *
      * @param ids
-     * @param relativeDepth
+     * @param relativeDepth negative relative depth (-1 for immediate parents)
      * @return the aggregate set of multi level parents for this relativeDepth
      */
     protected Set<String> aggregateUnitDepths(Set<String> ids, int relativeDepth) {
-        // TODO P1 add unit tests
+        final String ancestorId = Unit.UNITANCESTORS + "." + Unit.ANCESTOR_ID;
+        final String ancestorDepth = Unit.UNITANCESTORS + "." + Unit.ANCESTOR_DEPTH;
         // Select all items from ids
         final Bson match = match(in(MetadataDocument.ID, ids));
-        // aggregate all UNITDEPTH in one (ignoring depth value)
+        // one document per ancestor, keeping only those within relativeDepth
+        final Bson unwind = unwind(BuilderToken.DEFAULT_PREFIX + Unit.UNITANCESTORS);
+        final Bson matchDepth = match(lte(ancestorDepth, Math.abs(relativeDepth)));
+        // aggregate all ancestors in one (ignoring depth value)
         final Bson group = group(new BasicDBObject(MetadataDocument.ID, "all"),
-            addToSet("deptharray", BuilderToken.DEFAULT_PREFIX + Unit.UNITDEPTHS));
+            addToSet("fathers", BuilderToken.DEFAULT_PREFIX + ancestorId));
         LOGGER.debug("Depth: " + MongoDbHelper.bsonToString(match, false) + " " +
-            MongoDbHelper.bsonToString(group, false));
-        final List<Bson> pipeline = Arrays.asList(match, group);
+            MongoDbHelper.bsonToString(matchDepth, false) + " " + MongoDbHelper.bsonToString(group, false));
+        final List<Bson> pipeline = Arrays.asList(match, unwind, matchDepth, group);
         @SuppressWarnings("unchecked")
         final AggregateIterable<Unit> aggregateIterable =
             MetadataCollections.C_UNIT.getCollection().aggregate(pipeline);
         final Unit aggregate = aggregateIterable.first();
-        final Set<String> set = new HashSet<>();
+        final Set<String> set = new GUIDSet();
         if (aggregate != null) {
             @SuppressWarnings("unchecked")
-            final List<Map<String, Integer>> array = (List<Map<String, Integer>>) aggregate.get("deptharray");
-            for (final Map<String, Integer> map : array) {
-                for (final String key : map.keySet()) {
-                    if (map.get(key) <= relativeDepth) {
-                        set.add(key);
-                    }
-                }
-                map.clear();
-            }
-            array.clear();
+            final List<String> fathers = (List<String>) aggregate.get("fathers");
+            set.addAll(fathers);
+            fathers.clear();
         }
         return set;
     }
@@ -834,7 +880,7 @@ public class DbRequest {
                 final FindIterable<Unit> iterable =
                     (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
                         in(MetadataDocument.ID, last.getCurrentIds()), Unit.UNIT_VITAM_PROJECTION);
-                final Set<String> notFound = new HashSet<>(last.getCurrentIds());
+                final Set<String> notFound = new GUIDSet(last.getCurrentIds());
                 // TODO P2 optimize by trying to update only once the unit
                 try (MongoCursor<Unit> cursor = iterable.iterator()) {
                     while (cursor.hasNext()) {
@@ -872,7 +918,7 @@ public class DbRequest {
             final FindIterable<Unit> iterable =
                 (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
                     in(MetadataDocument.ID, last.getCurrentIds()), Unit.UNIT_VITAM_PROJECTION);
-            final Set<String> notFound = new HashSet<>(last.getCurrentIds());
+            final Set<String> notFound = new GUIDSet(last.getCurrentIds());
             // TODO P2 optimize by trying to update only once the og
             try (MongoCursor<Unit> cursor = iterable.iterator()) {
                 while (cursor.hasNext()) {
@@ -912,14 +958,164 @@ public class DbRequest {
         final FILTERARGS model = requestToMongodb.model();
         // index Unit
         if (model == FILTERARGS.UNITS) {
-            final Bson finalQuery = in(MetadataDocument.ID, ids);
+            insertBulkUnits(ids);
+        }
+    }
+
+    /**
+     * Bulk insert Units in ES
+     *
+     * @param ids the ids of the Units to index
+     * @throws MetaDataExecutionException
+     */
+    private void insertBulkUnits(Set<String> ids) throws MetaDataExecutionException {
+        final Bson finalQuery = in(MetadataDocument.ID, ids);
+        @SuppressWarnings("unchecked")
+        final FindIterable<Unit> iterable = (FindIterable<Unit>) MongoDbMetadataHelper
+            .select(MetadataCollections.C_UNIT, finalQuery, Unit.UNIT_ES_PROJECTION);
+        // TODO maybe retry once if in error ?
+        try (final MongoCursor<Unit> cursor = iterable.iterator()) {
+            MetadataCollections.C_UNIT.getEsClient().insertBulkUnitsEntriesIndexes(cursor);
+        }
+    }
+
+    /**
+     * Insert a batch of Units (typically one level of an ingest tree) at once: one existence check, one read of all
+     * parents, one insertMany of the Units with their depth structures computed from their parents, one bulkWrite of
+     * the parents' child counters and one ES bulk indexation.<br>
+     * Each request must only define the parents of its Unit as $roots (no $query), and parents must already exist.
+     *
+     * @param requestParsers one parsed Insert request per Unit
+     * @return the Result containing the inserted Unit ids
+     * @throws InvalidParseOperationException if one request is not a Unit insert with $roots only
+     * @throws MetaDataAlreadyExistException if one Unit already exists or is present twice
+     * @throws MetaDataNotFoundException if one parent is not found
+     * @throws MetaDataExecutionException
+     */
+    public Result execInsertUnitRequests(final List<InsertParserMultiple> requestParsers)
+        throws InvalidParseOperationException, MetaDataAlreadyExistException, MetaDataNotFoundException,
+        MetaDataExecutionException {
+        final Map<String, Unit> units = new LinkedHashMap<>(requestParsers.size());
+        final Map<String, Set<String>> unitParents = new HashMap<>(requestParsers.size());
+        final Set<String> allParents = new GUIDSet();
+        for (final InsertParserMultiple requestParser : requestParsers) {
+            if (requestParser.model() != FILTERARGS.UNITS || requestParser.getRequest().getNbQueries() > 0) {
+                throw new InvalidParseOperationException("Bulk insert only allows Units with $roots as parents");
+            }
+            final InsertToMongodb requestToMongodb =
+                (InsertToMongodb) RequestToMongodb.getRequestToMongoDb(requestParser);
+            final Unit unit = new Unit(requestToMongodb.getFinalData());
+            if (units.put(unit.getId(), unit) != null) {
+                throw new MetaDataAlreadyExistException("Unit already exists: " + unit.getId());
+            }
+            final Set<String> roots = requestParser.getRequest().getRoots();
+            unitParents.put(unit.getId(), roots);
+            allParents.addAll(roots);
+        }
+        if (units.isEmpty()) {
+            return MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS);
+        }
+        try {
             @SuppressWarnings("unchecked")
-            final FindIterable<Unit> iterable = (FindIterable<Unit>) MongoDbMetadataHelper
-                .select(MetadataCollections.C_UNIT, finalQuery, Unit.UNIT_ES_PROJECTION);
-            // TODO maybe retry once if in error ?
-            try (final MongoCursor<Unit> cursor = iterable.iterator()) {
-                MetadataCollections.C_UNIT.getEsClient().insertBulkUnitsEntriesIndexes(cursor);
+            final FindIterable<Unit> existing =
+                (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
+                    in(MetadataDocument.ID, units.keySet()), MongoDbMetadataHelper.ID_PROJECTION);
+            try (MongoCursor<Unit> cursor = existing.iterator()) {
+                if (cursor.hasNext()) {
+                    // Should not exist
+                    throw new MetaDataAlreadyExistException("Unit already exists: " + cursor.next().getId());
+                }
+            }
+            final Map<String, Unit> parents = new HashMap<>(allParents.size());
+            if (!allParents.isEmpty()) {
+                @SuppressWarnings("unchecked")
+                final FindIterable<Unit> iterable =
+                    (FindIterable<Unit>) MongoDbMetadataHelper.select(MetadataCollections.C_UNIT,
+                        in(MetadataDocument.ID, allParents), Unit.UNIT_VITAM_PROJECTION);
+                try (MongoCursor<Unit> cursor = iterable.iterator()) {
+                    while (cursor.hasNext()) {
+                        final Unit parentUnit = cursor.next();
+                        parents.put(parentUnit.getId(), parentUnit);
+                    }
+                }
+                if (parents.size() != allParents.size()) {
+                    allParents.removeAll(parents.keySet());
+                    LOGGER.error("Cannot find parent: " + allParents);
+                    throw new MetaDataNotFoundException("Cannot find Parent: " + allParents);
+                }
             }
+            // compute locally what addUnit would update remotely, grouping child counters per parent
+            final Map<String, Integer> nbChildren = new HashMap<>(parents.size());
+            for (final Unit unit : units.values()) {
+                final List<Unit> unitParentList = new ArrayList<>();
+                for (final String parentId : unitParents.get(unit.getId())) {
+                    unitParentList.add(parents.get(parentId));
+                    nbChildren.merge(parentId, 1, Integer::sum);
+                }
+                unit.setParentUnits(unitParentList).putBeforeSave();
+            }
+            @SuppressWarnings("unchecked")
+            final MongoCollection<Unit> collection = MetadataCollections.C_UNIT.getCollection();
+            final List<Unit> toInsert = new ArrayList<>(units.values());
+            try {
+                collection.insertMany(toInsert);
+            } catch (final MongoBulkWriteException e) {
+                // the insert is ordered: remove the units inserted before the error, so that none is kept
+                removeInsertedUnits(collection, toInsert, e);
+                throw e;
+            }
+            if (!nbChildren.isEmpty()) {
+                final List<WriteModel<Unit>> parentUpdates = new ArrayList<>(nbChildren.size());
+                for (final Map.Entry<String, Integer> entry : nbChildren.entrySet()) {
+                    parentUpdates.add(new UpdateOneModel<>(eq(MetadataDocument.ID, entry.getKey()),
+                        inc(Unit.NBCHILD, entry.getValue())));
+                }
+                collection.bulkWrite(parentUpdates, new BulkWriteOptions().ordered(false));
+            }
+        } catch (final MongoBulkWriteException e) {
+            for (final BulkWriteError error : e.getWriteErrors()) {
+                if (ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY) {
+                    throw new MetaDataAlreadyExistException(error.getMessage(), e);
+                }
+            }
+            throw new MetaDataExecutionException("Insert concern", e);
+        } catch (final MongoException e) {
+            throw new MetaDataExecutionException("Insert concern", e);
+        } finally {
+            ResultCache.getInstance().invalidate();
+        }
+        final Result result = MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS, new GUIDSet(units.keySet()));
+        result.setNbResult(units.size());
+        insertBulkUnits(result.getCurrentIds());
+        // FIXME P1 should handle micro update on parents in ES
+        return result;
+    }
+
+    /**
+     * Remove the units inserted by an ordered insertMany before it failed
+     *
+     * @param collection the Unit collection
+     * @param toInsert the units given to insertMany, in order
+     * @param e the exception raised by insertMany
+     */
+    static void removeInsertedUnits(MongoCollection<Unit> collection, List<Unit> toInsert,
+        MongoBulkWriteException e) {
+        // without write error (write concern error), all the units may have been inserted
+        int nbInserted = toInsert.size();
+        for (final BulkWriteError error : e.getWriteErrors()) {
+            nbInserted = Math.min(nbInserted, error.getIndex());
+        }
+        if (nbInserted == 0) {
+            return;
+        }
+        final List<String> insertedIds = new ArrayList<>(nbInserted);
+        for (final Unit unit : toInsert.subList(0, nbInserted)) {
+            insertedIds.add(unit.getId());
+        }
+        try {
+            collection.deleteMany(in(MetadataDocument.ID, insertedIds));
+        } catch (final MongoException e1) {
+            LOGGER.error("Cannot remove the units inserted before the error: " + insertedIds, e1);
         }
     }
 
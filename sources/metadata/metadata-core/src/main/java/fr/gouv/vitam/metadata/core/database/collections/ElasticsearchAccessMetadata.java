@@ -26,7 +26,7 @@
  *******************************************************************************/
 package fr.gouv.vitam.metadata.core.database.collections;
 
-import java.util.Iterator;
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -34,6 +34,7 @@ import java.util.Set;
 
 import org.bson.json.JsonMode;
 import org.bson.json.JsonWriterSettings;
+import org.elasticsearch.ElasticsearchException;
 import org.elasticsearch.action.ListenableActionFuture;
 import org.elasticsearch.action.admin.indices.create.CreateIndexResponse;
 import org.elasticsearch.action.bulk.BulkItemResponse;
@@ -45,21 +46,22 @@ import org.elasticsearch.action.index.IndexRequest.OpType;
 import org.elasticsearch.action.search.SearchRequestBuilder;
 import org.elasticsearch.action.search.SearchResponse;
 import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.cluster.metadata.MappingMetaData;
+import org.elasticsearch.common.collect.ImmutableOpenMap;
 import org.elasticsearch.common.settings.Settings;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.IdsQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.elasticsearch.index.query.TermsQueryBuilder;
 import org.elasticsearch.rest.RestStatus;
-import org.elasticsearch.search.SearchHit;
-import org.elasticsearch.search.SearchHits;
+import org.elasticsearch.search.sort.SortBuilders;
 
 import com.mongodb.DBObject;
 import com.mongodb.client.MongoCursor;
 
 import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
-import fr.gouv.vitam.common.database.builder.request.configuration.GlobalDatas;
 import fr.gouv.vitam.common.database.server.elasticsearch.ElasticsearchAccess;
 import fr.gouv.vitam.common.database.server.elasticsearch.ElasticsearchNode;
 import fr.gouv.vitam.common.database.server.mongodb.VitamDocument;
@@ -140,6 +142,36 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
         return true;
     }
 
+    /**
+     * Check the Unit index against the current mapping: an index created before UNITANCESTORS was nested cannot answer
+     * relative depth queries and must be rebuilt
+     *
+     * @return True if the Unit index exists and does not map UNITANCESTORS as nested
+     */
+    @SuppressWarnings("unchecked")
+    public final boolean isUnitIndexOutdated() {
+        final String index = MetadataCollections.C_UNIT.getName().toLowerCase();
+        if (!client.admin().indices().prepareExists(index).get().isExists()) {
+            return false;
+        }
+        final ImmutableOpenMap<String, MappingMetaData> mappings =
+            client.admin().indices().prepareGetMappings(index).setTypes(Unit.TYPEUNIQUE).get().getMappings()
+                .get(index);
+        if (mappings == null || mappings.get(Unit.TYPEUNIQUE) == null) {
+            return true;
+        }
+        try {
+            final Map<String, Object> properties =
+                (Map<String, Object>) mappings.get(Unit.TYPEUNIQUE).getSourceAsMap().get("properties");
+            final Map<String, Object> ancestors =
+                properties != null ? (Map<String, Object>) properties.get(Unit.UNITANCESTORS) : null;
+            return ancestors == null || !"nested".equals(ancestors.get("type"));
+        } catch (final IOException e) {
+            LOGGER.error("Error while reading Mapping", e);
+            return true;
+        }
+    }
+
     /**
      * refresh an index
      *
@@ -477,7 +509,8 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
             /*
              * filter where _id in (currentNodes as list of ids)
              */
-            final QueryBuilder domdepths = QueryBuilders.idsQuery((String[]) currentNodes.toArray());
+            final QueryBuilder domdepths =
+                QueryBuilders.idsQuery(currentNodes.toArray(new String[currentNodes.size()]));
             /*
              * Condition query
              */
@@ -501,7 +534,7 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
          * filter where _id in (currentNodes as list of ids)
          */
         QueryBuilder domdepths = null;
-        final IdsQueryBuilder filter = QueryBuilders.idsQuery((String[]) currentNodes.toArray());
+        final IdsQueryBuilder filter = QueryBuilders.idsQuery(currentNodes.toArray(new String[currentNodes.size()]));
         if (filterCond != null) {
             domdepths = QueryBuilders.boolQuery().must(filter).must(filterCond);
         } else {
@@ -561,14 +594,68 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
      *        values" : [list of id] } }"
      * @param filter
      * @return a structure as ResultInterface
-     * @throws MetaDataExecutionException
+     * @throws MetaDataExecutionException if the request is in error or has more hits than
+     *         {@link GlobalDatasDb#limitEsResults}
      */
     protected final Result search(final MetadataCollections collection, final String type, final QueryBuilder query,
         final QueryBuilder filter) throws MetaDataExecutionException {
+        final boolean isUnit = collection == MetadataCollections.C_UNIT;
+        try (final ElasticsearchScrollIterator iterator = searchIterator(collection, type, query, filter)) {
+            if (iterator == null) {
+                return null;
+            }
+            if (iterator.getTotalHits() == 0) {
+                LOGGER.error("No result from : " + query + " # " + filter);
+                return null;
+            }
+            if (iterator.getTotalHits() > GlobalDatasDb.limitEsResults) {
+                // all the ids are kept in memory: the query must be more selective
+                throw new MetaDataExecutionException("Too many results (" + iterator.getTotalHits() + " > " +
+                    GlobalDatasDb.limitEsResults + ") from : " + query + " # " + filter);
+            }
+            final Result resultRequest = isUnit ? MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS)
+                : MongoDbMetadataHelper.createOneResult(FILTERARGS.OBJECTGROUPS);
+            while (iterator.hasNext()) {
+                resultRequest.addId(iterator.next());
+            }
+            resultRequest.setNbResult(iterator.getSum());
+            if (GlobalDatasDb.PRINT_REQUEST) {
+                LOGGER.debug("FinalEsResult: {} : {}", resultRequest.getCurrentIds(), resultRequest.getNbResult());
+            }
+            return resultRequest;
+        } catch (final ElasticsearchException e) {
+            LOGGER.debug(e.getMessage(), e);
+            throw new MetaDataExecutionException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Search all hits through a scroll (no size limit), fetching only ids (and _nbc doc values for Units)
+     *
+     * @param collection
+     * @param type
+     * @param query as in DSL mode "{ "fieldname" : "value" }" "{ "match" : { "fieldname" : "value" } }" "{ "ids" : {
+     *        "values" : [list of id] } }"
+     * @param filter
+     * @return the iterator on hit ids, to be closed, or null if the request is in error
+     * @throws MetaDataExecutionException
+     */
+    protected final ElasticsearchScrollIterator searchIterator(final MetadataCollections collection,
+        final String type, final QueryBuilder query, final QueryBuilder filter) throws MetaDataExecutionException {
         // Note: Could change the code to allow multiple indexes and multiple types
+        // Score is not used, so DFS only costs one more round trip by default
         final SearchRequestBuilder request =
-            client.prepareSearch(collection.getName().toLowerCase()).setSearchType(SearchType.DFS_QUERY_THEN_FETCH)
-                .setTypes(type).setExplain(false).setSize(GlobalDatas.LIMIT_LOAD);
+            client.prepareSearch(collection.getName().toLowerCase())
+                .setSearchType(GlobalDatasDb.USE_DFS_QUERY ? SearchType.DFS_QUERY_THEN_FETCH
+                    : SearchType.QUERY_THEN_FETCH)
+                .setTypes(type).setExplain(false).setFetchSource(false)
+                .setScroll(TimeValue.timeValueMillis(GlobalDatasDb.ES_SCROLL_TIMEOUT_MS))
+                .setSize(GlobalDatasDb.ES_SCROLL_SIZE)
+                .addSort(SortBuilders.fieldSort(ElasticsearchScrollIterator.DOC_ORDER));
+        final String sumField = collection == MetadataCollections.C_UNIT ? Unit.NBCHILD : null;
+        if (sumField != null) {
+            request.addFieldDataField(sumField);
+        }
         if (filter != null) {
             if (GlobalDatasDb.USE_FILTERED_REQUEST) {
                 final BoolQueryBuilder filteredQueryBuilder = QueryBuilders.boolQuery().must(query).filter(filter);
@@ -591,47 +678,13 @@ public class ElasticsearchAccessMetadata extends ElasticsearchAccess {
             LOGGER.debug(e.getMessage(), e);
             throw new MetaDataExecutionException(e.getMessage(), e);
         }
+        final ElasticsearchScrollIterator iterator = new ElasticsearchScrollIterator(client, response, sumField);
         if (response.status() != RestStatus.OK) {
             LOGGER.error("Error " + response.status() + " from : " + request + ":" + query + " # " + filter);
+            iterator.close();
             return null;
         }
-        final SearchHits hits = response.getHits();
-        if (hits.getTotalHits() > GlobalDatas.LIMIT_LOAD) {
-            LOGGER.warn("Warning, more than " + GlobalDatas.LIMIT_LOAD + " hits: " + hits.getTotalHits());
-        }
-        if (hits.getTotalHits() == 0) {
-            LOGGER.error("No result from : " + request);
-            return null;
-        }
-        long nb = 0;
-        final boolean isUnit = collection == MetadataCollections.C_UNIT;
-        final Result resultRequest = isUnit ? MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS)
-            : MongoDbMetadataHelper.createOneResult(FILTERARGS.OBJECTGROUPS);
-        final Iterator<SearchHit> iterator = hits.iterator();
-        while (iterator.hasNext()) {
-            final SearchHit hit = iterator.next();
-            final String id = hit.getId();
-            final Map<String, Object> src = hit.getSource();
-            if (src != null && isUnit) {
-                final Object val = src.get(Unit.NBCHILD);
-                if (val == null) {
-                    LOGGER.error("Not found " + Unit.NBCHILD);
-                } else if (val instanceof Integer) {
-                    nb += (Integer) val;
-                    if (GlobalDatasDb.PRINT_REQUEST) {
-                        LOGGER.debug("Result: {} : {}", id, val);
-                    }
-                } else {
-                    LOGGER.error("Not Integer: " + val.getClass().getName());
-                }
-            }
-            resultRequest.addId(id);
-        }
-        resultRequest.setNbResult(nb);
-        if (GlobalDatasDb.PRINT_REQUEST) {
-            LOGGER.debug("FinalEsResult: {} : {}", resultRequest.getCurrentIds(), resultRequest.getNbResult());
-        }
-        return resultRequest;
+        return iterator;
     }
 
     /**
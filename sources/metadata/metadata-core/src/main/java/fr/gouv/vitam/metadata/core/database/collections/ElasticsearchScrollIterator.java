@@ -0,0 +1,142 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.metadata.core.database.collections;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Client;
+import org.elasticsearch.common.unit.TimeValue;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.SearchHitField;
+
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
+
+/**
+ * Iterator on the ids of all hits of an ElasticSearch request, paging through them with a scroll (no size limit).<br>
+ * Hits are expected without _source: an optional numeric field is summed from its doc values while iterating.<br>
+ * Must be closed to release the scroll context if not fully consumed.
+ */
+public class ElasticsearchScrollIterator implements Iterator<String>, AutoCloseable {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ElasticsearchScrollIterator.class);
+
+    /**
+     * Index order, the cheapest sort for a scroll
+     */
+    public static final String DOC_ORDER = "_doc";
+
+    private final Client client;
+    private final TimeValue keepAlive = TimeValue.timeValueMillis(GlobalDatasDb.ES_SCROLL_TIMEOUT_MS);
+    private final String sumField;
+    private final long totalHits;
+    private String scrollId;
+    private SearchHit[] hits;
+    private int rank = 0;
+    private long sum = 0;
+
+    /**
+     * @param client the ElasticSearch client
+     * @param firstPage the response of a search request executed with a scroll
+     * @param sumField the field (as doc values) to sum from each hit, or null
+     */
+    ElasticsearchScrollIterator(Client client, SearchResponse firstPage, String sumField) {
+        this.client = client;
+        this.sumField = sumField;
+        totalHits = firstPage.getHits().getTotalHits();
+        scrollId = firstPage.getScrollId();
+        hits = firstPage.getHits().getHits();
+    }
+
+    /**
+     * @return the total number of hits of the request
+     */
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    /**
+     * @return the sum of the sumField of the hits already iterated
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (rank < hits.length) {
+            return true;
+        }
+        if (scrollId == null || hits.length == 0) {
+            close();
+            return false;
+        }
+        final SearchResponse response = client.prepareSearchScroll(scrollId).setScroll(keepAlive).get();
+        scrollId = response.getScrollId();
+        hits = response.getHits().getHits();
+        rank = 0;
+        if (hits.length == 0) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final SearchHit hit = hits[rank++];
+        if (sumField != null) {
+            final SearchHitField field = hit.field(sumField);
+            if (field == null || !(field.getValue() instanceof Number)) {
+                LOGGER.error("Not found " + sumField);
+            } else {
+                sum += ((Number) field.getValue()).longValue();
+            }
+        }
+        return hit.getId();
+    }
+
+    @Override
+    public void close() {
+        if (scrollId != null) {
+            try {
+                client.prepareClearScroll().addScrollId(scrollId).get();
+            } catch (final Exception e) {
+                // the scroll context will expire by itself
+                LOGGER.debug(e);
+            }
+            scrollId = null;
+        }
+        hits = new SearchHit[0];
+        rank = 0;
+    }
+}
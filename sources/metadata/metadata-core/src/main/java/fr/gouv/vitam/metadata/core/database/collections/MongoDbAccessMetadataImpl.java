@@ -28,6 +28,9 @@ package fr.gouv.vitam.metadata.core.database.collections;
 
 import static com.mongodb.client.model.Indexes.hashed;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.bson.Document;
 import org.bson.codecs.configuration.CodecRegistries;
 import org.bson.codecs.configuration.CodecRegistry;
@@ -38,6 +41,7 @@ import com.mongodb.MongoClient;
 import com.mongodb.MongoClientOptions;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.ListIndexesIterable;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoIterable;
 import com.mongodb.client.result.DeleteResult;
 
@@ -83,9 +87,41 @@ public class MongoDbAccessMetadataImpl extends MongoDbAccess {
             }
         });
 
+        // Units created before UNITANCESTORS
+        Unit.backfillAncestors();
+
         // init Unit Mapping for ES
         MetadataCollections.C_UNIT.initialize(this.esClient);
+        final boolean reindex = this.esClient.isUnitIndexOutdated();
+        if (reindex) {
+            LOGGER.info("Unit index mapping is outdated: rebuild it");
+            this.esClient.deleteIndex(MetadataCollections.C_UNIT);
+        }
         MetadataCollections.C_UNIT.getEsClient().addIndex(MetadataCollections.C_UNIT);
+        if (reindex) {
+            reindexUnits();
+        }
+    }
+
+    /**
+     * Index again all Units from MongoDB into a newly created ES Unit index
+     */
+    private void reindexUnits() {
+        final Map<String, String> indexes = new HashMap<>();
+        long nb = 0;
+        @SuppressWarnings("unchecked")
+        final FindIterable<Unit> iterable =
+            MetadataCollections.C_UNIT.getCollection().find().projection(Unit.UNIT_ES_PROJECTION);
+        try (final MongoCursor<Unit> cursor = iterable.iterator()) {
+            while (cursor.hasNext()) {
+                nb += esClient.addBulkEntryIndex(indexes, cursor.next());
+            }
+        }
+        if (!indexes.isEmpty()) {
+            nb += indexes.size();
+            esClient.addEntryIndexesBlocking(MetadataCollections.C_UNIT, indexes);
+        }
+        LOGGER.info("Unit index rebuilt with " + nb + " Units");
     }
 
     /**
@@ -199,6 +235,7 @@ public class MongoDbAccessMetadataImpl extends MongoDbAccess {
                     .getDeletedCount());
             }
             esClient.deleteIndex(MetadataCollections.C_OBJECTGROUP);
+            ResultCache.getInstance().invalidate();
             if (result.getDeletedCount() != count) {
                 throw new DatabaseException(
                     String.format("%s: Delete %s from %s elements", MetadataCollections.C_OBJECTGROUP.getName(), result
@@ -224,6 +261,7 @@ public class MongoDbAccessMetadataImpl extends MongoDbAccess {
                     .getDeletedCount());
             }
             esClient.deleteIndex(MetadataCollections.C_UNIT);
+            ResultCache.getInstance().invalidate();
             if (result.getDeletedCount() != count) {
                 throw new DatabaseException(
                     String.format("%s: Delete %s from %s elements", MetadataCollections.C_UNIT.getName(), result
@@ -107,5 +107,9 @@ public class MongoDbMetadataResponseFilter {
                     break;
             }
         }
+        if (isUnit) {
+            // internal index only, no public equivalent
+            document.remove(Unit.UNITANCESTORS);
+        }
     }
 }
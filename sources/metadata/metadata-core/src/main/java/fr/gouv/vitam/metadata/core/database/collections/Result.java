@@ -28,7 +28,6 @@ package fr.gouv.vitam.metadata.core.database.collections;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -40,6 +39,7 @@ import com.mongodb.BasicDBList;
 import fr.gouv.vitam.common.SingletonUtils;
 import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.guid.GUIDSet;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 
@@ -59,9 +59,9 @@ public abstract class Result {
     public static final String IDLIST = "idList";
 
     /**
-     * Current Ids in the result
+     * Current Ids in the result (GUIDs are stored in their compact binary form)
      */
-    protected Set<String> currentIds = new HashSet<>();
+    protected Set<String> currentIds = new GUIDSet();
     /**
      * Number of result (might be different on update/delete than currentUnits)
      */
@@ -98,12 +98,15 @@ public abstract class Result {
     }
 
     /**
-     * Clear the Result
+     * Clear the Result<br>
+     * <br>
+     * The previous set of ids is not cleared but replaced, since it might still be referenced by a filter built from
+     * it (filters iterate the set only when they are encoded)
      *
      * @return this
      */
     public Result clear() {
-        currentIds.clear();
+        currentIds = new GUIDSet();
         nbResult = 0;
         finalResult = null;
         return this;
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.metadata.core.database.collections;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+import fr.gouv.vitam.common.database.builder.query.Query;
+import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.lru.WeightedLruCache;
+import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
+
+/**
+ * Node local cache of the intermediate Results of multiple queries requests, used when the request carries the
+ * <code>$hint: cache</code> flag.<br>
+ * <br>
+ * The key of the Result of rank n is chained from the key of rank n-1 and the query of rank n, the first key being
+ * computed from the starting roots. Any insert, update or delete increments the generation included in the first
+ * key, such that previous entries are never served again.<br>
+ * <br>
+ * Note that invalidation is local to this node: other nodes rely on the short TTL
+ * {@link GlobalDatasDb#RESULT_CACHE_TTLMS}.
+ */
+public class ResultCache {
+    /**
+     * Estimated memory footprint of one id in a GUIDSet (3 longs in a table filled up to 75%)
+     */
+    private static final int ESTIMATED_ID_SIZE = 48;
+    private static final char SEPARATOR = '|';
+    private static final DigestType KEY_DIGEST_TYPE = DigestType.SHA256;
+
+    private static final ResultCache INSTANCE =
+        new ResultCache(GlobalDatasDb.MAXLRU, GlobalDatasDb.MAXLRU_BYTES, GlobalDatasDb.RESULT_CACHE_TTLMS);
+
+    private final WeightedLruCache<String, Result> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param capacity max number of cached Results
+     * @param maxBytes max estimated size in bytes of all cached Results
+     * @param ttl time to live in milliseconds
+     */
+    ResultCache(int capacity, long maxBytes, long ttl) {
+        cache = new WeightedLruCache<>(capacity, maxBytes, ttl, ResultCache::estimateSize);
+    }
+
+    /**
+     * @return the node ResultCache
+     */
+    public static ResultCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @param result
+     * @return the estimated size in bytes of the ids of the Result
+     */
+    static long estimateSize(Result result) {
+        return (long) ESTIMATED_ID_SIZE * result.getCurrentIds().size();
+    }
+
+    /**
+     * @param model
+     * @param roots the ids from which the first query starts
+     * @return the key of the starting roots for the current generation
+     */
+    public String rootKey(FILTERARGS model, Set<String> roots) {
+        final StringBuilder builder = new StringBuilder().append(generation.get()).append(SEPARATOR)
+            .append(model).append(SEPARATOR);
+        for (final String id : new TreeSet<>(roots)) {
+            builder.append(id).append(SEPARATOR);
+        }
+        return new Digest(KEY_DIGEST_TYPE).update(builder.toString()).digestHex();
+    }
+
+    /**
+     * @param previousKey the key of the previous rank (or of the roots)
+     * @param query the query of the current rank
+     * @return the key of the Result of the current rank
+     */
+    public String nextKey(String previousKey, Query query) {
+        final String normalized = new StringBuilder(previousKey).append(SEPARATOR)
+            .append(query.getParserExactdepth()).append(SEPARATOR)
+            .append(query.getParserRelativeDepth()).append(SEPARATOR)
+            .append(query.toString()).toString();
+        return new Digest(KEY_DIGEST_TYPE).update(normalized).digestHex();
+    }
+
+    /**
+     * @param key
+     * @return a copy of the cached Result, or null if none
+     */
+    public Result get(String key) {
+        final Result cached = cache.get(key);
+        if (cached == null) {
+            return null;
+        }
+        return MongoDbMetadataHelper.createOneResult(cached.type, cached.getCurrentIds())
+            .setNbResult(cached.getNbResult());
+    }
+
+    /**
+     * Cache a copy of the ids of the Result
+     *
+     * @param key
+     * @param result
+     */
+    public void put(String key, Result result) {
+        cache.put(key, MongoDbMetadataHelper.createOneResult(result.type, result.getCurrentIds())
+            .setNbResult(result.getNbResult()));
+    }
+
+    /**
+     * Invalidate all cached Results, to be called on any insert, update or delete
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * @return the number of cached Results
+     */
+    public int size() {
+        return cache.size();
+    }
+}
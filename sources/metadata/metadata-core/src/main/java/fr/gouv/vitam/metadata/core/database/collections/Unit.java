@@ -27,18 +27,25 @@
 package fr.gouv.vitam.metadata.core.database.collections;
 
 import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.elemMatch;
 import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
 import static com.mongodb.client.model.Filters.gt;
 import static com.mongodb.client.model.Filters.in;
 import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.lte;
 import static com.mongodb.client.model.Updates.addEachToSet;
 import static com.mongodb.client.model.Updates.combine;
 import static com.mongodb.client.model.Updates.set;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.bson.BSONObject;
@@ -51,7 +58,10 @@ import com.mongodb.MongoException;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
 import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 
 import fr.gouv.vitam.common.SingletonUtils;
 import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.UPDATEACTION;
@@ -70,7 +80,8 @@ import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
  * @formatter:off { MD content, _id: UUID, _tenant: tenant, _profil: documentType,, _min: depthmin, _max: depthmax, _mgt.
  *                Management structure, _uds: { UUID1 : depth1, UUID2 : depth2, ... }, // not indexed and not to be in
  *                ES! _us: [ UUID1, UUID2, ... }, // indexed and equivalent to _uds _up: [ UUID1, UUID2, ... ], //
- *                limited to immediate parent _og: UUID, _nbc : immediateChildNb }
+ *                limited to immediate parent _uda: [ { _u: UUID1, _d: depth1 }, ... ], // indexed and equivalent to
+ *                _uds _og: UUID, _nbc : immediateChildNb }
  * @formatter:on
  */
 public class Unit extends MetadataDocument<Unit> {
@@ -88,6 +99,18 @@ public class Unit extends MetadataDocument<Unit> {
      * UNITUPS : [ UUID1, UUID2 ]
      */
     public static final String UNITUPS = "_us";
+    /**
+     * UNITANCESTORS : [ { _u : UUID1, _d : depth1 }, { _u : UUID2, _d : depth2 } ], indexed version of UNITDEPTHS
+     */
+    public static final String UNITANCESTORS = "_uda";
+    /**
+     * Id of the ancestor Unit in UNITANCESTORS
+     */
+    public static final String ANCESTOR_ID = "_u";
+    /**
+     * Depth of the ancestor Unit in UNITANCESTORS (1 for an immediate parent)
+     */
+    public static final String ANCESTOR_DEPTH = "_d";
     /**
      * MINDEPTH : min
      */
@@ -118,6 +141,9 @@ public class Unit extends MetadataDocument<Unit> {
     public static final String MAPPING = "{" + TYPEUNIQUE + ": {" +
         "properties : { " + Unit.UNITDEPTHS + " : { type : \"object\", enabled : false }, " +
         Unit.UNITUPS + " : { type : \"string\", index : \"not_analyzed\" }, " +
+        Unit.UNITANCESTORS + " : { type : \"nested\", properties : { " +
+        Unit.ANCESTOR_ID + " : { type : \"string\", index : \"not_analyzed\" }, " +
+        Unit.ANCESTOR_DEPTH + " : { type : \"integer\" } } }, " +
         Unit.NBCHILD + " : { type : \"long\" }," +
         VitamLinks.UNIT_TO_UNIT.field2to1 + " : { type : \"string\", index : \"not_analyzed\" }, " +
         VitamLinks.UNIT_TO_UNIT.field1to2 + " : { type : \"object\", enabled : false }, " +
@@ -148,7 +174,7 @@ public class Unit extends MetadataDocument<Unit> {
      */
     public static final BasicDBObject UNIT_VITAM_PROJECTION =
         new BasicDBObject(NBCHILD, 1).append(TYPE, 1).append(UNITUPS, 1).append(UNITDEPTHS, 1)
-            .append(MINDEPTH, 1).append(MAXDEPTH, 1)
+            .append(UNITANCESTORS, 1).append(MINDEPTH, 1).append(MAXDEPTH, 1)
             .append(TENANT_ID, 1).append(MetadataDocument.UP, 1).append(MetadataDocument.ID, 1);
     /**
      * Unit Id, Vitam and Management fields Only projection (no content)
@@ -220,6 +246,7 @@ public class Unit extends MetadataDocument<Unit> {
         new BasicDBObject(VitamLinks.UNIT_TO_OBJECTGROUP.field1to2, 1),
         new BasicDBObject(TENANT_ID, 1),
         new BasicDBObject(UNITUPS, 1),
+        new BasicDBObject(UNITANCESTORS + "." + ANCESTOR_ID, 1).append(UNITANCESTORS + "." + ANCESTOR_DEPTH, 1),
         new BasicDBObject(MINDEPTH, 1),
         new BasicDBObject(MAXDEPTH, 1),
         new BasicDBObject(OPS, 1),
@@ -406,6 +433,23 @@ public class Unit extends MetadataDocument<Unit> {
                     new BasicDBObject(UPDATEACTIONARGS.EACH.exactToken(), ups));
                 listAddToSet.add(vtDepthsBson);
             }
+            // Compute UNITANCESTORS
+            @SuppressWarnings("unchecked")
+            final List<Object> vtAncestors = (List<Object>) vt.remove(UNITANCESTORS);
+            @SuppressWarnings("unchecked")
+            List<Object> ancestors = (List<Object>) get(UNITANCESTORS);
+            if (ancestors == null) {
+                ancestors = new ArrayList<>();
+            }
+            if (vtAncestors != null) {
+                // remove all not in vt but in current as newly added
+                ancestors.removeAll(vtAncestors);
+            }
+            if (!ancestors.isEmpty()) {
+                final BasicDBObject vtAncestorsBson = new BasicDBObject(UNITANCESTORS,
+                    new BasicDBObject(UPDATEACTIONARGS.EACH.exactToken(), ancestors));
+                listAddToSet.add(vtAncestorsBson);
+            }
             try {
                 update = new BasicDBObject();
                 if (!listAddToSet.isEmpty()) {
@@ -437,6 +481,7 @@ public class Unit extends MetadataDocument<Unit> {
             MongoDbMetadataHelper.updateLinkset(this, null, VitamLinks.UNIT_TO_UNIT, false);
             append(NBCHILD, nb);
             append(UNITUPS, new ArrayList<>());
+            append(UNITANCESTORS, new ArrayList<>());
             nb = 0;
         }
         return false;
@@ -491,6 +536,83 @@ public class Unit extends MetadataDocument<Unit> {
         return sublist;
     }
 
+    /**
+     * Used in ingest (get the next ancestors including itself with depth +1 for all)
+     *
+     * @return the new UNITANCESTORS for children
+     */
+    public List<Bson> getSubAncestors() {
+        @SuppressWarnings("unchecked")
+        final List<Map<String, Object>> ancestors = (List<Map<String, Object>>) get(UNITANCESTORS);
+        final List<Bson> sublist = new ArrayList<>(ancestors != null ? ancestors.size() + 1 : 1);
+        if (ancestors != null) {
+            for (final Map<String, Object> ancestor : ancestors) {
+                sublist.add(new BasicDBObject(ANCESTOR_ID, ancestor.get(ANCESTOR_ID))
+                    .append(ANCESTOR_DEPTH, ((Number) ancestor.get(ANCESTOR_DEPTH)).intValue() + 1));
+            }
+        }
+        sublist.add(new BasicDBObject(ANCESTOR_ID, getId()).append(ANCESTOR_DEPTH, 1));
+        return sublist;
+    }
+
+    /**
+     * Used in migration (Unit created before UNITANCESTORS)
+     *
+     * @return the UNITANCESTORS of this Unit computed from its UNITDEPTHS
+     */
+    public List<Bson> getAncestorsFromDepths() {
+        final Map<String, Integer> depths = getDepths();
+        final List<Bson> list = new ArrayList<>(depths.size());
+        for (final Entry<String, Integer> depth : depths.entrySet()) {
+            list.add(new BasicDBObject(ANCESTOR_ID, depth.getKey()).append(ANCESTOR_DEPTH, depth.getValue()));
+        }
+        return list;
+    }
+
+    /**
+     * One-off migration of the Units created before UNITANCESTORS: set their UNITANCESTORS from their UNITDEPTHS, one
+     * bulk write per batch of {@link GlobalDatasDb#LIMIT_MDB_NEW_INDEX} Units
+     *
+     * @return the number of Units updated
+     */
+    public static long backfillAncestors() {
+        @SuppressWarnings("unchecked")
+        final MongoCollection<Unit> collection = MetadataCollections.C_UNIT.getCollection();
+        final List<WriteModel<Unit>> updates = new ArrayList<>();
+        long nb = 0;
+        try (final MongoCursor<Unit> cursor = collection.find(exists(UNITANCESTORS, false))
+            .projection(new BasicDBObject(ID, 1).append(UNITDEPTHS, 1)).iterator()) {
+            while (cursor.hasNext()) {
+                final Unit unit = cursor.next();
+                updates.add(new UpdateOneModel<>(eq(ID, unit.getId()),
+                    set(UNITANCESTORS, unit.getAncestorsFromDepths())));
+                if (updates.size() >= GlobalDatasDb.LIMIT_MDB_NEW_INDEX) {
+                    nb += collection.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getModifiedCount();
+                    updates.clear();
+                }
+            }
+        }
+        if (!updates.isEmpty()) {
+            nb += collection.bulkWrite(updates, new BulkWriteOptions().ordered(false)).getModifiedCount();
+        }
+        if (nb > 0) {
+            LOGGER.info("UNITANCESTORS set from UNITDEPTHS for " + nb + " Units");
+        }
+        return nb;
+    }
+
+    /**
+     * Filter on Units having one of the ancestors at a depth lower or equal to maxDepth, fully answered by the index on
+     * UNITANCESTORS
+     *
+     * @param ancestors the ids of the ancestors
+     * @param maxDepth the maximum depth between the ancestor and the Unit (1 for immediate children)
+     * @return the filter
+     */
+    public static Bson ancestorsFilter(final Set<String> ancestors, final int maxDepth) {
+        return elemMatch(UNITANCESTORS, and(in(ANCESTOR_ID, ancestors), lte(ANCESTOR_DEPTH, maxDepth)));
+    }
+
     /**
      * Used in ingest (get the next ups including itself)
      *
@@ -516,11 +638,21 @@ public class Unit extends MetadataDocument<Unit> {
      */
     @SuppressWarnings("unchecked")
     public Map<String, Integer> getDepths() {
-        final Map<String, Integer> map = (Map<String, Integer>) get(UNITDEPTHS);
-        if (map == null) {
+        final Object depths = get(UNITDEPTHS);
+        if (depths == null) {
             return SingletonUtils.singletonMap();
         }
-        return map;
+        if (depths instanceof List) {
+            // stored as [ { UUID1 : depth1 }, { UUID2 : depth2 }, ... ], keeping the lowest depth of each parent
+            final Map<String, Integer> map = new HashMap<>();
+            for (final Map<String, Object> item : (List<Map<String, Object>>) depths) {
+                for (final Entry<String, Object> entry : item.entrySet()) {
+                    map.merge(entry.getKey(), ((Number) entry.getValue()).intValue(), Math::min);
+                }
+            }
+            return map;
+        }
+        return (Map<String, Integer>) depths;
     }
 
     /**
@@ -563,6 +695,41 @@ public class Unit extends MetadataDocument<Unit> {
         return depth;
     }
 
+    /**
+     * Set the links and depth structures of this new Unit from its already loaded parents, without any database
+     * access, as addUnit would do remotely (used in bulk insertion)
+     *
+     * @param parents the immediate parents, loaded with at least UNIT_VITAM_PROJECTION
+     * @return this
+     */
+    public Unit setParentUnits(final Collection<Unit> parents) {
+        final Set<String> ups = new LinkedHashSet<>(getFathersUnitIds(false));
+        final Set<Bson> depths = new LinkedHashSet<>();
+        final Set<String> allUps = new LinkedHashSet<>();
+        final Set<Bson> ancestors = new LinkedHashSet<>();
+        int min = GlobalDatasParser.MAXDEPTH;
+        int max = 1;
+        for (final Unit parent : parents) {
+            ups.add(parent.getId());
+            depths.addAll(parent.getSubDepth());
+            allUps.addAll(parent.getSubUnitUps());
+            ancestors.addAll(parent.getSubAncestors());
+            min = Math.min(min, parent.getInteger(MINDEPTH, 0) + 1);
+            max = Math.max(max, parent.getInteger(MAXDEPTH, 0) + 1);
+        }
+        if (min == GlobalDatasParser.MAXDEPTH) {
+            min = 1;
+        }
+        put(VitamLinks.UNIT_TO_UNIT.field2to1, new ArrayList<>(ups));
+        put(UNITDEPTHS, new ArrayList<>(depths));
+        put(UNITUPS, new ArrayList<>(allUps));
+        put(UNITANCESTORS, new ArrayList<>(ancestors));
+        put(MINDEPTH, min);
+        put(MAXDEPTH, max);
+        put(NBCHILD, 0);
+        return this;
+    }
+
     private void updateAfterAddingSubUnit() throws MetaDataExecutionException {
         final BasicDBObject update = new BasicDBObject()
             .append(UPDATEACTION.INC.exactToken(),
@@ -593,6 +760,8 @@ public class Unit extends MetadataDocument<Unit> {
             final Bson updateSubDepth = addEachToSet(UNITDEPTHS, sublist);
             final List<String> subids = getSubUnitUps();
             final Bson updateSubUnits = addEachToSet(UNITUPS, subids);
+            final List<Bson> subAncestors = getSubAncestors();
+            final Bson updateSubAncestors = addEachToSet(UNITANCESTORS, subAncestors);
             Integer val = this.getInteger(MINDEPTH);
             int min = 1;
             if (val != null) {
@@ -603,7 +772,7 @@ public class Unit extends MetadataDocument<Unit> {
             if (val != null) {
                 max += val;
             }
-            update = combine(update, updateSubDepth, updateSubUnits);
+            update = combine(update, updateSubDepth, updateSubUnits, updateSubAncestors);
             if (min < unit.getInteger(MINDEPTH)) {
                 update = combine(update, set(MINDEPTH, min));
             }
@@ -619,6 +788,7 @@ public class Unit extends MetadataDocument<Unit> {
                 nb += nbc;
                 sublist.clear();
                 subids.clear();
+                subAncestors.clear();
                 updateAfterAddingSubUnit();
             } catch (final MongoException e) {
                 LOGGER.error(EXCEPTION_FOR + update, e);
@@ -652,7 +822,9 @@ public class Unit extends MetadataDocument<Unit> {
             final Bson updateSubDepth = addEachToSet(UNITDEPTHS, sublist);
             final List<String> subids = getSubUnitUps();
             final Bson updateSubUnits = addEachToSet(UNITUPS, subids);
-            update = combine(update, updateSubDepth, updateSubUnits);
+            final List<Bson> subAncestors = getSubAncestors();
+            final Bson updateSubAncestors = addEachToSet(UNITANCESTORS, subAncestors);
+            update = combine(update, updateSubDepth, updateSubUnits, updateSubAncestors);
             Integer val = this.getInteger(MINDEPTH);
             int min = 1;
             if (val != null) {
@@ -670,6 +842,7 @@ public class Unit extends MetadataDocument<Unit> {
                 nb += nbc;
                 sublist.clear();
                 subids.clear();
+                subAncestors.clear();
                 getCollection().updateMany(
                     and(in(ID, ids), lt(MAXDEPTH, max)),
                     new BasicDBObject(MAXDEPTH, max),
@@ -788,6 +961,7 @@ public class Unit extends MetadataDocument<Unit> {
         if (all) {
             remove(UNITDEPTHS);
             remove(UNITUPS);
+            remove(UNITANCESTORS);
             remove(MINDEPTH);
             remove(MAXDEPTH);
             remove(TYPE);
@@ -76,6 +76,26 @@ public class GlobalDatasDb extends GlobalDatasParser {
      * limit before flushing MongoDB with Bulk
      */
     public static final int LIMIT_MDB_NEW_INDEX = 10000;
+    /**
+     * Shall we use DFS_QUERY_THEN_FETCH for ElasticSearch requests (more accurate scores for one extra round trip)
+     */
+    public static final boolean USE_DFS_QUERY = false;
+    /**
+     * Number of hits fetched per page when scrolling through ElasticSearch results
+     */
+    public static final int ES_SCROLL_SIZE = 1000;
+    /**
+     * Keep alive in ms of an ElasticSearch scroll context between two pages
+     */
+    public static final long ES_SCROLL_TIMEOUT_MS = 60000;
+    /**
+     * Default maximum number of hits gathered from one ElasticSearch query
+     */
+    public static final int DEFAULT_LIMIT_ES_RESULTS = 1000000;
+    /**
+     * Maximum number of hits gathered from one ElasticSearch query: a query with more hits is in error
+     */
+    public static int limitEsResults = DEFAULT_LIMIT_ES_RESULTS;// NOSONAR Change can be done
     /**
      * In Debug mode : shall we print the request
      */
@@ -85,13 +105,13 @@ public class GlobalDatasDb extends GlobalDatasParser {
      */
     public static final boolean BLOCKING = false;
     /**
-     * Shall we save ResultCache
+     * Shall we save intermediate Results into the ResultCache (requests with $hint: cache)
      */
     public static final boolean SAVERESULT = true;
     /**
-     * Shall we use SynchronizedLruCache for cache of results
+     * Shall we use the ResultCache for intermediate Results (only for requests with $hint: cache)
      */
-    public static final boolean USELRUCACHE = false;
+    public static final boolean USELRUCACHE = true;
     /**
      * Default TTL in ms : 1H
      */
@@ -100,10 +120,19 @@ public class GlobalDatasDb extends GlobalDatasParser {
      * Default TTL in s : 1H
      */
     public static final int TTL = TTLMS / 1000;
+    /**
+     * TTL in ms of the ResultCache entries : 30s. Invalidation is local to each node, so the other nodes may serve a
+     * stale Result for this delay after an update
+     */
+    public static final long RESULT_CACHE_TTLMS = 30 * 1000L;
     /**
      * Default LRU Size
      */
     public static final int MAXLRU = 1000000;
+    /**
+     * Default LRU maximum estimated size in bytes: 128 MB
+     */
+    public static final long MAXLRU_BYTES = 128L * 1024 * 1024;
     /**
      * Shall we use Redis for cache of results
      */
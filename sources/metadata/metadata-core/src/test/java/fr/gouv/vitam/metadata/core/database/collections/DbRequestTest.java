@@ -75,9 +75,11 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.mongodb.BasicDBList;
+import com.mongodb.MongoBulkWriteException;
 import com.mongodb.MongoClient;
 import com.mongodb.MongoClientOptions;
 import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 
 import de.flapdoodle.embed.mongo.MongodExecutable;
@@ -89,6 +91,7 @@ import de.flapdoodle.embed.mongo.distribution.Version;
 import de.flapdoodle.embed.process.runtime.Network;
 import fr.gouv.vitam.common.LocalDateUtil;
 import fr.gouv.vitam.common.database.builder.query.PathQuery;
+import fr.gouv.vitam.common.database.builder.query.Query;
 import fr.gouv.vitam.common.database.builder.query.VitamFieldsHelper;
 import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken;
 import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
@@ -668,6 +671,198 @@ public class DbRequestTest {
         assertEquals(2, MetadataCollections.C_UNIT.getCollection().count());
     }
 
+    @Test
+    public void testSelectWithHintCache() throws Exception {
+        final GUID uuid = GUIDFactory.newUnitGUID(tenantId);
+        final GUID uuid2 = GUIDFactory.newUnitGUID(tenantId);
+        final DbRequest dbRequest = new DbRequest();
+        final ResultCache cache = ResultCache.getInstance();
+        executeRequest(dbRequest,
+            RequestParserHelper.getParser(createInsertRequestWithUUID(uuid), mongoDbVarNameAdapter));
+        assertEquals(0, cache.size());
+
+        final Select select = new Select();
+        select.addQueries(and().add(eq(id(), uuid.toString()), eq(MY_INT, 20)))
+            .addHintFilter(BuilderToken.FILTERARGS.CACHE.exactToken());
+        executeRequest(dbRequest, RequestParserHelper.getParser(select.getFinalSelect(), mongoDbVarNameAdapter));
+        assertEquals(1, cache.size());
+        // Change the unit directly in the database, such that the query no longer matches and the cache is kept
+        MetadataCollections.C_UNIT.getCollection().updateOne(new Document(MetadataDocument.ID, uuid.toString()),
+            new Document("$set", new Document(MY_INT, 21)));
+        // Second execution is served by the cache: the query is not run again
+        executeRequest(dbRequest, RequestParserHelper.getParser(select.getFinalSelect(), mongoDbVarNameAdapter));
+        assertEquals(1, cache.size());
+        // Without the hint, the cache is not used and the query finds nothing
+        select.resetHintFilter();
+        final Result result =
+            dbRequest.execRequest(RequestParserHelper.getParser(select.getFinalSelect(), mongoDbVarNameAdapter), null);
+        assertTrue(result.isError());
+        assertEquals(1, cache.size());
+
+        // Any insert invalidates the cache
+        executeRequest(dbRequest,
+            RequestParserHelper.getParser(createInsertChild2ParentRequest(uuid2, uuid), mongoDbVarNameAdapter));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testInsertUnitsInBulk() throws Exception {
+        final GUID root = GUIDFactory.newUnitGUID(tenantId);
+        final GUID child1 = GUIDFactory.newUnitGUID(tenantId);
+        final GUID child2 = GUIDFactory.newUnitGUID(tenantId);
+        final GUID grandChild = GUIDFactory.newUnitGUID(tenantId);
+        final DbRequest dbRequest = new DbRequest();
+        executeRequest(dbRequest,
+            RequestParserHelper.getParser(createInsertRequestWithUUID(root), mongoDbVarNameAdapter));
+
+        Result result = dbRequest.execInsertUnitRequests(
+            Arrays.asList(createBulkInsertParser(child1, root), createBulkInsertParser(child2, root)));
+        assertEquals(2, result.getNbResult());
+        Unit unit = (Unit) MongoDbMetadataHelper.findOneNoAfterLoad(MetadataCollections.C_UNIT, root.toString());
+        assertEquals(2, unit.getInteger(Unit.NBCHILD).intValue());
+
+        result = dbRequest.execInsertUnitRequests(Arrays.asList(createBulkInsertParser(grandChild, child1)));
+        assertEquals(1, result.getNbResult());
+        unit = (Unit) MongoDbMetadataHelper.findOneNoAfterLoad(MetadataCollections.C_UNIT, grandChild.toString());
+        assertEquals(Arrays.asList(child1.toString()), unit.getFathersUnitIds(false));
+        assertEquals(3, unit.getInteger(Unit.MINDEPTH).intValue());
+        assertEquals(3, unit.getInteger(Unit.MAXDEPTH).intValue());
+        assertEquals(2, ((List<?>) unit.get(Unit.UNITANCESTORS)).size());
+        assertTrue(((List<?>) unit.get(Unit.UNITUPS)).contains(root.toString()));
+
+        // Descendants of root up to depth 2 are found through the ancestors index
+        final Select select = new Select();
+        select.addRoots(root.toString());
+        select.addQueries(exists(TITLE).setRelativeDepthLimit(2));
+        final Result descendants = dbRequest.execRequest(
+            RequestParserHelper.getParser(select.getFinalSelect(), mongoDbVarNameAdapter), null);
+        assertEquals(3, descendants.getCurrentIds().size());
+
+        try {
+            dbRequest.execInsertUnitRequests(Arrays.asList(createBulkInsertParser(child2, root)));
+            fail("Should raise an exception");
+        } catch (final MetaDataAlreadyExistException e) {
+            // ignore
+        }
+        try {
+            dbRequest.execInsertUnitRequests(
+                Arrays.asList(createBulkInsertParser(GUIDFactory.newUnitGUID(tenantId), child1),
+                    createBulkInsertParser(GUIDFactory.newUnitGUID(tenantId), GUIDFactory.newUnitGUID(tenantId))));
+            fail("Should raise an exception");
+        } catch (final MetaDataNotFoundException e) {
+            // ignore
+        }
+    }
+
+    @Test
+    public void testRemoveUnitsInsertedBeforeBulkError() throws Exception {
+        final String first = GUIDFactory.newUnitGUID(tenantId).toString();
+        final String existing = GUIDFactory.newUnitGUID(tenantId).toString();
+        final String last = GUIDFactory.newUnitGUID(tenantId).toString();
+        @SuppressWarnings("unchecked")
+        final MongoCollection<Unit> collection = MetadataCollections.C_UNIT.getCollection();
+        collection.insertOne(new Unit("{\"_id\": \"" + existing + "\"}"));
+
+        final List<Unit> toInsert = Arrays.asList(new Unit("{\"_id\": \"" + first + "\"}"),
+            new Unit("{\"_id\": \"" + existing + "\"}"), new Unit("{\"_id\": \"" + last + "\"}"));
+        try {
+            collection.insertMany(toInsert);
+            fail("Should raise an exception");
+        } catch (final MongoBulkWriteException e) {
+            // the ordered insert stopped on the existing unit, after inserting the first one
+            assertEquals(1, collection.count(new Document(MetadataDocument.ID, first)));
+            DbRequest.removeInsertedUnits(collection, toInsert, e);
+        }
+        assertEquals(0, collection.count(new Document(MetadataDocument.ID, first)));
+        assertEquals(1, collection.count(new Document(MetadataDocument.ID, existing)));
+        assertEquals(0, collection.count(new Document(MetadataDocument.ID, last)));
+    }
+
+    @Test
+    public void testRelativeDepthWithUnitAncestors() throws Exception {
+        // root <- child <- grandChild <- greatGrandChild
+        final GUID root = GUIDFactory.newUnitGUID(tenantId);
+        final GUID child = GUIDFactory.newUnitGUID(tenantId);
+        final GUID grandChild = GUIDFactory.newUnitGUID(tenantId);
+        final GUID greatGrandChild = GUIDFactory.newUnitGUID(tenantId);
+        final DbRequest dbRequest = new DbRequest();
+        executeRequest(dbRequest,
+            RequestParserHelper.getParser(createInsertRequestWithUUID(root), mongoDbVarNameAdapter));
+        dbRequest.execInsertUnitRequests(Arrays.asList(createBulkInsertParser(child, root)));
+        dbRequest.execInsertUnitRequests(Arrays.asList(createBulkInsertParser(grandChild, child)));
+        dbRequest.execInsertUnitRequests(Arrays.asList(createBulkInsertParser(greatGrandChild, grandChild)));
+        checkRelativeDepths(dbRequest, root, child, grandChild, greatGrandChild);
+
+        // Units created before UNITANCESTORS only have UNITDEPTHS and UNITUPS, and their index does not nest it
+        final List<String> ids = Arrays.asList(root.toString(), child.toString(), grandChild.toString(),
+            greatGrandChild.toString());
+        MetadataCollections.C_UNIT.getCollection().updateMany(
+            new Document(MetadataDocument.ID, new Document("$in", ids)),
+            new Document("$unset", new Document(Unit.UNITANCESTORS, "")));
+        esClient.deleteIndex(MetadataCollections.C_UNIT);
+        esClient.getClient().admin().indices().prepareCreate(MetadataCollections.C_UNIT.getName().toLowerCase())
+            .addMapping(Unit.TYPEUNIQUE, "{" + Unit.TYPEUNIQUE + " : { properties : { " + Unit.UNITANCESTORS +
+                " : { type : \"object\", enabled : false } } } }")
+            .get();
+        assertTrue(esClient.isUnitIndexOutdated());
+
+        // migration at startup
+        mongoDbAccess = new MongoDbAccessMetadataImpl(mongoClient, "vitam-test", CREATE, esClient);
+        assertEquals(0, MetadataCollections.C_UNIT.getCollection()
+            .count(new Document(Unit.UNITANCESTORS, new Document("$exists", false))));
+        assertFalse(esClient.isUnitIndexOutdated());
+        esClient.refreshIndex(MetadataCollections.C_UNIT);
+        checkRelativeDepths(dbRequest, root, child, grandChild, greatGrandChild);
+    }
+
+    private void checkRelativeDepths(DbRequest dbRequest, GUID root, GUID child, GUID grandChild,
+        GUID greatGrandChild) throws Exception {
+        assertEquals(new HashSet<>(Arrays.asList(child.toString())),
+            selectWithRelativeDepth(dbRequest, root, 1));
+        assertEquals(new HashSet<>(Arrays.asList(child.toString(), grandChild.toString())),
+            selectWithRelativeDepth(dbRequest, root, 2));
+        assertEquals(new HashSet<>(Arrays.asList(child.toString(), grandChild.toString(), greatGrandChild.toString())),
+            selectWithRelativeDepth(dbRequest, root, 5));
+        assertEquals(new HashSet<>(Arrays.asList(grandChild.toString(), greatGrandChild.toString())),
+            selectWithRelativeDepth(dbRequest, child, 2));
+        // negative depth: ancestors
+        assertEquals(new HashSet<>(Arrays.asList(grandChild.toString())),
+            selectWithRelativeDepth(dbRequest, greatGrandChild, -1));
+        assertEquals(new HashSet<>(Arrays.asList(grandChild.toString(), child.toString())),
+            selectWithRelativeDepth(dbRequest, greatGrandChild, -2));
+        assertEquals(new HashSet<>(Arrays.asList(grandChild.toString(), child.toString(), root.toString())),
+            selectWithRelativeDepth(dbRequest, greatGrandChild, -5));
+        // full text (ES)
+        assertEquals(new HashSet<>(Arrays.asList(child.toString(), grandChild.toString())),
+            selectWithRelativeDepth(dbRequest, root, match(DESCRIPTION, "description3").setRelativeDepthLimit(2)));
+        assertEquals(new HashSet<>(Arrays.asList(child.toString(), grandChild.toString(), greatGrandChild.toString())),
+            selectWithRelativeDepth(dbRequest, root, match(DESCRIPTION, "description3").setRelativeDepthLimit(5)));
+    }
+
+    private Set<String> selectWithRelativeDepth(DbRequest dbRequest, GUID start, int relativeDepth)
+        throws Exception {
+        return selectWithRelativeDepth(dbRequest, start, exists(TITLE).setRelativeDepthLimit(relativeDepth));
+    }
+
+    private Set<String> selectWithRelativeDepth(DbRequest dbRequest, GUID start, Query query) throws Exception {
+        final Select select = new Select();
+        select.addRoots(start.toString());
+        select.addQueries(query);
+        return new HashSet<>(dbRequest.execRequest(
+            RequestParserHelper.getParser(select.getFinalSelect(), mongoDbVarNameAdapter), null).getCurrentIds());
+    }
+
+    private InsertParserMultiple createBulkInsertParser(GUID child, GUID parent) throws Exception {
+        final ObjectNode data = JsonHandler.createObjectNode().put(id(), child.toString())
+            .put(TITLE, VALUE_MY_TITLE + "3").put(DESCRIPTION, "Ma description3 vitam");
+        final Insert insert = new Insert();
+        insert.addRoots(parent.toString());
+        insert.addData(data);
+        final InsertParserMultiple parser = new InsertParserMultiple(mongoDbVarNameAdapter);
+        parser.parse(insert.getFinalInsert());
+        return parser;
+    }
+
     /**
      * @param dbRequest
      * @param requestParser
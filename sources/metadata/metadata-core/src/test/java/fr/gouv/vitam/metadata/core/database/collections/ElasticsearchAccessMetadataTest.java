@@ -27,12 +27,16 @@
 package fr.gouv.vitam.metadata.core.database.collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.junit.Assume.assumeTrue;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.elasticsearch.index.query.QueryBuilders;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
@@ -48,6 +52,7 @@ import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.metadata.api.exception.MetaDataExecutionException;
 import fr.gouv.vitam.metadata.api.exception.MetaDataNotFoundException;
+import fr.gouv.vitam.metadata.core.database.configuration.GlobalDatasDb;
 
 public class ElasticsearchAccessMetadataTest {
 
@@ -139,4 +144,51 @@ public class ElasticsearchAccessMetadataTest {
 
     }
 
+    @Test
+    public void testElasticsearchSearchScrollsThroughAllHits() throws Exception {
+        // add index
+        assertEquals(true, esClient.addIndex(MetadataCollections.C_UNIT));
+        // more hits than one scroll page
+        final int nb = GlobalDatasDb.ES_SCROLL_SIZE * 2 + 1;
+        final Map<String, String> units = new HashMap<>();
+        for (int i = 0; i < nb; i++) {
+            units.put(GUIDFactory.newUnitGUID(TENANT_ID).toString(), "{ \"title\":\"scroll\", \"_nbc\": 1}");
+        }
+        assertEquals(true, esClient.addEntryIndexesBlocking(MetadataCollections.C_UNIT, units));
+        esClient.refreshIndex(MetadataCollections.C_UNIT);
+
+        final Result result = esClient.search(MetadataCollections.C_UNIT, Unit.TYPEUNIQUE,
+            QueryBuilders.termQuery("title", "scroll"), null);
+        assertEquals(nb, result.getCurrentIds().size());
+        assertTrue(result.getCurrentIds().containsAll(units.keySet()));
+        // _nbc are summed from doc values
+        assertEquals(nb, result.getNbResult());
+
+        // an unfinished iteration releases its scroll on close
+        try (final ElasticsearchScrollIterator iterator = esClient.searchIterator(MetadataCollections.C_UNIT,
+            Unit.TYPEUNIQUE, QueryBuilders.termQuery("title", "scroll"), null)) {
+            assertEquals(nb, iterator.getTotalHits());
+            assertTrue(iterator.hasNext());
+            iterator.next();
+        }
+        assertEquals(null, esClient.search(MetadataCollections.C_UNIT, Unit.TYPEUNIQUE,
+            QueryBuilders.termQuery("title", "noscroll"), null));
+
+        // more hits than allowed
+        final int limitEsResults = GlobalDatasDb.limitEsResults;
+        GlobalDatasDb.limitEsResults = nb - 1;
+        try {
+            esClient.search(MetadataCollections.C_UNIT, Unit.TYPEUNIQUE, QueryBuilders.termQuery("title", "scroll"),
+                null);
+            fail("Should raise an exception");
+        } catch (final MetaDataExecutionException e) {
+            // too many results
+        } finally {
+            GlobalDatasDb.limitEsResults = limitEsResults;
+        }
+
+        // delete index
+        assertEquals(true, esClient.deleteIndex(MetadataCollections.C_UNIT));
+    }
+
 }
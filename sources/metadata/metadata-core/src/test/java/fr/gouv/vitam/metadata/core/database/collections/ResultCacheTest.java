@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.metadata.core.database.collections;
+
+import static fr.gouv.vitam.common.database.builder.query.QueryHelper.eq;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import fr.gouv.vitam.common.database.builder.request.configuration.BuilderToken.FILTERARGS;
+
+public class ResultCacheTest {
+    private static final Set<String> ROOTS = new HashSet<>(Arrays.asList("id1", "id2"));
+
+    @Test
+    public void givenQueryChainWhenComputeKeysThenKeysDependOnRootsAndQueries() throws Exception {
+        final ResultCache cache = new ResultCache(10, 1000000, 10000);
+        final String rootKey = cache.rootKey(FILTERARGS.UNITS, ROOTS);
+        assertEquals(rootKey, cache.rootKey(FILTERARGS.UNITS, new HashSet<>(Arrays.asList("id2", "id1"))));
+        assertNotEquals(rootKey, cache.rootKey(FILTERARGS.OBJECTGROUPS, ROOTS));
+        assertNotEquals(rootKey, cache.rootKey(FILTERARGS.UNITS, new HashSet<>(Arrays.asList("id1"))));
+
+        final String key = cache.nextKey(rootKey, eq("Title", "title"));
+        assertEquals(key, cache.nextKey(rootKey, eq("Title", "title")));
+        assertNotEquals(key, cache.nextKey(rootKey, eq("Title", "other")));
+        assertNotEquals(key, cache.nextKey(rootKey, eq("Title", "title").setDepthLimit(2)));
+    }
+
+    @Test
+    public void givenCachedResultWhenGetThenReturnCopy() throws Exception {
+        final ResultCache cache = new ResultCache(10, 1000000, 10000);
+        final String key = cache.nextKey(cache.rootKey(FILTERARGS.UNITS, ROOTS), eq("Title", "title"));
+        assertNull(cache.get(key));
+        cache.put(key, MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS, ROOTS));
+        final Result result = cache.get(key);
+        assertEquals(ROOTS, result.getCurrentIds());
+        assertEquals(2, result.getNbResult());
+        result.clear();
+        assertEquals(ROOTS, cache.get(key).getCurrentIds());
+    }
+
+    @Test
+    public void givenCachedResultWhenInvalidateThenKeysChange() throws Exception {
+        final ResultCache cache = new ResultCache(10, 1000000, 10000);
+        final String rootKey = cache.rootKey(FILTERARGS.UNITS, ROOTS);
+        cache.put(rootKey, MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS, ROOTS));
+        assertEquals(1, cache.size());
+        cache.invalidate();
+        assertEquals(0, cache.size());
+        assertNotEquals(rootKey, cache.rootKey(FILTERARGS.UNITS, ROOTS));
+    }
+
+    @Test
+    public void givenTooManyBytesWhenPutThenOldestEvicted() throws Exception {
+        final Result result = MongoDbMetadataHelper.createOneResult(FILTERARGS.UNITS, ROOTS);
+        final ResultCache cache = new ResultCache(10, ResultCache.estimateSize(result) + 1, 10000);
+        cache.put("key1", result);
+        cache.put("key2", result);
+        assertEquals(1, cache.size());
+        assertNull(cache.get("key1"));
+        assertEquals(ROOTS, cache.get("key2").getCurrentIds());
+    }
+}
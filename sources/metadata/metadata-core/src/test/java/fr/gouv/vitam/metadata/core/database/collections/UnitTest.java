@@ -36,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.bson.Document;
+import org.bson.conversions.Bson;
 import org.junit.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -106,6 +107,51 @@ public class UnitTest {
         assertEquals("[{ \"UUID2\" : 4}, { \"UUID1\" : 5}, { \"id1\" : 1}]", unit.getSubDepth().toString());
     }
 
+    @Test
+    public void testSubAncestors() {
+        final Unit unit = new Unit(s1);
+        List<Bson> ancestors = unit.getSubAncestors();
+        assertEquals(1, ancestors.size());
+        assertEquals("id1", ((Map<?, ?>) ancestors.get(0)).get(Unit.ANCESTOR_ID));
+        assertEquals(1, ((Map<?, ?>) ancestors.get(0)).get(Unit.ANCESTOR_DEPTH));
+
+        final List<Document> list = new ArrayList<>();
+        list.add(Document.parse("{\"_u\" : \"UUID2\", \"_d\" : 1}"));
+        list.add(Document.parse("{\"_u\" : \"UUID1\", \"_d\" : 2}"));
+        unit.put(Unit.UNITANCESTORS, list);
+        ancestors = unit.getSubAncestors();
+        assertEquals(3, ancestors.size());
+        assertEquals("UUID2", ((Map<?, ?>) ancestors.get(0)).get(Unit.ANCESTOR_ID));
+        assertEquals(2, ((Map<?, ?>) ancestors.get(0)).get(Unit.ANCESTOR_DEPTH));
+        assertEquals("UUID1", ((Map<?, ?>) ancestors.get(1)).get(Unit.ANCESTOR_ID));
+        assertEquals(3, ((Map<?, ?>) ancestors.get(1)).get(Unit.ANCESTOR_DEPTH));
+        assertEquals("id1", ((Map<?, ?>) ancestors.get(2)).get(Unit.ANCESTOR_ID));
+        assertEquals(1, ((Map<?, ?>) ancestors.get(2)).get(Unit.ANCESTOR_DEPTH));
+    }
+
+    @Test
+    public void testAncestorsFromDepths() {
+        // Unit created before UNITANCESTORS
+        final Unit unit = new Unit(s1);
+        final List<Document> list = new ArrayList<>();
+        list.add(Document.parse("{\"UUID2\" : 1}"));
+        list.add(Document.parse("{\"UUID1\" : 3}"));
+        list.add(Document.parse("{\"UUID1\" : 2}"));
+        unit.put(Unit.UNITDEPTHS, list);
+        assertEquals(2, unit.getDepths().size());
+        assertEquals(1, unit.getDepths().get("UUID2").intValue());
+        assertEquals(2, unit.getDepths().get("UUID1").intValue());
+
+        final List<Bson> ancestors = unit.getAncestorsFromDepths();
+        assertEquals(2, ancestors.size());
+        final Map<Object, Object> depths = new HashMap<>();
+        for (final Bson ancestor : ancestors) {
+            depths.put(((Map<?, ?>) ancestor).get(Unit.ANCESTOR_ID), ((Map<?, ?>) ancestor).get(Unit.ANCESTOR_DEPTH));
+        }
+        assertEquals(1, depths.get("UUID2"));
+        assertEquals(2, depths.get("UUID1"));
+    }
+
     @Test
     public void testDomaineId() {
         final Unit unit = new Unit(s1);
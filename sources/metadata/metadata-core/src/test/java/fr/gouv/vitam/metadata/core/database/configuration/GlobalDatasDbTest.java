@@ -44,13 +44,17 @@ public class GlobalDatasDbTest {
         assertEquals(10001, GlobalDatasDb.limitES);
         assertEquals(10000, GlobalDatasDb.LIMIT_ES_NEW_INDEX);
         assertEquals(10000, GlobalDatasDb.LIMIT_MDB_NEW_INDEX);
+        assertEquals(false, GlobalDatasDb.USE_DFS_QUERY);
+        assertEquals(1000, GlobalDatasDb.ES_SCROLL_SIZE);
+        assertEquals(60000, GlobalDatasDb.ES_SCROLL_TIMEOUT_MS);
         assertEquals(false, GlobalDatasDb.PRINT_REQUEST);
         assertEquals(false, GlobalDatasDb.BLOCKING);
         assertEquals(true, GlobalDatasDb.SAVERESULT);
-        assertEquals(false, GlobalDatasDb.USELRUCACHE);
+        assertEquals(true, GlobalDatasDb.USELRUCACHE);
         assertEquals(3600000, GlobalDatasDb.TTLMS);
         assertEquals(3600, GlobalDatasDb.TTL);
         assertEquals(1000000, GlobalDatasDb.MAXLRU);
+        assertEquals(128L * 1024 * 1024, GlobalDatasDb.MAXLRU_BYTES);
         assertEquals(false, GlobalDatasDb.USEREDIS);
     }
 }
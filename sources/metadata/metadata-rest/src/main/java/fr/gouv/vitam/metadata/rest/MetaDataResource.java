@@ -157,6 +157,58 @@ public class MetaDataResource extends ApplicationStatusResource {
             .build();
     }
 
+    /**
+     * Insert a batch of units (typically one level of an ingest tree) with a json array of insert requests
+     *
+     * @param insertRequests array of insert requests, one per unit, each with $roots as parents and no $query
+     * @return Response
+     */
+    @Path("units/bulk")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response insertUnits(JsonNode insertRequests) {
+        try {
+            if (!insertRequests.isArray()) {
+                throw new InvalidParseOperationException("Bulk insert request must be an array");
+            }
+            // each request is checked as the single insert does, the whole batch being bigger than one request
+            for (final JsonNode insertRequest : insertRequests) {
+                SanityChecker.checkJsonAll(insertRequest);
+            }
+            metaDataImpl.insertUnits((ArrayNode) insertRequests);
+        } catch (final InvalidParseOperationException e) {
+            LOGGER.error(e);
+            return insertUnitsError(Status.BAD_REQUEST);
+        } catch (final MetaDataNotFoundException e) {
+            LOGGER.error(e);
+            return insertUnitsError(Status.NOT_FOUND);
+        } catch (final MetaDataAlreadyExistException e) {
+            LOGGER.error(e);
+            return insertUnitsError(Status.CONFLICT);
+        } catch (final MetaDataExecutionException e) {
+            LOGGER.error(e);
+            return insertUnitsError(Status.INTERNAL_SERVER_ERROR);
+        } catch (final MetaDataDocumentSizeException e) {
+            LOGGER.error(e);
+            return insertUnitsError(Status.REQUEST_ENTITY_TOO_LARGE);
+        }
+        return Response.status(Status.CREATED)
+            .entity(new RequestResponseOK()
+                .setHits(insertRequests.size(), 0, insertRequests.size()))
+            .build();
+    }
+
+    private Response insertUnitsError(Status status) {
+        return Response.status(status)
+            .entity(new VitamError(status.name()).setHttpCode(status.getStatusCode())
+                .setContext("ingest")
+                .setState("code_vitam")
+                .setMessage(status.getReasonPhrase())
+                .setDescription(status.getReasonPhrase()))
+            .build();
+    }
+
     /**
      * Select unit with json request
      *
@@ -52,6 +52,7 @@ import org.junit.rules.TemporaryFolder;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.jayway.restassured.RestAssured;
 import com.jayway.restassured.http.ContentType;
 
@@ -71,6 +72,7 @@ import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.junit.JunitHelper;
 import fr.gouv.vitam.common.junit.JunitHelper.ElasticsearchTestConfiguration;
 import fr.gouv.vitam.common.model.RequestResponseOK;
+import fr.gouv.vitam.common.security.SanityChecker;
 import fr.gouv.vitam.common.server.application.configuration.MongoDbNode;
 import fr.gouv.vitam.metadata.api.config.MetaDataConfiguration;
 import fr.gouv.vitam.metadata.api.exception.MetaDataException;
@@ -183,6 +185,11 @@ public class MetaDataResourceTest {
         return JsonHandler.getFromString("{ $roots : [ '' ], $query : [ " + query + " ], $data : " + data + " }");
     }
 
+    private static final JsonNode buildBulkInsert(String data) throws Exception {
+        return JsonHandler.getFromString("{ $roots : [ '" + JsonHandler.getFromString(DATA).get("#id").asText() +
+            "' ], $query : [ ], $data : " + data + " }");
+    }
+
     private static String createJsonStringWithDepth(int depth) {
         final StringBuilder obj = new StringBuilder();
         if (depth == 0) {
@@ -325,6 +332,44 @@ public class MetaDataResourceTest {
             .statusCode(Status.CREATED.getStatusCode());
     }
 
+    @Test
+    public void givenBulkInsertBiggerThanSanityLimitWhenEachUnitFitsThenReturnCreated() throws Exception {
+        with()
+            .contentType(ContentType.JSON)
+            .body(buildDSLWithOptions("", DATA)).when()
+            .post("/units").then()
+            .statusCode(Status.CREATED.getStatusCode());
+
+        final ArrayNode insertRequests = JsonHandler.createArrayNode();
+        insertRequests.add(buildBulkInsert(DATA2));
+        insertRequests.add(buildBulkInsert(DATA3));
+        long maxRequestSize = 0;
+        for (final JsonNode insertRequest : insertRequests) {
+            maxRequestSize = Math.max(maxRequestSize, JsonHandler.writeAsString(insertRequest).length());
+        }
+        final long limitJsonSize = SanityChecker.getLimitJsonSize();
+        try {
+            // the whole array exceeds the limit, but each request is checked on its own
+            SanityChecker.setLimitJsonSize(maxRequestSize);
+            given()
+                .contentType(ContentType.JSON)
+                .body(insertRequests).when()
+                .post("/units/bulk").then()
+                .body(equalTo(new RequestResponseOK().setHits(2, 0, 2).toString()))
+                .statusCode(Status.CREATED.getStatusCode());
+
+            SanityChecker.setLimitJsonSize(maxRequestSize - 1);
+            given()
+                .contentType(ContentType.JSON)
+                .body(insertRequests).when()
+                .post("/units/bulk").then()
+                .body(equalTo(generateResponseErrorFromStatus(Status.BAD_REQUEST)))
+                .statusCode(Status.BAD_REQUEST.getStatusCode());
+        } finally {
+            SanityChecker.setLimitJsonSize(limitJsonSize);
+        }
+    }
+
     // Test object group
     @Test(expected = InvalidParseOperationException.class)
     public void givenInsertObjectGroupWithBodyIsNotCorrectThenReturnErrorBadRequest() throws Exception {
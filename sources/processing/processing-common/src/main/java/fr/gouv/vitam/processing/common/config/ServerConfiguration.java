@@ -37,6 +37,10 @@ public class ServerConfiguration extends DefaultVitamApplicationConfiguration {
 
     private String urlMetadata;
     private String urlWorkspace;
+    private String processJournalPath;
+    private int maxRunningWorkflows = 10;
+    private int maxRunningWorkflowsPerTenant;
+    private int maxQueuedWorkflows = 1000;
 
     /**
      * @return the urlMetadata
@@ -78,4 +82,74 @@ public class ServerConfiguration extends DefaultVitamApplicationConfiguration {
         return this;
     }
 
+    /**
+     * @return the directory of the journal of the processes, null if the processes are not journaled
+     */
+    public String getProcessJournalPath() {
+        return processJournalPath;
+    }
+
+    /**
+     * @param processJournalPath the directory of the journal of the processes, used to resume the processes after a
+     *        restart
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setProcessJournalPath(String processJournalPath) {
+        this.processJournalPath = processJournalPath;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of workflows executed asynchronously at the same time
+     */
+    public int getMaxRunningWorkflows() {
+        return maxRunningWorkflows;
+    }
+
+    /**
+     * @param maxRunningWorkflows the maximum number of workflows executed asynchronously at the same time
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setMaxRunningWorkflows(int maxRunningWorkflows) {
+        this.maxRunningWorkflows = maxRunningWorkflows;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of workflows executed asynchronously at the same time for one tenant (by default,
+     *         the global maximum)
+     */
+    public int getMaxRunningWorkflowsPerTenant() {
+        if (maxRunningWorkflowsPerTenant <= 0) {
+            return maxRunningWorkflows;
+        }
+        return maxRunningWorkflowsPerTenant;
+    }
+
+    /**
+     * @param maxRunningWorkflowsPerTenant the maximum number of workflows executed asynchronously at the same time for
+     *        one tenant
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setMaxRunningWorkflowsPerTenant(int maxRunningWorkflowsPerTenant) {
+        this.maxRunningWorkflowsPerTenant = maxRunningWorkflowsPerTenant;
+        return this;
+    }
+
+    /**
+     * @return the maximum number of workflows waiting to be executed asynchronously
+     */
+    public int getMaxQueuedWorkflows() {
+        return maxQueuedWorkflows;
+    }
+
+    /**
+     * @param maxQueuedWorkflows the maximum number of workflows waiting to be executed asynchronously
+     * @return the update ServerConfiguration object
+     */
+    public ServerConfiguration setMaxQueuedWorkflows(int maxQueuedWorkflows) {
+        this.maxQueuedWorkflows = maxQueuedWorkflows;
+        return this;
+    }
+
 }
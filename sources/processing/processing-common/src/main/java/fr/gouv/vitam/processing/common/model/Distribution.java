@@ -37,6 +37,7 @@ public class Distribution {
 
     private DistributionKind kind;
     private String element;
+    private int batchSize;
 
     /**
      * getKind(), get the object kind
@@ -83,4 +84,27 @@ public class Distribution {
         this.element = element;
         return this;
     }
+
+    /**
+     * getBatchSize(), return the number of elements sent to a worker in one call
+     *
+     * @return the batch size, 1 if not set
+     */
+    public int getBatchSize() {
+        if (batchSize < 1) {
+            return 1;
+        }
+        return batchSize;
+    }
+
+    /**
+     * setBatchSize, set the number of elements sent to a worker in one call
+     *
+     * @param batchSize the number of elements by call
+     * @return Distribution instance with batchSize setted
+     */
+    public Distribution setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+        return this;
+    }
 }
@@ -39,8 +39,8 @@ import fr.gouv.vitam.common.model.StatusCode;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class ProcessStep extends Step {
     private String id;
-    private long elementProcessed;
-    private long elementToProcess;
+    private volatile long elementProcessed;
+    private volatile long elementToProcess;
     private StatusCode stepStatusCode = StatusCode.UNKNOWN;
 
 
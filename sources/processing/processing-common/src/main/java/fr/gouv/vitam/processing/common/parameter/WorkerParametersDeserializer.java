@@ -54,14 +54,33 @@ class WorkerParametersDeserializer extends JsonDeserializer<AbstractWorkerParame
         final DefaultWorkerParameters result = WorkerParametersFactory.newWorkerParameters();
         final Map<String, String> parameters = new HashMap<>();
         JsonToken currentToken = null;
+        // stop at the end of this object, so that following fields of an enclosing object are not consumed
+        int depth = 0;
+        if (p.getCurrentToken() == null) {
+            // parser not yet positioned on the start of the object
+            p.nextToken();
+        }
         while ((currentToken = p.nextValue()) != null) {
             switch (currentToken) {
                 case VALUE_STRING:
-                    parameters.put(p.getCurrentName(), p.getText());
+                    if (depth == 0) {
+                        parameters.put(p.getCurrentName(), p.getText());
+                    }
+                    break;
+                case START_OBJECT:
+                case START_ARRAY:
+                    depth++;
+                    break;
+                case END_OBJECT:
+                case END_ARRAY:
+                    depth--;
                     break;
                 default:
                     break;
             }
+            if (depth < 0) {
+                break;
+            }
         }
         result.setMap(parameters);
         return result;
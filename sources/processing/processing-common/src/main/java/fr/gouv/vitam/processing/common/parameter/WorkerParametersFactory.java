@@ -28,7 +28,10 @@
 package fr.gouv.vitam.processing.common.parameter;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 import fr.gouv.vitam.common.ParametersChecker;
@@ -124,6 +127,25 @@ public class WorkerParametersFactory {
         return parameters;
     }
 
+    /**
+     * Get a new WorkerParameters object holding a copy of all the values of the given one
+     *
+     * @param workerParameters the WorkerParameters to copy
+     * @return the new instance of WorkerParameters
+     * @throws IllegalArgumentException if workerParameters is null
+     */
+    public static DefaultWorkerParameters newWorkerParameters(WorkerParameters workerParameters) {
+        ParametersChecker.checkParameter("Parameters cannot be null", workerParameters);
+        final DefaultWorkerParameters parameters =
+            new DefaultWorkerParameters(initMandatoriesParameters(workerParameters.getMandatoriesParameters()));
+        final Map<String, String> map = new HashMap<>();
+        for (final Entry<WorkerParameterName, String> entry : workerParameters.getMapParameters().entrySet()) {
+            map.put(entry.getKey().name(), entry.getValue());
+        }
+        parameters.setMap(map);
+        return parameters;
+    }
+
     /**
      * Get default mandatory fields
      *
@@ -41,6 +41,9 @@ public class DistributionTest {
         assertEquals(DistributionKind.LIST.value(),
             new Distribution().setKind(DistributionKind.LIST).getKind().value());
         assertEquals(Test, new Distribution().setElement(Test).getElement());
+        assertEquals(1, new Distribution().getBatchSize());
+        assertEquals(1, new Distribution().setBatchSize(0).getBatchSize());
+        assertEquals(10, new Distribution().setBatchSize(10).getBatchSize());
     }
 
 }
@@ -64,4 +64,15 @@ public class WorkerParametersFactoryTest {
         assertNotNull(parameters2);
         assertEquals(7, parameters2.getMapParameters().size());
     }
+
+    @Test
+    public void copyTest() {
+        final WorkerParameters parameters = WorkerParametersFactory.newWorkerParameters("processId", "stepUniqId",
+            "containerName", "currentStep", "objectName", "urlMetadata", "urlWorkspace");
+        final WorkerParameters copy = WorkerParametersFactory.newWorkerParameters(parameters);
+        assertEquals(parameters.getMapParameters(), copy.getMapParameters());
+        copy.setObjectName("otherObjectName");
+        assertEquals("objectName", parameters.getObjectName());
+        assertEquals("otherObjectName", copy.getObjectName());
+    }
 }
@@ -29,25 +29,37 @@ package fr.gouv.vitam.processing.distributor.core;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NavigableMap;
-import java.util.TreeMap;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.collect.Iterators;
 
 import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.client.VitamRequestIterator;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.processing.common.exception.HandlerNotFoundException;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
+import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkerAlreadyExistsException;
 import fr.gouv.vitam.processing.common.exception.WorkerFamilyNotFoundException;
 import fr.gouv.vitam.processing.common.exception.WorkerNotFoundException;
@@ -57,25 +69,26 @@ import fr.gouv.vitam.processing.common.model.Step;
 import fr.gouv.vitam.processing.common.model.WorkerBean;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameterName;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
+import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.processing.distributor.api.ProcessDistributor;
 import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
 import fr.gouv.vitam.worker.client.WorkerClient;
-import fr.gouv.vitam.worker.client.WorkerClientConfiguration;
-import fr.gouv.vitam.worker.client.WorkerClientFactory;
 import fr.gouv.vitam.worker.common.DescriptionStep;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 
 /**
- * The Process Distributor call the workers and intercept the response for manage a post actions step
+ * The Process Distributor call the workers and intercept the response for manage a post actions step<br>
+ * <br>
+ * Items of a step are submitted concurrently to the workers of the family of the step (or of the default family),
+ * each worker receiving at most as many items in flight as its registered capacity. The least loaded worker is chosen
+ * for each item, ties being broken in a round robin way. Results are aggregated by the calling thread as soon as they
+ * are available. Units are distributed level by level, so that parents are always processed before their children.
+ * The distribution stops as soon as the aggregated status shall stop the step (FATAL, or KO for a blocking step), the
+ * items already submitted being still aggregated.
  *
  * <pre>
  * TODO P1:
- * - handle listing of items through a limited arraylist (memory) and through iterative (async) listing from
- * Workspace
- * - handle result in FATAL mode from one distributed item to stop the distribution in FATAL mode (do not
- * continue)
- * - try to handle distribution on 1 or on many as the same loop (so using a default arrayList of 1)
  * - handle error level using order in enum in ProcessResponse.getGlobalProcessStatusCode instead of manually comparing:
  *  <code>
  *    for (final EngineResponse response : responses) {
@@ -101,9 +114,18 @@ public class ProcessDistributorImpl implements ProcessDistributor {
     private static final String ELEMENT_UNITS = "Units";
     private static final String INGEST_LEVEL_STACK = "ingestLevelStack.json";
     private static final String OBJECTS_LIST_EMPTY = "OBJECTS_LIST_EMPTY";
+    private static final String WORKERS_LIST_EMPTY = "WORKERS_LIST_EMPTY";
+    private static final String DEFAULT_FAMILY = "defaultFamily";
+    /**
+     * Time to wait for one item to complete when all workers are busy (in ms)
+     */
+    private static final long WAIT_FOR_WORKER_TIMEOUT = 100;
+
+    private static final Map<String, NavigableMap<String, WorkerInstance>> WORKERS_LIST = new ConcurrentHashMap<>();
+    private static final AtomicInteger ROUND_ROBIN = new AtomicInteger(0);
 
-    private static final Map<String, NavigableMap<String, WorkerBean>> WORKERS_LIST = new HashMap<>();
-    private final List<String> availableWorkers = new ArrayList<>();
+    private final WorkspaceClient workspaceClientMock;
+    private final WorkerClient workerClientMock;
 
     /**
      * Constructor with parameter worker
@@ -116,18 +138,19 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         ParametersChecker.checkParameter("workerBean is a mandatory parameter", workerBean);
         ParametersChecker.checkParameter("workerId is a mandatory parameter", workerId);
         ParametersChecker.checkParameter("familyId is a mandatory parameter", familyId);
+        workspaceClientMock = null;
+        workerClientMock = null;
         workerBean.setWorkerId(workerId);
-        final NavigableMap<String, WorkerBean> workers = new TreeMap<>();
-        workers.put(workerId, workerBean);
+        final NavigableMap<String, WorkerInstance> workers = new ConcurrentSkipListMap<>();
+        workers.put(workerId, new WorkerInstance(workerBean));
         WORKERS_LIST.put(familyId, workers);
-        availableWorkers.add(workerId);
     }
 
     /**
      * Method used for test purpose
      *
      */
-    Map<String, NavigableMap<String, WorkerBean>> getWorkersList() {
+    Map<String, NavigableMap<String, WorkerInstance>> getWorkersList() {
         return WORKERS_LIST;
     }
 
@@ -135,10 +158,21 @@ public class ProcessDistributorImpl implements ProcessDistributor {
      * Empty constructor
      */
     public ProcessDistributorImpl() {
-        // Empty
+        workspaceClientMock = null;
+        workerClientMock = null;
+    }
+
+    /**
+     * For test purpose
+     *
+     * @param workspaceClient the workspace client to use
+     * @param workerClient the worker client to use whatever the worker
+     */
+    ProcessDistributorImpl(WorkspaceClient workspaceClient, WorkerClient workerClient) {
+        workspaceClientMock = workspaceClient;
+        workerClientMock = workerClient;
     }
 
-    // FIXME P1 : make this method (distribute()) more generic
     @Override
     public ItemStatus distribute(WorkerParameters workParams, Step step, String workflowId) {
         ParametersChecker.checkParameter("WorkParams is a mandatory parameter", workParams);
@@ -148,7 +182,6 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         final ItemStatus responses = new ItemStatus(step.getStepName());
         final String processId = workParams.getProcessId();
         final String uniqueStepId = workParams.getStepUniqId();
-        // WorkspaceClientFactory.changeMode(workParams.getUrlWorkspace());
         try {
             // update workParams
             LOGGER.debug("Status {}",
@@ -157,13 +190,12 @@ public class ProcessDistributorImpl implements ProcessDistributor {
                 ProcessMonitoringImpl.getInstance().getFinalWorkflowStatus(processId).name());
 
             if (step.getDistribution().getKind().equals(DistributionKind.LIST)) {
-                try (final WorkspaceClient workspaceClient = WorkspaceClientFactory.getInstance().getClient()) {
-                    List<URI> objectsList = null;
-
+                try (final WorkspaceClient workspaceClient = getWorkspaceClient()) {
                     // Test regarding Unit to be indexed
                     if (step.getDistribution().getElement().equals(ELEMENT_UNITS)) {
-                        objectsList = new ArrayList<>();
-
+                        // objects grouped by levels: one level must be fully processed before the next one
+                        final List<List<String>> objectsLevels = new ArrayList<>();
+                        long nbObjects = 0;
                         // get the file to retrieve the GUID
                         final InputStream levelFile =
                             (InputStream) workspaceClient.getObject(workParams.getContainerName(),
@@ -174,76 +206,50 @@ public class ProcessDistributorImpl implements ProcessDistributor {
                             final Entry<String, JsonNode> guidFieldList = iteratorlLevelFile.next();
                             final JsonNode guid = guidFieldList.getValue();
                             if (guid != null && guid.size() > 0) {
+                                final List<String> level = new ArrayList<>(guid.size());
                                 for (final JsonNode _idGuid : guid) {
                                     // include the GUID in the new URI
-                                    objectsList.add(new URI(_idGuid.asText() + XML_EXTENSION));
+                                    level.add(new URI(_idGuid.asText() + XML_EXTENSION).getPath());
                                 }
+                                objectsLevels.add(level);
+                                nbObjects += level.size();
                             }
                         }
-                    } else {
-                        //
-                        objectsList = workspaceClient
-                            .getListUriDigitalObjectFromFolder(workParams.getContainerName(),
-                                step.getDistribution().getElement());
-                    }
-                    // Iterate over Objects List
-                    if (objectsList == null || objectsList.isEmpty()) {
-                        responses.setItemsStatus(OBJECTS_LIST_EMPTY,
-                            getItemStatus(OBJECTS_LIST_EMPTY, StatusCode.WARNING));
-                    } else {
-                        // update the number of element to process
-                        ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, objectsList.size(),
-                            false);
-                        for (final URI objectUri : objectsList) {
-                            if (availableWorkers.isEmpty()) {
-                                LOGGER.error("available Workers List is empty()" + StatusCode.FATAL.toString());
-                                responses.setItemsStatus("WORKERS_LIST_EMPTY",
-                                    getItemStatus("WORKERS_LIST_EMPTY", StatusCode.FATAL));
-                                break;
-                            } else {
-                                // Load configuration
-                                // TODO P1 : management of parallel distribution and availability
-                                loadWorkerClient(WORKERS_LIST.get("defaultFamily").firstEntry().getValue());
-                                // run step
-                                workParams.setObjectName(objectUri.getPath());
-                                final ItemStatus actionsResponse;
-                                try (WorkerClient workerClient = WorkerClientFactory.getInstance().getClient()) {
-                                    actionsResponse =
-                                        workerClient.submitStep(
-                                            new DescriptionStep(step, workParams));
-                                }
-                                // FIXME P1 : This is inefficient. The aggregation of results must be placed here and
-                                // not in ProcessResponse
-                                responses.setItemsStatus(actionsResponse);
-                                // update the number of processed element
-                                ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, 0, true);
-
-                                // if the step has been defined as Blocking and then stepStatus is KO or FATAL
-                                // then break the process
-                                if (step.getBehavior().equals(ProcessBehavior.BLOCKING) &&
-                                    responses.getGlobalStatus().isGreaterOrEqualToFatal()) {
+                        // Iterate over Objects List
+                        if (nbObjects == 0) {
+                            responses.setItemsStatus(OBJECTS_LIST_EMPTY,
+                                getItemStatus(OBJECTS_LIST_EMPTY, StatusCode.WARNING));
+                        } else {
+                            // update the number of element to process
+                            ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, nbObjects,
+                                false);
+                            for (final List<String> level : objectsLevels) {
+                                if (!distributeOnWorkers(workParams, step, level.iterator(), responses, false)) {
                                     break;
                                 }
                             }
                         }
+                    } else {
+                        // the objects are distributed while the workspace lists them
+                        try (final VitamRequestIterator objectsIterator =
+                            workspaceClient.getListUriDigitalObjectFromFolderIterator(workParams.getContainerName(),
+                                step.getDistribution().getElement())) {
+                            final Iterator<String> objectNames =
+                                Iterators.transform(objectsIterator, uri -> URI.create(uri.asText()).getPath());
+                            if (!objectNames.hasNext()) {
+                                responses.setItemsStatus(OBJECTS_LIST_EMPTY,
+                                    getItemStatus(OBJECTS_LIST_EMPTY, StatusCode.WARNING));
+                            } else {
+                                distributeOnWorkers(workParams, step, objectNames, responses, true);
+                            }
+                        }
                     }
                 }
             } else {
                 // update the number of element to process
                 ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, 1, false);
-                if (availableWorkers.isEmpty()) {
-                    LOGGER.error("available Workers List is empty()" + StatusCode.FATAL.toString());
-                    responses.increment(StatusCode.FATAL);
-                } else {
-                    // TODO P1 : management of parallel distribution and availability
-                    loadWorkerClient(WORKERS_LIST.get("defaultFamily").firstEntry().getValue());
-                    workParams.setObjectName(step.getDistribution().getElement());
-                    responses.setItemsStatus(
-                        WorkerClientFactory.getInstance().getClient().submitStep(
-                            new DescriptionStep(step, workParams)));
-                    // update the number of processed element
-                    ProcessMonitoringImpl.getInstance().updateStep(processId, uniqueStepId, 0, true);
-                }
+                distributeOnWorkers(workParams, step,
+                    Collections.singletonList(step.getDistribution().getElement()).iterator(), responses, false);
             }
 
         } catch (final IllegalArgumentException e) {
@@ -252,7 +258,10 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         } catch (final HandlerNotFoundException e) {
             responses.increment(StatusCode.FATAL);
             LOGGER.error("Handler Not Found Exception", e);
-
+        } catch (final InterruptedException e) {
+            responses.increment(StatusCode.FATAL);
+            LOGGER.error(EXCEPTION_MESSAGE, e);
+            Thread.currentThread().interrupt();
         } catch (final Exception e) {
             responses.increment(StatusCode.FATAL);
             LOGGER.error(EXCEPTION_MESSAGE, e);
@@ -264,13 +273,193 @@ public class ProcessDistributorImpl implements ProcessDistributor {
         return responses;
     }
 
-    private void loadWorkerClient(WorkerBean workerBean) {
-        final WorkerClientConfiguration workerClientConfiguration =
-            new WorkerClientConfiguration(workerBean.getConfiguration().getServerHost(),
-                workerBean.getConfiguration().getServerPort());
-        WorkerClientFactory.changeMode(workerClientConfiguration);
+    /**
+     * Submit all the objects of the step to the workers of the step family, keeping on each worker at most its
+     * capacity of items in flight. Objects are sent by batches of the size given by the distribution of the step.
+     *
+     * @param workParams the parameters of the step
+     * @param step the step to execute
+     * @param objectNames the names of the objects to process, read while the objects are submitted
+     * @param countObjects True if the number of elements to process of the step is not known and must be updated
+     *        while the objects are read
+     * @param responses the aggregated status of the step
+     * @return False if the distribution of the step shall stop
+     * @throws InterruptedException if interrupted while waiting for the workers
+     * @throws ProcessingException if the monitoring cannot be updated
+     */
+    private boolean distributeOnWorkers(WorkerParameters workParams, Step step, Iterator<String> objectNames,
+        ItemStatus responses, boolean countObjects) throws InterruptedException, ProcessingException {
+        final CompletionService<List<ItemStatus>> completionService =
+            new ExecutorCompletionService<>(VitamThreadPoolExecutor.getDefaultExecutor());
+        final int batchSize = step.getDistribution().getBatchSize();
+        int inFlight = 0;
+        long nbObjects = 0;
+        boolean stop = false;
+        try {
+            while (objectNames.hasNext()) {
+                final List<String> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && objectNames.hasNext()) {
+                    batch.add(objectNames.next());
+                }
+                if (countObjects) {
+                    nbObjects += batch.size();
+                    ProcessMonitoringImpl.getInstance().updateStep(workParams.getProcessId(),
+                        workParams.getStepUniqId(), nbObjects, false);
+                }
+                WorkerInstance worker = null;
+                while (worker == null && !stop) {
+                    final NavigableMap<String, WorkerInstance> familyWorkers = getFamilyWorkers(step);
+                    if (familyWorkers == null || familyWorkers.isEmpty()) {
+                        LOGGER.error("available Workers List is empty()" + StatusCode.FATAL.toString());
+                        responses.setItemsStatus(WORKERS_LIST_EMPTY,
+                            getItemStatus(WORKERS_LIST_EMPTY, StatusCode.FATAL));
+                        stop = true;
+                    } else {
+                        worker = acquireWorker(familyWorkers);
+                        if (worker == null) {
+                            // All workers are busy: wait for one of the submitted items
+                            final Future<List<ItemStatus>> done =
+                                completionService.poll(WAIT_FOR_WORKER_TIMEOUT, TimeUnit.MILLISECONDS);
+                            if (done != null) {
+                                inFlight--;
+                                stop = aggregate(done, workParams, step, responses);
+                            }
+                        }
+                    }
+                }
+                if (stop) {
+                    if (worker != null) {
+                        worker.release();
+                    }
+                    break;
+                }
+                final WorkerInstance selectedWorker = worker;
+                final WorkerParameters itemParams = WorkerParametersFactory.newWorkerParameters(workParams);
+                itemParams.setObjectName(batch.get(0));
+                try {
+                    completionService.submit(() -> submitToWorker(selectedWorker, step, itemParams, batch));
+                } catch (final RuntimeException e) {
+                    selectedWorker.release();
+                    throw e;
+                }
+                inFlight++;
+                // aggregate already completed items without waiting
+                Future<List<ItemStatus>> done;
+                while (!stop && (done = completionService.poll()) != null) {
+                    inFlight--;
+                    stop = aggregate(done, workParams, step, responses);
+                }
+                if (stop) {
+                    break;
+                }
+            }
+        } finally {
+            // items already submitted are not cancelled but their results are still aggregated
+            while (inFlight > 0) {
+                inFlight--;
+                stop = aggregate(completionService.take(), workParams, step, responses) || stop;
+            }
+        }
+        return !stop;
+    }
+
+    /**
+     * Add the results of one batch to the step status and update the monitoring
+     *
+     * @return True if the distribution of the step shall stop
+     */
+    private boolean aggregate(Future<List<ItemStatus>> done, WorkerParameters workParams, Step step,
+        ItemStatus responses) throws InterruptedException, ProcessingException {
+        List<ItemStatus> itemStatusList;
+        try {
+            itemStatusList = done.get();
+        } catch (final ExecutionException e) {
+            LOGGER.error(EXCEPTION_MESSAGE, e.getCause());
+            itemStatusList = Collections.singletonList(getItemStatus(step.getStepName(), StatusCode.FATAL));
+        }
+        for (final ItemStatus itemStatus : itemStatusList) {
+            if (itemStatus.getItemsStatus() == null || itemStatus.getItemsStatus().isEmpty()) {
+                // item without details (failed call to the worker)
+                if (!StatusCode.UNKNOWN.equals(itemStatus.getGlobalStatus())) {
+                    responses.increment(itemStatus.getGlobalStatus());
+                }
+            } else {
+                // FIXME P1 : This is inefficient. The aggregation of results must be placed here and
+                // not in ProcessResponse
+                responses.setItemsStatus(itemStatus);
+            }
+            // update the number of processed element
+            ProcessMonitoringImpl.getInstance().updateStep(workParams.getProcessId(), workParams.getStepUniqId(), 0,
+                true);
+        }
+        // if the stepStatus is FATAL, or KO while the step has been defined as Blocking, then break the process
+        return responses.shallStop(ProcessBehavior.BLOCKING.equals(step.getBehavior()));
     }
 
+    /**
+     * Submit one batch to the worker, a single object being sent without batch mode
+     *
+     * @return the status of each object of the batch, FATAL for all of them if the worker call failed
+     */
+    private List<ItemStatus> submitToWorker(WorkerInstance worker, Step step, WorkerParameters itemParams,
+        List<String> batch) {
+        try (WorkerClient workerClient = workerClientMock != null ? workerClientMock : worker.getClient()) {
+            final DescriptionStep descriptionStep = new DescriptionStep(step, itemParams);
+            if (batch.size() == 1) {
+                return Collections.singletonList(workerClient.submitStep(descriptionStep));
+            }
+            descriptionStep.setObjectNameList(new ArrayList<>(batch));
+            return workerClient.submitBatchStep(descriptionStep);
+        } catch (final Exception e) {
+            LOGGER.error(EXCEPTION_MESSAGE, e);
+            final List<ItemStatus> itemStatusList = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                itemStatusList.add(getItemStatus(step.getStepName(), StatusCode.FATAL));
+            }
+            return itemStatusList;
+        } finally {
+            worker.release();
+        }
+    }
+
+    private WorkspaceClient getWorkspaceClient() {
+        if (workspaceClientMock != null) {
+            return workspaceClientMock;
+        }
+        return WorkspaceClientFactory.getInstance().getClient();
+    }
+
+    /**
+     * @return the workers of the family of the step, or of the default family if this one is not known
+     */
+    private NavigableMap<String, WorkerInstance> getFamilyWorkers(Step step) {
+        final NavigableMap<String, WorkerInstance> familyWorkers = WORKERS_LIST.get(step.getWorkerGroupId());
+        if (familyWorkers == null || familyWorkers.isEmpty()) {
+            return WORKERS_LIST.get(DEFAULT_FAMILY);
+        }
+        return familyWorkers;
+    }
+
+    /**
+     * Reserve one slot on the least loaded worker of the family
+     *
+     * @return the reserved worker or null if all workers are at their full capacity
+     */
+    private WorkerInstance acquireWorker(NavigableMap<String, WorkerInstance> familyWorkers) {
+        final List<WorkerInstance> candidates = new ArrayList<>(familyWorkers.values());
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        // rotate first to spread items between workers with the same load
+        Collections.rotate(candidates, -Math.floorMod(ROUND_ROBIN.getAndIncrement(), candidates.size()));
+        candidates.sort(Comparator.comparingDouble(worker -> (double) worker.getInFlight() / worker.getCapacity()));
+        for (final WorkerInstance worker : candidates) {
+            if (worker.tryAcquire()) {
+                return worker;
+            }
+        }
+        return null;
+    }
 
     private String getSafetyStepName(Step step) {
 
@@ -292,36 +481,23 @@ public class ProcessDistributorImpl implements ProcessDistributor {
             LOGGER.error("Worker Information incorrect", e);
             throw new ProcessingBadRequestException("Worker description is incorrect");
         }
-        if (WORKERS_LIST.get(familyId) != null) {
-            LOGGER.debug("Family known");
-            final NavigableMap<String, WorkerBean> familyWorkers = WORKERS_LIST.get(familyId);
-            if (familyWorkers.get(workerId) != null) {
-                LOGGER.error("Worker already registered");
-                throw new WorkerAlreadyExistsException("Worker already registered");
-            } else {
-                familyWorkers.put(workerId, worker);
-                WORKERS_LIST.put(familyId, familyWorkers);
-                availableWorkers.add(workerId);
-            }
-        } else {
-            LOGGER.debug("Family unknown");
-            final NavigableMap<String, WorkerBean> familyWorkers = new TreeMap<>();
-
-            familyWorkers.put(workerId, worker);
-            WORKERS_LIST.put(familyId, familyWorkers);
-            availableWorkers.add(workerId);
+        final NavigableMap<String, WorkerInstance> familyWorkers =
+            WORKERS_LIST.computeIfAbsent(familyId, key -> {
+                LOGGER.debug("Family unknown");
+                return new ConcurrentSkipListMap<>();
+            });
+        if (familyWorkers.putIfAbsent(workerId, new WorkerInstance(worker)) != null) {
+            LOGGER.error("Worker already registered");
+            throw new WorkerAlreadyExistsException("Worker already registered");
         }
     }
 
     @Override
     public void unregisterWorker(String familyId, String workerId)
         throws WorkerNotFoundException, WorkerFamilyNotFoundException {
-        final NavigableMap<String, WorkerBean> familyWorkers = WORKERS_LIST.get(familyId);
+        final NavigableMap<String, WorkerInstance> familyWorkers = WORKERS_LIST.get(familyId);
         if (familyWorkers != null) {
-            if (familyWorkers.get(workerId) != null) {
-                familyWorkers.remove(workerId);
-                WORKERS_LIST.put(familyId, familyWorkers);
-            } else {
+            if (familyWorkers.remove(workerId) == null) {
                 LOGGER.error("Worker does not exist in this family");
                 throw new WorkerNotFoundException("Worker does not exist in this family");
             }
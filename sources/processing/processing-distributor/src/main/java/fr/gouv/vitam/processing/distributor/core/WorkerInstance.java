@@ -0,0 +1,118 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.distributor.core;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.processing.common.model.WorkerBean;
+import fr.gouv.vitam.worker.client.WorkerClient;
+import fr.gouv.vitam.worker.client.WorkerClientConfiguration;
+import fr.gouv.vitam.worker.client.WorkerClientFactory;
+
+/**
+ * Registered worker as seen by the distributor: the WorkerBean and the number of items currently submitted to it.<br>
+ * <br>
+ * The number of items in flight on one worker is bounded by the capacity given at registration (at least 1).
+ */
+final class WorkerInstance {
+
+    private final WorkerBean workerBean;
+    private final int capacity;
+    private final Semaphore slots;
+    private final AtomicInteger inFlight = new AtomicInteger(0);
+
+    /**
+     * Constructor
+     *
+     * @param workerBean the registered worker
+     */
+    WorkerInstance(WorkerBean workerBean) {
+        ParametersChecker.checkParameter("workerBean is a mandatory parameter", workerBean);
+        this.workerBean = workerBean;
+        capacity = (int) Math.max(1L, Math.min(workerBean.getCapacity(), Integer.MAX_VALUE));
+        slots = new Semaphore(capacity);
+    }
+
+    /**
+     * @return the registered WorkerBean
+     */
+    WorkerBean getWorkerBean() {
+        return workerBean;
+    }
+
+    /**
+     * @return the maximum number of items in flight on this worker
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the number of items currently submitted to this worker
+     */
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Try to reserve one slot on this worker, without blocking
+     *
+     * @return True if a slot was reserved, in which case {@link #release()} must be called once the item is done
+     */
+    boolean tryAcquire() {
+        if (slots.tryAcquire()) {
+            inFlight.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Release one slot previously reserved by {@link #tryAcquire()}
+     */
+    void release() {
+        inFlight.decrementAndGet();
+        slots.release();
+    }
+
+    /**
+     * @return a new WorkerClient connected to this worker
+     */
+    WorkerClient getClient() {
+        return WorkerClientFactory.getInstance(
+            new WorkerClientConfiguration(workerBean.getConfiguration().getServerHost(),
+                workerBean.getConfiguration().getServerPort()))
+            .getClient();
+    }
+
+    @Override
+    public String toString() {
+        return workerBean.getWorkerId() + " (" + inFlight.get() + "/" + capacity + ")";
+    }
+}
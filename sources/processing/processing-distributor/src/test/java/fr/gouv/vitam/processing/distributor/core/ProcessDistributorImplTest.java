@@ -26,19 +26,32 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.distributor.core;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.BadRequestException;
 
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import fr.gouv.vitam.common.client.VitamRequestIterator;
 
 import fr.gouv.vitam.common.guid.GUIDFactory;
 import fr.gouv.vitam.common.junit.JunitHelper;
+import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingBadRequestException;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
@@ -60,6 +73,9 @@ import fr.gouv.vitam.processing.common.model.WorkerRemoteConfiguration;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
+import fr.gouv.vitam.worker.client.WorkerClient;
+import fr.gouv.vitam.worker.common.DescriptionStep;
+import fr.gouv.vitam.workspace.client.WorkspaceClient;
 
 public class ProcessDistributorImplTest {
     private WorkerParameters params;
@@ -72,6 +88,11 @@ public class ProcessDistributorImplTest {
     private String urlWorkspace;
     private static int port;
 
+    private static final String LIST_ELEMENT = "SIP/content";
+    private static final String WORKER_DESCRIPTION_WITH_CAPACITY =
+        "{ \"name\" : \"workername\", \"family\" : \"familyname\", \"capacity\" : %d, \"storage\" : 100," +
+            "\"status\" : \"Active\", " +
+            "\"configuration\" : {\"serverHost\" : \"localhost\", \"serverPort\" : \"89102\" } }";
     private static final String WORKER_DESCRIPTION =
         "{ \"name\" : \"workername\", \"family\" : \"familyname\", \"capacity\" : 10, \"storage\" : 100," +
             "\"status\" : \"Active\", \"configuration\" : {\"serverHost\" : \"localhost\", \"serverPort\" : \"89102\" } }";
@@ -275,4 +296,196 @@ public class ProcessDistributorImplTest {
         final ProcessDistributorImpl processDImpl = new ProcessDistributorImpl(null, null, null);
     }
 
+    @Test
+    public void givenWorkerInstanceWhenAcquireThenCapacityIsRespected() {
+        final WorkerBean bean = new WorkerBean("name", "family", 2, 1, "status",
+            new WorkerRemoteConfiguration("localhost", 89102));
+        final WorkerInstance worker = new WorkerInstance(bean);
+        assertEquals(2, worker.getCapacity());
+        assertTrue(worker.tryAcquire());
+        assertTrue(worker.tryAcquire());
+        assertFalse(worker.tryAcquire());
+        assertEquals(2, worker.getInFlight());
+        worker.release();
+        assertEquals(1, worker.getInFlight());
+        assertTrue(worker.tryAcquire());
+    }
+
+    @Test
+    public void givenWorkerWithoutCapacityWhenAcquireThenOneSlot() {
+        final WorkerBean bean = new WorkerBean("name", "family", 0, 1, "status",
+            new WorkerRemoteConfiguration("localhost", 89102));
+        final WorkerInstance worker = new WorkerInstance(bean);
+        assertEquals(1, worker.getCapacity());
+        assertTrue(worker.tryAcquire());
+        assertFalse(worker.tryAcquire());
+    }
+
+    @Test
+    public void givenListStepWhenDistributeConcurrentlyThenAllItemStatusesAggregated() throws Exception {
+        final int nbObjects = 50;
+        final int capacity = 4;
+        final WorkspaceClient workspaceClient = mockWorkspaceClient(nbObjects);
+        final WorkerClient workerClient = Mockito.mock(WorkerClient.class);
+        final AtomicInteger inFlight = new AtomicInteger(0);
+        final AtomicInteger maxInFlight = new AtomicInteger(0);
+        Mockito.when(workerClient.submitStep(Matchers.any(DescriptionStep.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            inFlight.decrementAndGet();
+            return getActionStatus(StatusCode.OK);
+        });
+        final ProcessDistributorImpl distributor = new ProcessDistributorImpl(workspaceClient, workerClient);
+        distributor.registerWorker("ConcurrentFamily", "ConcurrentWorker",
+            String.format(WORKER_DESCRIPTION_WITH_CAPACITY, capacity));
+
+        final ItemStatus responses =
+            distributor.distribute(params, getListStep("ConcurrentFamily", ProcessBehavior.NOBLOCKING, 1),
+                WORKFLOW_ID);
+
+        assertEquals(StatusCode.OK, responses.getGlobalStatus());
+        assertEquals(nbObjects,
+            responses.getItemsStatus().get("ExtractSeda").getStatusMeter().get(StatusCode.OK.getStatusLevel())
+                .intValue());
+        Mockito.verify(workerClient, Mockito.times(nbObjects)).submitStep(Matchers.any(DescriptionStep.class));
+        assertTrue(maxInFlight.get() <= capacity);
+        final ProcessStep processStep = processMonitoring.getWorkflowStatus("processId").get(params.getStepUniqId());
+        assertEquals(nbObjects, processStep.getElementToProcess());
+        assertEquals(nbObjects, processStep.getElementProcessed());
+    }
+
+    @Test
+    public void givenListStepWithBatchesWhenDistributeThenEachObjectCounted() throws Exception {
+        final WorkspaceClient workspaceClient = mockWorkspaceClient(7);
+        final WorkerClient workerClient = Mockito.mock(WorkerClient.class);
+        Mockito.when(workerClient.submitBatchStep(Matchers.any(DescriptionStep.class))).thenAnswer(invocation -> {
+            final List<ItemStatus> itemStatusList = new ArrayList<>();
+            for (int i = 0; i < ((DescriptionStep) invocation.getArguments()[0]).getObjectNameList().size(); i++) {
+                itemStatusList.add(getActionStatus(StatusCode.OK));
+            }
+            return itemStatusList;
+        });
+        Mockito.when(workerClient.submitStep(Matchers.any(DescriptionStep.class)))
+            .thenAnswer(invocation -> getActionStatus(StatusCode.WARNING));
+        final ProcessDistributorImpl distributor = new ProcessDistributorImpl(workspaceClient, workerClient);
+        distributor.registerWorker("BatchFamily", "BatchWorker", String.format(WORKER_DESCRIPTION_WITH_CAPACITY, 2));
+
+        final ItemStatus responses =
+            distributor.distribute(params, getListStep("BatchFamily", ProcessBehavior.NOBLOCKING, 3), WORKFLOW_ID);
+
+        // 2 batches of 3 objects, the last object alone
+        Mockito.verify(workerClient, Mockito.times(2)).submitBatchStep(Matchers.any(DescriptionStep.class));
+        Mockito.verify(workerClient, Mockito.times(1)).submitStep(Matchers.any(DescriptionStep.class));
+        assertEquals(StatusCode.WARNING, responses.getGlobalStatus());
+        final ProcessStep processStep = processMonitoring.getWorkflowStatus("processId").get(params.getStepUniqId());
+        assertEquals(7, processStep.getElementToProcess());
+        assertEquals(7, processStep.getElementProcessed());
+    }
+
+    @Test
+    public void givenBlockingStepWhenItemKoThenDistributionStopsEarly() throws Exception {
+        assertDistributionStopsEarly("BlockingKoFamily", ProcessBehavior.BLOCKING, StatusCode.KO);
+    }
+
+    @Test
+    public void givenNotBlockingStepWhenItemFatalThenDistributionStopsEarly() throws Exception {
+        assertDistributionStopsEarly("NotBlockingFatalFamily", ProcessBehavior.NOBLOCKING, StatusCode.FATAL);
+    }
+
+    @Test
+    public void givenNotBlockingStepWhenItemKoThenAllItemsDistributed() throws Exception {
+        final WorkspaceClient workspaceClient = mockWorkspaceClient(10);
+        final WorkerClient workerClient = Mockito.mock(WorkerClient.class);
+        Mockito.when(workerClient.submitStep(Matchers.any(DescriptionStep.class)))
+            .thenAnswer(invocation -> getActionStatus(StatusCode.KO));
+        final ProcessDistributorImpl distributor = new ProcessDistributorImpl(workspaceClient, workerClient);
+        distributor.registerWorker("NotBlockingKoFamily", "NotBlockingKoWorker",
+            String.format(WORKER_DESCRIPTION_WITH_CAPACITY, 1));
+
+        final ItemStatus responses = distributor.distribute(params,
+            getListStep("NotBlockingKoFamily", ProcessBehavior.NOBLOCKING, 1), WORKFLOW_ID);
+
+        assertEquals(StatusCode.KO, responses.getGlobalStatus());
+        Mockito.verify(workerClient, Mockito.times(10)).submitStep(Matchers.any(DescriptionStep.class));
+    }
+
+    @Test
+    public void givenListingInterruptedWhenDistributeThenFatal() throws Exception {
+        // the cursor of the workspace expires after the first objects
+        final WorkspaceClient workspaceClient = mockWorkspaceClient(3, true);
+        final WorkerClient workerClient = Mockito.mock(WorkerClient.class);
+        Mockito.when(workerClient.submitStep(Matchers.any(DescriptionStep.class)))
+            .thenAnswer(invocation -> getActionStatus(StatusCode.OK));
+        final ProcessDistributorImpl distributor = new ProcessDistributorImpl(workspaceClient, workerClient);
+        distributor.registerWorker("InterruptedFamily", "InterruptedWorker",
+            String.format(WORKER_DESCRIPTION_WITH_CAPACITY, 1));
+
+        final ItemStatus responses = distributor.distribute(params,
+            getListStep("InterruptedFamily", ProcessBehavior.NOBLOCKING, 1), WORKFLOW_ID);
+
+        // the listing is not taken as complete: the step is FATAL, the objects already read being processed
+        assertEquals(StatusCode.FATAL, responses.getGlobalStatus());
+        Mockito.verify(workerClient, Mockito.times(3)).submitStep(Matchers.any(DescriptionStep.class));
+    }
+
+    private void assertDistributionStopsEarly(String family, ProcessBehavior behavior, StatusCode status)
+        throws Exception {
+        final WorkspaceClient workspaceClient = mockWorkspaceClient(20);
+        final WorkerClient workerClient = Mockito.mock(WorkerClient.class);
+        Mockito.when(workerClient.submitStep(Matchers.any(DescriptionStep.class)))
+            .thenAnswer(invocation -> getActionStatus(status));
+        final ProcessDistributorImpl distributor = new ProcessDistributorImpl(workspaceClient, workerClient);
+        // one item in flight at a time: the first result stops the distribution
+        distributor.registerWorker(family, family + "Worker", String.format(WORKER_DESCRIPTION_WITH_CAPACITY, 1));
+
+        final ItemStatus responses = distributor.distribute(params, getListStep(family, behavior, 1), WORKFLOW_ID);
+
+        assertEquals(status, responses.getGlobalStatus());
+        Mockito.verify(workerClient, Mockito.times(1)).submitStep(Matchers.any(DescriptionStep.class));
+        final ProcessStep processStep = processMonitoring.getWorkflowStatus("processId").get(params.getStepUniqId());
+        assertEquals(1, processStep.getElementProcessed());
+    }
+
+    private static Step getListStep(String family, ProcessBehavior behavior, int batchSize) {
+        final Action action = new Action();
+        action.setActionDefinition(
+            new ActionDefinition().setActionKey("ExtractSeda").setBehavior(ProcessBehavior.NOBLOCKING));
+        final List<Action> actions = new ArrayList<>();
+        actions.add(action);
+        return new Step().setStepName("TEST").setWorkerGroupId(family).setBehavior(behavior).setActions(actions)
+            .setDistribution(new Distribution().setKind(DistributionKind.LIST).setElement(LIST_ELEMENT)
+                .setBatchSize(batchSize));
+    }
+
+    private static ItemStatus getActionStatus(StatusCode status) {
+        return new ItemStatus("TEST").setItemsStatus("ExtractSeda", new ItemStatus("ExtractSeda").increment(status));
+    }
+
+    private static WorkspaceClient mockWorkspaceClient(int nbObjects) {
+        return mockWorkspaceClient(nbObjects, false);
+    }
+
+    /**
+     * @param interrupted True if the listing fails after the objects, as the iterator does on an expired cursor
+     */
+    private static WorkspaceClient mockWorkspaceClient(int nbObjects, boolean interrupted) {
+        final List<String> objectNames = new ArrayList<>();
+        for (int i = 0; i < nbObjects; i++) {
+            objectNames.add(LIST_ELEMENT + "/object" + i);
+        }
+        final Iterator<String> iterator = objectNames.iterator();
+        final VitamRequestIterator objectsIterator = Mockito.mock(VitamRequestIterator.class);
+        Mockito.when(objectsIterator.hasNext()).thenAnswer(invocation -> {
+            if (!iterator.hasNext() && interrupted) {
+                throw new BadRequestException("Gone");
+            }
+            return iterator.hasNext();
+        });
+        Mockito.when(objectsIterator.next()).thenAnswer(invocation -> new TextNode(iterator.next()));
+        final WorkspaceClient workspaceClient = Mockito.mock(WorkspaceClient.class);
+        Mockito.when(workspaceClient.getListUriDigitalObjectFromFolderIterator(Matchers.anyString(),
+            Matchers.eq(LIST_ELEMENT))).thenReturn(objectsIterator);
+        return workspaceClient;
+    }
+
 }
@@ -49,4 +49,30 @@ public interface ProcessEngine {
      */
     public ItemStatus startWorkflow(WorkerParameters workParams, String workflowId)
         throws WorkflowNotFoundException, ProcessingException;
+
+    /**
+     * Prepares a new process instance without running it: its steps are registered in the monitoring, and it is run
+     * later by {@link #resumeWorkflow(WorkerParameters, String)}.
+     *
+     * @param workParams used to encapsulate a parameters, the process id being set
+     * @param workflowId used to identify workflow id
+     * @return the id of the process
+     * @throws IllegalArgumentException throws when arguments workParams or workflowId are null
+     * @throws WorkflowNotFoundException throws when workflow not found
+     */
+    public String initWorkflow(WorkerParameters workParams, String workflowId) throws WorkflowNotFoundException;
+
+    /**
+     * Runs a pending process (prepared by {@link #initWorkflow(WorkerParameters, String)} or reloaded after a
+     * restart): the steps already done are not executed again.
+     *
+     * @param workParams used to encapsulate a parameters, the container name being the one of the process
+     * @param processId the id of the pending process
+     * @return the reponse of EngineResponse type that contains message and status code
+     * @throws IllegalArgumentException throws when arguments workParams or processId are null
+     * @throws WorkflowNotFoundException throws when workflow not found
+     * @throws ProcessingException throws when the process is not pending
+     */
+    public ItemStatus resumeWorkflow(WorkerParameters workParams, String processId)
+        throws WorkflowNotFoundException, ProcessingException;
 }
@@ -29,6 +29,7 @@ package fr.gouv.vitam.processing.engine.core;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.exception.InvalidGuidOperationException;
@@ -63,6 +64,7 @@ import fr.gouv.vitam.processing.common.utils.ProcessPopulator;
 import fr.gouv.vitam.processing.distributor.api.ProcessDistributor;
 import fr.gouv.vitam.processing.distributor.core.ProcessDistributorImplFactory;
 import fr.gouv.vitam.processing.engine.api.ProcessEngine;
+import fr.gouv.vitam.processing.engine.core.monitoring.PendingProcess;
 import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
 
 /**
@@ -85,7 +87,7 @@ public class ProcessEngineImpl implements ProcessEngine {
     private final Map<String, WorkFlow> poolWorkflows;
 
     private final ProcessDistributor processDistributorMock;
-    private final Map<String, String> messageIdentifierMap = new HashMap<>();
+    private final Map<String, String> messageIdentifierMap = new ConcurrentHashMap<>();
 
 
     /**
@@ -127,6 +129,50 @@ public class ProcessEngineImpl implements ProcessEngine {
         throws WorkflowNotFoundException, ProcessingException {
         ParametersChecker.checkParameter("WorkParams is a mandatory parameter", workParams);
         ParametersChecker.checkParameter("workflowId is a mandatory parameter", workflowId);
+        final GUID processId = GUIDFactory.newGUID();
+        return runWorkflow(workParams, workflowId, processId.getId(), false);
+    }
+
+    @Override
+    public String initWorkflow(WorkerParameters workParams, String workflowId) throws WorkflowNotFoundException {
+        ParametersChecker.checkParameter("WorkParams is a mandatory parameter", workParams);
+        ParametersChecker.checkParameter("workflowId is a mandatory parameter", workflowId);
+        final WorkFlow workFlow = poolWorkflows.get(workflowId);
+        if (workFlow == null) {
+            LOGGER.error(WORKFLOW_NOT_FOUND_MESSAGE);
+            throw new WorkflowNotFoundException(WORKFLOW_NOT_FOUND_MESSAGE);
+        }
+        final String processId = GUIDFactory.newGUID().getId();
+        workParams.setProcessId(processId);
+        ProcessMonitoringImpl.getInstance().initOrderedWorkflow(processId, workFlow, workParams.getContainerName());
+        return processId;
+    }
+
+    @Override
+    public ItemStatus resumeWorkflow(WorkerParameters workParams, String processId)
+        throws WorkflowNotFoundException, ProcessingException {
+        ParametersChecker.checkParameter("WorkParams is a mandatory parameter", workParams);
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        PendingProcess pendingProcess = null;
+        for (final PendingProcess pending : ProcessMonitoringImpl.getInstance().getPendingProcesses()) {
+            if (pending.getProcessId().equals(processId)) {
+                pendingProcess = pending;
+                break;
+            }
+        }
+        if (pendingProcess == null) {
+            throw new ProcessingException("Process is not pending: " + processId);
+        }
+        workParams.setContainerName(pendingProcess.getContainerName());
+        if (pendingProcess.getMessageIdentifier() != null) {
+            messageIdentifierMap.put(processId, pendingProcess.getMessageIdentifier());
+        }
+        return runWorkflow(workParams, pendingProcess.getWorkflowId(), processId, true);
+    }
+
+    private ItemStatus runWorkflow(WorkerParameters workParams, String workflowId, String processId,
+        boolean resume)
+        throws WorkflowNotFoundException {
         final long time = System.currentTimeMillis();
         LOGGER.info(START_MESSAGE);
         // TODO P1 replace with real tenant
@@ -139,22 +185,24 @@ public class ProcessEngineImpl implements ProcessEngine {
             throw new WorkflowNotFoundException(WORKFLOW_NOT_FOUND_MESSAGE);
         }
         final ProcessResponse processResponse = new ProcessResponse();
-        final GUID processId = GUIDFactory.newGUID();
-        final ItemStatus workflowStatus = new ItemStatus(processId.toString());
+        final ItemStatus workflowStatus = new ItemStatus(processId);
 
         try (LogbookOperationsClient client = LogbookOperationsClientFactory.getInstance().getClient()) {
             final WorkFlow workFlow = poolWorkflows.get(workflowId);
 
             if (workFlow != null && workFlow.getSteps() != null && !workFlow.getSteps().isEmpty()) {
 
-                processResponse.setProcessId(processId.getId());
-                workParams.setProcessId(processId.getId());
-                LOGGER.info("Start Workflow: " + processId.getId());
-
+                processResponse.setProcessId(processId);
+                workParams.setProcessId(processId);
+                LOGGER.info((resume ? "Resume Workflow: " : "Start Workflow: ") + processId);
 
-                final Map<String, ProcessStep> processSteps = ProcessMonitoringImpl.getInstance().initOrderedWorkflow(
-                    workParams.getProcessId(), workFlow,
-                    workParams.getContainerName());
+                final Map<String, ProcessStep> processSteps;
+                if (resume) {
+                    processSteps = ProcessMonitoringImpl.getInstance().getWorkflowStatus(processId);
+                } else {
+                    processSteps = ProcessMonitoringImpl.getInstance().initOrderedWorkflow(processId, workFlow,
+                        workParams.getContainerName());
+                }
 
                 /**
                  * call process distribute to manage steps
@@ -163,9 +211,16 @@ public class ProcessEngineImpl implements ProcessEngine {
                 ItemStatus stepResponse;
                 for (final Map.Entry<String, ProcessStep> entry : processSteps.entrySet()) {
                     final ProcessStep step = entry.getValue();
-                    stepResponse = processStep(processId.getId(), step, entry.getKey(), workParams,
-                        workflowStatus, client, workflowId, messageIdentifierMap.get(processId.getId()),
-                        tenantId, finished);
+                    if (isStepDone(step)) {
+                        // step already done before the restart: only its status is taken into account
+                        LOGGER.info("Step already done: " + entry.getKey());
+                        stepResponse = new ItemStatus(step.getStepName()).increment(step.getStepStatusCode());
+                        workflowStatus.increment(step.getStepStatusCode());
+                    } else {
+                        stepResponse = processStep(processId, step, entry.getKey(), workParams,
+                            workflowStatus, client, workflowId, messageIdentifierMap.get(processId),
+                            tenantId, finished);
+                    }
                     // if the step has been defined as Blocking and then stepStatus is KO or FATAL
                     // then break the process
                     if (stepResponse.shallStop(step.getBehavior().equals(ProcessBehavior.BLOCKING))) {
@@ -180,8 +235,8 @@ public class ProcessEngineImpl implements ProcessEngine {
                     final ProcessStep lastStep = processSteps.get(theLastKey);
                     // check if it's a final step
                     if (ProcessBehavior.FINALLY.equals(lastStep.getBehavior())) {
-                        processStep(processId.getId(), lastStep, theLastKey, workParams,
-                            workflowStatus, client, workflowId, messageIdentifierMap.get(processId.getId()),
+                        processStep(processId, lastStep, theLastKey, workParams,
+                            workflowStatus, client, workflowId, messageIdentifierMap.get(processId),
                             tenantId, finished);
                     } else {
                         LOGGER.info("No final step found");
@@ -189,11 +244,14 @@ public class ProcessEngineImpl implements ProcessEngine {
                 }
 
                 messageIdentifierMap.remove(processId);
-                LOGGER.info("End Workflow: " + processId.getId());
+                ProcessMonitoringImpl.getInstance().finishWorkflow(processId);
+                LOGGER.info("End Workflow: " + processId);
             }
         } catch (final Exception e) {
             processResponse.setStatus(StatusCode.FATAL);
+            workflowStatus.increment(StatusCode.FATAL);
             LOGGER.error(RUNTIME_EXCEPTION_MESSAGE, e);
+            failWorkflow(processId);
         } finally {
             LOGGER.info(ELAPSED_TIME_MESSAGE + (System.currentTimeMillis() - time) / 1000 + "s, Status: " +
                 processResponse.getStatus());
@@ -202,6 +260,35 @@ public class ProcessEngineImpl implements ProcessEngine {
         return workflowStatus;
     }
 
+    /**
+     * A step is done when it has a final status: a step started and not finished before a restart is executed again
+     */
+    private static boolean isStepDone(ProcessStep step) {
+        final StatusCode status = step.getStepStatusCode();
+        return status != null && status != StatusCode.UNKNOWN && status != StatusCode.STARTED;
+    }
+
+    /**
+     * Mark as FATAL the first step not done of a process whose execution failed and finish the process, so that it is
+     * not resumed again at each restart
+     */
+    private void failWorkflow(String processId) {
+        messageIdentifierMap.remove(processId);
+        final ProcessMonitoringImpl monitoring = ProcessMonitoringImpl.getInstance();
+        try {
+            for (final Map.Entry<String, ProcessStep> entry : monitoring.getWorkflowStatus(processId).entrySet()) {
+                if (!isStepDone(entry.getValue())) {
+                    monitoring.updateStepStatus(processId, entry.getKey(), StatusCode.FATAL);
+                    break;
+                }
+            }
+            monitoring.finishWorkflow(processId);
+        } catch (final ProcessingException e) {
+            // process not initialized or already finished
+            SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+        }
+    }
+
 
 
     private ItemStatus processStep(String processId, ProcessStep step, String uniqueId, WorkerParameters workParams,
@@ -301,6 +388,7 @@ public class ProcessEngineImpl implements ProcessEngine {
                 if (stepResponse.getData().get(MESSAGE_IDENTIFIER) != null) {
                     messageIdentifier = stepResponse.getData().get(MESSAGE_IDENTIFIER).toString();
                     messageIdentifierMap.put(processId, messageIdentifier);
+                    ProcessMonitoringImpl.getInstance().setMessageIdentifier(processId, messageIdentifier);
                 }
 
             }
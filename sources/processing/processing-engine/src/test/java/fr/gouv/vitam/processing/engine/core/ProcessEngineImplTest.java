@@ -26,6 +26,8 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.engine.core;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 
 import java.util.Map;
@@ -43,6 +45,7 @@ import fr.gouv.vitam.processing.common.model.ProcessStep;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.processing.distributor.api.ProcessDistributor;
+import fr.gouv.vitam.processing.engine.core.monitoring.PendingProcess;
 import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
 
 /**
@@ -92,6 +95,21 @@ public class ProcessEngineImplTest {
         assertNotNull(map);
     }
 
+    @Test
+    public void givenFailingDistributorThenProcessFinishedAsFatal() throws Exception {
+        Mockito.when(processDistributor.distribute(Matchers.anyObject(), Matchers.anyObject(),
+            Matchers.eq("workflowJSONv1"))).thenThrow(new IllegalStateException("distribution failed"));
+
+        response = processEngine.startWorkflow(workParams, "workflowJSONv1");
+        assertEquals(StatusCode.FATAL, response.getGlobalStatus());
+        final String processId = workParams.getProcessId();
+        // the failed process is finished: it will not be resumed at the next restart
+        for (final PendingProcess pendingProcess : processMonitoring.getPendingProcesses()) {
+            assertFalse(processId.equals(pendingProcess.getProcessId()));
+        }
+        assertEquals(StatusCode.FATAL, processMonitoring.getFinalWorkflowStatus(processId));
+    }
+
     @Test(expected = WorkflowNotFoundException.class)
     public void givenWorkFlowIdasNullThenReturnNotFoundException() throws Exception {
         processEngine.startWorkflow(workParams, "notExist");
@@ -59,6 +59,33 @@ public interface ProcessingManagementClient extends MockOrRestClient {
         throws ProcessingUnauthorizeException, ProcessingBadRequestException, WorkflowNotFoundException,
         ProcessingException;
 
+    /**
+     * executeVitamProcessAsync : queue the processing operation of a workflow, without waiting for its end
+     *
+     * @param container : name of the container
+     * @param workflow : id of the workflow
+     * @return the id of the process, used to get its status
+     * @throws IllegalArgumentException thrown in case of illegal argument in request server error
+     * @throws WorkflowNotFoundException thrown if the defined workfow is not found by server
+     * @throws ProcessingInternalServerException thrown if the process cannot be queued, or in case of internal server
+     *         error or technical error between client and server
+     * @throws ProcessingException
+     */
+    String executeVitamProcessAsync(String container, String workflow)
+        throws WorkflowNotFoundException, ProcessingException;
+
+    /**
+     * Get the status of a process: the status of each of its steps, the message being PENDING while the process is
+     * queued or running, else FINISHED
+     *
+     * @param processId : id of the process
+     * @return the status of the process
+     * @throws IllegalArgumentException thrown if processId is null
+     * @throws ProcessingException thrown if the process is not found or in case of technical error between client
+     *         and server
+     */
+    ItemStatus getOperationProcessStatus(String processId) throws ProcessingException;
+
     /**
      * Register a new worker knowing its family and with a WorkerBean. If a problem is encountered, an exception is
      * thrown.
@@ -63,6 +63,17 @@ public class ProcessingManagementClientMock extends AbstractMockClient implement
         return new ItemStatus("FakeId", "FakeMessage", StatusCode.OK, status, SingletonUtils.singletonMap(), null);
     }
 
+    @Override
+    public String executeVitamProcessAsync(String container, String workflow)
+        throws WorkflowNotFoundException, ProcessingException {
+        return "FakeId";
+    }
+
+    @Override
+    public ItemStatus getOperationProcessStatus(String processId) throws ProcessingException {
+        return new ItemStatus(processId).setMessage("FINISHED").increment(StatusCode.OK);
+    }
+
     @Override
     public void registerWorker(String familyId, String workerId, WorkerBean workerDescription)
         throws ProcessingBadRequestException, WorkerAlreadyExistsException {
@@ -104,6 +104,63 @@ class ProcessingManagementClientRest extends DefaultClient implements Processing
         }
     }
 
+    @Override
+    public String executeVitamProcessAsync(String container, String workflow)
+        throws WorkflowNotFoundException, ProcessingException {
+        ParametersChecker.checkParameter("container is a mandatory parameter", container);
+        ParametersChecker.checkParameter("workflow is a mandatory parameter", workflow);
+        Response response = null;
+        try {
+            response =
+                performRequest(HttpMethod.POST, "/operations/async", null,
+                    JsonHandler.toJsonNode(new ProcessingEntry(container, workflow)), MediaType.APPLICATION_JSON_TYPE,
+                    MediaType.APPLICATION_JSON_TYPE);
+            if (response.getStatus() == Status.NOT_FOUND.getStatusCode()) {
+                throw new WorkflowNotFoundException("Workflow Not Found");
+            } else if (response.getStatus() == Status.PRECONDITION_FAILED.getStatusCode()) {
+                throw new IllegalArgumentException(ILLEGAL_ARGUMENT);
+            } else if (response.getStatus() != Status.ACCEPTED.getStatusCode()) {
+                throw new ProcessingInternalServerException(Status.fromStatusCode(response.getStatus()) + "");
+            }
+            return response.readEntity(ItemStatus.class).getItemId();
+        } catch (final javax.ws.rs.ProcessingException e) {
+            LOGGER.error(e);
+            throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2, e);
+        } catch (final VitamClientInternalException e) {
+            LOGGER.error(PROCESSING_INTERNAL_SERVER_ERROR, e);
+            throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2, e);
+        } catch (final InvalidParseOperationException e) {
+            throw new IllegalArgumentException(ILLEGAL_ARGUMENT, e);
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
+    @Override
+    public ItemStatus getOperationProcessStatus(String processId) throws ProcessingException {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        Response response = null;
+        try {
+            response = performRequest(HttpMethod.GET, "/operations/" + processId, null,
+                MediaType.APPLICATION_JSON_TYPE);
+            if (response.getStatus() == Status.NOT_FOUND.getStatusCode()) {
+                throw new ProcessingException("Process Not Found");
+            } else if (response.getStatus() != Status.OK.getStatusCode() &&
+                response.getStatus() != Status.ACCEPTED.getStatusCode()) {
+                throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2);
+            }
+            return response.readEntity(ItemStatus.class);
+        } catch (final javax.ws.rs.ProcessingException e) {
+            LOGGER.error(e);
+            throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2, e);
+        } catch (final VitamClientInternalException e) {
+            LOGGER.error(PROCESSING_INTERNAL_SERVER_ERROR, e);
+            throw new ProcessingInternalServerException(INTERNAL_SERVER_ERROR2, e);
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
     @Override
     public void registerWorker(String familyId, String workerId, WorkerBean workerDescription)
         throws ProcessingBadRequestException, WorkerAlreadyExistsException {
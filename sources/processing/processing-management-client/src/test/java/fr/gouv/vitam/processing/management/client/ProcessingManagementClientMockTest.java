@@ -47,6 +47,8 @@ public class ProcessingManagementClientMockTest {
         final ProcessingManagementClient client = ProcessingManagementClientFactory.getInstance().getClient();
         client.checkStatus();
         client.executeVitamProcess(null, null);
+        client.executeVitamProcessAsync(null, null);
+        client.getOperationProcessStatus("FakeId");
         client.registerWorker(null, null, null);
         client.unregisterWorker(null, null);
     }
@@ -34,8 +34,10 @@ import static org.mockito.Mockito.when;
 import java.util.function.Supplier;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -46,10 +48,12 @@ import org.junit.Test;
 
 import fr.gouv.vitam.common.exception.VitamApplicationServerException;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.server.application.AbstractVitamApplication;
 import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplicationConfiguration;
 import fr.gouv.vitam.common.server.application.junit.VitamJerseyTest;
 import fr.gouv.vitam.processing.common.ProcessingEntry;
+import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.ProcessingInternalServerException;
 import fr.gouv.vitam.processing.common.exception.ProcessingUnauthorizeException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
@@ -117,6 +121,21 @@ public class WorkflowProcessingManagementClientTest extends VitamJerseyTest {
         public Response executeVitamProcess(ProcessingEntry workflow) {
             return expectedResponse.get();
         }
+
+        @Path("operations/async")
+        @POST
+        @Consumes(MediaType.APPLICATION_JSON)
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response executeVitamProcessAsync(ProcessingEntry workflow) {
+            return expectedResponse.get();
+        }
+
+        @Path("operations/{processId}")
+        @GET
+        @Produces(MediaType.APPLICATION_JSON)
+        public Response getProcessStatus(@PathParam("processId") String processId) {
+            return expectedResponse.get();
+        }
     }
 
     @Test(expected = WorkflowNotFoundException.class)
@@ -160,4 +179,31 @@ public class WorkflowProcessingManagementClientTest extends VitamJerseyTest {
         assertNotNull(ret);
         assertEquals(desired.getGlobalStatus(), ret.getGlobalStatus());
     }
+
+    @Test
+    public void executeVitamProcessAsyncOk() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.ACCEPTED).entity(new ItemStatus("processId")).build());
+        assertEquals("processId", client.executeVitamProcessAsync(CONTAINER, WORKFLOWID));
+    }
+
+    @Test(expected = ProcessingInternalServerException.class)
+    public void givenFullQueueWhenProcessingAsyncThenReturnServiceUnavailable() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.SERVICE_UNAVAILABLE).build());
+        client.executeVitamProcessAsync(CONTAINER, WORKFLOWID);
+    }
+
+    @Test
+    public void getOperationProcessStatusOk() throws Exception {
+        final ItemStatus desired = new ItemStatus("processId").setMessage("PENDING").increment(StatusCode.STARTED);
+        when(mock.get()).thenReturn(Response.status(Status.ACCEPTED).entity(desired).build());
+        final ItemStatus ret = client.getOperationProcessStatus("processId");
+        assertEquals("PENDING", ret.getMessage());
+        assertEquals(StatusCode.STARTED, ret.getGlobalStatus());
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void givenUnknownProcessWhenGetStatusThenReturnNotFound() throws Exception {
+        when(mock.get()).thenReturn(Response.status(Status.NOT_FOUND).build());
+        client.getOperationProcessStatus("processId");
+    }
 }
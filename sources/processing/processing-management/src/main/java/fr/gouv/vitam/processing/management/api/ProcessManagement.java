@@ -52,4 +52,38 @@ public interface ProcessManagement extends VitamAutoCloseable {
      *
      */
     ItemStatus submitWorkflow(WorkerParameters workParams, String workflowId) throws ProcessingException;
+
+    /**
+     * Queue a workflow to be executed asynchronously
+     *
+     * @param workParams null not allowed
+     * @param workflowId null not allowed
+     * @param tenantId the tenant of the process
+     * @return the id of the process, used to get its status
+     * @throws WorkflowNotFoundException thrown if the workflow was not found
+     * @throws ProcessingException thrown if the process cannot be queued
+     * @throws IllegalArgumentException thrown in case parameters workParams or workflowId are null
+     */
+    String submitWorkflowAsync(WorkerParameters workParams, String workflowId, int tenantId)
+        throws ProcessingException;
+
+    /**
+     * Get the status of a process: the status of each of its steps, the message being {@link #PROCESS_PENDING} while
+     * the process is queued or running, else {@link #PROCESS_FINISHED}
+     *
+     * @param processId null not allowed
+     * @return the status of the process
+     * @throws ProcessingException thrown if the process does not exist
+     */
+    ItemStatus getProcessStatus(String processId) throws ProcessingException;
+
+    /**
+     * Message of the status of a process queued or running
+     */
+    String PROCESS_PENDING = "PENDING";
+
+    /**
+     * Message of the status of a finished process
+     */
+    String PROCESS_FINISHED = "FINISHED";
 }
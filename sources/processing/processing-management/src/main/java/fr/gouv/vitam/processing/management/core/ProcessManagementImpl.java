@@ -26,16 +26,27 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.management.core;
 
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
+import fr.gouv.vitam.common.thread.VitamThreadUtils;
 import fr.gouv.vitam.processing.common.config.ServerConfiguration;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.exception.WorkflowNotFoundException;
+import fr.gouv.vitam.processing.common.model.ProcessStep;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
+import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.processing.engine.api.ProcessEngine;
 import fr.gouv.vitam.processing.engine.core.ProcessEngineImplFactory;
+import fr.gouv.vitam.processing.engine.core.monitoring.PendingProcess;
+import fr.gouv.vitam.processing.engine.core.monitoring.ProcessMonitoringImpl;
 import fr.gouv.vitam.processing.management.api.ProcessManagement;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 
@@ -45,6 +56,7 @@ import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 public class ProcessManagementImpl implements ProcessManagement {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ProcessManagementImpl.class);
     private final ProcessEngine processEngine;
+    private final ProcessScheduler processScheduler;
     private ServerConfiguration serverConfig;
 
     /**
@@ -53,11 +65,22 @@ public class ProcessManagementImpl implements ProcessManagement {
      * @param serverConfig configuration of process engine server
      */
     public ProcessManagementImpl(ServerConfiguration serverConfig) {
+        this(serverConfig, null);
+    }
+
+    /**
+     * constructor of ProcessManagementImpl
+     *
+     * @param serverConfig configuration of process engine server
+     * @param processScheduler scheduler of the asynchronous processes, null if not allowed
+     */
+    public ProcessManagementImpl(ServerConfiguration serverConfig, ProcessScheduler processScheduler) {
         ParametersChecker.checkParameter("Server config cannot be null", serverConfig);
         /**
          * inject process engine
          */
         this.serverConfig = serverConfig;
+        this.processScheduler = processScheduler;
         processEngine = new ProcessEngineImplFactory().create();
     }
 
@@ -108,6 +131,90 @@ public class ProcessManagementImpl implements ProcessManagement {
         return response;
     }
 
+    @Override
+    public String submitWorkflowAsync(WorkerParameters workParams, String workflowId, int tenantId)
+        throws ProcessingException {
+        ParametersChecker.checkParameter("workParams is a mandatory parameter", workParams);
+        ParametersChecker.checkParameter("workflowId is a mandatory parameter", workflowId);
+        if (processScheduler == null) {
+            throw new ProcessingException("Asynchronous processes are not allowed");
+        }
+        workParams.setUrlMetadata(serverConfig.getUrlMetadata());
+        workParams.setUrlWorkspace(serverConfig.getUrlWorkspace());
+        WorkspaceClientFactory.changeMode(serverConfig.getUrlWorkspace());
+        final String processId = processEngine.initWorkflow(workParams, workflowId);
+        // the process may be run from any thread of the scheduler: the session is set explicitly
+        final String requestId = VitamThreadUtils.getVitamSession().getRequestId();
+        try {
+            processScheduler.submit(tenantId, () -> {
+                VitamThreadUtils.getVitamSession().setRequestId(requestId);
+                runPendingWorkflow(workParams, processId);
+            });
+        } catch (final RejectedExecutionException e) {
+            ProcessMonitoringImpl.getInstance().finishWorkflow(processId);
+            throw new ProcessingException("Process cannot be queued", e);
+        }
+        return processId;
+    }
+
+    @Override
+    public ItemStatus getProcessStatus(String processId) throws ProcessingException {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        final ProcessMonitoringImpl monitoring = ProcessMonitoringImpl.getInstance();
+        final Map<String, ProcessStep> processSteps = monitoring.getWorkflowStatus(processId);
+        final ItemStatus processStatus = new ItemStatus(processId);
+        for (final ProcessStep step : processSteps.values()) {
+            processStatus.setItemsStatus(step.getStepName(),
+                new ItemStatus(step.getStepName()).increment(step.getStepStatusCode()));
+        }
+        final boolean pending = monitoring.getPendingProcesses().stream()
+            .anyMatch(pendingProcess -> pendingProcess.getProcessId().equals(processId));
+        processStatus.setMessage(pending ? PROCESS_PENDING : PROCESS_FINISHED);
+        return processStatus;
+    }
+
+    /**
+     * Enable the journal of the processes if configured and resume the processes not finished before the last stop of
+     * the server, through the scheduler if any (else in background)
+     *
+     * @return the number of processes resumed
+     */
+    public int resumePendingWorkflows() {
+        final String processJournalPath = serverConfig.getProcessJournalPath();
+        if (processJournalPath == null || processJournalPath.isEmpty()) {
+            LOGGER.warn("No process journal configured: the processes will not be resumed after a restart");
+            return 0;
+        }
+        final List<PendingProcess> pendingProcesses =
+            ProcessMonitoringImpl.getInstance().setJournalDirectory(new File(processJournalPath));
+        WorkspaceClientFactory.changeMode(serverConfig.getUrlWorkspace());
+        for (final PendingProcess pendingProcess : pendingProcesses) {
+            final WorkerParameters workParams = WorkerParametersFactory.newWorkerParameters()
+                .setUrlMetadata(serverConfig.getUrlMetadata()).setUrlWorkspace(serverConfig.getUrlWorkspace())
+                .setContainerName(pendingProcess.getContainerName());
+            final Runnable process = () -> {
+                VitamThreadUtils.getVitamSession().setRequestId(pendingProcess.getContainerName());
+                runPendingWorkflow(workParams, pendingProcess.getProcessId());
+            };
+            // TODO P1 replace with real tenant
+            if (processScheduler == null) {
+                VitamThreadPoolExecutor.getDefaultExecutor().execute(process);
+            } else {
+                processScheduler.submit(0, process);
+            }
+        }
+        return pendingProcesses.size();
+    }
+
+    private void runPendingWorkflow(WorkerParameters workParams, String processId) {
+        try {
+            final ItemStatus status = processEngine.resumeWorkflow(workParams, processId);
+            LOGGER.info("Process " + processId + " done: " + status.getGlobalStatus());
+        } catch (final ProcessingException e) {
+            LOGGER.error("Process cannot be run: " + processId, e);
+        }
+    }
+
     @Override
     public void close() {
         // Nothing to do
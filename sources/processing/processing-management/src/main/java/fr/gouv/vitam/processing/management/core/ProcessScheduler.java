@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.management.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
+
+/**
+ * Bounded scheduler of the processes executed asynchronously<br>
+ * <br>
+ * The processes are queued by tenant and run with a limited number of processes running at the same time, globally
+ * and for each tenant. The tenants are served in turn, so that a burst of processes on one tenant does not delay the
+ * others.
+ */
+public class ProcessScheduler {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ProcessScheduler.class);
+
+    private final int maxRunning;
+    private final int maxRunningPerTenant;
+    private final int maxQueued;
+    private final ExecutorService executor;
+
+    // tenants with queued processes, in the order they will be served
+    private final Map<Integer, Deque<Runnable>> queues = new LinkedHashMap<>();
+    private final Map<Integer, Integer> runningPerTenant = new HashMap<>();
+    private int running;
+    private int queued;
+
+    /**
+     * Constructor
+     *
+     * @param maxRunning the maximum number of processes running at the same time
+     * @param maxRunningPerTenant the maximum number of processes running at the same time for one tenant
+     * @param maxQueued the maximum number of processes waiting to be run
+     * @throws IllegalArgumentException if a limit is not strictly positive
+     */
+    public ProcessScheduler(int maxRunning, int maxRunningPerTenant, int maxQueued) {
+        ParametersChecker.checkValue("maxRunning", maxRunning, 1);
+        ParametersChecker.checkValue("maxRunningPerTenant", maxRunningPerTenant, 1);
+        ParametersChecker.checkValue("maxQueued", maxQueued, 1);
+        this.maxRunning = maxRunning;
+        this.maxRunningPerTenant = maxRunningPerTenant;
+        this.maxQueued = maxQueued;
+        final VitamThreadPoolExecutor threadPoolExecutor = new VitamThreadPoolExecutor(maxRunning, maxRunning, 60L,
+            TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        executor = threadPoolExecutor;
+    }
+
+    /**
+     * Queue a process to be run
+     *
+     * @param tenantId the tenant of the process
+     * @param process the process to run
+     * @throws RejectedExecutionException if the queue is full
+     */
+    public synchronized void submit(int tenantId, Runnable process) {
+        ParametersChecker.checkParameter("process is a mandatory parameter", process);
+        if (queued >= maxQueued) {
+            throw new RejectedExecutionException("Too many processes waiting to be run: " + queued);
+        }
+        queues.computeIfAbsent(tenantId, key -> new ArrayDeque<>()).add(process);
+        queued++;
+        dispatch();
+    }
+
+    /**
+     * @return the number of processes running
+     */
+    public synchronized int getRunning() {
+        return running;
+    }
+
+    /**
+     * @return the number of processes waiting to be run
+     */
+    public synchronized int getQueued() {
+        return queued;
+    }
+
+    private synchronized void dispatch() {
+        boolean dispatched = true;
+        while (running < maxRunning && dispatched) {
+            dispatched = false;
+            final Iterator<Map.Entry<Integer, Deque<Runnable>>> iterator = queues.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<Integer, Deque<Runnable>> entry = iterator.next();
+                final Integer tenantId = entry.getKey();
+                if (runningPerTenant.getOrDefault(tenantId, 0) >= maxRunningPerTenant) {
+                    continue;
+                }
+                final Runnable process = entry.getValue().poll();
+                iterator.remove();
+                if (!entry.getValue().isEmpty()) {
+                    // served tenant goes to the end of the turn
+                    queues.put(tenantId, entry.getValue());
+                }
+                queued--;
+                running++;
+                runningPerTenant.merge(tenantId, 1, Integer::sum);
+                executor.execute(() -> run(tenantId, process));
+                dispatched = true;
+                break;
+            }
+        }
+    }
+
+    private void run(Integer tenantId, Runnable process) {
+        try {
+            process.run();
+        } catch (final RuntimeException e) {
+            LOGGER.error("Process failed on tenant " + tenantId, e);
+        } finally {
+            done(tenantId);
+        }
+    }
+
+    private synchronized void done(Integer tenantId) {
+        running--;
+        runningPerTenant.merge(tenantId, -1, Integer::sum);
+        dispatch();
+    }
+
+}
@@ -29,8 +29,11 @@ package fr.gouv.vitam.processing.management.rest;
 import java.util.concurrent.atomic.AtomicLong;
 
 import javax.ws.rs.Consumes;
+import javax.ws.rs.GET;
+import javax.ws.rs.HeaderParam;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
@@ -38,6 +41,7 @@ import javax.ws.rs.core.Response.Status;
 
 import com.codahale.metrics.Gauge;
 
+import fr.gouv.vitam.common.GlobalDataRest;
 import fr.gouv.vitam.common.error.VitamError;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
@@ -53,6 +57,7 @@ import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.processing.management.api.ProcessManagement;
 import fr.gouv.vitam.processing.management.core.ProcessManagementImpl;
+import fr.gouv.vitam.processing.management.core.ProcessScheduler;
 
 /**
  * This class is resource provider of ProcessManagement
@@ -64,6 +69,7 @@ public class ProcessManagementResource extends ApplicationStatusResource {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ProcessManagementResource.class);
     private final ServerConfiguration config;
     private final ProcessManagement processManagementMock;
+    private final ProcessScheduler processScheduler;
     private final AtomicLong runningWorkflows = new AtomicLong(0L);
 
     /**
@@ -74,14 +80,24 @@ public class ProcessManagementResource extends ApplicationStatusResource {
     public ProcessManagementResource(ServerConfiguration configuration) {
         processManagementMock = null;
         config = configuration;
+        processScheduler = new ProcessScheduler(configuration.getMaxRunningWorkflows(),
+            configuration.getMaxRunningWorkflowsPerTenant(), configuration.getMaxQueuedWorkflows());
         LOGGER.info("init Process Management Resource server");
         AbstractVitamApplication.getBusinessMetricsRegistry().register("Running workflows",
             new Gauge<Long>() {
                 @Override
                 public Long getValue() {
-                    return runningWorkflows.get();
+                    return runningWorkflows.get() + processScheduler.getRunning();
                 }
             });
+        AbstractVitamApplication.getBusinessMetricsRegistry().register("Queued workflows",
+            new Gauge<Integer>() {
+                @Override
+                public Integer getValue() {
+                    return processScheduler.getQueued();
+                }
+            });
+        new ProcessManagementImpl(config, processScheduler).resumePendingWorkflows();
     }
 
     /**
@@ -93,6 +109,7 @@ public class ProcessManagementResource extends ApplicationStatusResource {
     ProcessManagementResource(ProcessManagement pManagement, ServerConfiguration configuration) {
         processManagementMock = pManagement;
         config = configuration;
+        processScheduler = null;
     }
 
     /**
@@ -149,6 +166,82 @@ public class ProcessManagementResource extends ApplicationStatusResource {
         return Response.status(status).entity(resp).build();
     }
 
+    /**
+     * Queue the process to be executed asynchronously: the response is returned as soon as the process is queued,
+     * with the id of the process to be used to get its status.
+     *
+     * @param tenantId the tenant of the process (0 if not given)
+     * @param process as Json of type ProcessingEntry, indicate the container and workflowId
+     * @return http response, ACCEPTED with the id of the process
+     */
+    @Path("operations/async")
+    @POST
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response executeVitamProcessAsync(@HeaderParam(GlobalDataRest.X_TENANT_ID) Integer tenantId,
+        ProcessingEntry process) {
+        Status status;
+        final WorkerParameters workParam = WorkerParametersFactory.newWorkerParameters().setContainerName(process
+            .getContainer()).setUrlMetadata(config.getUrlMetadata()).setUrlWorkspace(config.getUrlWorkspace());
+        ProcessManagement processManagement = processManagementMock;
+        try {
+            if (processManagement == null) {
+                processManagement = new ProcessManagementImpl(config, processScheduler); // NOSONAR mock management
+            }
+            final String processId = processManagement.submitWorkflowAsync(workParam, process.getWorkflow(),
+                tenantId == null ? 0 : tenantId);
+            final ItemStatus resp = new ItemStatus(processId).setMessage(ProcessManagement.PROCESS_PENDING);
+            return Response.status(Status.ACCEPTED).entity(resp).build();
+        } catch (WorkflowNotFoundException | HandlerNotFoundException e) {
+            // if workflow or handler not found
+            LOGGER.error(e);
+            status = Status.NOT_FOUND;
+        } catch (final IllegalArgumentException e) {
+            // if the entry argument if illegal
+            LOGGER.error(e);
+            status = Status.PRECONDITION_FAILED;
+        } catch (final ProcessingException e) {
+            // too many processes queued
+            LOGGER.error(e);
+            status = Status.SERVICE_UNAVAILABLE;
+        } finally {
+            if (processManagementMock == null && processManagement != null) {
+                processManagement.close();
+            }
+        }
+        return Response.status(status).entity(getErrorEntity(status)).build();
+    }
+
+    /**
+     * Get the status of a process
+     *
+     * @param processId the id of the process
+     * @return http response, OK if the process is finished, ACCEPTED if it is queued or running
+     */
+    @Path("operations/{processId}")
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getProcessStatus(@PathParam("processId") String processId) {
+        ProcessManagement processManagement = processManagementMock;
+        try {
+            if (processManagement == null) {
+                processManagement = new ProcessManagementImpl(config, processScheduler); // NOSONAR mock management
+            }
+            final ItemStatus resp = processManagement.getProcessStatus(processId);
+            final Status status =
+                ProcessManagement.PROCESS_PENDING.equals(resp.getMessage()) ? Status.ACCEPTED : Status.OK;
+            return Response.status(status).entity(resp).build();
+        } catch (final IllegalArgumentException | ProcessingException e) {
+            LOGGER.error(e);
+            final Status status = Status.NOT_FOUND;
+            return Response.status(status).entity(getErrorEntity(status)).build();
+        } finally {
+            if (processManagementMock == null && processManagement != null) {
+                processManagement.close();
+            }
+        }
+    }
+
     private Status getStatusFrom(ItemStatus response) {
         switch (response.getGlobalStatus()) {
             case KO:
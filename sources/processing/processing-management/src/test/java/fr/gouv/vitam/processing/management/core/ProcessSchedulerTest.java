@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.management.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class ProcessSchedulerTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenZeroRunningThenThrowsIllegalArgumentException() {
+        new ProcessScheduler(0, 1, 1);
+    }
+
+    @Test
+    public void givenLimitsThenProcessesAreQueued() throws Exception {
+        final ProcessScheduler scheduler = new ProcessScheduler(2, 1, 10);
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(4);
+        final AtomicInteger tenant1Running = new AtomicInteger();
+        final AtomicInteger maxTenant1Running = new AtomicInteger();
+        final Runnable tenant1Process = () -> {
+            maxTenant1Running.accumulateAndGet(tenant1Running.incrementAndGet(), Math::max);
+            await(release);
+            tenant1Running.decrementAndGet();
+            done.countDown();
+        };
+        final Runnable tenant2Process = () -> {
+            await(release);
+            done.countDown();
+        };
+        scheduler.submit(1, tenant1Process);
+        scheduler.submit(1, tenant1Process);
+        scheduler.submit(1, tenant1Process);
+        scheduler.submit(2, tenant2Process);
+        // one process of each tenant is running, the two others of tenant 1 are waiting
+        assertEquals(2, scheduler.getRunning());
+        assertEquals(2, scheduler.getQueued());
+        release.countDown();
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(1, maxTenant1Running.get());
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void givenFullQueueThenThrowsRejectedExecutionException() {
+        final ProcessScheduler scheduler = new ProcessScheduler(1, 1, 1);
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            scheduler.submit(0, () -> await(release));
+            scheduler.submit(0, () -> await(release));
+            scheduler.submit(0, () -> await(release));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
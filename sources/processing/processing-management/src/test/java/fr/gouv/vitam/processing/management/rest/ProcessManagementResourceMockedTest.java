@@ -28,6 +28,8 @@
 package fr.gouv.vitam.processing.management.rest;
 
 import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Matchers.anyInt;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.reset;
@@ -225,4 +227,39 @@ public class ProcessManagementResourceMockedTest {
                 .getStatusCode());
     }
 
+    @Test
+    public void executeVitamProcessAsyncAccepted() throws Exception {
+        reset(mock);
+        when(mock.submitWorkflowAsync(anyObject(), anyString(), anyInt())).thenReturn("processId");
+        given().contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+            .body(new ProcessingEntry("fake", "fake")).when().post("operations/async").then()
+            .statusCode(Response.Status.ACCEPTED.getStatusCode()).body("itemId", equalTo("processId"));
+    }
+
+    @Test
+    public void executeVitamProcessAsyncServiceUnavailable() throws Exception {
+        reset(mock);
+        when(mock.submitWorkflowAsync(anyObject(), anyString(), anyInt())).thenThrow(new ProcessingException(""));
+        given().contentType(MediaType.APPLICATION_JSON).accept(MediaType.APPLICATION_JSON)
+            .body(new ProcessingEntry("fake", "fake")).when().post("operations/async").then()
+            .statusCode(Response.Status.SERVICE_UNAVAILABLE.getStatusCode());
+    }
+
+    @Test
+    public void getProcessStatus() throws Exception {
+        reset(mock);
+        when(mock.getProcessStatus("processId"))
+            .thenReturn(new ItemStatus("processId").setMessage(ProcessManagement.PROCESS_PENDING));
+        given().accept(MediaType.APPLICATION_JSON).when().get("operations/processId").then()
+            .statusCode(Response.Status.ACCEPTED.getStatusCode());
+
+        when(mock.getProcessStatus("processId"))
+            .thenReturn(new ItemStatus("processId").setMessage(ProcessManagement.PROCESS_FINISHED));
+        given().accept(MediaType.APPLICATION_JSON).when().get("operations/processId").then()
+            .statusCode(Response.Status.OK.getStatusCode());
+
+        when(mock.getProcessStatus("unknown")).thenThrow(new ProcessingException(""));
+        given().accept(MediaType.APPLICATION_JSON).when().get("operations/unknown").then()
+            .statusCode(Response.Status.NOT_FOUND.getStatusCode());
+    }
 }
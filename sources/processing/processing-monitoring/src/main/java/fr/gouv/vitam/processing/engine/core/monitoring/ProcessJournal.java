@@ -0,0 +1,209 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.processing.engine.core.monitoring;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.processing.common.model.WorkFlow;
+
+/**
+ * Append-only journal of the processes, one file per process.<br>
+ * <br>
+ * The first record of a journal describes the process (workflow and container), the following ones the changes of
+ * the steps and the message identifier of the process once known. A journal is removed when its process is finished,
+ * so that the remaining journals are the processes to resume after a restart.
+ */
+final class ProcessJournal {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ProcessJournal.class);
+
+    static final String JOURNAL_EXTENSION = ".journal";
+    static final String TYPE = "type";
+    static final String TYPE_INIT = "INIT";
+    static final String TYPE_STEP = "STEP";
+    static final String TYPE_MESSAGE_IDENTIFIER = "MESSAGE_IDENTIFIER";
+    static final String PROCESS_ID = "processId";
+    static final String CONTAINER_NAME = "containerName";
+    static final String WORKFLOW = "workflow";
+    static final String UNIQUE_ID = "uniqueId";
+    static final String STATUS = "status";
+    static final String ELEMENT_TO_PROCESS = "elementToProcess";
+    static final String ELEMENT_PROCESSED = "elementProcessed";
+    static final String MESSAGE_IDENTIFIER = "messageIdentifier";
+
+    private final File directory;
+
+    /**
+     * Constructor
+     *
+     * @param directory the directory of the journals, created if needed
+     * @throws IllegalArgumentException if the directory cannot be used
+     */
+    ProcessJournal(File directory) {
+        ParametersChecker.checkParameter("Journal directory is a mandatory parameter", directory);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Journal directory cannot be created: " + directory);
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Record the start of a process
+     *
+     * @param processId the process id
+     * @param workflow the workflow of the process
+     * @param containerName the container processed
+     * @throws IOException if the journal cannot be written
+     */
+    void init(String processId, WorkFlow workflow, String containerName) throws IOException {
+        final ObjectNode record = JsonHandler.createObjectNode();
+        record.put(TYPE, TYPE_INIT);
+        record.put(PROCESS_ID, processId);
+        record.put(CONTAINER_NAME, containerName);
+        record.set(WORKFLOW, toJsonNode(workflow));
+        final File file = getFile(processId);
+        Files.write(file.toPath(), toLine(record), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE, StandardOpenOption.DSYNC);
+    }
+
+    /**
+     * Record the new state of a step
+     *
+     * @param processId the process id
+     * @param uniqueId the unique id of the step
+     * @param status the status of the step
+     * @param elementToProcess the number of elements to process
+     * @param elementProcessed the number of elements processed
+     * @throws IOException if the journal cannot be written
+     */
+    void step(String processId, String uniqueId, StatusCode status, long elementToProcess, long elementProcessed)
+        throws IOException {
+        final ObjectNode record = JsonHandler.createObjectNode();
+        record.put(TYPE, TYPE_STEP);
+        record.put(UNIQUE_ID, uniqueId);
+        record.put(STATUS, status.name());
+        record.put(ELEMENT_TO_PROCESS, elementToProcess);
+        record.put(ELEMENT_PROCESSED, elementProcessed);
+        Files.write(getFile(processId).toPath(), toLine(record), StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+            StandardOpenOption.DSYNC);
+    }
+
+    /**
+     * Record the message identifier of a process
+     *
+     * @param processId the process id
+     * @param messageIdentifier the message identifier of the process
+     * @throws IOException if the journal cannot be written
+     */
+    void messageIdentifier(String processId, String messageIdentifier) throws IOException {
+        final ObjectNode record = JsonHandler.createObjectNode();
+        record.put(TYPE, TYPE_MESSAGE_IDENTIFIER);
+        record.put(MESSAGE_IDENTIFIER, messageIdentifier);
+        Files.write(getFile(processId).toPath(), toLine(record), StandardOpenOption.APPEND, StandardOpenOption.WRITE,
+            StandardOpenOption.DSYNC);
+    }
+
+    /**
+     * Remove the journal of a process
+     *
+     * @param processId the process id
+     * @throws IOException if the journal cannot be removed
+     */
+    void delete(String processId) throws IOException {
+        Files.deleteIfExists(getFile(processId).toPath());
+    }
+
+    /**
+     * @return the journal files of the processes not finished
+     */
+    List<File> list() {
+        final File[] files = directory.listFiles((dir, name) -> name.endsWith(JOURNAL_EXTENSION));
+        final List<File> list = new ArrayList<>();
+        if (files != null) {
+            for (final File file : files) {
+                list.add(file);
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Read the records of a journal, a truncated last record (crash during a write) being ignored
+     *
+     * @param file the journal file
+     * @return the records of the journal, in order
+     * @throws IOException if the journal cannot be read
+     */
+    static List<JsonNode> read(File file) throws IOException {
+        final List<JsonNode> records = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                try {
+                    records.add(JsonHandler.getFromString(line));
+                } catch (final InvalidParseOperationException e) {
+                    LOGGER.warn("Ignore invalid record in " + file, e);
+                }
+            }
+        }
+        return records;
+    }
+
+    private File getFile(String processId) {
+        return new File(directory, processId + JOURNAL_EXTENSION);
+    }
+
+    private static JsonNode toJsonNode(Object object) throws IOException {
+        try {
+            return JsonHandler.toJsonNode(object);
+        } catch (final InvalidParseOperationException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static byte[] toLine(JsonNode record) {
+        return (JsonHandler.unprettyPrint(record) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -26,6 +26,7 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.engine.core.monitoring;
 
+import java.util.List;
 import java.util.Map;
 
 import fr.gouv.vitam.common.model.StatusCode;
@@ -36,7 +37,6 @@ import fr.gouv.vitam.processing.common.model.WorkFlow;
 /**
  * Process Monitoring Interface offers services in order to monitor workflows
  */
-// FIXME P1 : propose a method that could purge the workflows
 public interface ProcessMonitoring {
 
     /**
@@ -91,4 +91,28 @@ public interface ProcessMonitoring {
      */
     StatusCode getFinalWorkflowStatus(String processId) throws ProcessingException;
 
+    /**
+     * Mark a process as finished: it is no longer pending and may be evicted from the monitoring
+     *
+     * @param processId the id of the process
+     * @throws ProcessingException if the process does not exist or is already finished
+     */
+    void finishWorkflow(String processId) throws ProcessingException;
+
+    /**
+     * Set the message identifier of a pending process, so that it is still known when the process is resumed. Nothing
+     * is done for a process that is not pending.
+     *
+     * @param processId the id of the process
+     * @param messageIdentifier the message identifier of the process
+     */
+    void setMessageIdentifier(String processId, String messageIdentifier);
+
+    /**
+     * Get the processes initialized and not yet finished, including those reloaded after a restart
+     *
+     * @return the pending processes
+     */
+    List<PendingProcess> getPendingProcesses();
+
 }
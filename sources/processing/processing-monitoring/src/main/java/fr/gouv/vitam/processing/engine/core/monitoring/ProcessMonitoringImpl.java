@@ -26,10 +26,22 @@
  *******************************************************************************/
 package fr.gouv.vitam.processing.engine.core.monitoring;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.model.ProcessStep;
@@ -37,17 +49,39 @@ import fr.gouv.vitam.processing.common.model.Step;
 import fr.gouv.vitam.processing.common.model.WorkFlow;
 
 /**
- * ProcessMonitoringImpl class implementing the ProcessMonitoring and using a concurrent HashMap to persist objects
+ * ProcessMonitoringImpl class implementing the ProcessMonitoring and using a concurrent HashMap to persist objects<br>
+ * <br>
+ * When a journal directory is set, the processes are also recorded in an append-only journal so that the processes
+ * not finished can be reloaded after a restart. Finished processes are evicted from memory, only the last
+ * {@link #MAX_FINISHED_WORKFLOWS} ones being kept for the status requests.
  */
 public class ProcessMonitoringImpl implements ProcessMonitoring {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ProcessMonitoringImpl.class);
+
+    /**
+     * Number of finished processes kept in memory
+     */
+    public static final int MAX_FINISHED_WORKFLOWS = 100;
 
     private static final Map<String, Map<String, ProcessStep>> WORKFLOWS_LIST = new ConcurrentHashMap<>();
+    private static final Map<String, PendingProcess> PENDING_PROCESSES = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, ProcessStep>> FINISHED_WORKFLOWS_LIST =
+        Collections.synchronizedMap(new LinkedHashMap<String, Map<String, ProcessStep>>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Map<String, ProcessStep>> eldest) {
+                return size() > MAX_FINISHED_WORKFLOWS;
+            }
+        });
 
     private static final ProcessMonitoringImpl INSTANCE = new ProcessMonitoringImpl();
 
     private static final String PROCESS_DOES_NOT_EXIST = "Process does not exist";
     private static final String STEP_DOES_NOT_EXIST = "Step does not exist";
 
+    private volatile ProcessJournal journal;
+
     private ProcessMonitoringImpl() {
         // doNothing
     }
@@ -63,9 +97,85 @@ public class ProcessMonitoringImpl implements ProcessMonitoring {
         return INSTANCE;
     }
 
+    /**
+     * Set the directory of the journal of the processes and reload the processes not finished from it
+     *
+     * @param directory the directory of the journal, null to disable the journal
+     * @return the processes reloaded from the journal
+     * @throws IllegalArgumentException if the directory cannot be used
+     */
+    public List<PendingProcess> setJournalDirectory(File directory) {
+        if (directory == null) {
+            journal = null;
+            return Collections.emptyList();
+        }
+        final ProcessJournal newJournal = new ProcessJournal(directory);
+        final List<PendingProcess> reloaded = new ArrayList<>();
+        for (final File file : newJournal.list()) {
+            try {
+                final PendingProcess pendingProcess = reload(file);
+                if (pendingProcess != null) {
+                    reloaded.add(pendingProcess);
+                }
+            } catch (final IOException | InvalidParseOperationException | IllegalArgumentException e) {
+                LOGGER.error("Cannot reload the process journal " + file, e);
+            }
+        }
+        journal = newJournal;
+        return reloaded;
+    }
+
+    private PendingProcess reload(File file) throws IOException, InvalidParseOperationException {
+        final List<JsonNode> records = ProcessJournal.read(file);
+        if (records.isEmpty() || !ProcessJournal.TYPE_INIT.equals(records.get(0).path(ProcessJournal.TYPE).asText())) {
+            LOGGER.warn("Process journal without description ignored: " + file);
+            return null;
+        }
+        final JsonNode init = records.get(0);
+        final String processId = init.path(ProcessJournal.PROCESS_ID).asText();
+        final String containerName = init.path(ProcessJournal.CONTAINER_NAME).asText();
+        final WorkFlow workflow = JsonHandler.getFromJsonNode(init.get(ProcessJournal.WORKFLOW), WorkFlow.class);
+        final Map<String, ProcessStep> orderedSteps = createOrderedWorkflow(workflow, containerName);
+        final PendingProcess pendingProcess = new PendingProcess(processId, workflow.getId(), containerName);
+        for (final JsonNode record : records.subList(1, records.size())) {
+            if (ProcessJournal.TYPE_MESSAGE_IDENTIFIER.equals(record.path(ProcessJournal.TYPE).asText())) {
+                pendingProcess.setMessageIdentifier(record.path(ProcessJournal.MESSAGE_IDENTIFIER).asText());
+                continue;
+            }
+            final ProcessStep step = orderedSteps.get(record.path(ProcessJournal.UNIQUE_ID).asText());
+            if (step != null) {
+                step.setStepStatusCode(StatusCode.valueOf(record.path(ProcessJournal.STATUS).asText()));
+                step.setElementToProcess(record.path(ProcessJournal.ELEMENT_TO_PROCESS).asLong());
+                step.setElementProcessed(record.path(ProcessJournal.ELEMENT_PROCESSED).asLong());
+            }
+        }
+        WORKFLOWS_LIST.put(processId, orderedSteps);
+        PENDING_PROCESSES.put(processId, pendingProcess);
+        LOGGER.info("Process reloaded from journal: " + processId);
+        return pendingProcess;
+    }
+
     @Override
     public Map<String, ProcessStep> initOrderedWorkflow(String processId, WorkFlow workflow, String containerName)
         throws IllegalArgumentException {
+        final Map<String, ProcessStep> orderedWorkflow = createOrderedWorkflow(workflow, containerName);
+        WORKFLOWS_LIST.put(processId, orderedWorkflow);
+        // a workflow without id cannot be resumed
+        if (workflow.getId() != null && !workflow.getId().isEmpty()) {
+            PENDING_PROCESSES.put(processId, new PendingProcess(processId, workflow.getId(), containerName));
+            final ProcessJournal currentJournal = journal;
+            if (currentJournal != null) {
+                try {
+                    currentJournal.init(processId, workflow, containerName);
+                } catch (final IOException e) {
+                    LOGGER.error("Process " + processId + " cannot be journaled, it will not be resumable", e);
+                }
+            }
+        }
+        return orderedWorkflow;
+    }
+
+    private static Map<String, ProcessStep> createOrderedWorkflow(WorkFlow workflow, String containerName) {
         final Map<String, ProcessStep> orderedWorkflow = new LinkedHashMap<>();
         String uniqueId;
         int iterator = 0;
@@ -75,78 +185,120 @@ public class ProcessMonitoringImpl implements ProcessMonitoring {
             orderedWorkflow.put(uniqueId, processStep);
             iterator++;
         }
-        WORKFLOWS_LIST.put(processId, orderedWorkflow);
         return orderedWorkflow;
     }
 
     @Override
     public void updateStep(String processId, String uniqueId, long elementToProcess, boolean elementProcessed)
         throws ProcessingException {
-        if (WORKFLOWS_LIST.containsKey(processId)) {
-            final Map<String, ProcessStep> orderedSteps = WORKFLOWS_LIST.get(processId);
-            if (orderedSteps.containsKey(uniqueId)) {
-                final ProcessStep step = orderedSteps.get(uniqueId);
-                if (elementProcessed) {
-                    step.setElementProcessed(step.getElementProcessed() + 1);
-                } else {
-                    step.setElementToProcess(elementToProcess);
-                }
-                orderedSteps.put(uniqueId, step);
-                WORKFLOWS_LIST.put(processId, orderedSteps);
+        final ProcessStep step = getStep(processId, uniqueId);
+        // items of one step may be processed concurrently
+        synchronized (step) {
+            if (elementProcessed) {
+                step.setElementProcessed(step.getElementProcessed() + 1);
             } else {
-                throw new ProcessingException(STEP_DOES_NOT_EXIST);
+                step.setElementToProcess(elementToProcess);
             }
-
-        } else {
-            throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
         }
     }
 
     @Override
     public Map<String, ProcessStep> getWorkflowStatus(String processId) throws ProcessingException {
-        if (WORKFLOWS_LIST.containsKey(processId)) {
-            return WORKFLOWS_LIST.get(processId);
-        } else {
-            throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
-        }
+        return getOrderedSteps(processId);
     }
 
 
     @Override
     public StatusCode getFinalWorkflowStatus(String processId) throws ProcessingException {
-        if (WORKFLOWS_LIST.containsKey(processId)) {
-            StatusCode finalCode = StatusCode.UNKNOWN;
-            final Map<String, ProcessStep> orderedSteps = WORKFLOWS_LIST.get(processId);
-            for (final ProcessStep step : orderedSteps.values()) {
-                if (step != null) {
-                    final StatusCode stepStatus = step.getStepStatusCode();
-                    if (stepStatus != null) {
-                        finalCode = finalCode.compareTo(stepStatus) < 0 ? stepStatus : finalCode;
-                    }
+        StatusCode finalCode = StatusCode.UNKNOWN;
+        final Map<String, ProcessStep> orderedSteps = getOrderedSteps(processId);
+        for (final ProcessStep step : orderedSteps.values()) {
+            if (step != null) {
+                final StatusCode stepStatus = step.getStepStatusCode();
+                if (stepStatus != null) {
+                    finalCode = finalCode.compareTo(stepStatus) < 0 ? stepStatus : finalCode;
                 }
             }
-            return finalCode;
-        } else {
-            throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
         }
+        return finalCode;
     }
 
 
     @Override
     public void updateStepStatus(String processId, String uniqueId, StatusCode status) throws ProcessingException {
-        if (WORKFLOWS_LIST.containsKey(processId)) {
-            final Map<String, ProcessStep> orderedSteps = WORKFLOWS_LIST.get(processId);
-            if (orderedSteps.containsKey(uniqueId)) {
-                final ProcessStep step = orderedSteps.get(uniqueId);
-                step.setStepStatusCode(status);
-                orderedSteps.put(uniqueId, step);
-                WORKFLOWS_LIST.put(processId, orderedSteps);
-            } else {
-                throw new ProcessingException(STEP_DOES_NOT_EXIST);
+        final ProcessStep step = getStep(processId, uniqueId);
+        step.setStepStatusCode(status);
+        final ProcessJournal currentJournal = journal;
+        if (currentJournal != null && PENDING_PROCESSES.containsKey(processId)) {
+            try {
+                currentJournal.step(processId, uniqueId, status, step.getElementToProcess(),
+                    step.getElementProcessed());
+            } catch (final IOException e) {
+                LOGGER.error("Step " + uniqueId + " cannot be journaled", e);
             }
-        } else {
+        }
+    }
+
+    @Override
+    public void finishWorkflow(String processId) throws ProcessingException {
+        final Map<String, ProcessStep> orderedSteps = WORKFLOWS_LIST.remove(processId);
+        if (orderedSteps == null) {
             throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
         }
+        FINISHED_WORKFLOWS_LIST.put(processId, orderedSteps);
+        PENDING_PROCESSES.remove(processId);
+        final ProcessJournal currentJournal = journal;
+        if (currentJournal != null) {
+            try {
+                currentJournal.delete(processId);
+            } catch (final IOException e) {
+                LOGGER.error("Journal of process " + processId + " cannot be removed", e);
+            }
+        }
+    }
+
+    @Override
+    public void setMessageIdentifier(String processId, String messageIdentifier) {
+        ParametersChecker.checkParameter("processId and messageIdentifier are mandatory parameters", processId,
+            messageIdentifier);
+        final PendingProcess pendingProcess = PENDING_PROCESSES.get(processId);
+        if (pendingProcess == null) {
+            return;
+        }
+        pendingProcess.setMessageIdentifier(messageIdentifier);
+        final ProcessJournal currentJournal = journal;
+        if (currentJournal != null) {
+            try {
+                currentJournal.messageIdentifier(processId, messageIdentifier);
+            } catch (final IOException e) {
+                LOGGER.error("Message identifier of process " + processId + " cannot be journaled", e);
+            }
+        }
+    }
+
+    @Override
+    public List<PendingProcess> getPendingProcesses() {
+        return new ArrayList<>(PENDING_PROCESSES.values());
+    }
+
+    private Map<String, ProcessStep> getOrderedSteps(String processId) throws ProcessingException {
+        ParametersChecker.checkParameter("processId is a mandatory parameter", processId);
+        Map<String, ProcessStep> orderedSteps = WORKFLOWS_LIST.get(processId);
+        if (orderedSteps == null) {
+            orderedSteps = FINISHED_WORKFLOWS_LIST.get(processId);
+            if (orderedSteps == null) {
+                throw new ProcessingException(PROCESS_DOES_NOT_EXIST);
+            }
+        }
+        return orderedSteps;
+    }
+
+    private ProcessStep getStep(String processId, String uniqueId) throws ProcessingException {
+        final ProcessStep step = getOrderedSteps(processId).get(uniqueId);
+        if (step == null) {
+            throw new ProcessingException(STEP_DOES_NOT_EXIST);
+        }
+        return step;
     }
 
 }
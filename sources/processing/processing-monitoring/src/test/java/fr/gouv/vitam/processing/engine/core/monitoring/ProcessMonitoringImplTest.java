@@ -27,14 +27,18 @@
 package fr.gouv.vitam.processing.engine.core.monitoring;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
@@ -44,6 +48,9 @@ import fr.gouv.vitam.processing.common.model.WorkFlow;
 
 public class ProcessMonitoringImplTest {
 
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
     @Test
     public void processMonitoringGetInstanceOK() {
         final ProcessMonitoringImpl processMonitoring = ProcessMonitoringImpl.getInstance();
@@ -138,6 +145,47 @@ public class ProcessMonitoringImplTest {
         assertEquals(StatusCode.OK, pStep.getStepStatusCode());
     }
 
+    @Test
+    public void processMonitoringJournalReloadThenFinishOK() throws Exception {
+        final ProcessMonitoringImpl processMonitoring = ProcessMonitoringImpl.getInstance();
+        final File journalDirectory = tempFolder.newFolder();
+        try {
+            assertTrue(processMonitoring.setJournalDirectory(journalDirectory).isEmpty());
+            processMonitoring.initOrderedWorkflow("JOURNALED_PROCESS_ID", initSimpleWorkflow(), "containerName");
+            processMonitoring.updateStep("JOURNALED_PROCESS_ID", "containerName_wf1_0_step1", 10, false);
+            processMonitoring.updateStepStatus("JOURNALED_PROCESS_ID", "containerName_wf1_0_step1", StatusCode.OK);
+            processMonitoring.setMessageIdentifier("JOURNALED_PROCESS_ID", "messageIdentifier");
+            assertEquals(1, journalDirectory.listFiles().length);
+
+            // simulate a restart: the process is reloaded from the journal
+            final List<PendingProcess> pendingProcesses = processMonitoring.setJournalDirectory(journalDirectory);
+            assertEquals(1, pendingProcesses.size());
+            assertEquals("JOURNALED_PROCESS_ID", pendingProcesses.get(0).getProcessId());
+            assertEquals("wf1", pendingProcesses.get(0).getWorkflowId());
+            assertEquals("containerName", pendingProcesses.get(0).getContainerName());
+            assertEquals("messageIdentifier", pendingProcesses.get(0).getMessageIdentifier());
+            final ProcessStep pStep =
+                processMonitoring.getWorkflowStatus("JOURNALED_PROCESS_ID").get("containerName_wf1_0_step1");
+            assertEquals(StatusCode.OK, pStep.getStepStatusCode());
+            assertEquals(10, pStep.getElementToProcess());
+
+            processMonitoring.finishWorkflow("JOURNALED_PROCESS_ID");
+            assertEquals(0, journalDirectory.listFiles().length);
+            for (final PendingProcess pendingProcess : processMonitoring.getPendingProcesses()) {
+                assertFalse("JOURNALED_PROCESS_ID".equals(pendingProcess.getProcessId()));
+            }
+            // finished process is still available for status requests
+            assertEquals(StatusCode.OK, processMonitoring.getFinalWorkflowStatus("JOURNALED_PROCESS_ID"));
+        } finally {
+            processMonitoring.setJournalDirectory(null);
+        }
+    }
+
+    @Test(expected = ProcessingException.class)
+    public void processMonitoringFinishUnknownProcessThrowsException() throws Exception {
+        ProcessMonitoringImpl.getInstance().finishWorkflow("UNKNOWN_PROCESS_ID");
+    }
+
     private WorkFlow initSimpleWorkflow() {
         final WorkFlow simpleWorkflow = new WorkFlow();
         simpleWorkflow.setId("wf1");
@@ -27,14 +27,22 @@
 
 package fr.gouv.vitam.storage.engine.server.distribution.impl;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
@@ -59,7 +67,10 @@ import fr.gouv.vitam.common.guid.GUID;
 import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.VitamAutoCloseable;
 import fr.gouv.vitam.common.server.application.AsyncInputStreamHelper;
+import fr.gouv.vitam.common.stream.MultipleInputStreamHandler;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.storage.driver.Connection;
 import fr.gouv.vitam.storage.driver.Driver;
 import fr.gouv.vitam.storage.driver.exception.StorageDriverException;
@@ -110,6 +121,7 @@ public class StorageDistributionImpl implements StorageDistribution {
     private static final StorageOfferProvider OFFER_PROVIDER = StorageOfferProviderFactory.getDefaultProvider();
     private static final String NOT_IMPLEMENTED_MSG = "Not yet implemented";
     private static final int NB_RETRY = 3;
+    private static final String SPOOL_PREFIX = "storage_";
     private final String urlWorkspace;
     // TODO P2 see API
     // TODO P2 : later, the digest type may be retrieve via REST parameters. Fot the moment (as of US 72 dev) there is
@@ -151,7 +163,6 @@ public class StorageDistributionImpl implements StorageDistribution {
 
     // TODO P1 : review design : for the moment we handle createObjectDescription AND jsonData in the same params but
     // they should not be both resent at the same time. Maybe encapsulate or create 2 methods
-    // TODO P1 : refactor me !
     @Override
     public StoredInfoResult storeData(String tenantId, String strategyId, String objectId,
         CreateObjectDescription createObjectDescription, DataCategory category, String requester)
@@ -166,22 +177,19 @@ public class StorageDistributionImpl implements StorageDistribution {
             if (offerReferences.isEmpty()) {
                 throw new StorageNotFoundException(VitamCodeHelper.getLogMessage(VitamCode.STORAGE_OFFER_NOT_FOUND));
             }
-            final Map<String, Status> offerResults = new HashMap<>();
+            final List<OfferStoreResult> results =
+                storeDataInOffers(createObjectDescription, tenantId, objectId, category, offerReferences);
 
+            final Map<String, Status> offerResults = new LinkedHashMap<>();
             StorageLogbookParameters parameters = null;
-            // For each offer, store object on it
-            for (final OfferReference offerReference : offerReferences) {
-                // TODO P1 : sequential process for now (we have only 1 offer anyway) but storing object should be
-                // processed in parallel for each driver, in order to not be blocked on 1 driver storage process
-                // TODO P1 special notice: when parallel, try to get only once the inputstream and then multiplexing it
-                // to
-                // multiple intputstreams as needed
-                // 1 IS => 3 IS (if 3 offers) where this special class handles one IS as input to 3 IS as output
-                final Map<String, Object> result =
-                    tryAndRetryStoreObjectInOffer(createObjectDescription, tenantId, objectId, category,
-                        offerReference, parameters, requester);
-                parameters = (StorageLogbookParameters) result.get("Parameters");
-                offerResults.put(offerReference.getId(), (Status) result.get("Status"));
+            for (final OfferStoreResult result : results) {
+                if (parameters == null) {
+                    parameters = getParameters(result.putObjectRequest, result.putObjectResult, result.messageDigest,
+                        result.offerId, result.status, requester);
+                } else {
+                    updateStorageLogbookParameters(parameters, result.offerId, result.status);
+                }
+                offerResults.put(result.offerId, result.status);
             }
 
             try {
@@ -197,6 +205,76 @@ public class StorageDistributionImpl implements StorageDistribution {
         throw new StorageNotFoundException(VitamCodeHelper.getLogMessage(VitamCode.STORAGE_STRATEGY_NOT_FOUND));
     }
 
+    /**
+     * Store the object in all the offers concurrently.<br>
+     * <br>
+     * The object is read once from the workspace and this stream is shared by all the offers. Only when an offer must
+     * retry, the object is copied once in a local temporary file from which all the retries read it again.
+     *
+     * @return the result of each offer, in the order of the offers
+     */
+    private List<OfferStoreResult> storeDataInOffers(CreateObjectDescription createObjectDescription,
+        String tenantId, String objectId, DataCategory category, List<OfferReference> offerReferences)
+        throws StorageTechnicalException, StorageObjectAlreadyExistsException {
+        final int nbOffers = offerReferences.size();
+        final List<OfferStoreResult> results = new ArrayList<>(nbOffers);
+        try (WorkspaceClient workspaceClient = getWorkspaceClient();
+            WorkspaceObjectSpool spool = new WorkspaceObjectSpool(createObjectDescription)) {
+            MultipleInputStreamHandler sharedStream = null;
+            try {
+                sharedStream = new MultipleInputStreamHandler(
+                    retrieveDataFromWorkspace(createObjectDescription.getWorkspaceContainerGUID(),
+                        createObjectDescription.getWorkspaceObjectURI(), workspaceClient),
+                    nbOffers);
+            } catch (StorageNotFoundException | StorageTechnicalException exc) {
+                LOGGER.error(exc);
+            }
+            final List<Future<OfferStoreResult>> futures = new ArrayList<>(nbOffers);
+            try {
+                for (int rank = 0; rank < nbOffers; rank++) {
+                    final OfferReference offerReference = offerReferences.get(rank);
+                    final InputStream firstStream = sharedStream != null ? sharedStream.getInputStream(rank) : null;
+                    // All the offers must run at the same time since they read the very same shared stream
+                    futures.add(VitamThreadPoolExecutor.getDefaultExecutor()
+                        .submit(() -> tryAndRetryStoreObjectInOffer(tenantId, objectId, category, offerReference,
+                            firstStream, spool)));
+                }
+                for (final Future<OfferStoreResult> future : futures) {
+                    results.add(getOfferStoreResult(future));
+                }
+            } finally {
+                for (final Future<OfferStoreResult> future : futures) {
+                    future.cancel(true);
+                }
+                if (sharedStream != null) {
+                    sharedStream.close();
+                }
+            }
+        }
+        return results;
+    }
+
+    private OfferStoreResult getOfferStoreResult(Future<OfferStoreResult> future)
+        throws StorageTechnicalException, StorageObjectAlreadyExistsException {
+        try {
+            return future.get();
+        } catch (final InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new StorageTechnicalException(exc);
+        } catch (final ExecutionException exc) {
+            if (exc.getCause() instanceof StorageObjectAlreadyExistsException) {
+                throw (StorageObjectAlreadyExistsException) exc.getCause();
+            } else if (exc.getCause() instanceof StorageTechnicalException) {
+                throw (StorageTechnicalException) exc.getCause();
+            }
+            throw new StorageTechnicalException(exc.getCause());
+        }
+    }
+
+    private WorkspaceClient getWorkspaceClient() {
+        return mockedWorkspaceClient == null ? WorkspaceClientFactory.getInstance().getClient() : mockedWorkspaceClient;
+    }
+
     private StoredInfoResult buildStoreDataResponse(String objectId, DataCategory category,
         Map<String, Status> offerResults) throws StorageTechnicalException {
 
@@ -251,36 +329,45 @@ public class StorageDistributionImpl implements StorageDistribution {
 
     // TODO P1 : globalize try and retry mechanism to avoid implementing it manually on all methods (C++ would have been
     // great here) by creating an interface of Retryable actions and different implementations for each retryable action
-    // TODO P1 : refactor me (the map return seems bad and the offer list is a quick fix, to review too) !
-    private Map<String, Object> tryAndRetryStoreObjectInOffer(CreateObjectDescription createObjectDescription,
-        String tenantId, String objectId, DataCategory category, OfferReference offerReference,
-        StorageLogbookParameters logbookParameters, String requester)
+    /**
+     * Store the object in one offer, with retries
+     *
+     * @param firstStream the shared stream used by the first attempt, null if not available
+     * @param spool the local copy of the object used by the next attempts
+     */
+    private OfferStoreResult tryAndRetryStoreObjectInOffer(String tenantId, String objectId, DataCategory category,
+        OfferReference offerReference, InputStream firstStream, WorkspaceObjectSpool spool)
         throws StorageTechnicalException, StorageObjectAlreadyExistsException {
-        // TODO P1 : optimize workspace InputStream to not request workspace for each offer but only once.
-        final Driver driver = retrieveDriverInternal(offerReference.getId());
-        // Retrieve storage offer description and parameters
-        final StorageOffer offer = OFFER_PROVIDER.getStorageOffer(offerReference.getId());
+        final Driver driver;
+        final StorageOffer offer;
+        try {
+            driver = retrieveDriverInternal(offerReference.getId());
+            // Retrieve storage offer description and parameters
+            offer = OFFER_PROVIDER.getStorageOffer(offerReference.getId());
+        } catch (StorageTechnicalException | RuntimeException exc) {
+            // Release the shared stream to not block the other offers
+            IOUtils.closeQuietly(firstStream);
+            throw exc;
+        }
         final Properties parameters = new Properties();
         parameters.putAll(offer.getParameters());
-        PutObjectRequest putObjectRequest = null;
-        PutObjectResult putObjectResult = null;
-        Status objectStored = Status.INTERNAL_SERVER_ERROR;
+        final OfferStoreResult result = new OfferStoreResult(offerReference.getId());
         boolean existInOffer = false;
-        Digest messageDigest = null;
+        InputStream nextStream = firstStream;
         int i = 0;
-        while (i < NB_RETRY && objectStored == Status.INTERNAL_SERVER_ERROR) {
+        while (i < NB_RETRY && result.status == Status.INTERNAL_SERVER_ERROR) {
             i++;
-            LOGGER.info("[Attempt " + i + "] Trying to store object '" + objectId + "' in offer " + offer.getId());
+            LOGGER.info("[Attempt " + i + "] Trying to store object '" + objectId + "' in offer " +
+                offerReference.getId());
+            InputStream dataStream = nextStream;
+            nextStream = null;
             try {
-                messageDigest = new Digest(digestType);
+                result.messageDigest = new Digest(digestType);
             } catch (final IllegalArgumentException exc) {
+                IOUtils.closeQuietly(dataStream);
                 throw new StorageTechnicalException(exc);
             }
-            try (Connection connection = driver.connect(offer.getBaseUrl(), parameters);
-                WorkspaceClient workspaceClient =
-                    mockedWorkspaceClient == null ? WorkspaceClientFactory.getInstance().getClient() : // NOSONAR is
-                                                                                                       // closed
-                        mockedWorkspaceClient) {
+            try (Connection connection = driver.connect(offer.getBaseUrl(), parameters)) {
                 final GetObjectRequest request = new GetObjectRequest(tenantId, objectId, category.getFolder());
                 if (connection.objectExistsInOffer(request)) {
                     // TODO P2: when GUID will be correct, we can use the WORM property of the GUID
@@ -300,48 +387,40 @@ public class StorageDistributionImpl implements StorageDistribution {
                     }
                 }
 
-                putObjectRequest =
-                    buildPutObjectRequest(createObjectDescription, tenantId, objectId, category, messageDigest,
-                        workspaceClient);
+                if (dataStream == null) {
+                    dataStream = spool.getInputStream();
+                }
+                result.putObjectRequest = new PutObjectRequest(tenantId, digestType.getName(), objectId,
+                    result.messageDigest.getDigestInputStream(dataStream), category.name());
                 // Perform actual object upload
-                putObjectResult = connection.putObject(putObjectRequest);
+                result.putObjectResult = connection.putObject(result.putObjectRequest);
 
                 // Check digest
-                if (BaseXx.getBase16(messageDigest.digest()).equals(putObjectResult.getDigestHashBase16())) {
+                if (BaseXx.getBase16(result.messageDigest.digest())
+                    .equals(result.putObjectResult.getDigestHashBase16())) {
                     if (existInOffer) {
-                        objectStored = Status.OK;
+                        result.status = Status.OK;
                     } else {
-                        objectStored = Status.CREATED;
+                        result.status = Status.CREATED;
                     }
                 } else {
                     throw new StorageTechnicalException("[Driver:" + driver.getName() + "] Content digest invalid in " +
-                        "offer id : '" + offer.getId() + "' for object " + objectId);
+                        "offer id : '" + offerReference.getId() + "' for object " + objectId);
                 }
             } catch (StorageDriverException | StorageNotFoundException | StorageTechnicalException exc) {
                 LOGGER.error(exc);
                 if (i >= NB_RETRY) {
-                    objectStored = Status.INTERNAL_SERVER_ERROR;
+                    result.status = Status.INTERNAL_SERVER_ERROR;
                     break;
                 }
             } finally {
-                if (putObjectRequest != null && putObjectRequest.getDataStream() != null) {
-                    IOUtils.closeQuietly(putObjectRequest.getDataStream());
+                if (dataStream != null) {
+                    IOUtils.closeQuietly(dataStream);
                     LOGGER.debug("Manually closing the data stream for object id '" + objectId + "'");
                 }
             }
         }
-
-        // TODO P1 : refactor for more than one offer
-        if (logbookParameters == null) {
-            logbookParameters = getParameters(putObjectRequest, putObjectResult, messageDigest, offer, objectStored,
-                requester);
-        } else {
-            updateStorageLogbookParameters(logbookParameters, offer, objectStored);
-        }
-        final Map<String, Object> ret = new HashMap<>();
-        ret.put("Parameters", logbookParameters);
-        ret.put("Status", objectStored);
-        return ret;
+        return result;
     }
 
     /**
@@ -350,12 +429,12 @@ public class StorageDistributionImpl implements StorageDistribution {
      * @param putObjectRequest the request
      * @param putObjectResult the response
      * @param messageDigest the computed digest
-     * @param offer the offer
+     * @param offerId the offer id in the strategy
      * @param objectStored the operation status
      * @return storage logbook parameters
      */
     private StorageLogbookParameters getParameters(PutObjectRequest putObjectRequest, PutObjectResult putObjectResult,
-        Digest messageDigest, StorageOffer offer, Status objectStored, String requester) {
+        Digest messageDigest, String offerId, Status objectStored, String requester) {
         final String objectIdentifier = putObjectRequest != null ? putObjectRequest.getGuid() : "objectRequest NA";
         final String messageDig = messageDigest != null ? messageDigest.digestHex() : "messageDigest NA";
         final String size = putObjectResult != null ? String.valueOf(putObjectResult.getObjectSize()) : "Size NA";
@@ -363,14 +442,14 @@ public class StorageDistributionImpl implements StorageDistribution {
             objectStored == Status.INTERNAL_SERVER_ERROR ? StorageLogbookOutcome.KO : StorageLogbookOutcome.OK;
 
         return getStorageLogbookParameters(
-            objectIdentifier, null, messageDig, digestType.getName(), size, offer.getId(), requester, null,
+            objectIdentifier, null, messageDig, digestType.getName(), size, offerId, requester, null,
             null, outcome);
     }
 
-    private void updateStorageLogbookParameters(StorageLogbookParameters parameters, StorageOffer offer,
+    private void updateStorageLogbookParameters(StorageLogbookParameters parameters, String offerId,
         Status status) {
         String offers = parameters.getMapParameters().get(StorageLogbookParameterName.agentIdentifiers);
-        offers += ", " + offer.getId();
+        offers += ", " + offerId;
         parameters.getMapParameters().put(StorageLogbookParameterName.agentIdentifiers, offers);
 
         if (Status.INTERNAL_SERVER_ERROR.equals(status)) {
@@ -400,15 +479,6 @@ public class StorageDistributionImpl implements StorageDistribution {
             .getWorkspaceObjectURI());
     }
 
-    private PutObjectRequest buildPutObjectRequest(CreateObjectDescription createObjectDescription, String tenantId,
-        String objectId, DataCategory category, Digest messageDigest, WorkspaceClient workspaceClient)
-        throws StorageTechnicalException, StorageNotFoundException {
-        final InputStream dataStream = retrieveDataFromWorkspace(createObjectDescription.getWorkspaceContainerGUID(),
-            createObjectDescription.getWorkspaceObjectURI(), workspaceClient);
-        return new PutObjectRequest(tenantId, digestType.getName(), objectId,
-            messageDigest.getDigestInputStream(dataStream), category.name());
-    }
-
     private InputStream retrieveDataFromWorkspace(String containerGUID, String objectURI,
         WorkspaceClient workspaceClient)
         throws StorageNotFoundException, StorageTechnicalException {
@@ -465,7 +535,7 @@ public class StorageDistributionImpl implements StorageDistribution {
         final List<OfferReference> offerReferences = new ArrayList<>();
         if (hotStrategy != null && !hotStrategy.getOffers().isEmpty()) {
             // TODO P1 : this code will be changed in the future to handle priority (not in current US scope) and copy
-            offerReferences.add(hotStrategy.getOffers().get(0));
+            offerReferences.addAll(hotStrategy.getOffers());
         }
         return offerReferences;
     }
@@ -631,4 +701,77 @@ public class StorageDistributionImpl implements StorageDistribution {
     public JsonNode status() throws StorageException {
         throw new UnsupportedOperationException(NOT_IMPLEMENTED_MSG);
     }
+
+    /**
+     * Result of the storage of one object in one offer
+     */
+    private static final class OfferStoreResult {
+        // id of the offer in the strategy, the offer provider may give the same StorageOffer for several ids
+        private final String offerId;
+        private Status status = Status.INTERNAL_SERVER_ERROR;
+        private Digest messageDigest;
+        private PutObjectRequest putObjectRequest;
+        private PutObjectResult putObjectResult;
+
+        private OfferStoreResult(String offerId) {
+            this.offerId = offerId;
+        }
+    }
+
+    /**
+     * Local copy of one object of the workspace, made only when one offer has to read the object again and then
+     * shared by all the retries
+     */
+    private final class WorkspaceObjectSpool implements VitamAutoCloseable {
+        private final CreateObjectDescription createObjectDescription;
+        private File file;
+
+        private WorkspaceObjectSpool(CreateObjectDescription createObjectDescription) {
+            this.createObjectDescription = createObjectDescription;
+        }
+
+        private synchronized InputStream getInputStream() throws StorageNotFoundException, StorageTechnicalException {
+            if (file == null) {
+                final File spoolFile;
+                try {
+                    spoolFile =
+                        File.createTempFile(SPOOL_PREFIX, null, new File(VitamConfiguration.getVitamTmpFolder()));
+                } catch (final IOException exc) {
+                    throw new StorageTechnicalException(exc);
+                }
+                try (WorkspaceClient workspaceClient = getWorkspaceClient();
+                    InputStream inputStream =
+                        retrieveDataFromWorkspace(createObjectDescription.getWorkspaceContainerGUID(),
+                            createObjectDescription.getWorkspaceObjectURI(), workspaceClient)) {
+                    Files.copy(inputStream, spoolFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                } catch (final IOException exc) {
+                    deleteQuietly(spoolFile);
+                    throw new StorageTechnicalException(exc);
+                } catch (StorageNotFoundException | StorageTechnicalException exc) {
+                    deleteQuietly(spoolFile);
+                    throw exc;
+                }
+                file = spoolFile;
+            }
+            try {
+                return new FileInputStream(file);
+            } catch (final FileNotFoundException exc) {
+                throw new StorageTechnicalException(exc);
+            }
+        }
+
+        private void deleteQuietly(File spoolFile) {
+            if (!spoolFile.delete()) {
+                LOGGER.warn("Cannot delete temporary file " + spoolFile);
+            }
+        }
+
+        @Override
+        public synchronized void close() {
+            if (file != null) {
+                deleteQuietly(file);
+                file = null;
+            }
+        }
+    }
 }
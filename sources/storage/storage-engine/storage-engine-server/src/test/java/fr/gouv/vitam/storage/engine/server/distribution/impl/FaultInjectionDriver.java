@@ -0,0 +1,161 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.engine.server.distribution.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.commons.io.IOUtils;
+
+import fr.gouv.vitam.common.BaseXx;
+import fr.gouv.vitam.common.client.AbstractMockClient;
+import fr.gouv.vitam.storage.driver.Connection;
+import fr.gouv.vitam.storage.driver.Driver;
+import fr.gouv.vitam.storage.driver.exception.StorageDriverException;
+import fr.gouv.vitam.storage.driver.model.GetObjectRequest;
+import fr.gouv.vitam.storage.driver.model.GetObjectResult;
+import fr.gouv.vitam.storage.driver.model.PutObjectRequest;
+import fr.gouv.vitam.storage.driver.model.PutObjectResult;
+import fr.gouv.vitam.storage.driver.model.RemoveObjectRequest;
+import fr.gouv.vitam.storage.driver.model.RemoveObjectResult;
+import fr.gouv.vitam.storage.driver.model.StorageCapacityResult;
+
+/**
+ * Driver of the second offer of the test strategy, storing like the fake driver unless a failure is injected
+ */
+public class FaultInjectionDriver implements Driver {
+
+    /**
+     * Number of the next puts to fail
+     */
+    static final AtomicInteger PUT_FAILURES = new AtomicInteger();
+    /**
+     * When true, the puts return a wrong digest
+     */
+    static volatile boolean badDigest;
+    /**
+     * Size of the data received by each put, in order
+     */
+    static final List<Integer> PUT_SIZES = new CopyOnWriteArrayList<>();
+
+    /**
+     * Back to a driver without failure
+     */
+    static void reset() {
+        PUT_FAILURES.set(0);
+        badDigest = false;
+        PUT_SIZES.clear();
+    }
+
+    @Override
+    public Connection connect(String url, Properties parameters) throws StorageDriverException {
+        return new ConnectionImpl();
+    }
+
+    @Override
+    public boolean isStorageOfferAvailable(String url, Properties parameters) throws StorageDriverException {
+        return true;
+    }
+
+    @Override
+    public String getName() {
+        return "Fault injection driver";
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    class ConnectionImpl implements Connection {
+
+        @Override
+        public StorageCapacityResult getStorageCapacity(String tenantId) throws StorageDriverException {
+            final StorageCapacityResult result = new StorageCapacityResult();
+            result.setUsableSpace(1000000);
+            result.setUsedSpace(99999);
+            return result;
+        }
+
+        @Override
+        public GetObjectResult getObject(GetObjectRequest objectRequest) throws StorageDriverException {
+            return new GetObjectResult("0",
+                new AbstractMockClient.FakeInboundResponse(Status.OK, new ByteArrayInputStream("test".getBytes()),
+                    MediaType.APPLICATION_OCTET_STREAM_TYPE, null));
+        }
+
+        @Override
+        public PutObjectResult putObject(PutObjectRequest objectRequest) throws StorageDriverException {
+            try {
+                final byte[] bytes = IOUtils.toByteArray(objectRequest.getDataStream());
+                PUT_SIZES.add(bytes.length);
+                if (PUT_FAILURES.getAndUpdate(failures -> Math.max(0, failures - 1)) > 0) {
+                    throw new StorageDriverException(getName(),
+                        StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR, "Injected failure");
+                }
+                if (badDigest) {
+                    return new PutObjectResult(objectRequest.getGuid(), "different_digest_hash", "0", bytes.length);
+                }
+                final MessageDigest messageDigest = MessageDigest.getInstance(objectRequest.getDigestAlgorithm());
+                return new PutObjectResult(objectRequest.getGuid(), BaseXx.getBase16(messageDigest.digest(bytes)),
+                    "0", bytes.length);
+            } catch (NoSuchAlgorithmException | IOException e) {
+                throw new StorageDriverException(getName(), StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR,
+                    e);
+            }
+        }
+
+        @Override
+        public RemoveObjectResult removeObject(RemoveObjectRequest objectRequest) throws StorageDriverException {
+            return new RemoveObjectResult();
+        }
+
+        @Override
+        public Boolean objectExistsInOffer(GetObjectRequest request) throws StorageDriverException {
+            return "already_in_offer".equals(request.getGuid());
+        }
+
+        @Override
+        public void close() throws StorageDriverException {
+            // Empty
+        }
+    }
+}
@@ -33,14 +33,18 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.io.FileInputStream;
 
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.Status;
 
 import org.apache.commons.io.IOUtils;
+import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.mockito.Mockito;
@@ -85,6 +89,11 @@ public class StorageDistributionImplTest {
         customDistribution = new StorageDistributionImpl(client, DigestType.SHA1);
     }
 
+    @After
+    public void tearDown() {
+        FaultInjectionDriver.reset();
+    }
+
     @Test
     public void testStoreData_IllegalArguments()
         throws StorageNotFoundException, StorageTechnicalException, StorageObjectAlreadyExistsException {
@@ -288,6 +297,84 @@ public class StorageDistributionImplTest {
         }
     }
 
+    @Test
+    public void testStoreData_RetryInOneOffer() throws Exception {
+        final String objectId = "retry_test";
+        final CreateObjectDescription createObjectDescription = new CreateObjectDescription();
+        createObjectDescription.setWorkspaceContainerGUID("container1" + this);
+        createObjectDescription.setWorkspaceObjectURI("SIP/content/test.pdf");
+
+        final File file = PropertiesUtils.findFile("object.zip");
+        reset(client);
+        when(client.getObject("container1" + this, "SIP/content/test.pdf"))
+            .thenAnswer(invocation -> Response.status(Status.OK).entity(new FileInputStream(file)).build());
+        // The second offer fails once, then succeeds from the local copy of the object
+        FaultInjectionDriver.PUT_FAILURES.set(1);
+        final StoredInfoResult storedInfoResult = customDistribution
+            .storeData(TENANT_ID + this, STRATEGY_ID, objectId, createObjectDescription, DataCategory.OBJECT,
+                "testRequester");
+        assertNotNull(storedInfoResult);
+        assertEquals(objectId, storedInfoResult.getId());
+        // Once for the shared stream, once for the local copy
+        verify(client, times(2)).getObject("container1" + this, "SIP/content/test.pdf");
+        assertEquals(2, FaultInjectionDriver.PUT_SIZES.size());
+        for (final Integer size : FaultInjectionDriver.PUT_SIZES) {
+            assertEquals(file.length(), size.longValue());
+        }
+    }
+
+    @Test
+    public void testStoreData_OneOfferAlwaysKO() throws Exception {
+        final String objectId = "always_ko_test";
+        final CreateObjectDescription createObjectDescription = new CreateObjectDescription();
+        createObjectDescription.setWorkspaceContainerGUID("container1" + this);
+        createObjectDescription.setWorkspaceObjectURI("SIP/content/test.pdf");
+
+        final File file = PropertiesUtils.findFile("object.zip");
+        reset(client);
+        when(client.getObject("container1" + this, "SIP/content/test.pdf"))
+            .thenAnswer(invocation -> Response.status(Status.OK).entity(new FileInputStream(file)).build());
+        FaultInjectionDriver.PUT_FAILURES.set(Integer.MAX_VALUE);
+        try {
+            customDistribution
+                .storeData(TENANT_ID + this, STRATEGY_ID, objectId, createObjectDescription, DataCategory.OBJECT,
+                    "testRequester");
+            fail("Should produce exception");
+        } catch (final StorageTechnicalException exc) {
+            // Expected
+        }
+        // All the attempts received the whole object
+        assertEquals(3, FaultInjectionDriver.PUT_SIZES.size());
+        for (final Integer size : FaultInjectionDriver.PUT_SIZES) {
+            assertEquals(file.length(), size.longValue());
+        }
+    }
+
+    @Test
+    public void testStoreData_DigestKOInOneOffer() throws Exception {
+        final String objectId = "digest_ko_test";
+        final CreateObjectDescription createObjectDescription = new CreateObjectDescription();
+        createObjectDescription.setWorkspaceContainerGUID("container1" + this);
+        createObjectDescription.setWorkspaceObjectURI("SIP/content/test.pdf");
+
+        final File file = PropertiesUtils.findFile("object.zip");
+        reset(client);
+        when(client.getObject("container1" + this, "SIP/content/test.pdf"))
+            .thenAnswer(invocation -> Response.status(Status.OK).entity(new FileInputStream(file)).build());
+        FaultInjectionDriver.badDigest = true;
+        try {
+            customDistribution
+                .storeData(TENANT_ID + this, STRATEGY_ID, objectId, createObjectDescription, DataCategory.OBJECT,
+                    "testRequester");
+            fail("Should produce exception");
+        } catch (final StorageTechnicalException exc) {
+            // Expected
+        }
+        // A digest mismatch is retried like any other failure
+        assertEquals(3, FaultInjectionDriver.PUT_SIZES.size());
+        verify(client, times(2)).getObject("container1" + this, "SIP/content/test.pdf");
+    }
+
     private void checkInvalidArgumentException(String tenantId, String strategyId, String objectId,
         CreateObjectDescription createObjectDescription, DataCategory category)
         throws StorageNotFoundException, StorageTechnicalException, StorageObjectAlreadyExistsException {
@@ -26,6 +26,8 @@
  *******************************************************************************/
 package fr.gouv.vitam.storage.offers.workspace.driver;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Properties;
 
@@ -40,6 +42,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import fr.gouv.vitam.common.GlobalDataRest;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.client.DefaultClient;
+import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.exception.VitamClientInternalException;
 import fr.gouv.vitam.common.logging.VitamLogger;
@@ -79,6 +82,12 @@ public class ConnectionImpl extends DefaultClient implements Connection {
     private static final String TYPE_IS_NOT_VALID = "Type is not valid";
     private static final String FOLDER_IS_A_MANDATORY_PARAMETER = "Folder is a mandatory parameter";
     private static final String FOLDER_IS_NOT_VALID = "Folder is not valid";
+    /**
+     * Offer parameter giving the size in bytes of the parts of an object sent to the offer
+     */
+    public static final String CHUNK_SIZE_PARAMETER = "chunkSize";
+    private static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int NB_PART_RETRY = 3;
     private final String driverName;
 
     private final Properties parameters;
@@ -179,7 +188,8 @@ public class ConnectionImpl extends DefaultClient implements Connection {
                     getDefaultHeaders(request.getTenantId(), StorageConstants.COMMAND_INIT),
                     objectInit, MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE, false);
 
-            return performPutRequests(request.getTenantId(), stream, handleResponseStatus(response, ObjectInit.class));
+            return performPutRequests(request.getTenantId(), stream, handleResponseStatus(response, ObjectInit.class),
+                objectInit.getDigestAlgorithm());
         } catch (final IllegalArgumentException exc) {
             LOGGER.error(exc);
             throw new StorageDriverException(driverName, StorageDriverException.ErrorCode.PRECONDITION_FAILED, exc
@@ -288,29 +298,69 @@ public class ConnectionImpl extends DefaultClient implements Connection {
 
 
     /**
-     * Method performing a PutRequests
+     * Method performing a PutRequests: the stream is sent by parts of a fixed size, each part being sent again on
+     * failure
      *
      * @param tenantId the tenant Id
      * @param stream the stream to be chunked if necessary
      * @param result the result received from the server after the init
+     * @param digestType the digest algorithm of the object, used to check each part
      * @return a PutObjectResult the final result received from the server
      * @throws StorageDriverException in case the server encounters an exception
      */
-    private PutObjectResult performPutRequests(String tenantId, InputStream stream, ObjectInit result)
+    private PutObjectResult performPutRequests(String tenantId, InputStream stream, ObjectInit result,
+        DigestType digestType) throws StorageDriverException {
+        final byte[] part = new byte[getChunkSize()];
+        long offset = 0;
+        boolean ending = false;
+        String digest = null;
+        while (!ending) {
+            final int length = readPart(stream, part);
+            // A part shorter than the chunk size is the last one (an empty part ends an object of n chunks)
+            ending = length < part.length;
+            digest = sendPartWithRetry(tenantId, result.getId(), part, length, offset, ending, digestType);
+            offset += length;
+        }
+        return new PutObjectResult(result.getId(), digest, tenantId, offset);
+    }
+
+    private String sendPartWithRetry(String tenantId, String objectId, byte[] part, int length, long offset,
+        boolean ending, DigestType digestType) throws StorageDriverException {
+        final String partDigest = ending ? null : new Digest(digestType).update(part, 0, length).digestHex();
+        StorageDriverException lastException = null;
+        for (int i = 1; i <= NB_PART_RETRY; i++) {
+            try {
+                final String digest = sendPart(tenantId, objectId, part, length, offset, ending);
+                if (partDigest == null || partDigest.equals(digest)) {
+                    return digest;
+                }
+                lastException = new StorageDriverException(driverName,
+                    StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR, "Invalid digest of the part at " + offset);
+            } catch (final StorageDriverException exc) {
+                lastException = exc;
+            }
+            LOGGER.warn("[Attempt " + i + "] Cannot send the part at " + offset + " of object " + objectId,
+                lastException);
+        }
+        throw lastException;
+    }
+
+    private String sendPart(String tenantId, String objectId, byte[] part, int length, long offset, boolean ending)
         throws StorageDriverException {
-        PutObjectResult finalResult = null;
         Response response = null;
         try {
-            response = performRequest(HttpMethod.PUT, OBJECTS_PATH + "/" + result.getId(),
-                getDefaultHeaders(tenantId, StorageConstants.COMMAND_END),
-                stream, MediaType.APPLICATION_OCTET_STREAM_TYPE, MediaType.APPLICATION_JSON_TYPE);
+            final MultivaluedHashMap<String, Object> headers =
+                getDefaultHeaders(tenantId, ending ? StorageConstants.COMMAND_END : StorageConstants.COMMAND_WRITE);
+            headers.add(GlobalDataRest.X_CHUNK_OFFSET, offset);
+            response = performRequest(HttpMethod.PUT, OBJECTS_PATH + "/" + objectId, headers,
+                new ByteArrayInputStream(part, 0, length), MediaType.APPLICATION_OCTET_STREAM_TYPE,
+                MediaType.APPLICATION_JSON_TYPE, false);
             final JsonNode json = handleResponseStatus(response, JsonNode.class);
-            finalResult = new PutObjectResult(result.getId(), json.get("digest").textValue(), tenantId,
-                Long.valueOf(json.get("size").textValue()));
             if (Response.Status.CREATED.getStatusCode() != response.getStatus()) {
                 throw new StorageDriverException(driverName, StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR,
                     "Error to perfom put object");
             }
+            return json.get("digest").textValue();
         } catch (final VitamClientInternalException e) {
             LOGGER.error(e);
             throw new StorageDriverException(driverName, StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR,
@@ -318,7 +368,42 @@ public class ConnectionImpl extends DefaultClient implements Connection {
         } finally {
             consumeAnyEntityAndClose(response);
         }
-        return finalResult;
+    }
+
+    /**
+     * Fill the part from the stream
+     *
+     * @return the number of bytes read, less than the part size only at the end of the stream
+     */
+    private int readPart(InputStream stream, byte[] part) throws StorageDriverException {
+        int length = 0;
+        try {
+            int read;
+            while (length < part.length && (read = stream.read(part, length, part.length - length)) >= 0) {
+                length += read;
+            }
+        } catch (final IOException e) {
+            LOGGER.error(e);
+            throw new StorageDriverException(driverName, StorageDriverException.ErrorCode.INTERNAL_SERVER_ERROR,
+                e.getMessage());
+        }
+        return length;
+    }
+
+    private int getChunkSize() {
+        final String chunkSize = parameters != null ? parameters.getProperty(CHUNK_SIZE_PARAMETER) : null;
+        if (chunkSize != null) {
+            try {
+                final int size = Integer.parseInt(chunkSize);
+                if (size > 0) {
+                    return size;
+                }
+            } catch (final NumberFormatException e) {
+                LOGGER.debug(e);
+            }
+            LOGGER.warn("Invalid chunk size " + chunkSize + ", use the default one");
+        }
+        return DEFAULT_CHUNK_SIZE;
     }
 
 }
@@ -36,6 +36,7 @@ import java.io.ByteArrayInputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Properties;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
@@ -52,7 +53,6 @@ import javax.ws.rs.core.Response.Status;
 import org.glassfish.jersey.server.ResourceConfig;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
@@ -305,8 +305,6 @@ public class ConnectionImplTest extends VitamJerseyTest {
         assertNotNull(result.getDigestHashBase16());
     }
 
-    // TODO activate when chunk mode is done in {@see DefaultOfferService} method createObject
-    @Ignore // chunk management
     @Test(expected = StorageDriverException.class)
     public void putBigObjectWithRequestInternalError() throws Exception {
         final PutObjectRequest request = new PutObjectRequest("0" + this, DigestType.MD5.getName(), "GUID",
@@ -314,11 +312,11 @@ public class ConnectionImplTest extends VitamJerseyTest {
         when(mock.post()).thenReturn(Response.status(Status.CREATED).entity(getPostObjectResult(-1)).build());
         when(mock.put()).thenReturn(Response.status(Status.CREATED).entity(getPutObjectResult(0)).build())
             .thenReturn(Response.status(Status.INTERNAL_SERVER_ERROR).build());
-        connection.putObject(request);
+        try (ConnectionImpl chunkedConnection = getChunkedConnection()) {
+            chunkedConnection.putObject(request);
+        }
     }
 
-    // TODO activate when chunk mode is done in {@see DefaultOfferService} method createObject
-    @Ignore // chunk management
     @Test(expected = StorageDriverException.class)
     public void putBigObjectWithBadRequestDuringTransfert() throws Exception {
         final PutObjectRequest request = new PutObjectRequest("0", DigestType.MD5.getName(), "GUID",
@@ -326,7 +324,9 @@ public class ConnectionImplTest extends VitamJerseyTest {
         when(mock.post()).thenReturn(Response.status(Status.CREATED).entity(getPostObjectResult(-1)).build());
         when(mock.put()).thenReturn(Response.status(Status.CREATED).entity(getPutObjectResult(0)).build())
             .thenReturn(Response.status(Status.BAD_REQUEST).build());
-        connection.putObject(request);
+        try (ConnectionImpl chunkedConnection = getChunkedConnection()) {
+            chunkedConnection.putObject(request);
+        }
     }
 
     @Test(expected = StorageDriverException.class)
@@ -540,6 +540,12 @@ public class ConnectionImplTest extends VitamJerseyTest {
         return new PutObjectRequest(tenantId, digest, guid, stream, type);
     }
 
+    private ConnectionImpl getChunkedConnection() throws StorageDriverException {
+        final Properties parameters = new Properties();
+        parameters.setProperty(ConnectionImpl.CHUNK_SIZE_PARAMETER, "1048576");
+        return DriverImpl.getInstance().connect("http://" + HOSTNAME + ":" + getServerPort(), parameters);
+    }
+
     private ObjectInit getPostObjectResult(int uniqueId) {
         final ObjectInit object = new ObjectInit();
         object.setId("" + uniqueId);
@@ -109,18 +109,35 @@ public interface DefaultOfferService {
      *
      * @param containerName the container name
      * @param objectId the offer objectId to create
-     * @param objectPart the part of the object to create (chunk style)
+     * @param objectPart the part of the object to create (chunk style), appended to the previous parts
      * @param ending true if objectPart is the last part
      * @return the digest of the complete file or the digest of the chunk
      *
      * @throws IOException if an IOException is encountered with files
      * @throws ContentAddressableStorageException if the container does not exist
      */
-    // TODO P1 : add chunk number to be able to retry and check error
-    // TODO P1 : better chunk management
     String createObject(String containerName, String objectId, InputStream objectPart, boolean ending)
         throws IOException, ContentAddressableStorageException;
 
+    /**
+     * Create object on container with objectId Receive object part of object at the given offset. The parts are
+     * written in order, but the last part may be sent again with the same offset, for instance when its result was
+     * lost, to replace it.
+     *
+     * @param containerName the container name
+     * @param objectId the offer objectId to create
+     * @param objectPart the part of the object to create (chunk style)
+     * @param ending true if objectPart is the last part
+     * @param offset the position of the part in the object, or a negative value to append it to the previous parts
+     * @return the digest of the complete file or the digest of the chunk
+     *
+     * @throws IOException if an IOException is encountered with files
+     * @throws ContentAddressableStorageException if the container does not exist, if the object creation was not
+     *         initialized or if the offset does not match the previous parts
+     */
+    String createObject(String containerName, String objectId, InputStream objectPart, boolean ending, long offset)
+        throws IOException, ContentAddressableStorageException;
+
     /**
      * Check if object exists
      *
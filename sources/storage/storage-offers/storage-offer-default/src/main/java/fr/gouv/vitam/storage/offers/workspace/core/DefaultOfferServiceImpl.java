@@ -29,8 +29,9 @@ package fr.gouv.vitam.storage.offers.workspace.core;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.nio.file.Paths;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
@@ -55,7 +56,7 @@ import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundEx
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 import fr.gouv.vitam.workspace.api.model.ContainerInformation;
 import fr.gouv.vitam.workspace.core.WorkspaceConfiguration;
-import fr.gouv.vitam.workspace.core.filesystem.FileSystem;
+import fr.gouv.vitam.workspace.core.filesystem.WorkspaceFileSystem;
 
 /**
  * Default offer service implementation
@@ -67,9 +68,15 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
     private static final DefaultOfferService INSTANCE = new DefaultOfferServiceImpl();
     private final ContentAddressableStorage defaultStorage;
     private static final String STORAGE_CONF_FILE_NAME = "default-storage.conf";
+    // Uploads without any new part during this delay are removed with their temporary file
+    private static final long UPLOAD_EXPIRATION_MS = 3600 * 1000L;
+    // Minimum delay between two checks of the expired uploads
+    private static final long UPLOAD_EXPIRATION_CHECK_MS = 60 * 1000L;
 
-    private final Map<String, DigestType> digestTypeFor;
-    private final Map<String, String> objectTypeFor;
+    private final String storagePath;
+    // Objects being written, by container and object id
+    private final Map<String, ObjectUpload> uploads;
+    private volatile long nextExpirationCheck = 0;
 
     private DefaultOfferServiceImpl() {
         WorkspaceConfiguration configuration;
@@ -79,9 +86,9 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
         } catch (final IOException exc) {
             throw new ExceptionInInitializerError(exc);
         }
-        defaultStorage = new FileSystem(configuration);
-        digestTypeFor = new HashMap<>();
-        objectTypeFor = new HashMap<>();
+        defaultStorage = new WorkspaceFileSystem(configuration);
+        storagePath = configuration.getStoragePath();
+        uploads = new ConcurrentHashMap<>();
     }
 
     /**
@@ -121,13 +128,25 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
             createFolder(containerName, objectInit.getType().getFolder());
         }
         objectInit.setId(objectGUID);
-        objectTypeFor.put(objectGUID, objectInit.getType().getFolder());
-        if (objectInit.getDigestAlgorithm() != null) {
-            digestTypeFor.put(objectGUID, objectInit.getDigestAlgorithm());
-        } else {
-            digestTypeFor.put(objectGUID, VitamConfiguration.getDefaultDigestType());
+        final long now = System.currentTimeMillis();
+        if (now >= nextExpirationCheck) {
+            nextExpirationCheck = now + UPLOAD_EXPIRATION_CHECK_MS;
+            removeExpiredUploads(now - UPLOAD_EXPIRATION_MS);
+        }
+        final DigestType digestType = objectInit.getDigestAlgorithm() != null ? objectInit.getDigestAlgorithm()
+            : VitamConfiguration.getDefaultDigestType();
+        // The file system stores the objects as files under storagePath/containerName/objectName
+        final ObjectUpload upload;
+        try {
+            upload = new ObjectUpload(
+                Paths.get(storagePath, containerName, objectInit.getType().getFolder(), objectGUID), digestType);
+        } catch (final ContentAddressableStorageException exc) {
+            throw new ContentAddressableStorageServerException(exc);
+        }
+        final ObjectUpload previous = uploads.put(getUploadKey(containerName, objectGUID), upload);
+        if (previous != null) {
+            abortQuietly(previous);
         }
-
         return objectInit;
     }
 
@@ -142,26 +161,28 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
     @Override
     public String createObject(String containerName, String objectId, InputStream objectPart, boolean ending)
         throws IOException, ContentAddressableStorageException {
+        return createObject(containerName, objectId, objectPart, ending, -1);
+    }
+
+    @Override
+    public String createObject(String containerName, String objectId, InputStream objectPart, boolean ending,
+        long offset) throws IOException, ContentAddressableStorageException {
         // check container
         if (!defaultStorage.isExistingContainer(containerName)) {
             throw new ContentAddressableStorageException("Container does not exist");
         }
-        // check the folder
-        if (!defaultStorage.isExistingFolder(containerName, objectTypeFor.get(objectId))) {
-            throw new ContentAddressableStorageException("Container's folder does not exist");
+        final String uploadKey = getUploadKey(containerName, objectId);
+        final ObjectUpload upload = uploads.get(uploadKey);
+        if (upload == null) {
+            throw new ContentAddressableStorageException("Object creation was not initialized");
         }
-
-        // TODO No chunk mode (should be added in the future)
-        // TODO the objectPart should contain the full object.
         try {
-            defaultStorage.putObject(containerName, objectTypeFor.get(objectId) + "/" + objectId, objectPart);
-            // Check digest AFTER writing in order to ensure correctness
-            final String digest = defaultStorage.computeObjectDigest(containerName,
-                objectTypeFor.get(objectId) + "/" + objectId, getDigestAlgoFor(objectId));
-            // remove digest algo
-            digestTypeFor.remove(objectId);
+            final String digest = upload.writePart(objectPart, offset, ending);
+            if (ending) {
+                uploads.remove(uploadKey, upload);
+            }
             return digest;
-        } catch (final ContentAddressableStorageException exc) {
+        } catch (final IOException | ContentAddressableStorageException exc) {
             LOGGER.error("Error with storage service", exc);
             throw exc;
         }
@@ -194,7 +215,30 @@ public class DefaultOfferServiceImpl implements DefaultOfferService {
         return result;
     }
 
-    private DigestType getDigestAlgoFor(String id) {
-        return digestTypeFor.get(id) != null ? digestTypeFor.get(id) : VitamConfiguration.getDefaultDigestType();
+    /**
+     * Remove the uploads that got no part since the given time, deleting their temporary file
+     *
+     * @param time the time in ms before which an upload is expired
+     */
+    void removeExpiredUploads(long time) {
+        for (final Map.Entry<String, ObjectUpload> entry : uploads.entrySet()) {
+            final ObjectUpload upload = entry.getValue();
+            if (upload.getLastAccess() < time && uploads.remove(entry.getKey(), upload)) {
+                LOGGER.warn("Creation of " + entry.getKey() + " expired before its last part");
+                abortQuietly(upload);
+            }
+        }
+    }
+
+    private String getUploadKey(String containerName, String objectId) {
+        return containerName + "/" + objectId;
+    }
+
+    private void abortQuietly(ObjectUpload upload) {
+        try {
+            upload.abort();
+        } catch (final IOException exc) {
+            LOGGER.warn("Cannot remove the parts of a previous creation", exc);
+        }
     }
 }
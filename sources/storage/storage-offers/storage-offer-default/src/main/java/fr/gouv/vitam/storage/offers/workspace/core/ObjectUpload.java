@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.storage.offers.workspace.core;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+
+import fr.gouv.vitam.common.BaseXx;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
+import fr.gouv.vitam.workspace.core.filesystem.ObjectDigestAttributes;
+
+/**
+ * One object being written part by part in the offer.<br>
+ * <br>
+ * The parts are appended to a temporary file next to the object while the digest of the object is computed, such
+ * that the object is never read again. The temporary file becomes the object with the last part. The last part may be
+ * sent again (with the same offset) when its result was not received: it then replaces the previous one. The digest
+ * is kept with the object, such that it is not computed again when asked. An upload left without its last part is
+ * aborted by the offer once idle for too long, see {@link #getLastAccess()}.
+ */
+class ObjectUpload {
+    private static final String TEMPORARY_SUFFIX = ".part";
+    private static final int BUFFER_SIZE = 65536;
+
+    private final Path objectPath;
+    private final Path temporaryPath;
+    private final DigestType digestType;
+    private MessageDigest objectDigest;
+    // Digest of the object before the last part, to be able to write it again
+    private MessageDigest lastPartDigest;
+    private long size = 0;
+    private long lastPartOffset = 0;
+    private volatile long lastAccess = System.currentTimeMillis();
+    private boolean aborted = false;
+
+    /**
+     * Constructor
+     *
+     * @param objectPath the final path of the object
+     * @param digestType the digest algorithm of the object
+     * @throws ContentAddressableStorageException if the digest algorithm is not supported
+     */
+    ObjectUpload(Path objectPath, DigestType digestType) throws ContentAddressableStorageException {
+        this.objectPath = objectPath;
+        temporaryPath = objectPath.resolveSibling(objectPath.getFileName() + TEMPORARY_SUFFIX);
+        this.digestType = digestType;
+        objectDigest = newDigest();
+        lastPartDigest = cloneDigest(objectDigest);
+    }
+
+    /**
+     * Write one part of the object
+     *
+     * @param part the content of the part
+     * @param offset the position of the part in the object, or a negative value to append it
+     * @param ending true if this is the last part
+     * @return the digest of the complete object if ending, else the digest of the part
+     * @throws IOException if the part cannot be written
+     * @throws ContentAddressableStorageException if the offset does not match the already written parts
+     */
+    synchronized String writePart(InputStream part, long offset, boolean ending)
+        throws IOException, ContentAddressableStorageException {
+        if (aborted) {
+            throw new ContentAddressableStorageException("Object creation was aborted");
+        }
+        lastAccess = System.currentTimeMillis();
+        final long position = offset < 0 ? size : offset;
+        if (position == lastPartOffset && position < size) {
+            // The last part is written again
+            objectDigest = cloneDigest(lastPartDigest);
+            size = lastPartOffset;
+        } else if (position != size) {
+            throw new ContentAddressableStorageException(
+                "Part offset " + position + " does not match the size already written " + size);
+        } else {
+            lastPartDigest = cloneDigest(objectDigest);
+            lastPartOffset = size;
+        }
+        final MessageDigest partDigest = newDigest();
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+            channel.position(size);
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = part.read(buffer)) >= 0) {
+                objectDigest.update(buffer, 0, read);
+                partDigest.update(buffer, 0, read);
+                final ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    channel.write(byteBuffer);
+                }
+                size += read;
+            }
+            if (ending) {
+                channel.force(true);
+            }
+        } catch (final IOException exc) {
+            // Back to the previous part such that this one can be sent again
+            objectDigest = cloneDigest(lastPartDigest);
+            size = lastPartOffset;
+            throw exc;
+        }
+        if (ending) {
+            final String digest = BaseXx.getBase16(objectDigest.digest());
+            ObjectDigestAttributes.writeDigests(temporaryPath, Collections.singletonMap(digestType, digest));
+            Files.move(temporaryPath, objectPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            return digest;
+        }
+        return BaseXx.getBase16(partDigest.digest());
+    }
+
+    /**
+     * Remove the parts already written
+     *
+     * @throws IOException if the temporary file cannot be deleted
+     */
+    synchronized void abort() throws IOException {
+        aborted = true;
+        Files.deleteIfExists(temporaryPath);
+    }
+
+    /**
+     * @return the time in ms of the creation of this upload or of its last written part
+     */
+    long getLastAccess() {
+        return lastAccess;
+    }
+
+    private MessageDigest newDigest() throws ContentAddressableStorageException {
+        try {
+            return MessageDigest.getInstance(digestType.getName());
+        } catch (final NoSuchAlgorithmException exc) {
+            throw new ContentAddressableStorageException(exc);
+        }
+    }
+
+    private MessageDigest cloneDigest(MessageDigest digest) throws ContentAddressableStorageException {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (final CloneNotSupportedException exc) {
+            throw new ContentAddressableStorageException(exc);
+        }
+    }
+}
@@ -196,13 +196,14 @@ public class DefaultOfferResource extends ApplicationStatusResource {
     /**
      * Write a new chunk in an object or end its creation.
      * <p>
-     * HEADER X-Command (mandatory) : WRITE/END HEADER X-Tenant-Id (mandatory) : tenant's identifier
+     * HEADER X-Command (mandatory) : WRITE/END HEADER X-Tenant-Id (mandatory) : tenant's identifier HEADER
+     * X-Chunk-Offset (optional) : position of the chunk in the object, the chunk is appended if absent
      * </p>
      *
      * @param objectId object id
      * @param headers http header
      * @param input object data
-     * @return structured response with the object id (and new digest ?)
+     * @return structured response with the digest of the chunk (or of the object if END) and the size of the chunk
      */
     @PUT
     @Path("/objects/{id:.+}")
@@ -221,10 +222,19 @@ public class DefaultOfferResource extends ApplicationStatusResource {
                 xCommandHeader);
             return Response.status(Response.Status.BAD_REQUEST).build();
         }
+        final long offset;
+        try {
+            final String xChunkOffset = headers.getHeaderString(GlobalDataRest.X_CHUNK_OFFSET);
+            offset = Strings.isNullOrEmpty(xChunkOffset) ? -1 : Long.parseLong(xChunkOffset);
+        } catch (final NumberFormatException exc) {
+            LOGGER.error("Invalid chunk offset (X-Chunk-Offset header)", exc);
+            StreamUtils.closeSilently(input);
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
         try {
             final SizedInputStream sis = new SizedInputStream(input);
             final String digest = DefaultOfferServiceImpl.getInstance().createObject(xTenantId, objectId, sis,
-                xCommandHeader.equals(StorageConstants.COMMAND_END));
+                xCommandHeader.equals(StorageConstants.COMMAND_END), offset);
             return Response.status(Response.Status.CREATED).entity("{\"digest\":\"" + digest + "\",\"size\":\"" + sis
                 .getSize() + "\"}").build();
         } catch (IOException | ContentAddressableStorageException exc) {
@@ -28,8 +28,10 @@
 package fr.gouv.vitam.storage.offers.workspace.core;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -45,7 +47,6 @@ import javax.ws.rs.core.Response;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -178,9 +179,7 @@ public class DefaultOfferServiceTest {
         assertTrue(offerService.isObjectExist(CONTAINER_PATH, objectInit.getType().getFolder() + "/" + OBJECT_ID));
     }
 
-    // TODO activate when chunk mode is done in {@see DefaultOfferService} method createObject
     @Test
-    @Ignore
     public void createObjectChunkTest() throws Exception {
         final DefaultOfferService offerService = DefaultOfferServiceImpl.getInstance();
         assertNotNull(offerService);
@@ -243,6 +242,57 @@ public class DefaultOfferServiceTest {
         assertTrue(offerService.isObjectExist(CONTAINER_PATH, objectInit.getType().getFolder() + "/" + OBJECT_ID));
     }
 
+    @Test
+    public void createObjectChunkResentTest() throws Exception {
+        final DefaultOfferService offerService = DefaultOfferServiceImpl.getInstance();
+        final ObjectInit objectInit = offerService.initCreateObject(CONTAINER_PATH, getObjectInit(false), OBJECT_ID);
+        final byte[] content = OBJECT_ID_2_CONTENT.getBytes();
+        final int half = content.length / 2;
+
+        offerService.createObject(CONTAINER_PATH, OBJECT_ID, new ByteArrayInputStream(content, 0, half), false, 0);
+        // the first part again, as if its result was lost
+        offerService.createObject(CONTAINER_PATH, OBJECT_ID, new ByteArrayInputStream(content, 0, half), false, 0);
+        try {
+            offerService.createObject(CONTAINER_PATH, OBJECT_ID,
+                new ByteArrayInputStream(content, half, content.length - half), true, half + 1);
+            fail("Should raise an exception");
+        } catch (final ContentAddressableStorageException exc) {
+            // offset after the written parts
+        }
+        final String computedDigest = offerService.createObject(CONTAINER_PATH, OBJECT_ID,
+            new ByteArrayInputStream(content, half, content.length - half), true, half);
+
+        final File offerFile = new File(CONTAINER_PATH + "/" + objectInit.getType().getFolder() + "/" + OBJECT_ID);
+        assertEquals(OBJECT_ID_2_CONTENT, new String(Files.readAllBytes(offerFile.toPath())));
+        assertEquals(Digest.digest(new ByteArrayInputStream(content), VitamConfiguration.getDefaultDigestType())
+            .toString(), computedDigest);
+    }
+
+    @Test
+    public void createObjectExpiredTest() throws Exception {
+        final DefaultOfferService offerService = DefaultOfferServiceImpl.getInstance();
+        final ObjectInit objectInit = offerService.initCreateObject(CONTAINER_PATH, getObjectInit(false), OBJECT_ID);
+        final byte[] content = OBJECT_ID_2_CONTENT.getBytes();
+        offerService.createObject(CONTAINER_PATH, OBJECT_ID, new ByteArrayInputStream(content, 0, 1), false, 0);
+        final WorkspaceConfiguration conf = PropertiesUtils.readYaml(PropertiesUtils.findFile(DEFAULT_STORAGE_CONF),
+            WorkspaceConfiguration.class);
+        final File partFile =
+            Paths.get(conf.getStoragePath(), CONTAINER_PATH, objectInit.getType().getFolder(), OBJECT_ID + ".part")
+                .toFile();
+        assertTrue(partFile.exists());
+
+        // the ending part never came
+        ((DefaultOfferServiceImpl) offerService).removeExpiredUploads(System.currentTimeMillis() + 1);
+        assertFalse(partFile.exists());
+        try {
+            offerService.createObject(CONTAINER_PATH, OBJECT_ID,
+                new ByteArrayInputStream(content, 1, content.length - 1), true, 1);
+            fail("Should raise an exception");
+        } catch (final ContentAddressableStorageException exc) {
+            // no more initialized
+        }
+    }
+
     @Test
     public void getObjectTest() throws Exception {
         final DefaultOfferService offerService = DefaultOfferServiceImpl.getInstance();
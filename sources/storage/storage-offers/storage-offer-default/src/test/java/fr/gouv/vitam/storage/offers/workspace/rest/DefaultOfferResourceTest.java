@@ -48,7 +48,6 @@ import org.jhades.JHades;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
-import org.junit.Ignore;
 import org.junit.Test;
 
 import com.fasterxml.jackson.core.JsonFactory;
@@ -373,9 +372,7 @@ public class DefaultOfferResourceTest {
         assertTrue(com.google.common.io.Files.equal(PropertiesUtils.findFile(ARCHIVE_FILE_TXT), object));
     }
 
-    // TODO activate when chunk mode is done in {@see DefaultOfferService} method createObject
     @Test
-    @Ignore
     public void putObjectChunkTest() throws Exception {
         // no tenant id
         given().contentType(MediaType.APPLICATION_OCTET_STREAM).when().put(OBJECTS_URI + OBJECT_ID_URI, "id1").then()
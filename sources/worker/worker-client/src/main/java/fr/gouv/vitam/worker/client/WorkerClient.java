@@ -26,6 +26,8 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.client;
 
+import java.util.List;
+
 import fr.gouv.vitam.common.client.MockOrRestClient;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.processing.common.model.EngineResponse;
@@ -49,4 +51,15 @@ public interface WorkerClient extends MockOrRestClient {
     ItemStatus submitStep(DescriptionStep step)
         throws WorkerNotFoundClientException, WorkerServerClientException;
 
+    /**
+     * add a step to the worker for a batch of objects
+     *
+     * @param step the new step, with its list of object names
+     * @return the list of ItemStatus, one for each object, in the same order than the object names
+     * @throws WorkerNotFoundClientException if the Server got a NotFound result
+     * @throws WorkerServerClientException if the Server got an internal error
+     */
+    List<ItemStatus> submitBatchStep(DescriptionStep step)
+        throws WorkerNotFoundClientException, WorkerServerClientException;
+
 }
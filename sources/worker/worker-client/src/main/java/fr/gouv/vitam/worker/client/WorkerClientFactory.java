@@ -27,7 +27,10 @@
 package fr.gouv.vitam.worker.client;
 
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.client.VitamClientFactory;
 import fr.gouv.vitam.common.logging.VitamLogger;
@@ -63,6 +66,7 @@ public class WorkerClientFactory extends VitamClientFactory<WorkerClient> {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkerClientFactory.class);
     private static final String CONFIGURATION_FILENAME = "worker-client.conf";
     private static final WorkerClientFactory WORKER_CLIENT_FACTORY = new WorkerClientFactory();
+    private static final Map<String, WorkerClientFactory> WORKER_CLIENT_FACTORIES = new ConcurrentHashMap<>();
     /**
      * RESOURCE PATH
      */
@@ -72,6 +76,10 @@ public class WorkerClientFactory extends VitamClientFactory<WorkerClient> {
         super(changeConfigurationFile(CONFIGURATION_FILENAME), RESOURCE_PATH, true, false, false);
     }
 
+    private WorkerClientFactory(WorkerClientConfiguration configuration) {
+        super(configuration, RESOURCE_PATH, true, false, false, true);
+    }
+
     /**
      * Get the WorkerClientFactory instance
      *
@@ -81,6 +89,22 @@ public class WorkerClientFactory extends VitamClientFactory<WorkerClient> {
         return WORKER_CLIENT_FACTORY;
     }
 
+    /**
+     * Get the WorkerClientFactory dedicated to one remote worker.<br>
+     * <br>
+     * Unlike {@link #changeMode(WorkerClientConfiguration)}, this does not modify the default instance, so that several
+     * workers can be called concurrently. Factories are kept per host and port.
+     *
+     * @param configuration the configuration of the remote worker
+     * @return the instance
+     */
+    public static final WorkerClientFactory getInstance(WorkerClientConfiguration configuration) {
+        ParametersChecker.checkParameter("configuration is a mandatory parameter", configuration);
+        return WORKER_CLIENT_FACTORIES.computeIfAbsent(
+            configuration.getServerHost() + ":" + configuration.getServerPort(),
+            key -> new WorkerClientFactory(configuration));
+    }
+
     /**
      * Get the default worker client
      *
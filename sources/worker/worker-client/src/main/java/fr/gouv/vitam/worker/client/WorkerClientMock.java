@@ -26,6 +26,9 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.client;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import fr.gouv.vitam.common.client.AbstractMockClient;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
@@ -52,4 +55,16 @@ class WorkerClientMock extends AbstractMockClient implements WorkerClient {
         return mockResponse;
     }
 
+    @Override
+    public List<ItemStatus> submitBatchStep(DescriptionStep data)
+        throws WorkerNotFoundClientException, WorkerServerClientException {
+        final List<ItemStatus> mockResponses = new ArrayList<>();
+        if (data.getObjectNameList() != null) {
+            for (int i = 0; i < data.getObjectNameList().size(); i++) {
+                mockResponses.add(submitStep(data));
+            }
+        }
+        return mockResponses;
+    }
+
 }
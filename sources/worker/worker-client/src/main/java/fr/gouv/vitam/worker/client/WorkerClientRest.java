@@ -26,10 +26,15 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.client;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.client.DefaultClient;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
@@ -79,6 +84,34 @@ class WorkerClientRest extends DefaultClient implements WorkerClient {
         }
     }
 
+    @Override
+    public List<ItemStatus> submitBatchStep(DescriptionStep step)
+        throws WorkerNotFoundClientException, WorkerServerClientException {
+        VitamThreadUtils.getVitamSession().checkValidRequestId();
+        ParametersChecker.checkParameter(DATA_MUST_HAVE_A_VALID_VALUE, step);
+        ParametersChecker.checkParameter(DATA_MUST_HAVE_A_VALID_VALUE, step.getObjectNameList());
+        Response response = null;
+        try {
+            response =
+                performRequest(HttpMethod.POST, "/" + "tasks", null, JsonHandler.toJsonNode(step),
+                    MediaType.APPLICATION_JSON_TYPE, MediaType.APPLICATION_JSON_TYPE);
+            final JsonNode responses = handleCommonResponseStatus(step, response, JsonNode.class);
+            final List<ItemStatus> itemStatusList = new ArrayList<>(responses.size());
+            for (final JsonNode itemStatus : responses) {
+                itemStatusList.add(JsonHandler.getFromJsonNode(itemStatus, ItemStatus.class));
+            }
+            return itemStatusList;
+        } catch (final VitamClientInternalException e) {
+            LOGGER.error(WORKER_INTERNAL_SERVER_ERROR, e);
+            throw new WorkerServerClientException(WORKER_INTERNAL_SERVER_ERROR, e);
+        } catch (final InvalidParseOperationException e) {
+            LOGGER.error(WORKER_INTERNAL_SERVER_ERROR, e);
+            throw new WorkerServerClientException("Step description incorrect", e);
+        } finally {
+            consumeAnyEntityAndClose(response);
+        }
+    }
+
     /**
      * Common method to handle status responses
      *
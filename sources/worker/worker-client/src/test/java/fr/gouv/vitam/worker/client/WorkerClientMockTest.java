@@ -29,6 +29,9 @@ package fr.gouv.vitam.worker.client;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
+import java.util.Arrays;
+import java.util.List;
+
 import org.junit.Test;
 
 import fr.gouv.vitam.common.exception.VitamApplicationServerException;
@@ -70,4 +73,20 @@ public class WorkerClientMockTest {
         assertNotNull(result);
         assertEquals(result.getItemsStatus().size(), 1);
     }
+
+    @Test
+    public void createBatchSteps() throws WorkerNotFoundClientException,
+        WorkerServerClientException {
+        WorkerClientFactory.changeMode(null);
+        final WorkerClient client = WorkerClientFactory.getInstance()
+            .getClient();
+
+        final DescriptionStep descriptionStep =
+            new DescriptionStep(new Step(), WorkerParametersFactory.newWorkerParameters());
+        descriptionStep.setObjectNameList(Arrays.asList("object1", "object2"));
+        final List<ItemStatus> result = client.submitBatchStep(descriptionStep);
+
+        assertNotNull(result);
+        assertEquals(2, result.size());
+    }
 }
@@ -30,6 +30,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.Response;
@@ -169,4 +173,22 @@ public class WorkerClientRestTest extends VitamJerseyTest {
         client.submitStep(new DescriptionStep(new Step(), WorkerParametersFactory.newWorkerParameters()));
     }
 
+    @RunWithCustomExecutor
+    @Test
+    public void submitBatchOK() throws Exception {
+        VitamThreadUtils.getVitamSession().setRequestId(DUMMY_REQUEST_ID);
+        final List<ItemStatus> result = new ArrayList<>();
+        result.add(new ItemStatus("Step").increment(StatusCode.OK));
+        result.add(new ItemStatus("Step").increment(StatusCode.KO));
+
+        when(mock.post()).thenReturn(Response.status(Response.Status.OK).entity(result).build());
+        final DescriptionStep descriptionStep =
+            new DescriptionStep(new Step(), WorkerParametersFactory.newWorkerParameters());
+        descriptionStep.setObjectNameList(Arrays.asList("object1", "object2"));
+        final List<ItemStatus> responses = client.submitBatchStep(descriptionStep);
+        assertEquals(2, responses.size());
+        assertEquals(StatusCode.OK, responses.get(0).getGlobalStatus());
+        assertEquals(StatusCode.KO, responses.get(1).getGlobalStatus());
+    }
+
 }
@@ -26,6 +26,8 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.common;
 
+import java.util.List;
+
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
@@ -34,7 +36,10 @@ import fr.gouv.vitam.processing.common.model.Step;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 
 /**
- * Description of the step execution.
+ * Description of the step execution.<br>
+ * <br>
+ * When an object name list is given, the step is executed once for each of these objects (batch mode), the object
+ * name of the worker parameters being ignored.
  */
 public class DescriptionStep {
 
@@ -42,6 +47,8 @@ public class DescriptionStep {
     private Step step;
     @JsonProperty("workParams")
     private WorkerParameters workParams;
+    @JsonProperty("objectNameList")
+    private List<String> objectNameList;
 
     /**
      * Constructor.
@@ -95,4 +102,22 @@ public class DescriptionStep {
         this.workParams = workParams;
     }
 
+    /**
+     * Get the list of object names to process in batch mode
+     *
+     * @return objectNameList, null if not in batch mode
+     */
+    public List<String> getObjectNameList() {
+        return objectNameList;
+    }
+
+    /**
+     * Set the list of object names to process in batch mode
+     *
+     * @param objectNameList objectNameList
+     */
+    public void setObjectNameList(List<String> objectNameList) {
+        this.objectNameList = objectNameList;
+    }
+
 }
@@ -151,6 +151,19 @@ public interface HandlerIO extends VitamAutoCloseable {
     void transferInputStreamToWorkspace(String workspacePath, InputStream inputStream)
         throws ProcessingException;
 
+    /**
+     * Helper to write a tar archive to Workspace, extracted within the given folder<br/>
+     * <br/>
+     * To be used to write a large number of files at once instead of one request per file
+     *
+     * @param workspaceFolder folder within the workspath, without the container (implicit), replaced if it exists
+     * @param archiveFile the local tar archive to extract
+     * @param toDelete if True, will delete the local archive
+     * @throws ProcessingException
+     */
+    void transferArchiveToWorkspace(String workspaceFolder, File archiveFile, boolean toDelete)
+        throws ProcessingException;
+
     /**
      * Helper to load a file from Workspace (or local cache) and save it into local cache.<br/>
      * <br/>
@@ -0,0 +1,205 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.common.utils;
+
+import java.io.File;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.model.VitamAutoCloseable;
+
+/**
+ * Map of objects kept in a local file as strings, through a {@link FileBackedStringMap} and a {@link Codec}.<br>
+ * <br>
+ * Each get returns a new decoded object: a value modified after a put or a get must be put again to be kept. This map
+ * is not thread safe and does not accept null keys or values.
+ *
+ * @param <V> the type of the values
+ */
+public class FileBackedMap<V> extends AbstractMap<String, V> implements VitamAutoCloseable {
+
+    /**
+     * Conversion of the values to and from the strings stored in the file
+     *
+     * @param <V> the type of the values
+     */
+    public interface Codec<V> {
+        /**
+         * @param value the value to store
+         * @return the string stored in the file
+         */
+        String encode(V value);
+
+        /**
+         * @param value the string stored in the file
+         * @return the value
+         */
+        V decode(String value);
+    }
+
+    private final FileBackedStringMap map;
+    private final Codec<V> codec;
+
+    /**
+     * Constructor of a map stored in the Vitam temporary folder
+     *
+     * @param codec the conversion of the values
+     * @throws IllegalArgumentException if codec is null
+     */
+    public FileBackedMap(Codec<V> codec) {
+        ParametersChecker.checkParameter("Codec is a mandatory parameter", codec);
+        map = new FileBackedStringMap();
+        this.codec = codec;
+    }
+
+    /**
+     * Constructor
+     *
+     * @param directory the directory of the file of the map
+     * @param codec the conversion of the values
+     * @throws IllegalArgumentException if directory or codec is null
+     */
+    public FileBackedMap(File directory, Codec<V> codec) {
+        ParametersChecker.checkParameter("Codec is a mandatory parameter", codec);
+        map = new FileBackedStringMap(directory);
+        this.codec = codec;
+    }
+
+    /**
+     * Json conversion of values that Jackson can read back as clasz (beans, lists, sets)
+     *
+     * @param <V> the type of the values
+     * @param clasz the class read from the file
+     * @return the codec
+     * @throws IllegalStateException on get if a stored value cannot be read back
+     */
+    public static <V> Codec<V> jsonCodec(final Class<?> clasz) {
+        return new Codec<V>() {
+            @Override
+            public String encode(V value) {
+                return JsonHandler.unprettyPrint(value);
+            }
+
+            @SuppressWarnings("unchecked")
+            @Override
+            public V decode(String value) {
+                try {
+                    return (V) JsonHandler.getFromString(value, clasz);
+                } catch (final InvalidParseOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return map.size();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map.containsKey(key);
+    }
+
+    @Override
+    public V get(Object key) {
+        final String value = map.get(key);
+        return value == null ? null : codec.decode(value);
+    }
+
+    @Override
+    public V put(String key, V value) {
+        ParametersChecker.checkParameterNullOnly("Key and value are mandatory", key, value);
+        final String previous = map.put(key, codec.encode(value));
+        return previous == null ? null : codec.decode(previous);
+    }
+
+    @Override
+    public V remove(Object key) {
+        final String previous = map.remove(key);
+        return previous == null ? null : codec.decode(previous);
+    }
+
+    @Override
+    public void clear() {
+        map.clear();
+    }
+
+    @Override
+    public void close() {
+        map.close();
+    }
+
+    @Override
+    public Set<String> keySet() {
+        // no need to decode the values
+        return map.keySet();
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                final Iterator<Entry<String, String>> iterator = map.entrySet().iterator();
+                return new Iterator<Entry<String, V>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, V> next() {
+                        final Entry<String, String> entry = iterator.next();
+                        return new SimpleImmutableEntry<>(entry.getKey(), codec.decode(entry.getValue()));
+                    }
+
+                    @Override
+                    public void remove() {
+                        iterator.remove();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+
+            @Override
+            public void clear() {
+                map.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.common.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.VitamConfiguration;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.VitamAutoCloseable;
+
+/**
+ * Map of strings kept in a local file, only a compact index staying in memory: one offset and one hash per entry,
+ * instead of the key and value objects.<br>
+ * <br>
+ * Each put appends the entry to the file, a replaced or removed entry being left in the file until {@link #clear()}
+ * or {@link #close()}, which also delete the file. The file is created on the first put. This map is not thread safe
+ * and does not accept null keys or values.
+ */
+public class FileBackedStringMap extends AbstractMap<String, String> implements VitamAutoCloseable {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(FileBackedStringMap.class);
+
+    private static final String FILE_PREFIX = "map_";
+    private static final String FILE_SUFFIX = ".tmp";
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    // slot states, the other values being the offset of the entry in the file + 1
+    private static final long FREE = 0;
+    private static final long REMOVED = -1;
+
+    private final File directory;
+    private RandomAccessFile file;
+    private File path;
+    // entries appended but not yet written to the file
+    private final ByteArrayOutputStream writeBuffer = new ByteArrayOutputStream(WRITE_BUFFER_SIZE);
+    private long writtenLength;
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private int size;
+    private int used;
+    private int modCount;
+
+    /**
+     * Constructor of a map stored in the Vitam temporary folder
+     */
+    public FileBackedStringMap() {
+        this(new File(VitamConfiguration.getVitamTmpFolder()));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param directory the directory of the file of the map
+     * @throws IllegalArgumentException if directory is null
+     */
+    public FileBackedStringMap(File directory) {
+        ParametersChecker.checkParameter("Directory is a mandatory parameter", directory);
+        this.directory = directory;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && findSlot((String) key) >= 0;
+    }
+
+    @Override
+    public String get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final int slot = findSlot((String) key);
+        return slot < 0 ? null : readEntry(offsets[slot] - 1)[1];
+    }
+
+    @Override
+    public String put(String key, String value) {
+        ParametersChecker.checkParameterNullOnly("Key and value are mandatory", key, value);
+        final int slot = findSlot(key);
+        final long offset = append(key, value);
+        if (slot >= 0) {
+            final String previous = readEntry(offsets[slot] - 1)[1];
+            offsets[slot] = offset + 1;
+            return previous;
+        }
+        if ((used + 1) * 2 > offsets.length) {
+            // rehash, dropping the removed slots, doubling only if needed
+            resize(size + 1 > offsets.length / 4 ? offsets.length * 2 : offsets.length);
+        }
+        final int hash = hash(key);
+        int index = hash & (offsets.length - 1);
+        while (offsets[index] != FREE) {
+            index = (index + 1) & (offsets.length - 1);
+        }
+        offsets[index] = offset + 1;
+        hashes[index] = hash;
+        size++;
+        used++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public String remove(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        final int slot = findSlot((String) key);
+        if (slot < 0) {
+            return null;
+        }
+        final String previous = readEntry(offsets[slot] - 1)[1];
+        removeSlot(slot);
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        offsets = new long[INITIAL_CAPACITY];
+        hashes = new int[INITIAL_CAPACITY];
+        size = 0;
+        used = 0;
+        modCount++;
+        writeBuffer.reset();
+        writtenLength = 0;
+        if (file != null) {
+            try {
+                file.close();
+            } catch (final IOException e) {
+                LOGGER.warn(e);
+            }
+            file = null;
+            if (!path.delete()) {
+                LOGGER.warn("File could not be deleted: " + path);
+            }
+            path = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<Entry<String, String>>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public void clear() {
+                FileBackedStringMap.this.clear();
+            }
+        };
+    }
+
+    /**
+     * Iterator over the slots of the index, the entries being read from the file
+     */
+    private final class EntryIterator implements Iterator<Entry<String, String>> {
+        private int next = -1;
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            next++;
+            while (next < offsets.length && offsets[next] <= FREE) {
+                next++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < offsets.length;
+        }
+
+        @Override
+        public Entry<String, String> next() {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            advance();
+            final String[] entry = readEntry(offsets[current] - 1);
+            return new SimpleImmutableEntry<>(entry[0], entry[1]);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0 || offsets[current] <= FREE) {
+                throw new IllegalStateException();
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeSlot(current);
+            expectedModCount = modCount;
+        }
+    }
+
+    private void removeSlot(int slot) {
+        // removed slots are kept in the probe sequences until the next resize
+        offsets[slot] = REMOVED;
+        size--;
+        modCount++;
+    }
+
+    /**
+     * @return the slot of the key, -1 if absent
+     */
+    private int findSlot(String key) {
+        final int hash = hash(key);
+        int index = hash & (offsets.length - 1);
+        while (offsets[index] != FREE) {
+            if (offsets[index] != REMOVED && hashes[index] == hash &&
+                key.equals(readEntry(offsets[index] - 1)[0])) {
+                return index;
+            }
+            index = (index + 1) & (offsets.length - 1);
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        final long[] oldOffsets = offsets;
+        final int[] oldHashes = hashes;
+        offsets = new long[capacity];
+        hashes = new int[capacity];
+        for (int i = 0; i < oldOffsets.length; i++) {
+            if (oldOffsets[i] > FREE) {
+                int index = oldHashes[i] & (capacity - 1);
+                while (offsets[index] != FREE) {
+                    index = (index + 1) & (capacity - 1);
+                }
+                offsets[index] = oldOffsets[i];
+                hashes[index] = oldHashes[i];
+            }
+        }
+        used = size;
+    }
+
+    private static int hash(String key) {
+        final int hash = key.hashCode();
+        return hash ^ hash >>> 16;
+    }
+
+    /**
+     * Append one entry (length of the entry, length of the key, key, value) to the file
+     *
+     * @return the offset of the entry in the file
+     */
+    private long append(String key, String value) {
+        final byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        final byte[] valueBytes = value.getBytes(StandardCharsets.UTF_8);
+        final long offset = writtenLength + writeBuffer.size();
+        try {
+            final DataOutputStream output = new DataOutputStream(writeBuffer);
+            output.writeInt(keyBytes.length + valueBytes.length);
+            output.writeInt(keyBytes.length);
+            output.write(keyBytes);
+            output.write(valueBytes);
+            if (writeBuffer.size() >= WRITE_BUFFER_SIZE) {
+                flush();
+            }
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return offset;
+    }
+
+    private void flush() throws IOException {
+        if (writeBuffer.size() == 0) {
+            return;
+        }
+        if (file == null) {
+            directory.mkdirs();
+            path = File.createTempFile(FILE_PREFIX, FILE_SUFFIX, directory);
+            file = new RandomAccessFile(path, "rw");
+        }
+        file.seek(writtenLength);
+        file.write(writeBuffer.toByteArray());
+        writtenLength += writeBuffer.size();
+        writeBuffer.reset();
+    }
+
+    /**
+     * @return the key and the value of the entry at this offset
+     */
+    private String[] readEntry(long offset) {
+        try {
+            if (offset >= writtenLength) {
+                flush();
+            }
+            final byte[] header = new byte[8];
+            file.seek(offset);
+            file.readFully(header);
+            final ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+            final byte[] entry = new byte[headerBuffer.getInt()];
+            final int keyLength = headerBuffer.getInt();
+            file.readFully(entry);
+            return new String[] {new String(entry, 0, keyLength, StandardCharsets.UTF_8),
+                new String(entry, keyLength, entry.length - keyLength, StandardCharsets.UTF_8)};
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -40,7 +40,6 @@ import java.util.Map;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
@@ -79,10 +78,12 @@ public class SedaUtils {
 
     static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(SedaUtils.class);
     private static final String NAMESPACE_URI = "fr:gouv:culture:archivesdefrance:seda:v2.0";
-    private static final String SEDA_VALIDATION_FILE = "seda-2.0-main.xsd";
+    /**
+     * Resource name of the SEDA 2.0 schema
+     */
+    public static final String SEDA_VALIDATION_FILE = "seda-2.0-main.xsd";
 
     private static final String MSG_PARSING_BDO = "Parsing Binary Data Object";
-    private static final String STAX_PROPERTY_PREFIX_OUTPUT_SIDE = "javax.xml.stream.isRepairingNamespaces";
     private static final String CANNOT_READ_SEDA = "Can not read SEDA";
     private static final String MANIFEST_NOT_FOUND = "Manifest.xml Not Found";
     private static final int VERSION_POSITION = 0;
@@ -172,7 +173,7 @@ public class SedaUtils {
                 throw new ProcessingException(e);
             }
 
-            final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+            final XMLInputFactory xmlInputFactory = StaxFactories.getXMLInputFactory();
             final QName messageObjectName = new QName(NAMESPACE_URI, SedaConstants.TAG_MESSAGE_IDENTIFIER);
 
             reader = xmlInputFactory.createXMLEventReader(xmlFile);
@@ -304,11 +305,7 @@ public class SedaUtils {
         extractUriResponse.setErrorNumber(listMessages.size());
 
         // Create the XML input factory
-        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-        // Create the XML output factory
-        final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
-
-        xmlOutputFactory.setProperty(SedaUtils.STAX_PROPERTY_PREFIX_OUTPUT_SIDE, Boolean.TRUE);
+        final XMLInputFactory xmlInputFactory = StaxFactories.getXMLInputFactory();
 
         final QName binaryDataObject = new QName(SedaUtils.NAMESPACE_URI, SedaConstants.TAG_BINARY_DATA_OBJECT);
         XMLEventReader eventReader = null;
@@ -415,7 +412,7 @@ public class SedaUtils {
                 throw new ProcessingException(e);
             }
 
-            final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+            final XMLInputFactory xmlInputFactory = StaxFactories.getXMLInputFactory();
             reader = xmlInputFactory.createXMLEventReader(xmlFile);
             invalidVersionList = compareVersionList(reader);
         } catch (final XMLStreamException e) {
@@ -592,7 +589,7 @@ public class SedaUtils {
                 throw new ProcessingException(e);
             }
 
-            final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+            final XMLInputFactory xmlInputFactory = StaxFactories.getXMLInputFactory();
             reader = xmlInputFactory.createXMLEventReader(xmlFile);
             sedaUtilInfo = getBinaryObjectInfo(reader);
             return sedaUtilInfo;
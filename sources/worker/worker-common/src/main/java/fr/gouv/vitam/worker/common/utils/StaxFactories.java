@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.common.utils;
+
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+
+import de.odysseus.staxon.json.JsonXMLConfigBuilder;
+import de.odysseus.staxon.json.JsonXMLOutputFactory;
+
+/**
+ * Shared StAX factories.<br/>
+ * <br/>
+ * Looking up a factory implementation is expensive, while a configured factory can be shared to create readers and
+ * writers from several threads. The factories must not be reconfigured by their users.
+ */
+public final class StaxFactories {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newInstance();
+    private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+    private static final XMLEventFactory XML_EVENT_FACTORY = XMLEventFactory.newInstance();
+    private static final JsonXMLOutputFactory JSON_XML_OUTPUT_FACTORY =
+        new JsonXMLOutputFactory(new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).prettyPrint(true)
+            .namespaceDeclarations(false).build());
+
+    private StaxFactories() {
+        // Empty
+    }
+
+    /**
+     * @return the shared XMLInputFactory
+     */
+    public static XMLInputFactory getXMLInputFactory() {
+        return XML_INPUT_FACTORY;
+    }
+
+    /**
+     * @return the shared XMLOutputFactory
+     */
+    public static XMLOutputFactory getXMLOutputFactory() {
+        return XML_OUTPUT_FACTORY;
+    }
+
+    /**
+     * @return the shared XMLEventFactory
+     */
+    public static XMLEventFactory getXMLEventFactory() {
+        return XML_EVENT_FACTORY;
+    }
+
+    /**
+     * @return the shared factory of writers from XML to JSON, with auto array, auto primitive, pretty print and without
+     *         namespace declarations
+     */
+    public static JsonXMLOutputFactory getJsonXMLOutputFactory() {
+        return JSON_XML_OUTPUT_FACTORY;
+    }
+}
@@ -30,8 +30,9 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.stax.StAXSource;
@@ -56,6 +57,11 @@ public class ValidationXsdUtils {
      */
     public static final String CATALOG_FILENAME = "catalog.xml";
 
+    /**
+     * Compiled schemas by xsd resource name: a Schema is thread safe and its compilation is expensive
+     */
+    private static final ConcurrentMap<String, Schema> SCHEMAS = new ConcurrentHashMap<>();
+
     /**
      * @param xmlFile the file to validate
      * @param xsdFile the xsd schema to validate with the file
@@ -68,8 +74,8 @@ public class ValidationXsdUtils {
     public boolean checkWithXSD(InputStream xmlFile, String xsdFile)
         throws SAXException, IOException, XMLStreamException {
 
-        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-        final XMLStreamReader xmlStreamReader = xmlInputFactory.createXMLStreamReader(xmlFile, "UTF-8");
+        final XMLStreamReader xmlStreamReader =
+            StaxFactories.getXMLInputFactory().createXMLStreamReader(xmlFile, "UTF-8");
         try {
             final Schema schema = getSchema(xsdFile);
             final Validator validator = schema.newValidator();
@@ -81,15 +87,39 @@ public class ValidationXsdUtils {
         }
     }
 
-    private Schema getSchema(String xsdFile) throws SAXException {
+    /**
+     * Compile the given schema if not already done, so that the first validation does not pay for it
+     *
+     * @param xsdFile the xsd schema resource name
+     * @throws SAXException if the schema cannot be compiled
+     */
+    public static void loadSchema(String xsdFile) throws SAXException {
+        getSchema(xsdFile);
+    }
+
+    private static Schema getSchema(String xsdFile) throws SAXException {
+        Schema schema = SCHEMAS.get(xsdFile);
+        if (schema == null) {
+            // Concurrent first calls may both compile it: only one is kept
+            schema = compileSchema(xsdFile);
+            final Schema previous = SCHEMAS.putIfAbsent(xsdFile, schema);
+            if (previous != null) {
+                schema = previous;
+            }
+        }
+        return schema;
+    }
+
+    private static Schema compileSchema(String xsdFile) throws SAXException {
         // Was XMLConstants.W3C_XML_SCHEMA_NS_URI
         final SchemaFactory factory =
             SchemaFactory.newInstance(HTTP_WWW_W3_ORG_XML_XML_SCHEMA_V1_1);
 
         // Load catalog to resolve external schemas even offline.
-        final URL catalogUrl = this.getClass().getClassLoader().getResource(CATALOG_FILENAME);
+        final ClassLoader classLoader = ValidationXsdUtils.class.getClassLoader();
+        final URL catalogUrl = classLoader.getResource(CATALOG_FILENAME);
         factory.setResourceResolver(new XMLCatalogResolver(new String[] {catalogUrl.toString()}, false));
 
-        return factory.newSchema(this.getClass().getClassLoader().getResource(xsdFile));
+        return factory.newSchema(classLoader.getResource(xsdFile));
     }
 }
@@ -28,9 +28,11 @@ package fr.gouv.vitam.worker.common.utils;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
 
 import java.io.File;
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -83,4 +85,17 @@ public class DescriptionStepTest {
         }
 
     }
+
+    @Test
+    public void testDescriptionStepBatchJson() throws Exception {
+        final DescriptionStep ds = new DescriptionStep(new Step().setStepName("StepName"),
+            WorkerParametersFactory.newWorkerParameters("processId", "stepUniqId", "containerName", "currentStep",
+                "objectName", "urlMetadata", "urlWorkspace"));
+        assertNull(ds.getObjectNameList());
+        ds.setObjectNameList(Arrays.asList("object1.json", "object2.json"));
+        final DescriptionStep copy =
+            JsonHandler.getFromJsonNode(JsonHandler.toJsonNode(ds), DescriptionStep.class);
+        assertEquals(Arrays.asList("object1.json", "object2.json"), copy.getObjectNameList());
+        assertEquals("StepName", copy.getStep().getStepName());
+    }
 }
@@ -0,0 +1,107 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.common.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import fr.gouv.vitam.common.digest.DigestType;
+
+public class FileBackedMapTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void givenListsWhenPutThenReadBackAndValueCopied() throws Exception {
+        final File directory = tempFolder.newFolder();
+        try (FileBackedMap<List<String>> map =
+            new FileBackedMap<>(directory, FileBackedMap.<List<String>>jsonCodec(ArrayList.class))) {
+            final List<String> list = new ArrayList<>(Arrays.asList("bdo1", "bdo2"));
+            assertNull(map.put("og1", list));
+            map.put("og2", new ArrayList<>(Arrays.asList("bdo3")));
+
+            // the stored value is a copy: it must be put again once modified
+            list.add("bdo4");
+            map.get("og1").add("bdo5");
+            assertEquals(Arrays.asList("bdo1", "bdo2"), map.get("og1"));
+            map.put("og1", list);
+            assertEquals(Arrays.asList("bdo1", "bdo2", "bdo4"), map.get("og1"));
+
+            final Map<String, List<String>> expected = new HashMap<>();
+            expected.put("og1", list);
+            expected.put("og2", Arrays.asList("bdo3"));
+            assertEquals(expected, map);
+            assertEquals(expected, new HashMap<>(map));
+            assertEquals(Arrays.asList("bdo3"), map.remove("og2"));
+            assertFalse(map.containsKey("og2"));
+            assertTrue(map.keySet().contains("og1"));
+            assertNull(map.get("og2"));
+            assertEquals(1, directory.list().length);
+        }
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void givenBeanWhenPutThenReadBack() throws Exception {
+        final File directory = tempFolder.newFolder();
+        final FileBackedMap<BinaryObjectInfo> map =
+            new FileBackedMap<>(directory, FileBackedMap.<BinaryObjectInfo>jsonCodec(BinaryObjectInfo.class));
+        map.put("guid", new BinaryObjectInfo().setId("id").setVersion("BinaryMaster_1").setUri("Content/file.pdf")
+            .setMessageDigest("abcd").setSize(12L).setAlgo(DigestType.SHA512));
+        final BinaryObjectInfo info = map.get("guid");
+        assertEquals("id", info.getId());
+        assertEquals("BinaryMaster_1", info.getVersion());
+        assertEquals("Content/file.pdf", info.getUri());
+        assertEquals("abcd", info.getMessageDigest());
+        assertEquals(12L, info.getSize());
+        assertEquals(DigestType.SHA512, info.getAlgo());
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, directory.list().length);
+        map.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenNullValueWhenPutThenThrowException() throws Exception {
+        new FileBackedMap<>(tempFolder.newFolder(), FileBackedMap.<String>jsonCodec(String.class)).put("a", null);
+    }
+}
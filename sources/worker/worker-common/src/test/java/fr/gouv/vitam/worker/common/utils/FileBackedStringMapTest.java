@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.common.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileBackedStringMapTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void givenEntriesWhenPutThenSameContentAsHashMap() throws Exception {
+        final File directory = tempFolder.newFolder();
+        final Map<String, String> expected = new HashMap<>();
+        try (FileBackedStringMap map = new FileBackedStringMap(directory)) {
+            // enough entries to resize the index and flush the file several times
+            for (int i = 0; i < 20000; i++) {
+                final String key = "id" + i;
+                assertNull(map.put(key, "guidé" + i));
+                expected.put(key, "guidé" + i);
+            }
+            assertEquals("guidé5", map.put("id5", "replaced"));
+            expected.put("id5", "replaced");
+            for (int i = 0; i < 20000; i += 2) {
+                assertEquals(expected.remove("id" + i), map.remove("id" + i));
+            }
+            assertNull(map.remove("unknown"));
+            assertEquals(expected.size(), map.size());
+            assertEquals(expected, map);
+            assertEquals(expected, new HashMap<>(map));
+            assertTrue(map.containsKey("id5"));
+            assertFalse(map.containsKey("id4"));
+            assertTrue(map.containsValue("replaced"));
+            assertNull(map.get("id4"));
+            assertNull(map.get(null));
+            assertEquals(1, directory.list().length);
+        }
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void givenMapWhenRemoveWithIteratorThenEntryRemoved() throws Exception {
+        final File directory = tempFolder.newFolder();
+        final FileBackedStringMap map = new FileBackedStringMap(directory);
+        map.put("a", "1");
+        map.put("b", "2");
+        map.put("c", "3");
+        final Iterator<Entry<String, String>> iterator = map.entrySet().iterator();
+        while (iterator.hasNext()) {
+            if ("2".equals(iterator.next().getValue())) {
+                iterator.remove();
+            }
+        }
+        assertEquals(2, map.size());
+        assertFalse(map.containsKey("b"));
+        assertEquals("3", map.get("c"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertEquals(0, directory.list().length);
+        // still usable after clear
+        map.put("d", "4");
+        assertEquals("4", map.get("d"));
+        map.close();
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void givenNullValueWhenPutThenThrowException() throws Exception {
+        new FileBackedStringMap(tempFolder.newFolder()).put("a", null);
+    }
+}
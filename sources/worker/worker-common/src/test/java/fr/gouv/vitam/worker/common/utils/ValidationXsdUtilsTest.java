@@ -60,6 +60,16 @@ public class ValidationXsdUtilsTest {
             valid.checkWithXSD(PropertiesUtils.getResourceAsStream(SEDA_FILE2), SEDA_VALIDATION_FILE));
     }
 
+    @Test
+    public void givenSchemaLoadedWhenCheckXsdSeveralTimesThenReturnTrue()
+        throws XMLStreamException, SAXException, IOException {
+        ValidationXsdUtils.loadSchema(SEDA_VALIDATION_FILE);
+        assertTrue(new ValidationXsdUtils().checkWithXSD(PropertiesUtils.getResourceAsStream(SEDA_FILE),
+            SEDA_VALIDATION_FILE));
+        assertTrue(new ValidationXsdUtils().checkWithXSD(PropertiesUtils.getResourceAsStream(SEDA_FILE2),
+            SEDA_VALIDATION_FILE));
+    }
+
     @Test(expected = SAXException.class)
     public void givenXmlWithInvalidContentWhenCheckXsdThenThrowSAXException()
         throws XMLStreamException, SAXException, IOException {
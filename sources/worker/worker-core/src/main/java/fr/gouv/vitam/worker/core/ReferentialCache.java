@@ -0,0 +1,220 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.worker.core;
+
+import static fr.gouv.vitam.common.database.builder.query.QueryHelper.exists;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
+import fr.gouv.vitam.common.database.builder.request.single.Select;
+import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
+import fr.gouv.vitam.functional.administration.client.AdminManagementClientFactory;
+import fr.gouv.vitam.functional.administration.common.FileFormat;
+import fr.gouv.vitam.functional.administration.common.FileRules;
+import fr.gouv.vitam.functional.administration.common.exception.ReferentialException;
+
+/**
+ * Worker side cache of the file format and rules referentials.<br>
+ * <br>
+ * Each referential is loaded in bulk with one request to the functional administration, and kept as an immutable
+ * snapshot so that lookups are in memory. A snapshot is replaced when:
+ * <ul>
+ * <li>its time to live is over,</li>
+ * <li>a looked up entry is missing: referentials are imported only into an empty collection, so a missing entry is
+ * the sign of a new import (at most one such reload per {@link #MIN_RELOAD_INTERVAL} milliseconds),</li>
+ * <li>{@link #invalidate()} is called.</li>
+ * </ul>
+ */
+public final class ReferentialCache {
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ReferentialCache.class);
+
+    /**
+     * Default time to live of a loaded referential in milliseconds
+     */
+    public static final long DEFAULT_TTL = 10L * 60 * 1000;
+    /**
+     * Minimum delay in milliseconds between two reloads triggered by a missing entry
+     */
+    public static final long MIN_RELOAD_INTERVAL = 30L * 1000;
+    private static final String RESULTS = "$results";
+
+    private static final ReferentialCache INSTANCE = new ReferentialCache(DEFAULT_TTL);
+
+    private final long ttl;
+    private volatile Referential formats;
+    private volatile Referential rules;
+
+    ReferentialCache(long ttl) {
+        this.ttl = ttl;
+    }
+
+    /**
+     * @return the cache shared by all handlers of the worker
+     */
+    public static ReferentialCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Get a file format from the referential
+     *
+     * @param puid the PUID of the format
+     * @return the file format as returned by the functional administration, or null if unknown
+     * @throws ReferentialException if the referential cannot be loaded
+     * @throws InvalidParseOperationException if the referential cannot be loaded
+     * @throws InvalidCreateOperationException if the referential cannot be loaded
+     * @throws IOException if the referential cannot be loaded
+     */
+    public JsonNode getFormat(String puid)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+        Referential referential = getFormats(false);
+        JsonNode format = referential.get(puid);
+        if (format == null && referential.isReloadable()) {
+            referential = getFormats(true);
+            format = referential.get(puid);
+        }
+        return format;
+    }
+
+    /**
+     * Get a rule from the referential
+     *
+     * @param ruleId the id of the rule
+     * @return the rule as returned by the functional administration, or null if unknown
+     * @throws ReferentialException if the referential cannot be loaded
+     * @throws InvalidParseOperationException if the referential cannot be loaded
+     * @throws InvalidCreateOperationException if the referential cannot be loaded
+     * @throws IOException if the referential cannot be loaded
+     */
+    public JsonNode getRule(String ruleId)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+        Referential referential = getRules(false);
+        JsonNode rule = referential.get(ruleId);
+        if (rule == null && referential.isReloadable()) {
+            referential = getRules(true);
+            rule = referential.get(ruleId);
+        }
+        return rule;
+    }
+
+    /**
+     * Drop the loaded referentials, the next lookups will reload them
+     */
+    public void invalidate() {
+        synchronized (this) {
+            formats = null;
+            rules = null;
+        }
+    }
+
+    private Referential getFormats(boolean reload)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+        final Referential current = formats;
+        if (current != null && !current.isExpired() && !reload) {
+            return current;
+        }
+        synchronized (this) {
+            // Another thread may have reloaded it meanwhile
+            if (formats == null || formats == current) {
+                final Select select = new Select();
+                select.setQuery(exists(FileFormat.PUID));
+                try (AdminManagementClient client = AdminManagementClientFactory.getInstance().getClient()) {
+                    formats = new Referential(client.getFormats(select.getFinalSelect()), FileFormat.PUID);
+                }
+                LOGGER.info("File format referential loaded: {} formats", formats.size());
+            }
+            return formats;
+        }
+    }
+
+    private Referential getRules(boolean reload)
+        throws ReferentialException, InvalidParseOperationException, InvalidCreateOperationException, IOException {
+        final Referential current = rules;
+        if (current != null && !current.isExpired() && !reload) {
+            return current;
+        }
+        synchronized (this) {
+            // Another thread may have reloaded it meanwhile
+            if (rules == null || rules == current) {
+                final Select select = new Select();
+                select.setQuery(exists(FileRules.RULEID));
+                try (AdminManagementClient client = AdminManagementClientFactory.getInstance().getClient()) {
+                    rules = new Referential(client.getRules(select.getFinalSelect()), FileRules.RULEID);
+                }
+                LOGGER.info("Rules referential loaded: {} rules", rules.size());
+            }
+            return rules;
+        }
+    }
+
+    /**
+     * Immutable snapshot of a referential, indexed by its key field
+     */
+    private final class Referential {
+        private final Map<String, JsonNode> entries;
+        private final long loadedAt = System.currentTimeMillis();
+
+        Referential(JsonNode response, String keyField) {
+            final Map<String, JsonNode> map = new HashMap<>();
+            final JsonNode results = response == null ? null : response.get(RESULTS);
+            if (results != null) {
+                for (final JsonNode entry : results) {
+                    final JsonNode key = entry.get(keyField);
+                    if (key != null) {
+                        map.putIfAbsent(key.asText(), entry);
+                    }
+                }
+            }
+            entries = Collections.unmodifiableMap(map);
+        }
+
+        JsonNode get(String key) {
+            return key == null ? null : entries.get(key);
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() - loadedAt > ttl;
+        }
+
+        boolean isReloadable() {
+            return System.currentTimeMillis() - loadedAt > MIN_RELOAD_INTERVAL;
+        }
+    }
+}
@@ -26,13 +26,16 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.handler;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -55,17 +58,18 @@ import javax.xml.stream.events.EndElement;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
 import org.apache.commons.lang3.StringUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Strings;
 
-import de.odysseus.staxon.json.JsonXMLConfig;
-import de.odysseus.staxon.json.JsonXMLConfigBuilder;
-import de.odysseus.staxon.json.JsonXMLOutputFactory;
 import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.exception.CycleFoundException;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
@@ -83,6 +87,7 @@ import fr.gouv.vitam.common.parameter.ParameterHelper;
 import fr.gouv.vitam.common.stream.StreamUtils;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientAlreadyExistsException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientBadRequestException;
+import fr.gouv.vitam.logbook.common.exception.LogbookClientException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientNotFoundException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientServerException;
 import fr.gouv.vitam.logbook.common.parameters.LogbookLifeCycleObjectGroupParameters;
@@ -99,8 +104,11 @@ import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.BinaryObjectInfo;
+import fr.gouv.vitam.worker.common.utils.FileBackedMap;
+import fr.gouv.vitam.worker.common.utils.FileBackedStringMap;
 import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.common.utils.StaxFactories;
 import fr.gouv.vitam.worker.core.impl.HandlerIOImpl;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
@@ -136,6 +144,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
 
     private static final String XML_EXTENSION = ".xml";
     private static final String JSON_EXTENSION = ".json";
+    private static final String TAR_EXTENSION = ".tar";
     private static final String BINARY_DATA_OBJECT = "BinaryDataObject";
     private static final String DATA_OBJECT_GROUPID = "DataObjectGroupId";
     private static final String ARCHIVE_UNIT = "ArchiveUnit";
@@ -166,7 +175,48 @@ public class ExtractSedaActionHandler extends ActionHandler {
     private static final String MANIFEST_NOT_FOUND = "Manifest.xml Not Found";
     private static final String ARCHIVE_UNIT_TMP_FILE_PREFIX = "AU_TMP_";
     private static final String GLOBAL_MGT_RULE_TAG = "GLOBAL_MGT_RULE";
+    private static final String OBJECT_GROUP_LIFE_CYCLE = "objectGroup";
 
+    /**
+     * Stores a LifeCycle as a Json object of its parameters, with a flag to know if it belongs to an object group
+     */
+    private static final FileBackedMap.Codec<LogbookLifeCycleParameters> LIFE_CYCLE_CODEC =
+        new FileBackedMap.Codec<LogbookLifeCycleParameters>() {
+            @Override
+            public String encode(LogbookLifeCycleParameters value) {
+                final ObjectNode node = JsonHandler.createObjectNode();
+                node.put(OBJECT_GROUP_LIFE_CYCLE, value instanceof LogbookLifeCycleObjectGroupParameters);
+                for (final Entry<LogbookParameterName, String> entry : value.getMapParameters().entrySet()) {
+                    node.put(entry.getKey().name(), entry.getValue());
+                }
+                return JsonHandler.unprettyPrint(node);
+            }
+
+            @Override
+            public LogbookLifeCycleParameters decode(String value) {
+                final JsonNode node;
+                try {
+                    node = JsonHandler.getFromString(value);
+                } catch (final InvalidParseOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+                final LogbookLifeCycleParameters parameters = node.get(OBJECT_GROUP_LIFE_CYCLE).asBoolean()
+                    ? LogbookParametersFactory.newLogbookLifeCycleObjectGroupParameters()
+                    : LogbookParametersFactory.newLogbookLifeCycleUnitParameters();
+                final Iterator<Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    final Entry<String, JsonNode> field = fields.next();
+                    if (!OBJECT_GROUP_LIFE_CYCLE.equals(field.getKey())) {
+                        // putParameterValue refuses the empty values that the parameters may hold
+                        parameters.getMapParameters().put(LogbookParameterName.valueOf(field.getKey()),
+                            field.getValue() instanceof NullNode ? null : field.getValue().asText());
+                    }
+                }
+                return parameters;
+            }
+        };
+
+    // maps growing with the number of units and objects are kept in local files, until the end of execute
     private final Map<String, String> binaryDataObjectIdToGuid;
     private final Map<String, String> objectGroupIdToGuid;
     private final Map<String, String> objectGroupIdToGuidTmp;
@@ -181,30 +231,34 @@ public class ExtractSedaActionHandler extends ActionHandler {
     private final Map<String, BinaryObjectInfo> objectGuidToBinaryObject;
     private final Map<String, String> binaryDataObjectIdToVersionDataObject;
     private final Map<String, LogbookLifeCycleParameters> guidToLifeCycleParameters;
+    private final List<LogbookLifeCycleParameters> unitLifeCyclesToCreate;
+    private long unitLifeCyclesToCreateBytes;
 
     private final List<Class<?>> handlerInitialIOList = new ArrayList<>();
     private File globalSedaParametersFile;
     private final Map<String, Set<String>> unitIdToSetOfRuleId;
-    private final Map<String, StringWriter> mngtMdRuleIdToRulesXml;
+    private final Map<String, String> mngtMdRuleIdToRulesXml;
 
     /**
      * Constructor with parameter SedaUtilsFactory
      */
     public ExtractSedaActionHandler() {
-        binaryDataObjectIdToGuid = new HashMap<>();
+        binaryDataObjectIdToGuid = new FileBackedStringMap();
         binaryDataObjectIdWithoutObjectGroupId = new HashMap<>();
         objectGroupIdToGuid = new HashMap<>();
         objectGroupIdToGuidTmp = new HashMap<>();
-        unitIdToGuid = new HashMap<>();
-        binaryDataObjectIdToObjectGroupId = new HashMap<>();
-        objectGroupIdToBinaryDataObjectId = new HashMap<>();
-        unitIdToGroupId = new HashMap<>();
-        objectGroupIdToUnitId = new HashMap<>();
-        guidToLifeCycleParameters = new HashMap<>();
-        binaryDataObjectIdToVersionDataObject = new HashMap<>();
-        objectGuidToBinaryObject = new HashMap<>();
-        mngtMdRuleIdToRulesXml = new HashMap<>();
-        unitIdToSetOfRuleId = new HashMap<>();
+        unitIdToGuid = new FileBackedStringMap();
+        binaryDataObjectIdToObjectGroupId = new FileBackedStringMap();
+        objectGroupIdToBinaryDataObjectId = new FileBackedMap<>(FileBackedMap.<List<String>>jsonCodec(ArrayList.class));
+        unitIdToGroupId = new FileBackedStringMap();
+        objectGroupIdToUnitId = new FileBackedMap<>(FileBackedMap.<List<String>>jsonCodec(ArrayList.class));
+        guidToLifeCycleParameters = new FileBackedMap<>(LIFE_CYCLE_CODEC);
+        unitLifeCyclesToCreate = new ArrayList<>();
+        binaryDataObjectIdToVersionDataObject = new FileBackedStringMap();
+        objectGuidToBinaryObject =
+            new FileBackedMap<>(FileBackedMap.<BinaryObjectInfo>jsonCodec(BinaryObjectInfo.class));
+        mngtMdRuleIdToRulesXml = new FileBackedStringMap();
+        unitIdToSetOfRuleId = new FileBackedMap<>(FileBackedMap.<Set<String>>jsonCodec(HashSet.class));
     }
 
     /**
@@ -240,7 +294,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
             LOGGER.debug("ProcessingException", e);
             globalCompositeItemStatus.increment(StatusCode.KO);
         } finally {
-            // Empty all maps
+            // Empty all maps, deleting the files of the file backed ones
             binaryDataObjectIdToGuid.clear();
             objectGroupIdToGuidTmp.clear();
             unitIdToGuid.clear();
@@ -249,11 +303,15 @@ public class ExtractSedaActionHandler extends ActionHandler {
             objectGroupIdToBinaryDataObjectId.clear();
             unitIdToGroupId.clear();
             guidToLifeCycleParameters.clear();
+            unitLifeCyclesToCreate.clear();
+            unitLifeCyclesToCreateBytes = 0;
             objectGuidToBinaryObject.clear();
             binaryDataObjectIdToVersionDataObject.clear();
+            mngtMdRuleIdToRulesXml.clear();
+            unitIdToSetOfRuleId.clear();
             // Except if they are to be used in MEMORY just after in the same STEP
             // objectGroupIdToGuid
-            // objectGroupIdToUnitId
+            // objectGroupIdToUnitId (its file is released when the HandlerIO is closed)
         }
 
         return new ItemStatus(HANDLER_ID).setItemsStatus(HANDLER_ID, globalCompositeItemStatus);
@@ -291,7 +349,7 @@ public class ExtractSedaActionHandler extends ActionHandler {
          **/
         InputStream xmlFile = null;
 
-        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        final XMLInputFactory xmlInputFactory = StaxFactories.getXMLInputFactory();
         XMLEventReader reader = null;
         final QName dataObjectName = new QName(SedaConstants.NAMESPACE_URI, BINARY_DATA_OBJECT);
         final QName unitName = new QName(SedaConstants.NAMESPACE_URI, ARCHIVE_UNIT);
@@ -299,7 +357,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
         // Archive Unit Tree
         final ObjectNode archiveUnitTree = JsonHandler.createObjectNode();
 
-        try {
+        // This file will be a JSON representation of the SEDA manifest with an empty DataObjectPackage structure
+        try (final FileWriter tmpFileWriter = new FileWriter(globalSedaParametersFile)) {
             try {
                 xmlFile = handlerIO.getInputStreamFromWorkspace(
                     IngestWorkflowConstants.SEDA_FOLDER + "/" + IngestWorkflowConstants.SEDA_FILE);
@@ -308,14 +367,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 throw new ProcessingException(e);
             }
             reader = xmlInputFactory.createXMLEventReader(xmlFile);
-            final JsonXMLConfig config =
-                new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).prettyPrint(true)
-                    .namespaceDeclarations(false).build();
-            // This file will be a JSON representation of the SEDA manifest with an empty DataObjectPackage structure
-            final FileWriter tmpFileWriter =
-                new FileWriter(globalSedaParametersFile);
-            final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-            final XMLEventWriter writer = new JsonXMLOutputFactory(config).createXMLEventWriter(tmpFileWriter);
+            final XMLEventFactory eventFactory = StaxFactories.getXMLEventFactory();
+            final XMLEventWriter writer = StaxFactories.getJsonXMLOutputFactory().createXMLEventWriter(tmpFileWriter);
             writer.add(eventFactory.createStartDocument());
             boolean globalMetadata = true;
             while (true) {
@@ -378,22 +431,24 @@ public class ExtractSedaActionHandler extends ActionHandler {
                     } else if (element.getName().equals(dataObjectName)) {
                         final String objectGroupGuid =
                             writeBinaryDataObjectInLocal(reader, element, containerId, logbookLifeCycleClient);
-                        if (guidToLifeCycleParameters.get(objectGroupGuid) != null) {
+                        final LogbookLifeCycleParameters objectGroupParameters =
+                            guidToLifeCycleParameters.get(objectGroupGuid);
+                        if (objectGroupParameters != null) {
                             handlerIO.getHelper()
-                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                                    .get(objectGroupGuid).setBeginningLog(HANDLER_ID, null, null));
+                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) objectGroupParameters
+                                    .setBeginningLog(HANDLER_ID, null, null));
 
                             // Add creation sub task event
                             handlerIO.getHelper()
-                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                                    .get(objectGroupGuid).setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID,
+                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) objectGroupParameters
+                                    .setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID,
                                         null,
                                         StatusCode.OK,
                                         null));
 
                             handlerIO.getHelper()
-                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                                    .get(objectGroupGuid).setFinalStatus(HANDLER_ID, null,
+                                .updateDelegate((LogbookLifeCycleObjectGroupParameters) objectGroupParameters
+                                    .setFinalStatus(HANDLER_ID, null,
                                         StatusCode.OK,
                                         null));
                             logbookLifeCycleClient.bulkCreateObjectGroup(containerId,
@@ -407,6 +462,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
             }
             writer.add(eventFactory.createEndDocument());
             writer.close();
+            // Units LifeCycles must all exist before being updated below
+            createBufferedUnitLifeCycles(containerId, logbookLifeCycleClient);
             // 1-detect cycle : if graph has a cycle throw CycleFoundException
             // Define Treatment DirectedCycle detection
             final DirectedCycle directedCycle = new DirectedCycle(new DirectedGraph(archiveUnitTree));
@@ -478,10 +535,10 @@ public class ExtractSedaActionHandler extends ActionHandler {
         throws ProcessingException {
         try {
             final StringWriter stringWriterRule = new StringWriter();
-            final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+            final XMLOutputFactory xmlOutputFactory = StaxFactories.getXMLOutputFactory();
             final XMLEventWriter xw =
                 xmlOutputFactory.createXMLEventWriter(stringWriterRule);
-            final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+            final XMLEventFactory eventFactory = StaxFactories.getXMLEventFactory();
             String currentRuleId = null;
 
             // Add start element
@@ -493,10 +550,6 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 if (event.isEndElement() &&
                     currentRuleInProcess.equalsIgnoreCase(((EndElement) event).getName().getLocalPart())) {
                     xw.add(event);
-
-                    // Add to map
-                    mngtMdRuleIdToRulesXml.put(currentRuleId, stringWriterRule);
-                    stringWriterRule.close();
                     break;
                 }
 
@@ -516,6 +569,11 @@ public class ExtractSedaActionHandler extends ActionHandler {
                 xw.add(event);
             }
             xw.add(eventFactory.createEndDocument());
+            xw.close();
+
+            // Add to map, once the end document has closed the root tag
+            mngtMdRuleIdToRulesXml.put(currentRuleId, stringWriterRule.toString());
+            stringWriterRule.close();
         } catch (XMLStreamException | IOException e) {
             LOGGER.error(CANNOT_READ_SEDA, e);
             throw new ProcessingException(e);
@@ -531,180 +589,254 @@ public class ExtractSedaActionHandler extends ActionHandler {
         if (unitIdToGuid == null) {
             return;
         }
-        final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
-        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+        final XMLOutputFactory xmlOutputFactory = StaxFactories.getXMLOutputFactory();
+        final XMLInputFactory xmlInputFactory = StaxFactories.getXMLInputFactory();
 
-        for (final Entry<String, String> element : unitIdToGuid.entrySet()) {
+        // All the units are sent to the workspace as one archive instead of one request per unit
+        final File archiveFile = handlerIO.getNewLocalFile(path + TAR_EXTENSION);
+        try (final TarArchiveOutputStream archive =
+            new TarArchiveOutputStream(new BufferedOutputStream(new FileOutputStream(archiveFile)))) {
+            for (final Entry<String, String> element : unitIdToGuid.entrySet()) {
 
-            final String unitGuid = element.getValue();
-            final String unitId = element.getKey();
-            boolean isRootArchive = true;
-            boolean mgtRulesAdded = false;
+                final String unitGuid = element.getValue();
+                final String unitId = element.getKey();
 
-            // 1- Update created Unit life cycles
-            if (guidToLifeCycleParameters.get(unitGuid) != null) {
+                // 1- Update created Unit life cycles
                 final LogbookLifeCycleParameters llcp = guidToLifeCycleParameters.get(unitGuid);
-                llcp.setBeginningLog(HANDLER_ID, null, null);
-                handlerIO.getHelper().updateDelegate(llcp);
-
-                llcp.setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID, null, StatusCode.OK,
-                    null);
-                handlerIO.getHelper().updateDelegate(llcp);
-
-                llcp.setFinalStatus(HANDLER_ID, null, StatusCode.OK,
-                    null);
-                handlerIO.getHelper().updateDelegate(llcp);
-                logbookLifeCycleClient.bulkUpdateUnit(containerId,
-                    handlerIO.getHelper().removeUpdateDelegate(unitGuid));
-            }
+                if (llcp != null) {
+                    llcp.setBeginningLog(HANDLER_ID, null, null);
+                    handlerIO.getHelper().updateDelegate(llcp);
+
+                    llcp.setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID, null, StatusCode.OK,
+                        null);
+                    handlerIO.getHelper().updateDelegate(llcp);
+
+                    llcp.setFinalStatus(HANDLER_ID, null, StatusCode.OK,
+                        null);
+                    handlerIO.getHelper().updateDelegate(llcp);
+                    logbookLifeCycleClient.bulkUpdateUnit(containerId,
+                        handlerIO.getHelper().removeUpdateDelegate(unitGuid));
+                    // no more needed: release it while the remaining units are processed
+                    guidToLifeCycleParameters.remove(unitGuid);
+                }
 
-            // 2- Update temporary files
-            final File unitTmpFileForRead = handlerIO.getNewLocalFile(ARCHIVE_UNIT_TMP_FILE_PREFIX + unitGuid);
-            final File unitCompleteTmpFile = handlerIO.getNewLocalFile(unitGuid);
-            final XMLEventWriter writer = xmlOutputFactory.createXMLEventWriter(new FileWriter(unitCompleteTmpFile));
-            final XMLEventReader reader = xmlInputFactory.createXMLEventReader(new FileReader(unitTmpFileForRead));
+                // 2- Update temporary files
+                final File unitTmpFileForRead = handlerIO.getNewLocalFile(ARCHIVE_UNIT_TMP_FILE_PREFIX + unitGuid);
+                final File unitCompleteTmpFile = handlerIO.getNewLocalFile(unitGuid);
+                try (final FileWriter fileWriter = new FileWriter(unitCompleteTmpFile);
+                    final FileReader fileReader = new FileReader(unitTmpFileForRead)) {
+                    final XMLEventWriter writer = xmlOutputFactory.createXMLEventWriter(fileWriter);
+                    XMLEventReader reader = null;
+                    try {
+                        reader = xmlInputFactory.createXMLEventReader(fileReader);
+                        writeArchiveUnitWithWork(reader, writer, archiveUnitTree, unitId);
+                        writer.flush();
+                    } finally {
+                        closeSilently(writer);
+                        closeSilently(reader);
+                    }
+                }
 
-            // Add root tag
-            writer.add(eventFactory.createStartDocument());
-            writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.ROOT_TAG));
-            boolean startCopy = false;
-            // management rules id to add
-            Set<String> globalMgtIdExtra = null;
-            while (true) {
-                final XMLEvent event = reader.nextEvent();
-                if (event.isStartElement() && ARCHIVE_UNIT.equals(event.asStartElement().getName().getLocalPart())) {
-                    startCopy = true;
+                // Add to the archive written to the workspace
+                try {
+                    addFileToArchive(archive, unitCompleteTmpFile, unitGuid + XML_EXTENSION);
+                } finally {
+                    if (!unitTmpFileForRead.delete()) {
+                        LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
+                    }
                 }
+            }
+        } catch (XMLStreamException | IOException | ProcessingException | LogbookClientException e) {
+            if (!archiveFile.delete()) {
+                LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
+            }
+            throw e;
+        }
+        transferArchiveToWorkspace(path, archiveFile, unitIdToGuid.size());
+    }
 
-                if (startCopy) {
-                    if (event.isStartElement() &&
-                        ARCHIVE_UNIT.equals(event.asStartElement().getName().getLocalPart())) {
-
-                        // add start work tag
-                        writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.WORK_TAG));
-
-                        // Get parents list
-                        // Add _up tag
-                        writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.UP_FIELD));
-                        if (archiveUnitTree.has(unitId)) {
-                            final JsonNode archiveNode = archiveUnitTree.get(unitId);
-                            if (archiveNode.has(IngestWorkflowConstants.UP_FIELD)) {
-                                final JsonNode archiveUps = archiveNode.get(IngestWorkflowConstants.UP_FIELD);
-                                if (archiveUps.isArray() && archiveUps.size() > 0) {
-                                    writer.add(eventFactory.createCharacters(getUnitParents((ArrayNode) archiveUps)));
-                                    isRootArchive = false;
-                                }
-                            }
-                        }
-                        writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.UP_FIELD));
+    /**
+     * Copy the archive unit of its temporary file, adding its parents and the management rules it inherits
+     *
+     * @param reader reader of the temporary file of the unit
+     * @param writer writer of the complete file of the unit
+     * @param archiveUnitTree the tree of the archive units
+     * @param unitId the id of the unit in the manifest
+     * @throws XMLStreamException if the unit cannot be read or written
+     */
+    private void writeArchiveUnitWithWork(XMLEventReader reader, XMLEventWriter writer, ObjectNode archiveUnitTree,
+        String unitId) throws XMLStreamException {
+        final XMLEventFactory eventFactory = StaxFactories.getXMLEventFactory();
+        boolean isRootArchive = true;
+        boolean mgtRulesAdded = false;
+        final Set<String> unitRuleIds = unitIdToSetOfRuleId.get(unitId);
+
+        // Add root tag
+        writer.add(eventFactory.createStartDocument());
+        writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.ROOT_TAG));
+        boolean startCopy = false;
+        // management rules id to add
+        Set<String> globalMgtIdExtra = null;
+        while (true) {
+            final XMLEvent event = reader.nextEvent();
+            if (event.isStartElement() &&
+                ARCHIVE_UNIT.equals(event.asStartElement().getName().getLocalPart())) {
+                startCopy = true;
+            }
 
-                        String listRulesForCurrentUnit = "";
-                        if (unitIdToSetOfRuleId != null && unitIdToSetOfRuleId.containsKey(unitId)) {
-                            listRulesForCurrentUnit = getListOfRulesFormater(unitIdToSetOfRuleId.get(unitId));
-                        }
-                        String listRulesForAuRoot = "";
-                        if (isRootArchive) {
-                            if (mngtMdRuleIdToRulesXml != null && !mngtMdRuleIdToRulesXml.isEmpty()) {
-                                globalMgtIdExtra = mngtMdRuleIdToRulesXml.keySet();
-                            }
-                            if (globalMgtIdExtra != null && !globalMgtIdExtra.isEmpty() &&
-                                unitIdToSetOfRuleId != null &&
-                                unitIdToSetOfRuleId.get(unitId) != null && !unitIdToSetOfRuleId.get(unitId).isEmpty()) {
-                                globalMgtIdExtra.removeAll(unitIdToSetOfRuleId.get(unitId));
-                            }
-                            if (globalMgtIdExtra != null && !globalMgtIdExtra.isEmpty()) {
-                                listRulesForAuRoot = getListOfRulesFormater(globalMgtIdExtra);
+            if (startCopy) {
+                if (event.isStartElement() &&
+                    ARCHIVE_UNIT.equals(event.asStartElement().getName().getLocalPart())) {
+
+                    // add start work tag
+                    writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.WORK_TAG));
+
+                    // Get parents list
+                    // Add _up tag
+                    writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.UP_FIELD));
+                    if (archiveUnitTree.has(unitId)) {
+                        final JsonNode archiveNode = archiveUnitTree.get(unitId);
+                        if (archiveNode.has(IngestWorkflowConstants.UP_FIELD)) {
+                            final JsonNode archiveUps = archiveNode.get(IngestWorkflowConstants.UP_FIELD);
+                            if (archiveUps.isArray() && archiveUps.size() > 0) {
+                                writer.add(
+                                    eventFactory.createCharacters(getUnitParents((ArrayNode) archiveUps)));
+                                isRootArchive = false;
                             }
                         }
+                    }
+                    writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.UP_FIELD));
 
-                        final StringBuilder rules = new StringBuilder();
-                        if (!Strings.isNullOrEmpty(listRulesForCurrentUnit)) {
-                            rules.append(listRulesForCurrentUnit);
-                        }
-                        if (!Strings.isNullOrEmpty(listRulesForAuRoot)) {
-                            rules.append(listRulesForAuRoot);
+                    String listRulesForCurrentUnit = "";
+                    if (unitRuleIds != null) {
+                        listRulesForCurrentUnit = getListOfRulesFormater(unitRuleIds);
+                    }
+                    String listRulesForAuRoot = "";
+                    if (isRootArchive) {
+                        if (mngtMdRuleIdToRulesXml != null && !mngtMdRuleIdToRulesXml.isEmpty()) {
+                            globalMgtIdExtra = mngtMdRuleIdToRulesXml.keySet();
                         }
-
-                        if (!StringUtils.isBlank(rules)) {
-                            writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.RULES));
-                            writer.add(eventFactory.createCharacters(rules.toString()));
-                            writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.RULES));
+                        if (globalMgtIdExtra != null && !globalMgtIdExtra.isEmpty() &&
+                            unitRuleIds != null && !unitRuleIds.isEmpty()) {
+                            globalMgtIdExtra.removeAll(unitRuleIds);
                         }
-                        writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.WORK_TAG));
-                    } else if (event.isEndElement() &&
-                        (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart()) ||
-                            ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()))) {
-                        if (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart())) {
-                            mgtRulesAdded = true;
+                        if (globalMgtIdExtra != null && !globalMgtIdExtra.isEmpty()) {
+                            listRulesForAuRoot = getListOfRulesFormater(globalMgtIdExtra);
                         }
+                    }
 
-                        if (ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()) && !mgtRulesAdded &&
-                            (isRootArchive && globalMgtIdExtra != null)) {
-                            writer.add(eventFactory.createStartElement("", "", SedaConstants.TAG_MANAGEMENT));
-                        }
-                        if (isRootArchive && globalMgtIdExtra != null) {
-                            final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
-
-                            // Add inherited rules from Management bloc
-                            for (final String id : globalMgtIdExtra) {
-                                final StringWriter stringWriter = mngtMdRuleIdToRulesXml.get(id);
-                                final StringReader stringReader = new StringReader(stringWriter.toString());
-                                final XMLEventReader xmlEventReaderRule =
-                                    inputFactory.createXMLEventReader(stringReader);
-                                boolean startCopyRule = false;
-                                while (true) {
-                                    final XMLEvent eventRule = xmlEventReaderRule.nextEvent();
-                                    if (eventRule.isStartElement() &&
-                                        GLOBAL_MGT_RULE_TAG
-                                            .equals(eventRule.asStartElement().getName().getLocalPart())) {
-                                        startCopyRule = true;
-                                        continue;
-                                    }
-
-                                    if (eventRule.isEndElement() &&
-                                        GLOBAL_MGT_RULE_TAG.equals(eventRule.asEndElement().getName().getLocalPart())) {
-                                        break;
-                                    }
-                                    if (startCopyRule) {
-                                        writer.add(eventRule);
-                                    }
+                    final StringBuilder rules = new StringBuilder();
+                    if (!Strings.isNullOrEmpty(listRulesForCurrentUnit)) {
+                        rules.append(listRulesForCurrentUnit);
+                    }
+                    if (!Strings.isNullOrEmpty(listRulesForAuRoot)) {
+                        rules.append(listRulesForAuRoot);
+                    }
+
+                    if (!StringUtils.isBlank(rules)) {
+                        writer.add(eventFactory.createStartElement("", "", IngestWorkflowConstants.RULES));
+                        writer.add(eventFactory.createCharacters(rules.toString()));
+                        writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.RULES));
+                    }
+                    writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.WORK_TAG));
+                } else if (event.isEndElement() &&
+                    (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart()) ||
+                        ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()))) {
+                    if (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart())) {
+                        mgtRulesAdded = true;
+                    }
+
+                    if (ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()) && !mgtRulesAdded &&
+                        (isRootArchive && globalMgtIdExtra != null)) {
+                        writer.add(eventFactory.createStartElement("", "", SedaConstants.TAG_MANAGEMENT));
+                    }
+                    if (isRootArchive && globalMgtIdExtra != null) {
+                        final XMLInputFactory inputFactory = StaxFactories.getXMLInputFactory();
+
+                        // Add inherited rules from Management bloc
+                        for (final String id : globalMgtIdExtra) {
+                            final StringReader stringReader = new StringReader(mngtMdRuleIdToRulesXml.get(id));
+                            final XMLEventReader xmlEventReaderRule =
+                                inputFactory.createXMLEventReader(stringReader);
+                            boolean startCopyRule = false;
+                            while (true) {
+                                final XMLEvent eventRule = xmlEventReaderRule.nextEvent();
+                                if (eventRule.isStartElement() &&
+                                    GLOBAL_MGT_RULE_TAG
+                                        .equals(eventRule.asStartElement().getName().getLocalPart())) {
+                                    startCopyRule = true;
+                                    continue;
+                                }
+
+                                if (eventRule.isEndElement() &&
+                                    GLOBAL_MGT_RULE_TAG
+                                        .equals(eventRule.asEndElement().getName().getLocalPart())) {
+                                    break;
+                                }
+                                if (startCopyRule) {
+                                    writer.add(eventRule);
                                 }
                             }
                         }
+                    }
 
-                        if (ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()) && !mgtRulesAdded &&
-                            (isRootArchive && globalMgtIdExtra != null)) {
-                            writer.add(eventFactory.createEndElement("", "", SedaConstants.TAG_MANAGEMENT));
-                        }
+                    if (ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart()) && !mgtRulesAdded &&
+                        (isRootArchive && globalMgtIdExtra != null)) {
+                        writer.add(eventFactory.createEndElement("", "", SedaConstants.TAG_MANAGEMENT));
+                    }
 
-                        if (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart())) {
-                            writer.add(event);
-                            continue;
-                        }
+                    if (SedaConstants.TAG_MANAGEMENT.equals(((EndElement) event).getName().getLocalPart())) {
+                        writer.add(event);
+                        continue;
                     }
-                    writer.add(event);
                 }
+                writer.add(event);
+            }
 
-                if (event.isEndElement() && ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart())) {
-                    break;
-                }
+            if (event.isEndElement() && ARCHIVE_UNIT.equals(event.asEndElement().getName().getLocalPart())) {
+                break;
             }
-            writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.ROOT_TAG));
-            writer.close();
-            reader.close();
+        }
+        writer.add(eventFactory.createEndElement("", "", IngestWorkflowConstants.ROOT_TAG));
+    }
 
-            // Write to workspace
+    private static void closeSilently(XMLEventWriter writer) {
+        if (writer != null) {
             try {
-                handlerIO.transferFileToWorkspace(path + "/" + unitGuid + XML_EXTENSION, unitCompleteTmpFile, true);
-            } finally {
-                if (!unitTmpFileForRead.delete()) {
-                    LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
-                }
+                writer.close();
+            } catch (final XMLStreamException e) {
+                SysErrLogger.FAKE_LOGGER.ignoreLog(e);
             }
         }
     }
 
+    private static void closeSilently(XMLEventReader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (final XMLStreamException e) {
+                SysErrLogger.FAKE_LOGGER.ignoreLog(e);
+            }
+        }
+    }
+
+    private void addFileToArchive(TarArchiveOutputStream archive, File file, String entryName) throws IOException {
+        archive.putArchiveEntry(new TarArchiveEntry(file, entryName));
+        Files.copy(file.toPath(), archive);
+        archive.closeArchiveEntry();
+        if (!file.delete()) {
+            LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
+        }
+    }
+
+    private void transferArchiveToWorkspace(String path, File archiveFile, int nbEntries) throws ProcessingException {
+        if (nbEntries > 0) {
+            handlerIO.transferArchiveToWorkspace(path, archiveFile, true);
+        } else if (!archiveFile.delete()) {
+            LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
+        }
+    }
+
     private String getListOfRulesFormater(Set<String> rulesId) {
         final StringBuilder sbRules = new StringBuilder();
         if (rulesId != null) {
@@ -789,14 +921,10 @@ public class ExtractSedaActionHandler extends ActionHandler {
         throws ProcessingException {
         final String elementGuid = GUIDFactory.newGUID().toString();
         final File tmpFile = handlerIO.getNewLocalFile(elementGuid + JSON_EXTENSION);
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-        final JsonXMLConfig config = new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).prettyPrint(true)
-            .namespaceDeclarations(false).build();
+        final XMLEventFactory eventFactory = StaxFactories.getXMLEventFactory();
         String groupGuid = null;
-        try {
-            final FileWriter tmpFileWriter = new FileWriter(tmpFile);
-
-            final XMLEventWriter writer = new JsonXMLOutputFactory(config).createXMLEventWriter(tmpFileWriter);
+        try (final FileWriter tmpFileWriter = new FileWriter(tmpFile)) {
+            final XMLEventWriter writer = StaxFactories.getJsonXMLOutputFactory().createXMLEventWriter(tmpFileWriter);
 
             final Iterator<?> it = startElement.getAttributes();
             String binaryObjectId = "";
@@ -858,7 +986,9 @@ public class ExtractSedaActionHandler extends ActionHandler {
                                 binaryOjectList.add(binaryObjectId);
                                 objectGroupIdToBinaryDataObjectId.put(groupId, binaryOjectList);
                             } else {
-                                objectGroupIdToBinaryDataObjectId.get(groupId).add(binaryObjectId);
+                                final List<String> binaryOjectList = objectGroupIdToBinaryDataObjectId.get(groupId);
+                                binaryOjectList.add(binaryObjectId);
+                                objectGroupIdToBinaryDataObjectId.put(groupId, binaryOjectList);
                             }
 
                             // Create new startElement for group with new guid
@@ -873,8 +1003,10 @@ public class ExtractSedaActionHandler extends ActionHandler {
                             binaryDataObjectIdToObjectGroupId.put(binaryObjectId, groupId);
                             // The DataObjectGroupReferenceID is after
                             // DataObjectGroupID in the XML flow
-                            if (objectGroupIdToBinaryDataObjectId.get(groupId) != null) {
-                                objectGroupIdToBinaryDataObjectId.get(groupId).add(binaryObjectId);
+                            final List<String> binaryOjectIds = objectGroupIdToBinaryDataObjectId.get(groupId);
+                            if (binaryOjectIds != null) {
+                                binaryOjectIds.add(binaryObjectId);
+                                objectGroupIdToBinaryDataObjectId.put(groupId, binaryOjectIds);
                                 groupGuidTmp = objectGroupIdToGuid.get(groupId);
                             } else {
                                 // The DataObjectGroupReferenceID is before DataObjectGroupID in the XML flow
@@ -1172,10 +1304,29 @@ public class ExtractSedaActionHandler extends ActionHandler {
         logbookLifecycleUnitParameters.putParameterValue(LogbookParameterName.eventTypeProcess,
             LogbookTypeProcess.INGEST.name());
 
-        logbookLifeCycleClient.create(logbookLifecycleUnitParameters);
-
         // Update guidToLifeCycleParameters
         guidToLifeCycleParameters.put(unitGuid, logbookLifecycleUnitParameters);
+
+        // Creation is delayed to send LifeCycles by batches
+        unitLifeCyclesToCreate.add(logbookLifecycleUnitParameters);
+        for (final String value : logbookLifecycleUnitParameters.getMapParameters().values()) {
+            if (value != null) {
+                unitLifeCyclesToCreateBytes += value.length();
+            }
+        }
+        if (unitLifeCyclesToCreate.size() >= VitamConfiguration.getLifecycleBulkSize() ||
+            unitLifeCyclesToCreateBytes >= VitamConfiguration.getLifecycleBulkBytes()) {
+            createBufferedUnitLifeCycles(containerId, logbookLifeCycleClient);
+        }
+    }
+
+    private void createBufferedUnitLifeCycles(String containerId, LogbookLifeCyclesClient logbookLifeCycleClient)
+        throws LogbookClientBadRequestException, LogbookClientAlreadyExistsException, LogbookClientServerException {
+        if (!unitLifeCyclesToCreate.isEmpty()) {
+            logbookLifeCycleClient.createUnits(containerId, unitLifeCyclesToCreate);
+            unitLifeCyclesToCreate.clear();
+            unitLifeCyclesToCreateBytes = 0;
+        }
     }
 
     private List<String> extractArchiveUnitToLocalFile(XMLEventReader reader, StartElement startElement,
@@ -1187,8 +1338,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
         final String elementGuid = GUIDFactory.newGUID().toString();
         boolean isReferencedArchive = false;
 
-        final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+        final XMLOutputFactory xmlOutputFactory = StaxFactories.getXMLOutputFactory();
+        final XMLEventFactory eventFactory = StaxFactories.getXMLEventFactory();
         final String elementID = ((Attribute) startElement.getAttributes().next()).getValue();
         final QName name = startElement.getName();
         int stack = 1;
@@ -1210,8 +1361,8 @@ public class ExtractSedaActionHandler extends ActionHandler {
         // Add new Archive Unit Entry
         archiveUnitTree.set(archiveUnitId, archiveUnitNode);
 
-        try {
-            writer = xmlOutputFactory.createXMLEventWriter(new FileWriter(tmpFile));
+        try (final FileWriter tmpFileWriter = new FileWriter(tmpFile)) {
+            writer = xmlOutputFactory.createXMLEventWriter(tmpFileWriter);
             unitIdToGuid.put(elementID, elementGuid);
 
             // Create new startElement for object with new guid
@@ -1409,125 +1560,147 @@ public class ExtractSedaActionHandler extends ActionHandler {
             throw new ProcessingException(e1);
         }
 
-        for (final Entry<String, List<String>> entry : objectGroupIdToBinaryDataObjectId.entrySet()) {
-            final ObjectNode objectGroup = JsonHandler.createObjectNode();
-            ObjectNode fileInfo = JsonHandler.createObjectNode();
-            final ArrayNode unitParent = JsonHandler.createArrayNode();
-            String objectGroupType = "";
-            final String objectGroupGuid = objectGroupIdToGuid.get(entry.getKey());
-            final File tmpFile = handlerIO.getNewLocalFile(objectGroupGuid + JSON_EXTENSION);
+        // All the object groups are sent to the workspace as one archive instead of one request per object group
+        final File archiveFile = handlerIO.getNewLocalFile(IngestWorkflowConstants.OBJECT_GROUP_FOLDER + TAR_EXTENSION);
+        try (final TarArchiveOutputStream archive =
+            new TarArchiveOutputStream(new BufferedOutputStream(new FileOutputStream(archiveFile)))) {
+            for (final Entry<String, List<String>> entry : objectGroupIdToBinaryDataObjectId.entrySet()) {
+                final ObjectNode objectGroup = JsonHandler.createObjectNode();
+                ObjectNode fileInfo = JsonHandler.createObjectNode();
+                final ArrayNode unitParent = JsonHandler.createArrayNode();
+                String objectGroupType = "";
+                final String objectGroupGuid = objectGroupIdToGuid.get(entry.getKey());
+                final File tmpFile = handlerIO.getNewLocalFile(objectGroupGuid + JSON_EXTENSION);
 
-            try {
-                final Map<String, ArrayList<JsonNode>> categoryMap = new HashMap<>();
-                objectGroup.put(SedaConstants.PREFIX_ID, objectGroupGuid);
-                objectGroup.put(SedaConstants.PREFIX_TENANT_ID, 0);
-                final List<String> versionList = new ArrayList<>();
-                for (int index = 0; index < entry.getValue().size(); index++) {
-                    final String id = entry.getValue().get(index);
-                    final File binaryObjectFile =
-                        handlerIO.getNewLocalFile(binaryDataObjectIdToGuid.get(id) + JSON_EXTENSION);
-                    final JsonNode binaryNode = JsonHandler.getFromFile(binaryObjectFile).get("BinaryDataObject");
-                    String nodeCategory = "";
-                    if (binaryNode.get(SedaConstants.TAG_DO_VERSION) != null) {
-                        nodeCategory = binaryNode.get(SedaConstants.TAG_DO_VERSION).asText();
-                        if (versionList.contains(nodeCategory)) {
-                            LOGGER.error(BINARY_DATA_OBJECT_VERSION_MUST_BE_UNIQUE);
-                            throw new ProcessingDuplicatedVersionException(BINARY_DATA_OBJECT_VERSION_MUST_BE_UNIQUE);
+                try {
+                    final Map<String, ArrayList<JsonNode>> categoryMap = new HashMap<>();
+                    objectGroup.put(SedaConstants.PREFIX_ID, objectGroupGuid);
+                    objectGroup.put(SedaConstants.PREFIX_TENANT_ID, 0);
+                    final List<String> versionList = new ArrayList<>();
+                    for (int index = 0; index < entry.getValue().size(); index++) {
+                        final String id = entry.getValue().get(index);
+                        final File binaryObjectFile =
+                            handlerIO.getNewLocalFile(binaryDataObjectIdToGuid.get(id) + JSON_EXTENSION);
+                        final JsonNode binaryNode = JsonHandler.getFromFile(binaryObjectFile).get("BinaryDataObject");
+                        String nodeCategory = "";
+                        if (binaryNode.get(SedaConstants.TAG_DO_VERSION) != null) {
+                            nodeCategory = binaryNode.get(SedaConstants.TAG_DO_VERSION).asText();
+                            if (versionList.contains(nodeCategory)) {
+                                LOGGER.error(BINARY_DATA_OBJECT_VERSION_MUST_BE_UNIQUE);
+                                throw new ProcessingDuplicatedVersionException(
+                                    BINARY_DATA_OBJECT_VERSION_MUST_BE_UNIQUE);
+                            }
+                            versionList.add(nodeCategory);
                         }
-                        versionList.add(nodeCategory);
-                    }
-                    ArrayList<JsonNode> nodeCategoryArray = categoryMap.get(nodeCategory);
-                    if (nodeCategory.split("_").length == 1) {
-                        final String nodeCategoryNumbered = nodeCategory + "_1";
-                        ((ObjectNode) binaryNode).put(SedaConstants.TAG_DO_VERSION, nodeCategoryNumbered);
-                    }
-                    if (nodeCategoryArray == null) {
-                        nodeCategoryArray = new ArrayList<>();
-                        nodeCategoryArray.add(binaryNode);
-                    } else {
-                        final int binaryNodePosition = Integer.parseInt(nodeCategory.split("_")[1]) - 1;
-                        nodeCategoryArray.add(binaryNodePosition, binaryNode);
-                    }
-                    categoryMap.put(nodeCategory, nodeCategoryArray);
-                    if (BINARY_MASTER.equals(nodeCategory)) {
+                        ArrayList<JsonNode> nodeCategoryArray = categoryMap.get(nodeCategory);
+                        if (nodeCategory.split("_").length == 1) {
+                            final String nodeCategoryNumbered = nodeCategory + "_1";
+                            ((ObjectNode) binaryNode).put(SedaConstants.TAG_DO_VERSION, nodeCategoryNumbered);
+                        }
+                        if (nodeCategoryArray == null) {
+                            nodeCategoryArray = new ArrayList<>();
+                            nodeCategoryArray.add(binaryNode);
+                        } else {
+                            final int binaryNodePosition = Integer.parseInt(nodeCategory.split("_")[1]) - 1;
+                            nodeCategoryArray.add(binaryNodePosition, binaryNode);
+                        }
+                        categoryMap.put(nodeCategory, nodeCategoryArray);
+                        if (BINARY_MASTER.equals(nodeCategory)) {
 
-                        fileInfo = (ObjectNode) binaryNode.get(FILE_INFO);
-                        if (binaryNode.get(METADATA) != null) {
-                            objectGroupType = binaryNode.get(METADATA).fieldNames().next();
+                            fileInfo = (ObjectNode) binaryNode.get(FILE_INFO);
+                            if (binaryNode.get(METADATA) != null) {
+                                objectGroupType = binaryNode.get(METADATA).fieldNames().next();
+                            }
+                        }
+                        if (!binaryObjectFile.delete()) {
+                            LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
                         }
                     }
-                    if (!binaryObjectFile.delete()) {
-                        LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
-                    }
-                }
 
-                if (objectGroupIdToUnitId != null && objectGroupIdToUnitId.size() != 0) {
-                    if (objectGroupIdToUnitId.get(entry.getKey()) != null) {
-                        for (final String objectGroupId : objectGroupIdToUnitId.get(entry.getKey())) {
-                            if (unitIdToGuid.get(objectGroupId) != null) {
-                                unitParent.add(unitIdToGuid.get(objectGroupId));
+                    if (objectGroupIdToUnitId != null && objectGroupIdToUnitId.size() != 0) {
+                        if (objectGroupIdToUnitId.get(entry.getKey()) != null) {
+                            for (final String objectGroupId : objectGroupIdToUnitId.get(entry.getKey())) {
+                                if (unitIdToGuid.get(objectGroupId) != null) {
+                                    unitParent.add(unitIdToGuid.get(objectGroupId));
+                                }
                             }
                         }
                     }
-                }
 
-                objectGroup.put(SedaConstants.PREFIX_TYPE, objectGroupType);
-                objectGroup.set(SedaConstants.TAG_FILE_INFO, fileInfo);
-                final ObjectNode qualifiersNode = getObjectGroupQualifiers(categoryMap);
-                objectGroup.set(SedaConstants.PREFIX_QUALIFIERS, qualifiersNode);
-                final ObjectNode workNode = getObjectGroupWork(categoryMap);
-                objectGroup.set(SedaConstants.PREFIX_WORK, workNode);
-                objectGroup.set(SedaConstants.PREFIX_UP, unitParent);
-                objectGroup.put(SedaConstants.PREFIX_NB, entry.getValue().size());
-                // Add operation to OPS
-                objectGroup.putArray(SedaConstants.PREFIX_OPS).add(containerId);
-                JsonHandler.writeAsFile(objectGroup, tmpFile);
-
-                handlerIO.transferFileToWorkspace(
-                    IngestWorkflowConstants.OBJECT_GROUP_FOLDER + "/" + objectGroupGuid + JSON_EXTENSION,
-                    tmpFile, true);
-                // Create unreferenced object group
-                if (guidToLifeCycleParameters.get(objectGroupGuid) == null) {
-                    createObjectGroupLifeCycle(objectGroupGuid, containerId, logbookLifeCycleClient);
-
-                    // Update Object Group lifeCycle creation event
-                    handlerIO.getHelper()
-                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                            .get(objectGroupGuid).setBeginningLog(HANDLER_ID, null, null));
-
-                    // Add creation sub task event
-                    handlerIO.getHelper()
-                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                            .get(objectGroupGuid).setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID,
-                                null,
-                                StatusCode.OK,
-                                null));
-
-                    handlerIO.getHelper()
-                        .updateDelegate((LogbookLifeCycleObjectGroupParameters) guidToLifeCycleParameters
-                            .get(objectGroupGuid).setFinalStatus(HANDLER_ID, null, StatusCode.OK,
-                                null));
-                    logbookLifeCycleClient.bulkCreateObjectGroup(containerId,
-                        handlerIO.getHelper().removeCreateDelegate(objectGroupGuid));
-                }
+                    objectGroup.put(SedaConstants.PREFIX_TYPE, objectGroupType);
+                    objectGroup.set(SedaConstants.TAG_FILE_INFO, fileInfo);
+                    final ObjectNode qualifiersNode = getObjectGroupQualifiers(categoryMap);
+                    objectGroup.set(SedaConstants.PREFIX_QUALIFIERS, qualifiersNode);
+                    final ObjectNode workNode = getObjectGroupWork(categoryMap);
+                    objectGroup.set(SedaConstants.PREFIX_WORK, workNode);
+                    objectGroup.set(SedaConstants.PREFIX_UP, unitParent);
+                    objectGroup.put(SedaConstants.PREFIX_NB, entry.getValue().size());
+                    // Add operation to OPS
+                    objectGroup.putArray(SedaConstants.PREFIX_OPS).add(containerId);
+                    JsonHandler.writeAsFile(objectGroup, tmpFile);
+
+                    addFileToArchive(archive, tmpFile, objectGroupGuid + JSON_EXTENSION);
+                    // Create unreferenced object group
+                    if (guidToLifeCycleParameters.get(objectGroupGuid) == null) {
+                        createObjectGroupLifeCycle(objectGroupGuid, containerId, logbookLifeCycleClient);
+
+                        // Update Object Group lifeCycle creation event
+                        final LogbookLifeCycleParameters objectGroupParameters =
+                            guidToLifeCycleParameters.get(objectGroupGuid);
+                        handlerIO.getHelper()
+                            .updateDelegate((LogbookLifeCycleObjectGroupParameters) objectGroupParameters
+                                .setBeginningLog(HANDLER_ID, null, null));
+
+                        // Add creation sub task event
+                        handlerIO.getHelper()
+                            .updateDelegate((LogbookLifeCycleObjectGroupParameters) objectGroupParameters
+                                .setFinalStatus(LFC_CREATION_SUB_TASK_FULL_ID,
+                                    null,
+                                    StatusCode.OK,
+                                    null));
+
+                        handlerIO.getHelper()
+                            .updateDelegate((LogbookLifeCycleObjectGroupParameters) objectGroupParameters
+                                .setFinalStatus(HANDLER_ID, null, StatusCode.OK,
+                                    null));
+                        logbookLifeCycleClient.bulkCreateObjectGroup(containerId,
+                            handlerIO.getHelper().removeCreateDelegate(objectGroupGuid));
+                    }
 
-            } catch (final InvalidParseOperationException e) {
-                LOGGER.error("Can not parse ObjectGroup", e);
-                throw new ProcessingException(e);
-            } catch (final LogbookClientBadRequestException e) {
-                LOGGER.error(LOGBOOK_LF_BAD_REQUEST_EXCEPTION_MSG, e);
-                throw new ProcessingException(e);
-            } catch (final LogbookClientAlreadyExistsException e) {
-                LOGGER.error(LOGBOOK_LF_OBJECT_EXISTS_EXCEPTION_MSG, e);
-                throw new ProcessingException(e);
-            } catch (final LogbookClientServerException e) {
-                LOGGER.error(LOGBOOK_SERVER_INTERNAL_EXCEPTION_MSG, e);
-                throw new ProcessingException(e);
-            } catch (final LogbookClientNotFoundException e) {
-                LOGGER.error(LOGBOOK_LF_RESOURCE_NOT_FOUND_EXCEPTION_MSG, e);
-                throw new ProcessingException(e);
+                } catch (final InvalidParseOperationException e) {
+                    LOGGER.error("Can not parse ObjectGroup", e);
+                    throw new ProcessingException(e);
+                } catch (final IOException e) {
+                    LOGGER.error("Can not write ObjectGroup to tmp folder", e);
+                    throw new ProcessingException(e);
+                } catch (final LogbookClientBadRequestException e) {
+                    LOGGER.error(LOGBOOK_LF_BAD_REQUEST_EXCEPTION_MSG, e);
+                    throw new ProcessingException(e);
+                } catch (final LogbookClientAlreadyExistsException e) {
+                    LOGGER.error(LOGBOOK_LF_OBJECT_EXISTS_EXCEPTION_MSG, e);
+                    throw new ProcessingException(e);
+                } catch (final LogbookClientServerException e) {
+                    LOGGER.error(LOGBOOK_SERVER_INTERNAL_EXCEPTION_MSG, e);
+                    throw new ProcessingException(e);
+                } catch (final LogbookClientNotFoundException e) {
+                    LOGGER.error(LOGBOOK_LF_RESOURCE_NOT_FOUND_EXCEPTION_MSG, e);
+                    throw new ProcessingException(e);
+                }
+            }
+        } catch (final IOException e) {
+            LOGGER.error("Can not write to tmp folder ", e);
+            if (!archiveFile.delete()) {
+                LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
             }
+            throw new ProcessingException(e);
+        } catch (final ProcessingException e) {
+            if (!archiveFile.delete()) {
+                LOGGER.warn(FILE_COULD_NOT_BE_DELETED_MSG);
+            }
+            throw e;
         }
+        transferArchiveToWorkspace(IngestWorkflowConstants.OBJECT_GROUP_FOLDER, archiveFile,
+            objectGroupIdToBinaryDataObjectId.size());
     }
 
     private ObjectNode getObjectGroupQualifiers(Map<String, ArrayList<JsonNode>> categoryMap) {
@@ -1539,13 +1712,12 @@ public class ExtractSedaActionHandler extends ActionHandler {
             for (final JsonNode node : entry.getValue()) {
                 final String id = node.findValue(SedaConstants.PREFIX_ID).textValue();
                 final String guid = binaryDataObjectIdToGuid.get(id);
+                final BinaryObjectInfo binaryObject = objectGuidToBinaryObject.get(guid);
                 ((ObjectNode) node).put(SedaConstants.PREFIX_ID, guid);
-                ((ObjectNode) node).put(SedaConstants.TAG_SIZE, objectGuidToBinaryObject.get(guid).getSize());
-                ((ObjectNode) node).put(SedaConstants.TAG_URI, objectGuidToBinaryObject.get(guid).getUri());
-                ((ObjectNode) node).put(SedaConstants.TAG_DIGEST,
-                    objectGuidToBinaryObject.get(guid).getMessageDigest());
-                ((ObjectNode) node).put(SedaConstants.ALGORITHM,
-                    objectGuidToBinaryObject.get(guid).getAlgo().getName());
+                ((ObjectNode) node).put(SedaConstants.TAG_SIZE, binaryObject.getSize());
+                ((ObjectNode) node).put(SedaConstants.TAG_URI, binaryObject.getUri());
+                ((ObjectNode) node).put(SedaConstants.TAG_DIGEST, binaryObject.getMessageDigest());
+                ((ObjectNode) node).put(SedaConstants.ALGORITHM, binaryObject.getAlgo().getName());
                 arrayNode.add(node);
             }
             binaryNode.set(SedaConstants.TAG_VERSIONS, arrayNode);
@@ -1564,11 +1736,12 @@ public class ExtractSedaActionHandler extends ActionHandler {
             for (final JsonNode node : entry.getValue()) {
                 final ObjectNode objectNode = JsonHandler.createObjectNode();
                 final String id = node.findValue(SedaConstants.PREFIX_ID).textValue();
+                final BinaryObjectInfo binaryObject = objectGuidToBinaryObject.get(id);
                 objectNode.put(SedaConstants.PREFIX_ID, id);
-                objectNode.put(SedaConstants.TAG_SIZE, objectGuidToBinaryObject.get(id).getSize());
-                objectNode.put(SedaConstants.TAG_URI, objectGuidToBinaryObject.get(id).getUri());
-                objectNode.put(SedaConstants.TAG_DIGEST, objectGuidToBinaryObject.get(id).getMessageDigest());
-                objectNode.put(SedaConstants.ALGORITHM, objectGuidToBinaryObject.get(id).getAlgo().getName());
+                objectNode.put(SedaConstants.TAG_SIZE, binaryObject.getSize());
+                objectNode.put(SedaConstants.TAG_URI, binaryObject.getUri());
+                objectNode.put(SedaConstants.TAG_DIGEST, binaryObject.getMessageDigest());
+                objectNode.put(SedaConstants.ALGORITHM, binaryObject.getAlgo().getName());
                 arrayNode.add(objectNode);
             }
             binaryNode.set(SedaConstants.TAG_VERSIONS, arrayNode);
@@ -26,8 +26,6 @@
  */
 package fr.gouv.vitam.worker.core.handler;
 
-import static fr.gouv.vitam.common.database.builder.query.QueryHelper.eq;
-
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -40,7 +38,6 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.gc.iotools.stream.is.InputStreamFromOutputStream;
 
 import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
-import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.error.VitamCode;
 import fr.gouv.vitam.common.error.VitamCodeHelper;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
@@ -60,8 +57,6 @@ import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.model.VitamAutoCloseable;
-import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
-import fr.gouv.vitam.functional.administration.client.AdminManagementClientFactory;
 import fr.gouv.vitam.functional.administration.common.FileFormat;
 import fr.gouv.vitam.functional.administration.common.exception.ReferentialException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientBadRequestException;
@@ -78,6 +73,7 @@ import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.common.utils.LogbookLifecycleWorkerHelper;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.core.ReferentialCache;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
@@ -118,9 +114,6 @@ public class FormatIdentificationActionHandler extends ActionHandler implements
 
     private static final String FORMAT_IDENTIFIER_ID = "siegfried-local";
 
-    private static final String RESULTS = "$results";
-
-
     private LogbookLifeCycleObjectGroupParameters logbookLifecycleObjectGroupParameters;
     private HandlerIO handlerIO;
     private FormatIdentifier formatIdentifier;
@@ -321,15 +314,8 @@ public class FormatIdentificationActionHandler extends ActionHandler implements
 
             final String formatId = format.getPuid();
 
-            final Select select = new Select();
-            select.setQuery(eq(FileFormat.PUID, formatId));
-            final JsonNode result;
-            try (AdminManagementClient adminClient = AdminManagementClientFactory.getInstance().getClient()) {
-                result = adminClient.getFormats(select.getFinalSelect());
-            }
-
-            // TODO P1 : what should we do if more than 1 result (for the moment, we take into account the first one)
-            if (result.size() == 0) {
+            final JsonNode refFormat = ReferentialCache.getInstance().getFormat(formatId);
+            if (refFormat == null) {
                 // format not found in vitam referential
                 objectCheckFormatResult.setStatus(StatusCode.KO);
                 objectCheckFormatResult.setSubStatus(FILE_FORMAT_PUID_NOT_FOUND);
@@ -341,7 +327,7 @@ public class FormatIdentificationActionHandler extends ActionHandler implements
                 // check formatIdentification
                 final JsonNode newFormatIdentification =
                     checkAndUpdateFormatIdentification(objectId, formatIdentification,
-                        objectCheckFormatResult, result,
+                        objectCheckFormatResult, refFormat,
                         version);
                 // Reassign new format
                 ((ObjectNode) version).set(SedaConstants.TAG_FORMAT_IDENTIFICATION, newFormatIdentification);
@@ -389,8 +375,7 @@ public class FormatIdentificationActionHandler extends ActionHandler implements
 
     private JsonNode checkAndUpdateFormatIdentification(String objectId,
         JsonNode formatIdentification,
-        ObjectCheckFormatResult objectCheckFormatResult, JsonNode result, JsonNode version) {
-        final JsonNode refFormat = result.get(RESULTS).get(0);
+        ObjectCheckFormatResult objectCheckFormatResult, JsonNode refFormat, JsonNode version) {
         final JsonNode puid = refFormat.get(FileFormat.PUID);
         final StringBuilder diff = new StringBuilder();
         JsonNode newFormatIdentification = formatIdentification;
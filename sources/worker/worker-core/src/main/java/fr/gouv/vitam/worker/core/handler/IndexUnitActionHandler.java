@@ -38,7 +38,6 @@ import javax.ws.rs.core.Response;
 import javax.xml.stream.XMLEventFactory;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLEventWriter;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.EndElement;
@@ -49,9 +48,6 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
-import de.odysseus.staxon.json.JsonXMLConfig;
-import de.odysseus.staxon.json.JsonXMLConfigBuilder;
-import de.odysseus.staxon.json.JsonXMLOutputFactory;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.database.builder.request.multiple.Insert;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
@@ -79,6 +75,7 @@ import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.common.utils.LogbookLifecycleWorkerHelper;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.common.utils.StaxFactories;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
@@ -216,9 +213,7 @@ public class IndexUnitActionHandler extends ActionHandler {
         ParametersChecker.checkParameter("ObjectName id is a mandatory parameter", objectName);
         final File tmpFile = handlerIO.getNewLocalFile(GUIDFactory.newGUID().toString());
         FileWriter tmpFileWriter = null;
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
-        final JsonXMLConfig config = new JsonXMLConfigBuilder().autoArray(true).autoPrimitive(true).prettyPrint(true)
-            .namespaceDeclarations(false).build();
+        final XMLEventFactory eventFactory = StaxFactories.getXMLEventFactory();
 
         JsonNode data = null;
         String parentsList = null;
@@ -227,9 +222,9 @@ public class IndexUnitActionHandler extends ActionHandler {
 
         try {
             tmpFileWriter = new FileWriter(tmpFile);
-            reader = XMLInputFactory.newInstance().createXMLEventReader(input);
+            reader = StaxFactories.getXMLInputFactory().createXMLEventReader(input);
 
-            final XMLEventWriter writer = new JsonXMLOutputFactory(config).createXMLEventWriter(tmpFileWriter);
+            final XMLEventWriter writer = StaxFactories.getJsonXMLOutputFactory().createXMLEventWriter(tmpFileWriter);
             boolean contentWritable = true;
             while (true) {
                 final XMLEvent event = reader.nextEvent();
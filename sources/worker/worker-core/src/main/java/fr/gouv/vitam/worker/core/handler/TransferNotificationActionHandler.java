@@ -81,6 +81,7 @@ import fr.gouv.vitam.storage.engine.common.model.request.CreateObjectDescription
 import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.common.utils.StaxFactories;
 import fr.gouv.vitam.worker.core.MarshallerObjectCache;
 import fr.gouv.vitam.worker.core.impl.HandlerIOImpl;
 import fr.gouv.vitam.worker.model.ArchiveUnitReplyTypeRoot;
@@ -261,7 +262,7 @@ public class TransferNotificationActionHandler extends ActionHandler {
 
         // creation of ATR report
         try (FileWriter artTmpFileWriter = new FileWriter(atrTmpFile)) {
-            final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+            final XMLOutputFactory outputFactory = StaxFactories.getXMLOutputFactory();
 
             final XMLStreamWriter xmlsw = outputFactory.createXMLStreamWriter(artTmpFileWriter);
             xmlsw.writeStartDocument();
@@ -423,7 +424,7 @@ public class TransferNotificationActionHandler extends ActionHandler {
         }
         // creation of ATR report
         try (FileWriter artTmpFileWriter = new FileWriter(atrTmpFile);) {
-            final XMLOutputFactory outputFactory = XMLOutputFactory.newInstance();
+            final XMLOutputFactory outputFactory = StaxFactories.getXMLOutputFactory();
 
             final XMLStreamWriter xmlsw = outputFactory.createXMLStreamWriter(artTmpFileWriter);
             xmlsw.writeStartDocument();
@@ -26,9 +26,6 @@
  */
 package fr.gouv.vitam.worker.core.handler;
 
-import static fr.gouv.vitam.common.database.builder.query.QueryHelper.eq;
-import static fr.gouv.vitam.common.database.builder.query.QueryHelper.or;
-
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -51,12 +48,11 @@ import org.apache.commons.lang.StringUtils;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.common.base.Splitter;
 import com.google.common.collect.Sets;
 
-import fr.gouv.vitam.common.database.builder.query.BooleanQuery;
 import fr.gouv.vitam.common.database.builder.request.exception.InvalidCreateOperationException;
-import fr.gouv.vitam.common.database.builder.request.single.Select;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
 import fr.gouv.vitam.common.exception.VitamException;
 import fr.gouv.vitam.common.json.JsonHandler;
@@ -66,11 +62,8 @@ import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.parameter.ParameterHelper;
-import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
-import fr.gouv.vitam.functional.administration.client.AdminManagementClientFactory;
 import fr.gouv.vitam.functional.administration.common.FileRules;
 import fr.gouv.vitam.functional.administration.common.RuleMeasurementEnum;
-import fr.gouv.vitam.functional.administration.common.exception.AdminManagementClientServerException;
 import fr.gouv.vitam.functional.administration.common.exception.FileRulesException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientBadRequestException;
 import fr.gouv.vitam.logbook.common.exception.LogbookClientNotFoundException;
@@ -84,6 +77,8 @@ import fr.gouv.vitam.worker.common.HandlerIO;
 import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.common.utils.LogbookLifecycleWorkerHelper;
 import fr.gouv.vitam.worker.common.utils.SedaConstants;
+import fr.gouv.vitam.worker.common.utils.StaxFactories;
+import fr.gouv.vitam.worker.core.ReferentialCache;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
@@ -189,34 +184,33 @@ public class UnitsRulesComputeHandler extends ActionHandler {
     }
 
     /**
-     * findRulesValueQueryBuilders: select query
+     * findRulesValueQueryBuilders: get the given rules from the worker referential cache
      *
      * @param rulesId
-     * @return the JsonNode answer
+     * @return the JsonNode answer, with the found rules as $results
      * @throws InvalidCreateOperationException
      * @throws InvalidParseOperationException
-     * @throws AdminManagementClientServerException
+     * @throws IOException
      * @throws ProcessingException
      */
 
     private JsonNode findRulesValueQueryBuilders(Set<String> rulesId)
         throws InvalidCreateOperationException, InvalidParseOperationException,
         IOException, ProcessingException {
-        final Select select =
-            new Select();
-        select.addOrderByDescFilter(FileRules.RULEID);
-        final BooleanQuery query = or();
-        for (final String ruleId : rulesId) {
-            query.add(eq(FileRules.RULEID, ruleId));
-        }
-        select.setQuery(query);
-
-        try (AdminManagementClient adminManagementClient = AdminManagementClientFactory.getInstance().getClient()) {
-            return adminManagementClient.getRules(select.getFinalSelect());
+        final ArrayNode rules = JsonHandler.createArrayNode();
+        try {
+            for (final String ruleId : rulesId) {
+                final JsonNode rule = ReferentialCache.getInstance().getRule(ruleId);
+                if (rule != null) {
+                    rules.add(rule);
+                }
+            }
         } catch (final VitamException e) {
             throw new ProcessingException(e);
         }
-
+        final ObjectNode result = JsonHandler.createObjectNode();
+        result.set("$results", rules);
+        return result;
     }
 
     /**
@@ -235,12 +229,12 @@ public class UnitsRulesComputeHandler extends ActionHandler {
         throws IOException, XMLStreamException, ProcessingException {
         Set<String> rulesToApply;
         JsonNode rulesResults = null;
-        final XMLInputFactory xmlInputFactory = XMLInputFactory.newInstance();
+        final XMLInputFactory xmlInputFactory = StaxFactories.getXMLInputFactory();
         final File fileWithEndDate = handlerIO.getNewLocalFile(AU_PREFIX_WITH_END_DATE + objectName);
         final FileWriter tmpFileWriter = new FileWriter(fileWithEndDate);
-        final XMLOutputFactory xmlOutputFactory = XMLOutputFactory.newInstance();
+        final XMLOutputFactory xmlOutputFactory = StaxFactories.getXMLOutputFactory();
         final XMLEventWriter writer = xmlOutputFactory.createXMLEventWriter(tmpFileWriter);
-        final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
+        final XMLEventFactory eventFactory = StaxFactories.getXMLEventFactory();
         XMLEventReader reader = null;
         XMLEvent event = null;
         try {
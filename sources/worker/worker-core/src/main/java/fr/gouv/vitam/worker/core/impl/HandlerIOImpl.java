@@ -41,6 +41,7 @@ import javax.ws.rs.core.Response;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import fr.gouv.vitam.common.CommonMediaType;
 import fr.gouv.vitam.common.FileUtil;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.PropertiesUtils;
@@ -59,6 +60,7 @@ import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.model.IOParameter;
 import fr.gouv.vitam.processing.common.model.ProcessingUri;
 import fr.gouv.vitam.worker.common.HandlerIO;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
@@ -176,6 +178,12 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
      */
     public void partialClose() {
         reset();
+        // MEMORY outputs may hold local files (as file backed maps)
+        for (final Object object : memoryMap.values()) {
+            if (object instanceof VitamAutoCloseable) {
+                ((VitamAutoCloseable) object).close();
+            }
+        }
         memoryMap.clear();
         if (!FileUtil.deleteRecursive(localDirectory)) {
             LOGGER.warn("Cannot clear the temporary directory: " + localDirectory);
@@ -308,6 +316,36 @@ public class HandlerIOImpl implements VitamAutoCloseable, HandlerIO {
         }
     }
 
+    @Override
+    public void transferArchiveToWorkspace(String workspaceFolder, File archiveFile, boolean toDelete)
+        throws ProcessingException {
+        try {
+            ParametersChecker.checkParameter("Workspace folder is a mandatory parameter", workspaceFolder);
+            ParametersChecker.checkParameter("Archive file is a mandatory parameter", archiveFile);
+        } catch (final IllegalArgumentException e) {
+            throw new ProcessingException(e);
+        }
+        if (!archiveFile.canRead()) {
+            throw new ProcessingException("Cannot found archive file: " + archiveFile);
+        }
+        try (FileInputStream inputStream = new FileInputStream(archiveFile)) {
+            // the folder may remain from a previous execution of the step: the workspace only extracts in a new one
+            if (client.isExistingFolder(containerName, workspaceFolder)) {
+                LOGGER.warn("Folder replaced by the archive: " + containerName + "/" + workspaceFolder);
+                client.deleteFolder(containerName, workspaceFolder);
+            }
+            client.uncompressObject(containerName, workspaceFolder, CommonMediaType.TAR, inputStream);
+            if (toDelete && !archiveFile.delete()) {
+                LOGGER.warn("File could not be deleted: " + archiveFile);
+            }
+        } catch (final IOException e) {
+            throw new ProcessingException("Cannot found or read archive file: " + archiveFile, e);
+        } catch (final ContentAddressableStorageException e) {
+            throw new ProcessingException(
+                "Cannot extract archive to workspace: " + containerName + "/" + workspaceFolder, e);
+        }
+    }
+
     /**
      * Get the File associated with this filename, trying in this order: as fullpath, as in Vitam Config Folder, as
      * Resources file
@@ -26,8 +26,9 @@
  *******************************************************************************/
 package fr.gouv.vitam.worker.core.impl;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.guid.GUIDFactory;
@@ -66,7 +67,10 @@ import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerExce
 /**
  * WorkerImpl class implements Worker interface
  *
- * manages and executes actions by step
+ * manages and executes actions by step<br>
+ * <br>
+ * Several steps can be run concurrently: each run gets its own instances of the action handlers and its own HandlerIO
+ * (so its own local directory).
  */
 public class WorkerImpl implements Worker {
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkerImpl.class);
@@ -74,7 +78,7 @@ public class WorkerImpl implements Worker {
     private static final String EMPTY_LIST = "null or Empty Action list";
     private static final String STEP_NULL = "step paramaters is null";
     private static final String HANDLER_NOT_FOUND = ": handler not found exception: ";
-    private final Map<String, ActionHandler> actions = new HashMap<>();
+    private final Map<String, Supplier<ActionHandler>> actions = new ConcurrentHashMap<>();
     private final String workerId;
 
     /**
@@ -89,7 +93,10 @@ public class WorkerImpl implements Worker {
     }
 
     /**
-     * Add an actionhandler in the pool of action
+     * Add an actionhandler in the pool of action<br>
+     * <br>
+     * The same instance is used by all the runs of this worker, so it must support concurrent executions if the worker
+     * is used concurrently.
      *
      * @param actionName action name
      * @param actionHandler action handler
@@ -99,34 +106,35 @@ public class WorkerImpl implements Worker {
     public WorkerImpl addActionHandler(String actionName, ActionHandler actionHandler) {
         ParametersChecker.checkParameter("actionName is a mandatory parameter", actionName);
         ParametersChecker.checkParameter("actionHandler is a mandatory parameter", actionHandler);
-        actions.put(actionName, actionHandler);
+        actions.put(actionName, () -> actionHandler);
         return this;
     }
 
     private void init() {
         /**
-         * Pool of action 's object
+         * Pool of action 's object: handlers keep state during their execution, so one instance is created for each
+         * execution
          */
-        actions.put(ExtractSedaActionHandler.getId(), new ExtractSedaActionHandler());
-        actions.put(IndexUnitActionHandler.getId(), new IndexUnitActionHandler());
-        actions.put(IndexObjectGroupActionHandler.getId(), new IndexObjectGroupActionHandler());
-        actions.put(CheckSedaActionHandler.getId(), new CheckSedaActionHandler());
-        actions.put(CheckObjectsNumberActionHandler.getId(), new CheckObjectsNumberActionHandler());
-        actions.put(CheckVersionActionHandler.getId(), new CheckVersionActionHandler());
-        actions.put(CheckConformityActionHandler.getId(), new CheckConformityActionHandler());
-        actions.put(StoreObjectGroupActionHandler.getId(), new StoreObjectGroupActionHandler());
+        actions.put(ExtractSedaActionHandler.getId(), ExtractSedaActionHandler::new);
+        actions.put(IndexUnitActionHandler.getId(), IndexUnitActionHandler::new);
+        actions.put(IndexObjectGroupActionHandler.getId(), IndexObjectGroupActionHandler::new);
+        actions.put(CheckSedaActionHandler.getId(), CheckSedaActionHandler::new);
+        actions.put(CheckObjectsNumberActionHandler.getId(), CheckObjectsNumberActionHandler::new);
+        actions.put(CheckVersionActionHandler.getId(), CheckVersionActionHandler::new);
+        actions.put(CheckConformityActionHandler.getId(), CheckConformityActionHandler::new);
+        actions.put(StoreObjectGroupActionHandler.getId(), StoreObjectGroupActionHandler::new);
         actions.put(CheckStorageAvailabilityActionHandler.getId(),
-            new CheckStorageAvailabilityActionHandler());
+            CheckStorageAvailabilityActionHandler::new);
         actions.put(CheckObjectUnitConsistencyActionHandler.getId(),
-            new CheckObjectUnitConsistencyActionHandler());
+            CheckObjectUnitConsistencyActionHandler::new);
         actions.put(FormatIdentificationActionHandler.getId(),
-            new FormatIdentificationActionHandler());
+            FormatIdentificationActionHandler::new);
         actions.put(AccessionRegisterActionHandler.getId(),
-            new AccessionRegisterActionHandler());
+            AccessionRegisterActionHandler::new);
         actions.put(TransferNotificationActionHandler.getId(),
-            new TransferNotificationActionHandler());
-        actions.put(DummyHandler.getId(), new DummyHandler());
-        actions.put(UnitsRulesComputeHandler.getId(), new UnitsRulesComputeHandler());
+            TransferNotificationActionHandler::new);
+        actions.put(DummyHandler.getId(), DummyHandler::new);
+        actions.put(UnitsRulesComputeHandler.getId(), UnitsRulesComputeHandler::new);
     }
 
     @Override
@@ -145,7 +153,9 @@ public class WorkerImpl implements Worker {
 
         final ItemStatus responses = new ItemStatus(step.getStepName());
 
-        try (final HandlerIO handlerIO = new HandlerIOImpl(workParams.getContainerName(), workerId)) {
+        // unique execution id so that concurrent runs on the same container never share their local directory
+        final String executionId = workerId + "_" + GUIDFactory.newGUID().toString();
+        try (final HandlerIO handlerIO = new HandlerIOImpl(workParams.getContainerName(), executionId)) {
             for (final Action action : step.getActions()) {
                 // Reset handlerIO for next execution
                 handlerIO.reset();
@@ -178,7 +188,11 @@ public class WorkerImpl implements Worker {
     }
 
     private ActionHandler getActionHandler(String actionId) {
-        return actions.get(actionId);
+        final Supplier<ActionHandler> actionHandlerSupplier = actions.get(actionId);
+        if (actionHandlerSupplier == null) {
+            return null;
+        }
+        return actionHandlerSupplier.get();
     }
 
     @Override
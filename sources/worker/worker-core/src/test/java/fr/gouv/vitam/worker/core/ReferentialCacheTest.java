@@ -0,0 +1,113 @@
+package fr.gouv.vitam.worker.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Matchers.anyObject;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.powermock.api.mockito.PowerMockito;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.PrepareForTest;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.functional.administration.client.AdminManagementClient;
+import fr.gouv.vitam.functional.administration.client.AdminManagementClientFactory;
+import fr.gouv.vitam.functional.administration.common.FileFormat;
+import fr.gouv.vitam.functional.administration.common.FileRules;
+import fr.gouv.vitam.functional.administration.common.exception.ReferentialException;
+
+@RunWith(PowerMockRunner.class)
+@PowerMockIgnore("javax.net.ssl.*")
+@PrepareForTest({AdminManagementClientFactory.class})
+public class ReferentialCacheTest {
+
+    private AdminManagementClient adminManagementClient;
+
+    @Before
+    public void setUp() {
+        PowerMockito.mockStatic(AdminManagementClientFactory.class);
+        final AdminManagementClientFactory adminManagementClientFactory = mock(AdminManagementClientFactory.class);
+        adminManagementClient = mock(AdminManagementClient.class);
+        when(AdminManagementClientFactory.getInstance()).thenReturn(adminManagementClientFactory);
+        when(adminManagementClientFactory.getClient()).thenReturn(adminManagementClient);
+    }
+
+    private static JsonNode getResults(String keyField, String... keys) {
+        final ArrayNode results = JsonHandler.createArrayNode();
+        for (final String key : keys) {
+            final ObjectNode node = JsonHandler.createObjectNode();
+            node.put(keyField, key);
+            results.add(node);
+        }
+        final ObjectNode response = JsonHandler.createObjectNode();
+        response.set("$results", results);
+        return response;
+    }
+
+    @Test
+    public void givenCacheWhenGetFormatsThenReferentialLoadedOnce() throws Exception {
+        when(adminManagementClient.getFormats(anyObject()))
+            .thenReturn(getResults(FileFormat.PUID, "fmt/18", "x-fmt/111"));
+        final ReferentialCache cache = new ReferentialCache(ReferentialCache.DEFAULT_TTL);
+
+        assertEquals("fmt/18", cache.getFormat("fmt/18").get(FileFormat.PUID).asText());
+        assertEquals("x-fmt/111", cache.getFormat("x-fmt/111").get(FileFormat.PUID).asText());
+        // Referential just loaded: a missing entry does not trigger a reload
+        assertNull(cache.getFormat("fmt/999"));
+        verify(adminManagementClient, times(1)).getFormats(anyObject());
+    }
+
+    @Test
+    public void givenCacheWhenGetRulesThenReferentialLoadedOnce() throws Exception {
+        when(adminManagementClient.getRules(anyObject()))
+            .thenReturn(getResults(FileRules.RULEID, "ACC-00001", "APP-00001"));
+        final ReferentialCache cache = new ReferentialCache(ReferentialCache.DEFAULT_TTL);
+
+        assertEquals("ACC-00001", cache.getRule("ACC-00001").get(FileRules.RULEID).asText());
+        assertEquals("APP-00001", cache.getRule("APP-00001").get(FileRules.RULEID).asText());
+        assertNull(cache.getRule("DIS-00001"));
+        verify(adminManagementClient, times(1)).getRules(anyObject());
+    }
+
+    @Test
+    public void givenExpiredCacheWhenGetFormatThenReferentialReloaded() throws Exception {
+        when(adminManagementClient.getFormats(anyObject()))
+            .thenReturn(getResults(FileFormat.PUID, "fmt/18"))
+            .thenReturn(getResults(FileFormat.PUID, "fmt/18", "fmt/19"));
+        final ReferentialCache cache = new ReferentialCache(-1);
+
+        assertNull(cache.getFormat("fmt/19"));
+        assertEquals("fmt/19", cache.getFormat("fmt/19").get(FileFormat.PUID).asText());
+        verify(adminManagementClient, times(2)).getFormats(anyObject());
+    }
+
+    @Test
+    public void givenInvalidatedCacheWhenGetRuleThenReferentialReloaded() throws Exception {
+        when(adminManagementClient.getRules(anyObject()))
+            .thenReturn(getResults(FileRules.RULEID, "ACC-00001"))
+            .thenReturn(getResults(FileRules.RULEID, "ACC-00001", "ACC-00002"));
+        final ReferentialCache cache = new ReferentialCache(ReferentialCache.DEFAULT_TTL);
+
+        assertNull(cache.getRule("ACC-00002"));
+        cache.invalidate();
+        assertEquals("ACC-00002", cache.getRule("ACC-00002").get(FileRules.RULEID).asText());
+        verify(adminManagementClient, times(2)).getRules(anyObject());
+    }
+
+    @Test(expected = ReferentialException.class)
+    public void givenReferentialErrorWhenGetFormatThenThrowException() throws Exception {
+        when(adminManagementClient.getFormats(anyObject())).thenThrow(new ReferentialException("Test"));
+        new ReferentialCache(ReferentialCache.DEFAULT_TTL).getFormat("fmt/18");
+    }
+}
@@ -30,7 +30,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Matchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.FileInputStream;
@@ -39,6 +46,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.ws.rs.core.Response;
@@ -49,20 +57,28 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.InOrder;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
 
+import com.google.common.collect.Iterables;
+
+import fr.gouv.vitam.common.CommonMediaType;
 import fr.gouv.vitam.common.PropertiesUtils;
+import fr.gouv.vitam.common.VitamConfiguration;
 import fr.gouv.vitam.common.model.ItemStatus;
 import fr.gouv.vitam.common.model.StatusCode;
+import fr.gouv.vitam.logbook.lifecycles.client.LogbookLifeCyclesClient;
+import fr.gouv.vitam.logbook.lifecycles.client.LogbookLifeCyclesClientFactory;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
 import fr.gouv.vitam.processing.common.model.IOParameter;
 import fr.gouv.vitam.processing.common.model.ProcessingUri;
 import fr.gouv.vitam.processing.common.model.UriPrefix;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
+import fr.gouv.vitam.worker.common.utils.IngestWorkflowConstants;
 import fr.gouv.vitam.worker.core.impl.HandlerIOImpl;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
@@ -71,7 +87,7 @@ import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
 
 @RunWith(PowerMockRunner.class)
 @PowerMockIgnore("javax.net.ssl.*")
-@PrepareForTest({WorkspaceClientFactory.class})
+@PrepareForTest({WorkspaceClientFactory.class, LogbookLifeCyclesClientFactory.class})
 public class ExtractSedaActionHandlerTest {
     ExtractSedaActionHandler handler = new ExtractSedaActionHandler();
     private static final String HANDLER_ID = "CHECK_MANIFEST";
@@ -145,6 +161,113 @@ public class ExtractSedaActionHandlerTest {
         assertEquals(StatusCode.OK, response.getGlobalStatus());
     }
 
+    @Test
+    public void givenManifestWhenExecuteThenUnitsSentAsOneArchive() throws Exception {
+        final WorkerParameters params =
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace("http://localhost:8083")
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName.json").setCurrentStep("currentStep")
+                .setContainerName("ExtractSedaActionHandlerTest");
+        final InputStream seda_arborescence =
+            PropertiesUtils.getResourceAsStream(SIP_ARBORESCENCE);
+        when(workspaceClient.getObject(anyObject(), eq("SIP/manifest.xml")))
+            .thenReturn(Response.status(Status.OK).entity(seda_arborescence).build());
+        action.addOutIOParameters(out);
+
+        final ItemStatus response = handler.execute(params, action);
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+        verify(workspaceClient).uncompressObject(eq("ExtractSedaActionHandlerTest"),
+            eq(IngestWorkflowConstants.ARCHIVE_UNIT_FOLDER), eq(CommonMediaType.TAR), anyObject());
+        verify(workspaceClient, never()).putObject(anyObject(),
+            startsWith(IngestWorkflowConstants.ARCHIVE_UNIT_FOLDER + "/"), anyObject());
+    }
+
+    @Test
+    public void givenUnitsFolderExistingWhenExecuteThenFolderReplaced() throws Exception {
+        final WorkerParameters params =
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace("http://localhost:8083")
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName.json").setCurrentStep("currentStep")
+                .setContainerName("ExtractSedaActionHandlerTest");
+        final InputStream seda_arborescence =
+            PropertiesUtils.getResourceAsStream(SIP_ARBORESCENCE);
+        when(workspaceClient.getObject(anyObject(), eq("SIP/manifest.xml")))
+            .thenReturn(Response.status(Status.OK).entity(seda_arborescence).build());
+        // folder left by a previous execution of the step
+        when(workspaceClient.isExistingFolder("ExtractSedaActionHandlerTest",
+            IngestWorkflowConstants.ARCHIVE_UNIT_FOLDER)).thenReturn(true);
+        action.addOutIOParameters(out);
+
+        final ItemStatus response = handler.execute(params, action);
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+        final InOrder inOrder = inOrder(workspaceClient);
+        inOrder.verify(workspaceClient).deleteFolder("ExtractSedaActionHandlerTest",
+            IngestWorkflowConstants.ARCHIVE_UNIT_FOLDER);
+        inOrder.verify(workspaceClient).uncompressObject(eq("ExtractSedaActionHandlerTest"),
+            eq(IngestWorkflowConstants.ARCHIVE_UNIT_FOLDER), eq(CommonMediaType.TAR), anyObject());
+    }
+
+    @Test
+    public void givenManyUnitsWhenExecuteThenUnitLifeCyclesCreatedByBatchesOfBulkSize() throws Exception {
+        final int bulkSize = VitamConfiguration.getLifecycleBulkSize();
+        VitamConfiguration.setLifecycleBulkSize(5);
+        try {
+            // 13 units, the 12 referenced ones have no LifeCycle
+            final List<Integer> batchSizes = executeAndGetUnitLifeCyclesBatchSizes("sip-bdo-orphan-ok3-listBDO.xml");
+            assertEquals(Arrays.asList(5, 5, 3), batchSizes);
+        } finally {
+            VitamConfiguration.setLifecycleBulkSize(bulkSize);
+        }
+    }
+
+    @Test
+    public void givenManyUnitsWhenExecuteThenUnitLifeCyclesCreatedByBatchesOfBulkBytes() throws Exception {
+        final int bulkBytes = VitamConfiguration.getLifecycleBulkBytes();
+        VitamConfiguration.setLifecycleBulkBytes(1);
+        try {
+            final List<Integer> batchSizes = executeAndGetUnitLifeCyclesBatchSizes("sip-bdo-orphan-ok3-listBDO.xml");
+            assertEquals(13, batchSizes.size());
+            for (final Integer batchSize : batchSizes) {
+                assertEquals(1, batchSize.intValue());
+            }
+        } finally {
+            VitamConfiguration.setLifecycleBulkBytes(bulkBytes);
+        }
+    }
+
+    private List<Integer> executeAndGetUnitLifeCyclesBatchSizes(String manifest) throws Exception {
+        final LogbookLifeCyclesClient logbookLifeCyclesClient = mock(LogbookLifeCyclesClient.class);
+        final LogbookLifeCyclesClientFactory logbookLifeCyclesClientFactory =
+            mock(LogbookLifeCyclesClientFactory.class);
+        PowerMockito.mockStatic(LogbookLifeCyclesClientFactory.class);
+        PowerMockito.when(LogbookLifeCyclesClientFactory.getInstance()).thenReturn(logbookLifeCyclesClientFactory);
+        when(logbookLifeCyclesClientFactory.getClient()).thenReturn(logbookLifeCyclesClient);
+        // The batch is reused once sent: its size is only known during the call
+        final List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            batchSizes.add(Iterables.size((Iterable<?>) invocation.getArguments()[1]));
+            return null;
+        }).when(logbookLifeCyclesClient).createUnits(eq("ExtractSedaActionHandlerTest"), anyObject());
+
+        final WorkerParameters params =
+            WorkerParametersFactory.newWorkerParameters().setUrlWorkspace("http://localhost:8083")
+                .setUrlMetadata("http://localhost:8083")
+                .setObjectName("objectName.json").setCurrentStep("currentStep")
+                .setContainerName("ExtractSedaActionHandlerTest");
+        final InputStream sedaLocal = new FileInputStream(PropertiesUtils.findFile(manifest));
+        when(workspaceClient.getObject(anyObject(), eq("SIP/manifest.xml")))
+            .thenReturn(Response.status(Status.OK).entity(sedaLocal).build());
+        action.addOutIOParameters(out);
+        final ItemStatus response = handler.execute(params, action);
+        assertEquals(StatusCode.OK, response.getGlobalStatus());
+
+        // All the LifeCycles are created before the first one gets updated
+        final InOrder inOrder = inOrder(logbookLifeCyclesClient);
+        inOrder.verify(logbookLifeCyclesClient, times(batchSizes.size())).createUnits(anyObject(), anyObject());
+        inOrder.verify(logbookLifeCyclesClient, atLeastOnce()).bulkUpdateUnit(anyObject(), anyObject());
+        return batchSizes;
+    }
+
     @Test
     public void givenSipWithBdoWithoutGoWhenReadSipThenDetectBdoWithoutGo()
         throws ContentAddressableStorageNotFoundException, ContentAddressableStorageServerException,
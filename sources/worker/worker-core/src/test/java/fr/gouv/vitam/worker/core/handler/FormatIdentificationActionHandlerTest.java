@@ -49,6 +49,7 @@ import fr.gouv.vitam.functional.administration.common.exception.ReferentialExcep
 import fr.gouv.vitam.processing.common.parameter.DefaultWorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
 import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
+import fr.gouv.vitam.worker.core.ReferentialCache;
 import fr.gouv.vitam.worker.core.impl.HandlerIOImpl;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
 import fr.gouv.vitam.workspace.client.WorkspaceClient;
@@ -88,6 +89,7 @@ public class FormatIdentificationActionHandlerTest {
         guid = GUIDFactory.newGUID();
         handlerIO = new HandlerIOImpl(guid.getId(), "workerId");
         deleteFiles();
+        ReferentialCache.getInstance().invalidate();
     }
 
     @After
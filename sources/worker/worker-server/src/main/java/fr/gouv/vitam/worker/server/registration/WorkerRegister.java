@@ -94,8 +94,8 @@ public class WorkerRegister implements Runnable {
             configuration.getRegisterServerHost(), configuration.getRegisterServerPort());
 
         final WorkerBean workerBean =
-            new WorkerBean(ServerIdentity.getInstance().getName(), DEFAULT_FAMILY, 1L, 1L, "active",
-                remoteConfiguration);
+            new WorkerBean(ServerIdentity.getInstance().getName(), DEFAULT_FAMILY, configuration.getParallelism(), 1L,
+                "active", remoteConfiguration);
         try {
             processingClient.registerWorker(DEFAULT_FAMILY,
                 String.valueOf(ServerIdentity.getInstance().getPlatformId()), workerBean);
@@ -29,6 +29,7 @@ package fr.gouv.vitam.worker.server.rest;
 
 import org.eclipse.jetty.servlet.ServletContextHandler;
 import org.glassfish.jersey.server.ResourceConfig;
+import org.xml.sax.SAXException;
 
 import fr.gouv.vitam.common.ServerIdentity;
 import fr.gouv.vitam.common.VitamConfiguration;
@@ -40,6 +41,8 @@ import fr.gouv.vitam.common.server.application.resources.AdminStatusResource;
 import fr.gouv.vitam.common.server.application.resources.VitamServiceRegistry;
 import fr.gouv.vitam.logbook.lifecycles.client.LogbookLifeCyclesClientFactory;
 import fr.gouv.vitam.metadata.client.MetaDataClientFactory;
+import fr.gouv.vitam.worker.common.utils.SedaUtils;
+import fr.gouv.vitam.worker.common.utils.ValidationXsdUtils;
 import fr.gouv.vitam.worker.core.api.Worker;
 import fr.gouv.vitam.worker.server.registration.WorkerRegistrationListener;
 import fr.gouv.vitam.workspace.client.WorkspaceClientFactory;
@@ -118,6 +121,12 @@ public final class WorkerApplication extends AbstractVitamApplication<WorkerAppl
             // FIXME P1 Siegfried missing but different configuration...
             // Processing dependency: optional ?
             // serviceRegistry.register(ProcessingManagementClientFactory.getInstance());
+            // Compile the SEDA schema once before the first SIP
+            try {
+                ValidationXsdUtils.loadSchema(SedaUtils.SEDA_VALIDATION_FILE);
+            } catch (final SAXException e) {
+                LOGGER.warn("SEDA schema cannot be loaded at startup", e);
+            }
         }
         resourceConfig.register(new AdminStatusResource(serviceRegistry));
     }
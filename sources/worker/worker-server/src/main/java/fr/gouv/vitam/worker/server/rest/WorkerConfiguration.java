@@ -41,6 +41,7 @@ public final class WorkerConfiguration extends DefaultVitamApplicationConfigurat
     private int registerServerPort;
     private long registerDelay = 60;
     private int registerRetry = 5;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     /**
      * WorkerConfiguration empty constructor for YAMLFactory
@@ -189,4 +190,24 @@ public final class WorkerConfiguration extends DefaultVitamApplicationConfigurat
         return this;
     }
 
+    /**
+     * Get the parallelism, the maximum number of items executed concurrently by this worker
+     *
+     * @return parallelism, by default the number of available processors
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The parallelism setter
+     *
+     * @param parallelism the maximum number of items executed concurrently, at least 1
+     * @return the updated WorkerConfiguration object
+     */
+    public WorkerConfiguration setParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
 }
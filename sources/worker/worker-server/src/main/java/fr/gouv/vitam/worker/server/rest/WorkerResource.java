@@ -27,6 +27,14 @@ package fr.gouv.vitam.worker.server.rest;
  * accept its terms.
  *******************************************************************************/
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
 import javax.ws.rs.Consumes;
 import javax.ws.rs.GET;
 import javax.ws.rs.POST;
@@ -48,18 +56,26 @@ import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.common.model.ItemStatus;
+import fr.gouv.vitam.common.model.StatusCode;
 import fr.gouv.vitam.common.security.SanityChecker;
 import fr.gouv.vitam.common.server.application.HttpHeaderHelper;
 import fr.gouv.vitam.common.server.application.resources.ApplicationStatusResource;
+import fr.gouv.vitam.common.thread.VitamThreadPoolExecutor;
 import fr.gouv.vitam.common.thread.VitamThreadUtils;
 import fr.gouv.vitam.processing.common.exception.ProcessingException;
+import fr.gouv.vitam.processing.common.model.Step;
+import fr.gouv.vitam.processing.common.parameter.WorkerParameters;
+import fr.gouv.vitam.processing.common.parameter.WorkerParametersFactory;
 import fr.gouv.vitam.worker.common.DescriptionStep;
 import fr.gouv.vitam.worker.core.api.Worker;
 import fr.gouv.vitam.worker.core.impl.WorkerImplFactory;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageServerException;
 
 /**
- * Worker Resource implementation
+ * Worker Resource implementation<br>
+ * <br>
+ * One worker instance is shared by all the requests; the objects of a batch are executed concurrently on a bounded
+ * pool of threads, sized by the parallelism of the configuration.
  */
 @Path("/worker/v1")
 @javax.ws.rs.ApplicationPath("webresources")
@@ -69,7 +85,8 @@ public class WorkerResource extends ApplicationStatusResource {
     private static final String CODE_VITAM = "code_vitam";
 
     private final int tenantId = 0;
-    private final Worker workerMocked;
+    private final Worker worker;
+    private final ExecutorService executor;
 
     /**
      * Constructor
@@ -77,8 +94,7 @@ public class WorkerResource extends ApplicationStatusResource {
      * @param configuration the worker configuration to be applied
      */
     public WorkerResource(WorkerConfiguration configuration) {
-        LOGGER.info("init Worker Resource server");
-        workerMocked = null;
+        this(WorkerImplFactory.create(), configuration.getParallelism());
     }
 
 
@@ -88,8 +104,23 @@ public class WorkerResource extends ApplicationStatusResource {
      * @param worker the worker service be applied
      */
     WorkerResource(Worker worker) {
+        this(worker, 1);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param worker the worker service be applied
+     * @param parallelism the maximum number of objects of a batch executed concurrently
+     */
+    WorkerResource(Worker worker, int parallelism) {
         LOGGER.info("init Worker Resource server");
-        workerMocked = worker;
+        ParametersChecker.checkParameter("Worker cannot be null", worker);
+        this.worker = worker;
+        final VitamThreadPoolExecutor threadPoolExecutor = new VitamThreadPoolExecutor(parallelism, parallelism,
+            60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        executor = threadPoolExecutor;
     }
 
     /**
@@ -108,7 +139,10 @@ public class WorkerResource extends ApplicationStatusResource {
     }
 
     /**
-     * Submit a step to be launched
+     * Submit a step to be launched<br>
+     * <br>
+     * If the description of the step contains a list of object names, the step is executed for each of them and the
+     * response contains the list of their status, in the same order.
      *
      * @param headers http header
      * @param descriptionStep the description of the step as a {fr.gouv.vitam.worker.common.DescriptionStep}
@@ -123,19 +157,20 @@ public class WorkerResource extends ApplicationStatusResource {
         try {
             ParametersChecker.checkParameter("Must have a step description", descriptionStep);
             SanityChecker.checkJsonAll(JsonHandler.toJsonNode(descriptionStep));
-            final ItemStatus responses;
-            if (workerMocked == null) {
-                try (Worker worker = WorkerImplFactory.create()) {
-                    responses =
-                        worker.run(descriptionStep.getWorkParams(),
-                            descriptionStep.getStep());
-                    return Response.status(Status.OK).entity(responses).build();
+            final List<String> objectNameList = descriptionStep.getObjectNameList();
+            if (objectNameList != null && !objectNameList.isEmpty()) {
+                final List<Future<ItemStatus>> futures = new ArrayList<>(objectNameList.size());
+                for (final String objectName : objectNameList) {
+                    futures.add(executor.submit(() -> runItem(descriptionStep, objectName)));
+                }
+                final List<ItemStatus> responses = new ArrayList<>(objectNameList.size());
+                for (int i = 0; i < futures.size(); i++) {
+                    responses.add(getItem(futures.get(i), descriptionStep.getStep(), objectNameList.get(i)));
                 }
-            } else {
-                responses = workerMocked.run(descriptionStep.getWorkParams(),
-                    descriptionStep.getStep());
                 return Response.status(Status.OK).entity(responses).build();
             }
+            final ItemStatus responses = worker.run(descriptionStep.getWorkParams(), descriptionStep.getStep());
+            return Response.status(Status.OK).entity(responses).build();
         } catch (final InvalidParseOperationException exc) {
             LOGGER.error(exc);
             return Response.status(Status.PRECONDITION_FAILED).entity(getErrorEntity(Status.PRECONDITION_FAILED))
@@ -146,6 +181,44 @@ public class WorkerResource extends ApplicationStatusResource {
         }
     }
 
+    /**
+     * Run the step on one object of a batch: a failure on this object is returned as a FATAL status so that the
+     * other objects of the batch are still processed
+     */
+    private ItemStatus runItem(DescriptionStep descriptionStep, String objectName) {
+        final WorkerParameters workParams =
+            WorkerParametersFactory.newWorkerParameters(descriptionStep.getWorkParams());
+        workParams.setObjectName(objectName);
+        try {
+            return worker.run(workParams, descriptionStep.getStep());
+        } catch (final IllegalArgumentException | ProcessingException | ContentAddressableStorageServerException exc) {
+            LOGGER.error(objectName, exc);
+            return getFatalStatus(descriptionStep.getStep());
+        }
+    }
+
+    /**
+     * Wait for the status of one object of a batch
+     */
+    private ItemStatus getItem(Future<ItemStatus> future, Step step, String objectName) {
+        try {
+            return future.get();
+        } catch (final InterruptedException exc) {
+            LOGGER.error(objectName, exc);
+            Thread.currentThread().interrupt();
+            return getFatalStatus(step);
+        } catch (final ExecutionException exc) {
+            LOGGER.error(objectName, exc.getCause());
+            return getFatalStatus(step);
+        }
+    }
+
+    private ItemStatus getFatalStatus(Step step) {
+        final String stepName = step.getStepName();
+        return new ItemStatus(stepName).setItemsStatus(stepName,
+            new ItemStatus(stepName).increment(StatusCode.FATAL));
+    }
+
 
     /**
      * Get the status of a step
@@ -49,4 +49,12 @@ public class WorkerConfigurationTest {
         workerConfiguration.setJettyConfig("jettyFakeConfig");
         assertEquals("jettyFakeConfig", workerConfiguration.getJettyConfig());
     }
+
+    @Test
+    public final void givenWorkerConfigurationThenSetParallelism() {
+        final WorkerConfiguration workerConfiguration = new WorkerConfiguration();
+        assertEquals(Runtime.getRuntime().availableProcessors(), workerConfiguration.getParallelism());
+        assertEquals(4, workerConfiguration.setParallelism(4).getParallelism());
+        assertEquals(1, workerConfiguration.setParallelism(0).getParallelism());
+    }
 }
@@ -28,6 +28,7 @@ package fr.gouv.vitam.worker.server.rest;
 
 import static com.jayway.restassured.RestAssured.get;
 import static com.jayway.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
 import static org.mockito.Matchers.anyObject;
 import static org.mockito.Mockito.when;
 
@@ -223,6 +224,27 @@ public class WorkerResourceTest {
             .statusCode(Status.BAD_REQUEST.getStatusCode());
     }
 
+    @Test
+    public final void testSubmitBatchStepOK()
+        throws InvalidParseOperationException, IOException, HandlerNotFoundException, IllegalArgumentException,
+        ProcessingException, ContentAddressableStorageServerException {
+        final ItemStatus itemStatus = new ItemStatus("ID");
+        itemStatus.increment(StatusCode.OK);
+        final ItemStatus responses = new ItemStatus("ID");
+        responses.setItemsStatus("ID", itemStatus);
+        Mockito.reset(worker);
+        // second object of the batch fails: it is reported as FATAL without failing the whole batch
+        when(worker.run(anyObject(), anyObject())).thenReturn(responses).thenThrow(new ProcessingException(""));
 
-}
+        final InputStream stream =
+            PropertiesUtils.getResourceAsStream("descriptionStep_batch.json");
+        final String body = IOUtils.toString(stream);
+
+        given().contentType(ContentType.JSON).body(body).when().post(WORKER_STEP_URI).then()
+            .statusCode(Status.OK.getStatusCode())
+            .body("size()", equalTo(2))
+            .body("[0].globalStatus", equalTo(StatusCode.OK.name()))
+            .body("[1].globalStatus", equalTo(StatusCode.FATAL.name()));
+    }
 
+}
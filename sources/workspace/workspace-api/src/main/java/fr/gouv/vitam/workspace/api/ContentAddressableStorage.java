@@ -29,6 +29,7 @@ package fr.gouv.vitam.workspace.api;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.Response;
@@ -161,6 +162,26 @@ public interface ContentAddressableStorage {
         throws ContentAddressableStorageAlreadyExistException, ContentAddressableStorageNotFoundException,
         ContentAddressableStorageException;
 
+    /**
+     * Adds an object representing the data at location containerName/objectName, computing its digests while it is
+     * written. The digests are kept with the object such that {@link #computeObjectDigest(String, String, DigestType)}
+     * does not need to read it again.
+     *
+     * @param containerName container to place the object.
+     * @param objectName fully qualified object name relative to the container.
+     * @param stream the data
+     * @param digestTypes the digest algorithms to compute
+     * @return the digests of the object by algorithm
+     *
+     * @throws ContentAddressableStorageNotFoundException Thrown when the container cannot be located.
+     * @throws ContentAddressableStorageException Thrown when put action failed due some other failure
+     * @throws ContentAddressableStorageAlreadyExistException Thrown when object creating exists
+     */
+    public Map<DigestType, String> putObject(String containerName, String objectName, InputStream stream,
+        DigestType... digestTypes)
+        throws ContentAddressableStorageAlreadyExistException, ContentAddressableStorageNotFoundException,
+        ContentAddressableStorageException;
+
     /**
      * Retrieves an object representing the data at location containerName/objectName
      * <p>
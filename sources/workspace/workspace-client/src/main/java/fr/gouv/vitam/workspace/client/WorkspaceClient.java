@@ -30,7 +30,11 @@ import java.io.File;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.container.AsyncResponse;
@@ -47,6 +51,7 @@ import fr.gouv.vitam.common.CommonMediaType;
 import fr.gouv.vitam.common.GlobalDataRest;
 import fr.gouv.vitam.common.ParametersChecker;
 import fr.gouv.vitam.common.client.DefaultClient;
+import fr.gouv.vitam.common.client.VitamRequestIterator;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.exception.VitamClientInternalException;
 import fr.gouv.vitam.common.logging.VitamLogger;
@@ -247,18 +252,43 @@ public class WorkspaceClient extends DefaultClient implements ContentAddressable
 
     @Override
     public void putObject(String containerName, String objectName, InputStream stream)
+        throws ContentAddressableStorageServerException {
+        putObject(containerName, objectName, stream, new DigestType[0]);
+    }
+
+    @Override
+    public Map<DigestType, String> putObject(String containerName, String objectName, InputStream stream,
+        DigestType... digestTypes)
         throws ContentAddressableStorageServerException {
         ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
             containerName, objectName);
 
         Response response = null;
         try {
-            response = performRequest(HttpMethod.POST, CONTAINERS + containerName + OBJECTS + objectName, null, stream,
-                MediaType.APPLICATION_OCTET_STREAM_TYPE,
+            MultivaluedHashMap<String, Object> headers = null;
+            if (digestTypes.length > 0) {
+                headers = new MultivaluedHashMap<>();
+                for (final DigestType digestType : digestTypes) {
+                    headers.add(GlobalDataRest.X_DIGEST_ALGORITHM, digestType.getName());
+                }
+            }
+            response = performRequest(HttpMethod.POST, CONTAINERS + containerName + OBJECTS + objectName, headers,
+                stream, MediaType.APPLICATION_OCTET_STREAM_TYPE,
                 MediaType.APPLICATION_JSON_TYPE);
 
             if (Status.CREATED.getStatusCode() == response.getStatus()) {
                 LOGGER.debug(containerName + "/" + objectName + ": " + Response.Status.CREATED.getReasonPhrase());
+                final Map<DigestType, String> digests = new EnumMap<>(DigestType.class);
+                if (digestTypes.length > 0) {
+                    // The digests computed by the workspace while writing the object
+                    final JsonNode digestsNode = response.readEntity(JsonNode.class);
+                    final Iterator<Entry<String, JsonNode>> fields = digestsNode.fields();
+                    while (fields.hasNext()) {
+                        final Entry<String, JsonNode> field = fields.next();
+                        digests.put(DigestType.fromValue(field.getKey()), field.getValue().asText());
+                    }
+                }
+                return digests;
             } else {
                 LOGGER.error(response.getStatusInfo().getReasonPhrase());
                 throw new ContentAddressableStorageServerException(ErrorMessage.INTERNAL_SERVER_ERROR.getMessage());
@@ -382,6 +412,25 @@ public class WorkspaceClient extends DefaultClient implements ContentAddressable
         }
     }
 
+    /**
+     * Iterate over the objects of a folder, including the ones of its sub-folders, without loading the whole list:
+     * the objects are listed by the workspace while the iterator is read.<br>
+     * <br>
+     * Each element is the URI of an object (as a text node), relative to the folder as in
+     * {@link #getListUriDigitalObjectFromFolder(String, String)}. The iterator must be closed.
+     *
+     * @param containerName name of the container
+     * @param folderName name of the folder
+     * @return the iterator over the URIs of the objects
+     * @throws IllegalArgumentException if one of the names is null or empty
+     */
+    public VitamRequestIterator getListUriDigitalObjectFromFolderIterator(String containerName, String folderName) {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_FOLDER_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, folderName);
+        return new VitamRequestIterator(this, HttpMethod.GET, CONTAINERS + containerName + FOLDERS + folderName, null,
+            null);
+    }
+
     @Override
     public List<URI> getListUriDigitalObjectFromFolder(String containerName, String folderName)
         throws ContentAddressableStorageServerException {
@@ -31,7 +31,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.core.MediaType;
@@ -243,6 +245,13 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
 
     @Override
     public void putObject(String containerName, String objectName, InputStream stream)
+        throws ContentAddressableStorageException {
+        putObject(containerName, objectName, stream, new DigestType[0]);
+    }
+
+    @Override
+    public Map<DigestType, String> putObject(String containerName, String objectName, InputStream stream,
+        DigestType... digestTypes)
         throws ContentAddressableStorageException {
         ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
             containerName, objectName);
@@ -253,8 +262,24 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
                 LOGGER.debug(ErrorMessage.OBJECT_ALREADY_EXIST.getMessage() + objectName);
             }
 
-            final Blob blob = blobStore.blobBuilder(objectName).payload(stream).build();
+            // The digests are updated while the blob is written
+            final List<Digest> digests = new ArrayList<>(digestTypes.length);
+            InputStream digestStream = stream;
+            for (final DigestType digestType : digestTypes) {
+                final Digest digest = new Digest(digestType);
+                digestStream = digest.getDigestInputStream(digestStream);
+                digests.add(digest);
+            }
+            final Blob blob = blobStore.blobBuilder(objectName).payload(digestStream).build();
             blobStore.putBlob(containerName, blob);
+
+            final Map<DigestType, String> objectDigests = new EnumMap<>(DigestType.class);
+            for (final Digest digest : digests) {
+                objectDigests.put(digest.type(), digest.digestHex());
+            }
+            // Even with no digest, those of a previous content must not be kept
+            storeObjectDigests(containerName, objectName, objectDigests);
+            return objectDigests;
         } catch (final ContainerNotFoundException e) {
             LOGGER.error(ErrorMessage.CONTAINER_NOT_FOUND.getMessage() + containerName);
             throw new ContentAddressableStorageNotFoundException(e);
@@ -371,6 +396,10 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
 
         ParametersChecker.checkParameter(ErrorMessage.ALGO_IS_A_MANDATORY_PARAMETER.getMessage(),
             algo);
+        final String storedDigest = getStoredObjectDigest(containerName, objectName, algo);
+        if (storedDigest != null) {
+            return storedDigest;
+        }
         try (final InputStream stream = (InputStream) getObject(containerName, objectName).getEntity()) {
             final Digest digest = new Digest(algo);
             digest.update(stream);
@@ -384,6 +413,32 @@ public abstract class ContentAddressableStorageAbstract implements ContentAddres
         }
     }
 
+    /**
+     * Keep the digests computed while writing an object, replacing the ones kept before, such that
+     * {@link #computeObjectDigest(String, String, DigestType)} does not read it again.<br>
+     * <br>
+     * Does nothing by default: the digests are then always computed from the content of the object.
+     *
+     * @param containerName container of the object
+     * @param objectName name of the object
+     * @param digests the digests of the object by algorithm
+     */
+    protected void storeObjectDigests(String containerName, String objectName, Map<DigestType, String> digests) {
+        // Nothing to store by default
+    }
+
+    /**
+     * Get a digest kept with an object when it was written
+     *
+     * @param containerName container of the object
+     * @param objectName name of the object
+     * @param algo the digest algorithm
+     * @return the digest, or null if the object has no digest kept for this algorithm
+     */
+    protected String getStoredObjectDigest(String containerName, String objectName, DigestType algo) {
+        return null;
+    }
+
     @Override
     public boolean isExistingObject(String containerName, String objectName) {
         try {
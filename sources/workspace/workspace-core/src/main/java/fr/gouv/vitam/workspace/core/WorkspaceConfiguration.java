@@ -34,6 +34,7 @@ import fr.gouv.vitam.common.server.application.configuration.DefaultVitamApplica
 public class WorkspaceConfiguration extends DefaultVitamApplicationConfiguration {
     protected static final String IS_A_MANDATORY_PARAMETER = " is a mandatory parameter";
     private String storagePath;
+    private long cursorTimeout;
 
     /**
      * getter for storage path
@@ -54,4 +55,24 @@ public class WorkspaceConfiguration extends DefaultVitamApplicationConfiguration
         this.storagePath = storagePath;
         return this;
     }
+
+    /**
+     * getter for the time after which a listing cursor not read is closed
+     *
+     * @return the timeout in ms, 0 for the default one
+     */
+    public long getCursorTimeout() {
+        return cursorTimeout;
+    }
+
+    /**
+     * setter for the time after which a listing cursor not read is closed
+     *
+     * @param cursorTimeout the timeout in ms, 0 for the default one
+     * @return this
+     */
+    public WorkspaceConfiguration setCursorTimeout(long cursorTimeout) {
+        this.cursorTimeout = cursorTimeout;
+        return this;
+    }
 }
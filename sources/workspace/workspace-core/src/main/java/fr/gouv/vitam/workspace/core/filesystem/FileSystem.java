@@ -27,6 +27,9 @@
 package fr.gouv.vitam.workspace.core.filesystem;
 
 import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
 import java.util.Properties;
 
 import org.jclouds.ContextBuilder;
@@ -34,6 +37,7 @@ import org.jclouds.blobstore.BlobStoreContext;
 import org.jclouds.filesystem.reference.FilesystemConstants;
 import org.jclouds.providers.ProviderMetadata;
 
+import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
 import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
@@ -49,11 +53,14 @@ public class FileSystem extends ContentAddressableStorageAbstract {
 
     private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(FileSystem.class);
 
+    private final String storagePath;
+
     /**
      * @param configuration to associate with the FileSystem
      */
     public FileSystem(WorkspaceConfiguration configuration) {
         super(configuration);
+        storagePath = configuration.getStoragePath();
     }
 
     @Override
@@ -64,6 +71,21 @@ public class FileSystem extends ContentAddressableStorageAbstract {
         return ContextBuilder.newBuilder("filesystem").overrides(props).buildView(BlobStoreContext.class);
     }
 
+    @Override
+    protected void storeObjectDigests(String containerName, String objectName, Map<DigestType, String> digests) {
+        ObjectDigestAttributes.writeDigests(getObjectPath(containerName, objectName), digests);
+    }
+
+    @Override
+    protected String getStoredObjectDigest(String containerName, String objectName, DigestType algo) {
+        return ObjectDigestAttributes.readDigest(getObjectPath(containerName, objectName), algo);
+    }
+
+    // The objects are stored as files under storagePath/containerName/objectName
+    private Path getObjectPath(String containerName, String objectName) {
+        return Paths.get(storagePath, containerName, objectName);
+    }
+
     @Override
     public ContainerInformation getContainerInformation(String containerName)
         throws ContentAddressableStorageNotFoundException {
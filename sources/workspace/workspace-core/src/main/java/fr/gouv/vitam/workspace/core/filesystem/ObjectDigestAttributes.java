@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.workspace.core.filesystem;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.UserDefinedFileAttributeView;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+
+/**
+ * Digests of an object file kept as user defined attributes of the file.<br>
+ * <br>
+ * This is a cache only: when the file system does not support user defined attributes, nothing is kept and the
+ * digests have to be computed from the content of the file.
+ */
+public final class ObjectDigestAttributes {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(ObjectDigestAttributes.class);
+
+    private static final String DIGEST_ATTRIBUTE_PREFIX = "vitam.digest.";
+
+    private ObjectDigestAttributes() {
+        // Empty constructor
+    }
+
+    /**
+     * Keep the digests of a file, replacing the ones already kept
+     *
+     * @param file the object file
+     * @param digests the digests of the file by algorithm
+     */
+    public static void writeDigests(Path file, Map<DigestType, String> digests) {
+        final UserDefinedFileAttributeView view =
+            Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        try {
+            for (final String name : view.list()) {
+                if (name.startsWith(DIGEST_ATTRIBUTE_PREFIX)) {
+                    view.delete(name);
+                }
+            }
+            for (final Entry<DigestType, String> digest : digests.entrySet()) {
+                view.write(getAttributeName(digest.getKey()), StandardCharsets.US_ASCII.encode(digest.getValue()));
+            }
+        } catch (final IOException | UnsupportedOperationException e) {
+            LOGGER.debug("Digests not kept for " + file, e);
+        }
+    }
+
+    /**
+     * Get a digest kept for a file
+     *
+     * @param file the object file
+     * @param digestType the digest algorithm
+     * @return the digest, or null if none is kept for this algorithm
+     */
+    public static String readDigest(Path file, DigestType digestType) {
+        final UserDefinedFileAttributeView view =
+            Files.getFileAttributeView(file, UserDefinedFileAttributeView.class);
+        if (view == null) {
+            return null;
+        }
+        final String name = getAttributeName(digestType);
+        try {
+            if (!view.list().contains(name)) {
+                return null;
+            }
+            final ByteBuffer buffer = ByteBuffer.allocate(view.size(name));
+            view.read(name, buffer);
+            buffer.flip();
+            return StandardCharsets.US_ASCII.decode(buffer).toString();
+        } catch (final IOException | UnsupportedOperationException e) {
+            LOGGER.debug("Digest not read for " + file, e);
+            return null;
+        }
+    }
+
+    private static String getAttributeName(DigestType digestType) {
+        return DIGEST_ATTRIBUTE_PREFIX + digestType.getName();
+    }
+}
@@ -0,0 +1,681 @@
+/*******************************************************************************
+ * Copyright French Prime minister Office/SGMAP/DINSIC/Vitam Program (2015-2019)
+ *
+ * contact.vitam@culture.gouv.fr
+ *
+ * This software is a computer program whose purpose is to implement a digital archiving back-office system managing
+ * high volumetry securely and efficiently.
+ *
+ * This software is governed by the CeCILL 2.1 license under French law and abiding by the rules of distribution of free
+ * software. You can use, modify and/ or redistribute the software under the terms of the CeCILL 2.1 license as
+ * circulated by CEA, CNRS and INRIA at the following URL "http://www.cecill.info".
+ *
+ * As a counterpart to the access to the source code and rights to copy, modify and redistribute granted by the license,
+ * users are provided only with a limited warranty and the software's author, the holder of the economic rights, and the
+ * successive licensors have only limited liability.
+ *
+ * In this respect, the user's attention is drawn to the risks associated with loading, using, modifying and/or
+ * developing or reproducing the software by the user in light of its specific status of free software, that may mean
+ * that it is complicated to manipulate, and that also therefore means that it is reserved for developers and
+ * experienced professionals having in-depth computer knowledge. Users are therefore encouraged to load and test the
+ * software's suitability as regards their requirements in conditions enabling the security of their systems and/or data
+ * to be ensured and, more generally, to use and operate it in the same conditions as regards security.
+ *
+ * The fact that you are presently reading this means that you have had knowledge of the CeCILL 2.1 license and that you
+ * accept its terms.
+ *******************************************************************************/
+package fr.gouv.vitam.workspace.core.filesystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveException;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import fr.gouv.vitam.common.CommonMediaType;
+import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.client.AbstractMockClient;
+import fr.gouv.vitam.common.digest.Digest;
+import fr.gouv.vitam.common.digest.DigestType;
+import fr.gouv.vitam.common.guid.GUIDFactory;
+import fr.gouv.vitam.common.json.JsonHandler;
+import fr.gouv.vitam.common.logging.VitamLogger;
+import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.VitamAutoCloseable;
+import fr.gouv.vitam.common.stream.StreamUtils;
+import fr.gouv.vitam.workspace.api.ContentAddressableStorage;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageAlreadyExistException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageCompressedFileException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageException;
+import fr.gouv.vitam.workspace.api.exception.ContentAddressableStorageNotFoundException;
+import fr.gouv.vitam.workspace.api.model.ContainerInformation;
+import fr.gouv.vitam.workspace.common.ErrorMessage;
+import fr.gouv.vitam.workspace.common.UriUtils;
+import fr.gouv.vitam.workspace.common.WorkspaceMessage;
+import fr.gouv.vitam.workspace.common.compress.VitamArchiveStreamFactory;
+import fr.gouv.vitam.workspace.core.WorkspaceConfiguration;
+
+/**
+ * Content Addressable Storage that stores the objects directly on the file system with java.nio.<br>
+ * <br>
+ * The containers are the directories of the storage path, and an object is the file at storagePath/containerName/
+ * objectName, as with the jclouds {@link FileSystem}. An object is written in a temporary file of its directory,
+ * which is renamed to the object once complete, such that a partially written object is never read.
+ */
+public class WorkspaceFileSystem implements ContentAddressableStorage {
+
+    private static final VitamLogger LOGGER = VitamLoggerFactory.getInstance(WorkspaceFileSystem.class);
+
+    private static final String TEMPORARY_PREFIX = ".tmp-";
+    private static final long TRANSFER_SIZE = 1024L * 1024L;
+
+    /**
+     * Default time after which a cursor not read is closed (in ms)
+     */
+    public static final long CURSOR_TIMEOUT = 10L * 60L * 1000L;
+
+    private final Path storagePath;
+    private final long cursorTimeout;
+    // Opened listing cursors, by id
+    private final Map<String, ObjectCursor> cursors = new ConcurrentHashMap<>();
+
+    /**
+     * @param configuration to associate with the WorkspaceFileSystem
+     */
+    public WorkspaceFileSystem(WorkspaceConfiguration configuration) {
+        storagePath = Paths.get(configuration.getStoragePath());
+        cursorTimeout = configuration.getCursorTimeout() > 0 ? configuration.getCursorTimeout() : CURSOR_TIMEOUT;
+    }
+
+    @Override
+    public void createContainer(String containerName) throws ContentAddressableStorageAlreadyExistException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        try {
+            Files.createDirectories(storagePath);
+            Files.createDirectory(getContainerPath(containerName));
+        } catch (final FileAlreadyExistsException e) {
+            LOGGER.error(ErrorMessage.CONTAINER_ALREADY_EXIST.getMessage() + containerName);
+            throw new ContentAddressableStorageAlreadyExistException(
+                ErrorMessage.CONTAINER_ALREADY_EXIST.getMessage() + containerName, e);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void purgeContainer(String containerName) throws ContentAddressableStorageNotFoundException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        checkContainer(containerName);
+        deleteTree(getContainerPath(containerName), false);
+    }
+
+    @Override
+    public void deleteContainer(String containerName) throws ContentAddressableStorageNotFoundException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        deleteContainer(containerName, false);
+    }
+
+    @Override
+    public void deleteContainer(String containerName, boolean recursive)
+        throws ContentAddressableStorageNotFoundException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        checkContainer(containerName);
+        if (recursive) {
+            deleteTree(getContainerPath(containerName), true);
+        } else {
+            try {
+                Files.delete(getContainerPath(containerName));
+            } catch (final DirectoryNotEmptyException e) {
+                // Only an empty container is deleted
+                LOGGER.debug(e);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isExistingContainer(String containerName) {
+        return Files.isDirectory(getContainerPath(containerName));
+    }
+
+    @Override
+    public void createFolder(String containerName, String folderName)
+        throws ContentAddressableStorageNotFoundException, ContentAddressableStorageAlreadyExistException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_FOLDER_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, folderName);
+        checkContainer(containerName);
+        if (isExistingFolder(containerName, folderName)) {
+            LOGGER.error(ErrorMessage.FOLDER_ALREADY_EXIST + folderName);
+            throw new ContentAddressableStorageAlreadyExistException(
+                ErrorMessage.FOLDER_ALREADY_EXIST.getMessage() + folderName);
+        }
+        try {
+            Files.createDirectories(getObjectPath(containerName, folderName));
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void deleteFolder(String containerName, String folderName)
+        throws ContentAddressableStorageNotFoundException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_FOLDER_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, folderName);
+        if (!isExistingFolder(containerName, folderName)) {
+            LOGGER.error(ErrorMessage.FOLDER_NOT_FOUND.getMessage() + folderName);
+            throw new ContentAddressableStorageNotFoundException(
+                ErrorMessage.FOLDER_NOT_FOUND.getMessage() + folderName);
+        }
+        deleteTree(getObjectPath(containerName, folderName), true);
+    }
+
+    @Override
+    public boolean isExistingFolder(String containerName, String folderName) {
+        return isExistingContainer(containerName) && Files.isDirectory(getObjectPath(containerName, folderName));
+    }
+
+    @Override
+    public void putObject(String containerName, String objectName, InputStream stream)
+        throws ContentAddressableStorageException {
+        putObject(containerName, objectName, stream, new DigestType[0]);
+    }
+
+    @Override
+    public Map<DigestType, String> putObject(String containerName, String objectName, InputStream stream,
+        DigestType... digestTypes)
+        throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        try {
+            checkContainer(containerName);
+            return writeObject(getObjectPath(containerName, objectName), stream, digestTypes);
+        } finally {
+            StreamUtils.closeSilently(stream);
+        }
+    }
+
+    @Override
+    public Response getObject(String containerName, String objectName) throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        final Path objectPath = getExistingObjectPath(containerName, objectName);
+        try {
+            return new AbstractMockClient.FakeInboundResponse(Status.OK, Files.newInputStream(objectPath),
+                MediaType.APPLICATION_OCTET_STREAM_TYPE, null);
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    @Override
+    public Response getObjectAsync(String containerName, String objectName, AsyncResponse asyncResponse)
+        throws ContentAddressableStorageException {
+        return getObject(containerName, objectName);
+    }
+
+    @Override
+    public void deleteObject(String containerName, String objectName)
+        throws ContentAddressableStorageNotFoundException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        final Path objectPath = getExistingObjectPath(containerName, objectName);
+        try {
+            Files.delete(objectPath);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean isExistingObject(String containerName, String objectName) {
+        return Files.isRegularFile(getObjectPath(containerName, objectName));
+    }
+
+    @Override
+    public List<URI> getListUriDigitalObjectFromFolder(String containerName, String folderName)
+        throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
+            containerName);
+        ParametersChecker.checkParameter(ErrorMessage.FOLDER_NOT_FOUND.getMessage(), folderName);
+        LOGGER.debug(WorkspaceMessage.BEGINNING_GET_URI_LIST_OF_DIGITAL_OBJECT.getMessage());
+        final List<URI> uriFolderListFromContainer;
+        try (ObjectCursor cursor = openCursor(containerName, folderName)) {
+            uriFolderListFromContainer = cursor.next(Integer.MAX_VALUE);
+        }
+        LOGGER.debug(WorkspaceMessage.ENDING_GET_URI_LIST_OF_DIGITAL_OBJECT.getMessage());
+        return uriFolderListFromContainer;
+    }
+
+    /**
+     * Open a cursor on the objects of a folder, including the ones of its sub-folders. The objects are listed while
+     * the cursor is read. A cursor not read during the cursor timeout of the configuration (by default
+     * {@link #CURSOR_TIMEOUT} ms) is closed.
+     *
+     * @param containerName name of the container
+     * @param folderName name of the folder
+     * @return the id of the new cursor
+     * @throws ContentAddressableStorageNotFoundException if the container does not exist
+     * @throws ContentAddressableStorageException if the folder cannot be read
+     */
+    public String createCursor(String containerName, String folderName) throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_FOLDER_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, folderName);
+        closeExpiredCursors();
+        final String cursorId = GUIDFactory.newGUID().toString();
+        cursors.put(cursorId, openCursor(containerName, folderName));
+        return cursorId;
+    }
+
+    /**
+     * Get the next objects of a cursor. The cursor is closed once all the objects are read.<br>
+     * <br>
+     * An unknown or expired cursor is not an empty listing: null is returned, such that the caller can report that the
+     * listing was interrupted.
+     *
+     * @param cursorId the id of the cursor
+     * @param maxNb the maximum number of objects to return
+     * @return the URIs of the next objects, less than maxNb if there is no more object, null if the cursor does not
+     *         exist or has expired
+     * @throws ContentAddressableStorageException if the folder cannot be read
+     */
+    public List<URI> getCursorNext(String cursorId, int maxNb) throws ContentAddressableStorageException {
+        final ObjectCursor cursor = cursors.get(cursorId);
+        if (cursor == null) {
+            LOGGER.warn("Cursor not found " + cursorId);
+            return null;
+        }
+        if (cursor.lastAccess < System.currentTimeMillis() - cursorTimeout) {
+            LOGGER.warn("Cursor " + cursorId + " expired since not read");
+            finalizeCursor(cursorId);
+            return null;
+        }
+        boolean ended = true;
+        try {
+            final List<URI> uris = cursor.next(maxNb);
+            ended = uris.size() < maxNb;
+            return uris;
+        } finally {
+            if (ended) {
+                finalizeCursor(cursorId);
+            }
+        }
+    }
+
+    /**
+     * Close a cursor before all its objects are read
+     *
+     * @param cursorId the id of the cursor
+     */
+    public void finalizeCursor(String cursorId) {
+        final ObjectCursor cursor = cursors.remove(cursorId);
+        if (cursor != null) {
+            cursor.close();
+        }
+    }
+
+    private ObjectCursor openCursor(String containerName, String folderName)
+        throws ContentAddressableStorageException {
+        checkContainer(containerName);
+        final Path containerPath = getContainerPath(containerName);
+        try {
+            return new ObjectCursor(containerPath, containerPath.resolve(folderName));
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    private void closeExpiredCursors() {
+        final long expiration = System.currentTimeMillis() - cursorTimeout;
+        for (final Entry<String, ObjectCursor> cursor : cursors.entrySet()) {
+            if (cursor.getValue().lastAccess < expiration) {
+                LOGGER.warn("Cursor " + cursor.getKey() + " closed since not read");
+                finalizeCursor(cursor.getKey());
+            }
+        }
+    }
+
+    @Override
+    public void uncompressObject(String containerName, String folderName, String archiveMimeType,
+        InputStream inputStreamObject) throws ContentAddressableStorageNotFoundException,
+        ContentAddressableStorageAlreadyExistException, ContentAddressableStorageCompressedFileException,
+        ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, folderName);
+        LOGGER.debug("init unzip method  ...");
+
+        if (!isExistingContainer(containerName)) {
+            throw new ContentAddressableStorageNotFoundException(ErrorMessage.CONTAINER_NOT_FOUND.getMessage());
+        }
+
+        if (inputStreamObject == null) {
+            throw new ContentAddressableStorageException(ErrorMessage.STREAM_IS_NULL.getMessage());
+        }
+
+        if (isExistingFolder(containerName, folderName)) {
+            LOGGER.error(ErrorMessage.FOLDER_ALREADY_EXIST.getMessage() + ":folderName" + folderName);
+            throw new ContentAddressableStorageAlreadyExistException(ErrorMessage.FOLDER_ALREADY_EXIST.getMessage());
+        }
+        LOGGER.debug("create folder name " + folderName);
+
+        createFolder(containerName, folderName);
+
+        extractArchiveInputStreamOnContainer(containerName, folderName, CommonMediaType.valueOf(archiveMimeType),
+            inputStreamObject);
+    }
+
+    @Override
+    public String computeObjectDigest(String containerName, String objectName, DigestType algo)
+        throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.ALGO_IS_A_MANDATORY_PARAMETER.getMessage(),
+            algo);
+        final Path objectPath = getExistingObjectPath(containerName, objectName);
+        final String storedDigest = ObjectDigestAttributes.readDigest(objectPath, algo);
+        if (storedDigest != null) {
+            return storedDigest;
+        }
+        try {
+            return new Digest(algo).update(objectPath.toFile()).toString();
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    @Override
+    public ContainerInformation getContainerInformation(String containerName)
+        throws ContentAddressableStorageNotFoundException {
+        final File baseDirFile;
+        if (containerName != null) {
+            baseDirFile = getContainerPath(containerName).toFile();
+        } else {
+            baseDirFile = storagePath.toFile();
+        }
+        if (!baseDirFile.exists()) {
+            throw new ContentAddressableStorageNotFoundException("Storage not found");
+        }
+        final ContainerInformation containerInformation = new ContainerInformation();
+        containerInformation.setUsableSpace(baseDirFile.getUsableSpace());
+        containerInformation.setUsedSpace(getFolderUsedSize(baseDirFile.toPath()));
+        return containerInformation;
+    }
+
+    @Override
+    public JsonNode getObjectInformation(String containerName, String objectName)
+        throws ContentAddressableStorageException {
+        ParametersChecker.checkParameter(ErrorMessage.CONTAINER_OBJECT_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
+            containerName, objectName);
+        final Path objectPath = getExistingObjectPath(containerName, objectName);
+        try {
+            final ObjectNode jsonNodeObjectInformation = JsonHandler.createObjectNode();
+            jsonNodeObjectInformation.put("size", Files.size(objectPath));
+            jsonNodeObjectInformation.put("object_name", objectName);
+            jsonNodeObjectInformation.put("container_name", containerName);
+            return jsonNodeObjectInformation;
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    /**
+     * Extract compressed SIP and push the objects on the SIP folder
+     *
+     * @param containerName GUID
+     * @param folderName folder Name
+     * @param archiverType archive type zip, tar tar.gz
+     * @param inputStreamObject :compressed SIP stream
+     * @throws ContentAddressableStorageCompressedFileException if the file is not a zip or an empty zip
+     * @throws ContentAddressableStorageException if an IOException occurs when extracting the file
+     */
+    private void extractArchiveInputStreamOnContainer(final String containerName, final String folderName,
+        final MediaType archiverType, final InputStream inputStreamObject)
+        throws ContentAddressableStorageException {
+        final Path folderPath = getObjectPath(containerName, folderName).normalize();
+        try (final InputStream inputStreamClosable = StreamUtils.getRemainingReadOnCloseInputStream(inputStreamObject);
+            final ArchiveInputStream archiveInputStream = new VitamArchiveStreamFactory()
+                .createArchiveInputStream(archiverType, inputStreamClosable)) {
+            ArchiveEntry archiveEntry;
+            boolean isEmpty = true;
+            while ((archiveEntry = archiveInputStream.getNextEntry()) != null) {
+                LOGGER.debug("containerName : " + containerName + "    / ArchiveEntryName : " + archiveEntry.getName());
+                isEmpty = false;
+                if (archiveEntry.isDirectory()) {
+                    continue;
+                }
+                final Path objectPath = folderPath.resolve(archiveEntry.getName()).normalize();
+                if (!objectPath.startsWith(folderPath)) {
+                    throw new ContentAddressableStorageException(
+                        "Archive entry outside of the folder: " + archiveEntry.getName());
+                }
+                // The entry is written directly from the archive stream, which is not closed
+                writeObject(objectPath, archiveInputStream);
+            }
+            if (isEmpty) {
+                throw new ContentAddressableStorageCompressedFileException("File is empty");
+            }
+        } catch (final IOException | ArchiveException e) {
+            LOGGER.error(e);
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    /**
+     * Write an object in a temporary file then rename it to the object, computing its digests
+     *
+     * @param objectPath path of the object
+     * @param stream the content of the object, not closed
+     * @param digestTypes the digest algorithms to compute
+     * @return the digests of the object by algorithm
+     * @throws ContentAddressableStorageException if the object cannot be written
+     */
+    private Map<DigestType, String> writeObject(Path objectPath, InputStream stream, DigestType... digestTypes)
+        throws ContentAddressableStorageException {
+        final List<Digest> digests = new ArrayList<>(digestTypes.length);
+        InputStream digestStream = stream;
+        for (final DigestType digestType : digestTypes) {
+            final Digest digest = new Digest(digestType);
+            digestStream = digest.getDigestInputStream(digestStream);
+            digests.add(digest);
+        }
+        // One temporary file by thread, such that concurrent writes of the same object do not mix
+        final Path temporaryPath = objectPath.resolveSibling(
+            TEMPORARY_PREFIX + objectPath.getFileName() + "." + Thread.currentThread().getId());
+        try {
+            Files.createDirectories(objectPath.getParent());
+            // Not closed since it would close the given stream
+            final ReadableByteChannel source = Channels.newChannel(digestStream);
+            try (FileChannel target = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, TRANSFER_SIZE)) > 0) {
+                    position += transferred;
+                }
+            }
+            final Map<DigestType, String> objectDigests = new EnumMap<>(DigestType.class);
+            for (final Digest digest : digests) {
+                objectDigests.put(digest.type(), digest.digestHex());
+            }
+            if (!objectDigests.isEmpty()) {
+                ObjectDigestAttributes.writeDigests(temporaryPath, objectDigests);
+            }
+            Files.move(temporaryPath, objectPath, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            return objectDigests;
+        } catch (final IOException e) {
+            LOGGER.error(e.getMessage());
+            deleteQuietly(temporaryPath);
+            throw new ContentAddressableStorageException(e);
+        }
+    }
+
+    private void checkContainer(String containerName) throws ContentAddressableStorageNotFoundException {
+        if (!isExistingContainer(containerName)) {
+            LOGGER.error(ErrorMessage.CONTAINER_NOT_FOUND.getMessage() + containerName);
+            throw new ContentAddressableStorageNotFoundException(
+                ErrorMessage.CONTAINER_NOT_FOUND.getMessage() + containerName);
+        }
+    }
+
+    private Path getExistingObjectPath(String containerName, String objectName)
+        throws ContentAddressableStorageNotFoundException {
+        checkContainer(containerName);
+        final Path objectPath = getObjectPath(containerName, objectName);
+        if (!Files.isRegularFile(objectPath)) {
+            LOGGER.error(
+                ErrorMessage.OBJECT_NOT_FOUND.getMessage() + objectName + " in container '" + containerName + "'");
+            throw new ContentAddressableStorageNotFoundException(
+                ErrorMessage.OBJECT_NOT_FOUND.getMessage() + objectName);
+        }
+        return objectPath;
+    }
+
+    private Path getContainerPath(String containerName) {
+        return storagePath.resolve(containerName);
+    }
+
+    private Path getObjectPath(String containerName, String objectName) {
+        return getContainerPath(containerName).resolve(objectName);
+    }
+
+    // The name of an object is its path relative to its container, with '/' as separator
+    private static String getObjectName(Path containerPath, Path objectPath) {
+        final StringBuilder objectName = new StringBuilder();
+        for (final Path element : containerPath.relativize(objectPath)) {
+            if (objectName.length() > 0) {
+                objectName.append('/');
+            }
+            objectName.append(element.toString());
+        }
+        return objectName.toString();
+    }
+
+    private static void deleteTree(Path directory, boolean deleteDirectory) {
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    Files.delete(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                    if (exc != null) {
+                        throw exc;
+                    }
+                    if (deleteDirectory || !dir.equals(directory)) {
+                        Files.delete(dir);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long getFolderUsedSize(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Lazy listing of the objects of a folder: the directories are walked while the objects are read, without any
+     * limit on their number
+     */
+    private static final class ObjectCursor implements VitamAutoCloseable {
+        private final Path containerPath;
+        private final Stream<Path> paths;
+        private final Iterator<Path> iterator;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        ObjectCursor(Path containerPath, Path folderPath) throws IOException {
+            this.containerPath = containerPath;
+            if (Files.isDirectory(folderPath)) {
+                paths = Files.walk(folderPath);
+                iterator = paths.iterator();
+            } else {
+                paths = null;
+                iterator = Collections.emptyIterator();
+            }
+        }
+
+        synchronized List<URI> next(int maxNb) throws ContentAddressableStorageException {
+            lastAccess = System.currentTimeMillis();
+            final List<URI> uris = new ArrayList<>();
+            try {
+                while (uris.size() < maxNb && iterator.hasNext()) {
+                    final Path path = iterator.next();
+                    if (!path.getFileName().toString().startsWith(TEMPORARY_PREFIX) && Files.isRegularFile(path)) {
+                        uris.add(new URI(UriUtils.splitUri(getObjectName(containerPath, path))));
+                    }
+                }
+            } catch (final UncheckedIOException | URISyntaxException e) {
+                LOGGER.error(e.getMessage());
+                throw new ContentAddressableStorageException(e);
+            }
+            return uris;
+        }
+
+        @Override
+        public void close() {
+            if (paths != null) {
+                paths.close();
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (final IOException e) {
+            LOGGER.debug(e);
+        }
+    }
+}
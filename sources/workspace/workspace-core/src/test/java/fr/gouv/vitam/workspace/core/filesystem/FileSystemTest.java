@@ -35,6 +35,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Map;
 
 import org.apache.commons.compress.archivers.ArchiveStreamFactory;
 import org.junit.Before;
@@ -353,6 +354,29 @@ public class FileSystemTest {
         assertTrue(messageDigest.equals(digest.toString()));
     }
 
+    @Test
+    public void givenObjectPutWithDigestsWhenComputeObjectDigestThenSameDigest()
+        throws ContentAddressableStorageException, IOException {
+        workspace.createContainer(CONTAINER_NAME);
+        final Map<DigestType, String> digests = workspace.putObject(CONTAINER_NAME, OBJECT_NAME,
+            getInputStream("file1.pdf"), DigestType.SHA512, DigestType.MD5);
+
+        final Digest digest = new Digest(DigestType.SHA512);
+        digest.update(getInputStream("file1.pdf"));
+        assertEquals(2, digests.size());
+        assertEquals(digest.toString(), digests.get(DigestType.SHA512));
+        assertEquals(digest.toString(), workspace.computeObjectDigest(CONTAINER_NAME, OBJECT_NAME, DigestType.SHA512));
+        assertEquals(digests.get(DigestType.MD5),
+            workspace.computeObjectDigest(CONTAINER_NAME, OBJECT_NAME, DigestType.MD5));
+
+        // The digests of the previous content must not be kept
+        workspace.putObject(CONTAINER_NAME, OBJECT_NAME, getInputStream("file2.pdf"));
+        final Digest newDigest = new Digest(DigestType.SHA512);
+        newDigest.update(getInputStream("file2.pdf"));
+        assertEquals(newDigest.toString(),
+            workspace.computeObjectDigest(CONTAINER_NAME, OBJECT_NAME, DigestType.SHA512));
+    }
+
     // Check Path parameters (containerName,folder, objectName)
     @Test(expected = IllegalArgumentException.class)
     public void givenNullParamWhenCreateContainerThenRaiseAnException() {
@@ -29,8 +29,11 @@ package fr.gouv.vitam.workspace.rest;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -51,14 +54,19 @@ import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
 
 import fr.gouv.vitam.common.CommonMediaType;
 import fr.gouv.vitam.common.GlobalDataRest;
 import fr.gouv.vitam.common.ParametersChecker;
+import fr.gouv.vitam.common.client.VitamRequestIterator;
 import fr.gouv.vitam.common.digest.DigestType;
 import fr.gouv.vitam.common.exception.InvalidParseOperationException;
+import fr.gouv.vitam.common.json.JsonHandler;
 import fr.gouv.vitam.common.logging.VitamLogger;
 import fr.gouv.vitam.common.logging.VitamLoggerFactory;
+import fr.gouv.vitam.common.model.RequestResponseOK;
 import fr.gouv.vitam.common.security.SanityChecker;
 import fr.gouv.vitam.common.server.application.AsyncInputStreamHelper;
 import fr.gouv.vitam.common.server.application.resources.ApplicationStatusResource;
@@ -72,9 +80,8 @@ import fr.gouv.vitam.workspace.api.model.ContainerInformation;
 import fr.gouv.vitam.workspace.common.ErrorMessage;
 import fr.gouv.vitam.workspace.common.RequestResponseError;
 import fr.gouv.vitam.workspace.common.VitamError;
-import fr.gouv.vitam.workspace.core.ContentAddressableStorageAbstract;
 import fr.gouv.vitam.workspace.core.WorkspaceConfiguration;
-import fr.gouv.vitam.workspace.core.filesystem.FileSystem;
+import fr.gouv.vitam.workspace.core.filesystem.WorkspaceFileSystem;
 
 
 /**
@@ -91,8 +98,9 @@ public class WorkspaceResource extends ApplicationStatusResource {
     private static final String OBJECT_NAME = "objectName";
 
     private static final String CONTAINER_NAME = "containerName";
+    private static final int MAX_NB_PART_ITERATOR = 1000;
 
-    private final ContentAddressableStorageAbstract workspace;
+    private final WorkspaceFileSystem workspace;
 
     /**
      * Constructor used to configure a workspace
@@ -102,7 +110,7 @@ public class WorkspaceResource extends ApplicationStatusResource {
     public WorkspaceResource(WorkspaceConfiguration configuration) {
         // FIXME P1 REVIEW this implements directly the Filesystem implementation while it should not! You should have a
         // Factory/Helper to create the right one, ignoring here what is the chosen implementation.
-        workspace = new FileSystem(configuration);
+        workspace = new WorkspaceFileSystem(configuration);
         LOGGER.info("init Workspace Resource server");
     }
 
@@ -358,23 +366,32 @@ public class WorkspaceResource extends ApplicationStatusResource {
     }
 
     /**
-     * gets the list of object from folder
+     * gets the list of object from folder<br>
+     * <br>
+     * With the X-Cursor header, the objects are returned by parts through a cursor (see
+     * {@link VitamRequestIterator}), the folder being listed while the parts are read.
      *
      * @param containerName name of container
      * @param folderName name of folder
-     * @return Response
+     * @param xcursor if True means new cursor or next part, if False means end of cursor, if absent no cursor
+     * @param xcursorId if present, means continue on Cursor
+     * @return Response, with the status GONE if the cursor to continue does not exist or has expired
      */
     @Path("/containers/{containerName}/folders/{folderName:.*}")
     @GET
     @Produces(MediaType.APPLICATION_JSON)
     public Response getUriDigitalObjectListByFolder(@PathParam(CONTAINER_NAME) String containerName,
-        @PathParam(FOLDER_NAME) String folderName) {
+        @PathParam(FOLDER_NAME) String folderName, @HeaderParam(GlobalDataRest.X_CURSOR) String xcursor,
+        @HeaderParam(GlobalDataRest.X_CURSOR_ID) String xcursorId) {
 
         List<URI> uriList = null;
         try {
             ParametersChecker.checkParameter(ErrorMessage.CONTAINER_FOLDER_NAMES_ARE_A_MANDATORY_PARAMETER.getMessage(),
                 containerName, folderName);
             SanityChecker.checkParameter(containerName, folderName);
+            if (xcursor != null) {
+                return getUriDigitalObjectCursor(containerName, folderName, Boolean.parseBoolean(xcursor), xcursorId);
+            }
             uriList = workspace.getListUriDigitalObjectFromFolder(containerName, folderName);
 
         } catch (final ContentAddressableStorageNotFoundException eNotFoundException) {
@@ -395,6 +412,43 @@ public class WorkspaceResource extends ApplicationStatusResource {
 
     }
 
+    private Response getUriDigitalObjectCursor(String containerName, String folderName, boolean xcursor,
+        String xcursorId) {
+        try {
+            if (VitamRequestIterator.isEndOfCursor(xcursor, xcursorId)) {
+                // terminate the cursor
+                workspace.finalizeCursor(xcursorId);
+                return VitamRequestIterator.setHeaders(Response.status(Status.NO_CONTENT), xcursor, null).build();
+            }
+            String cursorId = xcursorId;
+            if (VitamRequestIterator.isNewCursor(xcursor, xcursorId)) {
+                cursorId = workspace.createCursor(containerName, folderName);
+            }
+            final List<URI> uriList = workspace.getCursorNext(cursorId, MAX_NB_PART_ITERATOR);
+            if (uriList == null) {
+                // not an end of listing: the client must see that the listing was interrupted
+                LOGGER.error("Cursor not found or expired: " + cursorId);
+                return VitamRequestIterator.setHeaders(Response.status(Status.GONE), xcursor, null).build();
+            }
+            final RequestResponseOK responseOK = new RequestResponseOK();
+            for (final URI uri : uriList) {
+                responseOK.addResult(new TextNode(uri.toString()));
+            }
+            final int nb = uriList.size();
+            final ResponseBuilder builder =
+                Response.status(nb < MAX_NB_PART_ITERATOR ? Status.OK : Status.PARTIAL_CONTENT)
+                    .entity(responseOK.setHits(nb, 0, nb));
+            return VitamRequestIterator.setHeaders(builder, xcursor, cursorId).build();
+        } catch (final ContentAddressableStorageNotFoundException e) {
+            LOGGER.error(e);
+            return VitamRequestIterator.setHeaders(Response.status(Status.NOT_FOUND), xcursor, null).build();
+        } catch (final ContentAddressableStorageException e) {
+            LOGGER.error(e);
+            return VitamRequestIterator.setHeaders(Response.status(Status.INTERNAL_SERVER_ERROR), xcursor, null)
+                .build();
+        }
+    }
+
     /**
      * puts an object into a container
      *
@@ -402,6 +456,8 @@ public class WorkspaceResource extends ApplicationStatusResource {
      * @param header method for entry data
      * @param objectName name of data object
      * @param containerName name of container
+     * @param algorithms digest algorithms to compute while the object is written, the digests being then returned by
+     *        algorithm in a Json object
      * @return Response
      */
     @Path("/containers/{containerName}/objects/{objectName:.*}")
@@ -410,13 +466,29 @@ public class WorkspaceResource extends ApplicationStatusResource {
     @Produces(MediaType.APPLICATION_JSON)
     public Response putObject(InputStream stream,
         @PathParam(CONTAINER_NAME) String containerName,
-        @PathParam(OBJECT_NAME) String objectName) {
+        @PathParam(OBJECT_NAME) String objectName,
+        @HeaderParam(GlobalDataRest.X_DIGEST_ALGORITHM) List<String> algorithms) {
         try {
             ParametersChecker.checkParameter(ErrorMessage.CONTAINER_NAME_IS_A_MANDATORY_PARAMETER.getMessage(),
                 containerName, objectName);
             SanityChecker.checkParameter(containerName, objectName);
-            workspace.putObject(containerName, objectName, stream);
-            return Response.status(Status.CREATED).entity(containerName + "/" + objectName).build();
+            if (algorithms == null || algorithms.isEmpty()) {
+                workspace.putObject(containerName, objectName, stream);
+                return Response.status(Status.CREATED).entity(containerName + "/" + objectName).build();
+            }
+            final List<DigestType> digestTypes = new ArrayList<>();
+            for (final String algorithm : algorithms) {
+                for (final String name : algorithm.split(",")) {
+                    digestTypes.add(DigestType.fromValue(name.trim()));
+                }
+            }
+            final Map<DigestType, String> digests = workspace.putObject(containerName, objectName, stream,
+                digestTypes.toArray(new DigestType[digestTypes.size()]));
+            final ObjectNode digestsNode = JsonHandler.createObjectNode();
+            for (final Entry<DigestType, String> digest : digests.entrySet()) {
+                digestsNode.put(digest.getKey().getName(), digest.getValue());
+            }
+            return Response.status(Status.CREATED).entity(digestsNode).build();
         } catch (final InvalidParseOperationException | IllegalArgumentException e) {
             LOGGER.error(e);
             return Response.status(Status.BAD_REQUEST).entity(e.getMessage()).build();
@@ -33,6 +33,7 @@ import static com.jayway.restassured.RestAssured.with;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Files;
 
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response.Status;
@@ -55,6 +56,7 @@ import com.jayway.restassured.config.EncoderConfig;
 import com.jayway.restassured.http.ContentType;
 
 import fr.gouv.vitam.common.CommonMediaType;
+import fr.gouv.vitam.common.GlobalDataRest;
 import fr.gouv.vitam.common.PropertiesUtils;
 import fr.gouv.vitam.common.digest.Digest;
 import fr.gouv.vitam.common.digest.DigestType;
@@ -79,12 +81,15 @@ public class WorkspaceResourceTest {
     private static final String FOLDER_SIP = "SIP";
     private static final String OBJECT_NAME = "myObject";
     private static final String FAKE_FOLDER_NAME = "fakeFolderName";
+    private static final long CURSOR_TIMEOUT = 500;
+    private static final int MAX_NB_PART_ITERATOR = 1000;
     public static final String X_DIGEST_ALGORITHM = "X-digest-algorithm";
     public static final String ALGO = "MD5";
     public static final String X_DIGEST = "X-digest";
     private static JunitHelper junitHelper;
     private static int port;
     private static final ObjectMapper OBJECT_MAPPER;
+    private File tempDir;
 
 
     static {
@@ -107,8 +112,9 @@ public class WorkspaceResourceTest {
     @Before
     public void setup() throws Exception {
         final WorkspaceConfiguration configuration = new WorkspaceConfiguration();
-        final File tempDir = tempFolder.newFolder();
+        tempDir = tempFolder.newFolder();
         configuration.setStoragePath(tempDir.getCanonicalPath());
+        configuration.setCursorTimeout(CURSOR_TIMEOUT);
         configuration.setJettyConfig("jetty-config-test.xml");
 
         port = junitHelper.findAvailablePort();
@@ -530,4 +536,65 @@ public class WorkspaceResourceTest {
 
     }
 
+    // uriList by cursor
+    @Test
+    public void givenNotEmptyFolderWhenListingByCursorThenReturnOkWithCursorId() throws IOException {
+        try (InputStream stream = PropertiesUtils.getResourceAsStream("file1.pdf")) {
+
+            with().contentType(ContentType.JSON).then()
+                .statusCode(Status.CREATED.getStatusCode()).when().post("/containers/" + CONTAINER_NAME);
+
+            with()
+                .contentType(ContentType.BINARY).body(stream)
+                .when().post("/containers/" + CONTAINER_NAME + "/objects/" + FOLDER_NAME + "/" + OBJECT_NAME)
+                .then().statusCode(Status.CREATED.getStatusCode());
+
+            given().header(GlobalDataRest.X_CURSOR, true).then()
+                .statusCode(Status.OK.getStatusCode())
+                .header(GlobalDataRest.X_CURSOR_ID, Matchers.notNullValue())
+                .body("'$hits'.total", Matchers.equalTo(1)).when()
+                .get("/containers/" + CONTAINER_NAME + "/folders/" + FOLDER_NAME);
+        }
+    }
+
+    @Test
+    public void givenContainerNotFoundWhenListingByNewCursorThenReturnNotFound() {
+        given().header(GlobalDataRest.X_CURSOR, true).then()
+            .statusCode(Status.NOT_FOUND.getStatusCode()).when()
+            .get("/containers/" + CONTAINER_NAME + "/folders/" + FOLDER_NAME);
+    }
+
+    @Test
+    public void givenUnknownCursorWhenListingThenReturnGone() {
+        with().contentType(ContentType.JSON).then()
+            .statusCode(Status.CREATED.getStatusCode()).when().post("/containers/" + CONTAINER_NAME);
+
+        given().header(GlobalDataRest.X_CURSOR, true).header(GlobalDataRest.X_CURSOR_ID, "unknownCursor").then()
+            .statusCode(Status.GONE.getStatusCode()).when()
+            .get("/containers/" + CONTAINER_NAME + "/folders/" + FOLDER_NAME);
+    }
+
+    @Test
+    public void givenExpiredCursorWhenListingThenReturnGone() throws Exception {
+        with().contentType(ContentType.JSON).then()
+            .statusCode(Status.CREATED.getStatusCode()).when().post("/containers/" + CONTAINER_NAME);
+        // more objects than one part, such that the cursor stays opened after the first request
+        final File folder = new File(tempDir, CONTAINER_NAME + "/" + FOLDER_NAME);
+        folder.mkdirs();
+        for (int i = 0; i <= MAX_NB_PART_ITERATOR; i++) {
+            Files.write(new File(folder, OBJECT_NAME + i).toPath(), new byte[] {1});
+        }
+
+        final String cursorId = given().header(GlobalDataRest.X_CURSOR, true).then()
+            .statusCode(Status.PARTIAL_CONTENT.getStatusCode()).when()
+            .get("/containers/" + CONTAINER_NAME + "/folders/" + FOLDER_NAME)
+            .getHeader(GlobalDataRest.X_CURSOR_ID);
+
+        Thread.sleep(CURSOR_TIMEOUT * 2);
+
+        given().header(GlobalDataRest.X_CURSOR, true).header(GlobalDataRest.X_CURSOR_ID, cursorId).then()
+            .statusCode(Status.GONE.getStatusCode()).when()
+            .get("/containers/" + CONTAINER_NAME + "/folders/" + FOLDER_NAME);
+    }
+
 }